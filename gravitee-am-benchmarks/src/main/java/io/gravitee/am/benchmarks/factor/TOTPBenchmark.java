@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.factor;
+
+import io.gravitee.am.factor.otp.utils.SharedSecret;
+import io.gravitee.am.factor.otp.utils.TOTP;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TOTP code verification, comparing the hex encoded reference implementation with the byte based verification
+ * used by the OTP factor provider.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TOTPBenchmark {
+
+    @Param({"0", "1", "2"})
+    private int window;
+
+    private String secret;
+    private String code;
+
+    @Setup
+    public void setup() {
+        secret = SharedSecret.generate();
+        code = TOTP.generateTOTP(SharedSecret.base32Str2Hex(secret));
+    }
+
+    @Benchmark
+    public boolean hexReference() {
+        return code.equals(TOTP.generateTOTP(SharedSecret.base32Str2Hex(secret)));
+    }
+
+    @Benchmark
+    public long verify() {
+        return TOTP.verify(SharedSecret.base32Str2Bytes(secret), code, System.currentTimeMillis(), window);
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.identityprovider;
+
+import io.gravitee.am.identityprovider.api.DefaultIdentityProviderMapper;
+import io.gravitee.am.identityprovider.api.DefaultIdentityProviderRoleMapper;
+import io.gravitee.am.identityprovider.api.IdentityProviderMapper;
+import io.gravitee.am.identityprovider.api.IdentityProviderRoleMapper;
+import io.gravitee.am.identityprovider.api.mapping.ClaimMapping;
+import io.gravitee.am.identityprovider.api.mapping.RoleMapping;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User and role mapping of an identity provider, compiled with {@link ClaimMapping} and {@link RoleMapping} compared
+ * to the evaluation of the raw mapper rules on each login the identity providers used to perform.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdentityProviderMappingBenchmark {
+
+    @Param({"5", "50"})
+    private int mappings;
+
+    private IdentityProviderMapper mapper;
+    private IdentityProviderRoleMapper roleMapper;
+    private ClaimMapping claimMapping;
+    private RoleMapping roleMapping;
+    private Map<String, Object> attributes;
+
+    @Setup
+    public void setup() {
+        attributes = new HashMap<>();
+        Map<String, String> mappers = new HashMap<>();
+        Map<String, String[]> roles = new HashMap<>();
+        for (int i = 0; i < mappings; i++) {
+            attributes.put("attribute" + i, "value" + i);
+            mappers.put("claim" + i, "attribute" + i);
+            roles.put("role" + i, new String[]{"attribute" + i + "=value" + i, "groups=group" + i});
+        }
+        attributes.put("groups", Arrays.asList("group0", "group1", "group2"));
+
+        DefaultIdentityProviderMapper mapper = new DefaultIdentityProviderMapper();
+        mapper.setMappers(mappers);
+        DefaultIdentityProviderRoleMapper roleMapper = new DefaultIdentityProviderRoleMapper();
+        roleMapper.setRoles(roles);
+        this.mapper = mapper;
+        this.roleMapper = roleMapper;
+        this.claimMapping = ClaimMapping.compile(mapper);
+        this.roleMapping = RoleMapping.compile(roleMapper);
+    }
+
+    @Benchmark
+    public Map<String, Object> claimsCompiled() {
+        return claimMapping.apply(attributes);
+    }
+
+    @Benchmark
+    public Map<String, Object> claimsRules() {
+        Map<String, Object> claims = new HashMap<>();
+        mapper.getMappers().forEach((k, v) -> {
+            if (attributes.containsKey(v)) {
+                claims.put(k, attributes.get(v));
+            }
+        });
+        return claims;
+    }
+
+    @Benchmark
+    public List<String> rolesCompiled() {
+        return roleMapping.apply(attributes);
+    }
+
+    @Benchmark
+    public List<String> rolesRules() {
+        Set<String> roles = new HashSet<>();
+        roleMapper.getRoles().forEach((role, users) -> {
+            Arrays.asList(users).forEach(u -> {
+                String[] roleMapping = u.split("=", 2);
+                String userAttribute = roleMapping[0];
+                String userValue = roleMapping[1];
+                if (attributes.containsKey(userAttribute)) {
+                    Object attribute = attributes.get(userAttribute);
+                    if (attribute instanceof Collection && ((Collection) attribute).contains(userValue)) {
+                        roles.add(role);
+                    } else if (userValue.equals(attributes.get(userAttribute))) {
+                        roles.add(role);
+                    }
+                }
+            });
+        });
+        return new ArrayList<>(roles);
+    }
+}
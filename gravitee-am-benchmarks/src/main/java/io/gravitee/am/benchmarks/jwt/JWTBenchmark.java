@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.jwt;
+
+import io.gravitee.am.benchmarks.support.Fixtures;
+import io.gravitee.am.benchmarks.support.Keys;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.gateway.certificate.CertificateProvider;
+import io.gravitee.am.jwt.JWTBuilder;
+import io.gravitee.am.jwt.JWTParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify JWT with {@link io.gravitee.am.jwt.DefaultJWTBuilder} and {@link io.gravitee.am.jwt.DefaultJWTParser}.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTBenchmark {
+
+    @Param({"HS256", "RS256", "ES256"})
+    private String algorithm;
+
+    @Param({"10", "40"})
+    private int claims;
+
+    private JWTBuilder jwtBuilder;
+    private JWTParser jwtParser;
+    private JWT jwt;
+    private String encodedJwt;
+
+    @Setup
+    public void setup() throws Exception {
+        CertificateProvider certificateProvider = Keys.certificateProvider(algorithm);
+        jwtBuilder = certificateProvider.getJwtBuilder();
+        jwtParser = certificateProvider.getJwtParser();
+        jwt = Fixtures.accessToken(claims, 0);
+        encodedJwt = jwtBuilder.sign(jwt);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtBuilder.sign(jwt);
+    }
+
+    @Benchmark
+    public JWT verify() {
+        return jwtParser.parse(encodedJwt);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.scim;
+
+import io.gravitee.am.common.scim.filter.Filter;
+import io.gravitee.am.common.scim.parser.SCIMFilterParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SCIM filter parsing with {@link SCIMFilterParser}.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SCIMFilterParserBenchmark {
+
+    @Param({
+            "userName eq \"john.doe\"",
+            "userType eq \"Employee\" and (emails co \"example.com\" or emails.value co \"example.org\")",
+            "meta.lastModified gt \"2011-05-13T04:42:34Z\" and title pr and active eq true"
+    })
+    private String filter;
+
+    @Benchmark
+    public Filter parse() {
+        return SCIMFilterParser.parse(filter);
+    }
+}
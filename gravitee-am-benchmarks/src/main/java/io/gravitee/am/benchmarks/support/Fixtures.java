@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.support;
+
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.common.oauth2.TokenTypeHint;
+import io.gravitee.am.model.TokenClaim;
+import io.gravitee.am.model.User;
+import io.gravitee.am.model.oidc.Client;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Domain objects shared by the benchmarks.
+ *
+ * @author GraviteeSource Team
+ */
+public final class Fixtures {
+
+    public static final String DOMAIN = "benchmark-domain";
+    public static final String CLIENT_ID = "benchmark-client";
+
+    private Fixtures() {}
+
+    public static Client client(int customClaims) {
+        Client client = new Client();
+        client.setId(UUID.randomUUID().toString());
+        client.setDomain(DOMAIN);
+        client.setClientId(CLIENT_ID);
+        client.setClientName("Benchmark client");
+        client.setAccessTokenValiditySeconds(7200);
+        client.setRefreshTokenValiditySeconds(14400);
+
+        List<TokenClaim> tokenClaims = new ArrayList<>(customClaims);
+        for (int i = 0; i < customClaims; i++) {
+            TokenClaim tokenClaim = new TokenClaim();
+            tokenClaim.setTokenType(TokenTypeHint.ACCESS_TOKEN);
+            tokenClaim.setClaimName("claim_" + i);
+            tokenClaim.setClaimValue(i % 2 == 0 ? "{#context.attributes['client'].clientId}" : "{#context.attributes['user'].username}");
+            tokenClaims.add(tokenClaim);
+        }
+        client.setTokenCustomClaims(tokenClaims);
+        return client;
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setUsername("john.doe");
+        user.setEmail("john.doe@gravitee.io");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        Map<String, Object> additionalInformation = new HashMap<>();
+        additionalInformation.put("locale", "en");
+        user.setAdditionalInformation(additionalInformation);
+        return user;
+    }
+
+    /**
+     * @param claims number of claims added to the registered ones
+     * @param issuedSecondsAgo age of the token
+     */
+    public static JWT accessToken(int claims, long issuedSecondsAgo) {
+        Instant now = Instant.now();
+        JWT jwt = new JWT();
+        jwt.setIss("https://am.gravitee.io/benchmark/oidc");
+        jwt.setSub(UUID.randomUUID().toString());
+        jwt.setAud(CLIENT_ID);
+        jwt.setDomain(DOMAIN);
+        jwt.setIat(now.minusSeconds(issuedSecondsAgo).getEpochSecond());
+        jwt.setExp(now.plusSeconds(7200).getEpochSecond());
+        jwt.setJti(UUID.randomUUID().toString());
+        jwt.setScope("openid profile email");
+        for (int i = 0; i < claims; i++) {
+            jwt.put("claim_" + i, "value_" + i);
+        }
+        return jwt;
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.support;
+
+import io.gravitee.am.gateway.certificate.CertificateProvider;
+import io.gravitee.am.gateway.handler.common.certificate.CertificateManager;
+import io.reactivex.Maybe;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Certificate manager serving a single certificate provider for every lookup.
+ *
+ * @author GraviteeSource Team
+ */
+public class InMemoryCertificateManager implements CertificateManager {
+
+    private final CertificateProvider certificateProvider;
+
+    public InMemoryCertificateManager(CertificateProvider certificateProvider) {
+        this.certificateProvider = certificateProvider;
+    }
+
+    @Override
+    public Maybe<CertificateProvider> get(String id) {
+        return Maybe.just(certificateProvider);
+    }
+
+    @Override
+    public Maybe<CertificateProvider> findByAlgorithm(String algorithm) {
+        return Maybe.just(certificateProvider);
+    }
+
+    @Override
+    public Collection<CertificateProvider> providers() {
+        return Collections.singletonList(certificateProvider);
+    }
+
+    @Override
+    public CertificateProvider defaultCertificateProvider() {
+        return certificateProvider;
+    }
+
+    @Override
+    public CertificateProvider noneAlgorithmCertificateProvider() {
+        return certificateProvider;
+    }
+
+    @Override
+    public io.gravitee.am.certificate.api.CertificateProvider getCertificate(String id) {
+        return certificateProvider.getProvider();
+    }
+}
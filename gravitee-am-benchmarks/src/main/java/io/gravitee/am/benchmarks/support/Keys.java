@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.support;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import io.gravitee.am.gateway.certificate.CertificateProvider;
+import io.gravitee.am.jwt.DefaultJWTBuilder;
+import io.gravitee.am.jwt.DefaultJWTParser;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.security.SecureRandom;
+
+/**
+ * Generate in-memory keys and certificate providers for the given signature algorithm.
+ *
+ * @author GraviteeSource Team
+ */
+public final class Keys {
+
+    private static final String KEY_ID = "benchmark";
+    private static final String ISSUER = "https://am.gravitee.io/benchmark/oidc";
+
+    private Keys() {}
+
+    public static CertificateProvider certificateProvider(String algorithm) throws Exception {
+        final Key signingKey;
+        final Key verificationKey;
+        switch (algorithm) {
+            case "HS256":
+                byte[] secret = new byte[32];
+                new SecureRandom().nextBytes(secret);
+                signingKey = verificationKey = new SecretKeySpec(secret, "HmacSHA256");
+                break;
+            case "RS256":
+                RSAKey rsaKey = new RSAKeyGenerator(2048).keyID(KEY_ID).generate();
+                signingKey = rsaKey.toRSAPrivateKey();
+                verificationKey = rsaKey.toRSAPublicKey();
+                break;
+            case "ES256":
+                ECKey ecKey = new ECKeyGenerator(Curve.P_256).keyID(KEY_ID).generate();
+                signingKey = ecKey.toECPrivateKey();
+                verificationKey = ecKey.toECPublicKey();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported algorithm " + algorithm);
+        }
+
+        CertificateProvider certificateProvider = new CertificateProvider(null);
+        certificateProvider.setDomain(Fixtures.DOMAIN);
+        certificateProvider.setJwtBuilder(new DefaultJWTBuilder(signingKey, algorithm, KEY_ID, ISSUER));
+        certificateProvider.setJwtParser(new DefaultJWTParser(verificationKey));
+        return certificateProvider;
+    }
+}
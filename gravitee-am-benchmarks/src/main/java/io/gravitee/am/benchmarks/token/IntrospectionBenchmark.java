@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.token;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.benchmarks.support.Fixtures;
+import io.gravitee.am.benchmarks.support.InMemoryAccessTokenRepository;
+import io.gravitee.am.benchmarks.support.InMemoryCertificateManager;
+import io.gravitee.am.benchmarks.support.Keys;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.gateway.certificate.CertificateProvider;
+import io.gravitee.am.gateway.handler.common.client.ClientSyncService;
+import io.gravitee.am.gateway.handler.common.jwt.impl.JWTServiceImpl;
+import io.gravitee.am.gateway.handler.common.oauth2.impl.IntrospectionTokenServiceImpl;
+import io.gravitee.am.model.oidc.Client;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token introspection through {@link IntrospectionTokenServiceImpl#introspect(String, boolean)} against an in-memory
+ * access token repository. The tokens are older than the offline verification delay so that the online introspection
+ * always looks the token up in the repository.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntrospectionBenchmark {
+
+    private static final int TOKENS = 10000;
+
+    private IntrospectionTokenServiceImpl introspectionTokenService;
+    private String[] tokens;
+    private int index;
+
+    @Setup
+    public void setup() throws Exception {
+        CertificateProvider certificateProvider = Keys.certificateProvider("RS256");
+        JWTServiceImpl jwtService = new JWTServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "certificateManager", new InMemoryCertificateManager(certificateProvider));
+        ReflectionTestUtils.setField(jwtService, "objectMapper", new ObjectMapper());
+
+        Client client = Fixtures.client(0);
+        InMemoryAccessTokenRepository accessTokenRepository = new InMemoryAccessTokenRepository();
+
+        introspectionTokenService = new IntrospectionTokenServiceImpl();
+        ReflectionTestUtils.setField(introspectionTokenService, "jwtService", jwtService);
+        ReflectionTestUtils.setField(introspectionTokenService, "accessTokenRepository", accessTokenRepository);
+        ReflectionTestUtils.setField(introspectionTokenService, "clientService", new SingleClientSyncService(client));
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            JWT jwt = Fixtures.accessToken(10, 60);
+            AccessToken accessToken = new AccessToken();
+            accessToken.setId(jwt.getJti());
+            accessToken.setToken(jwt.getJti());
+            accessToken.setDomain(jwt.getDomain());
+            accessToken.setClient(jwt.getAud());
+            accessToken.setSubject(jwt.getSub());
+            accessToken.setCreatedAt(new Date(jwt.getIat() * 1000));
+            accessToken.setExpireAt(new Date(jwt.getExp() * 1000));
+            accessTokenRepository.create(accessToken).blockingGet();
+            tokens[i] = certificateProvider.getJwtBuilder().sign(jwt);
+        }
+    }
+
+    @Benchmark
+    public JWT introspect() {
+        return introspectionTokenService.introspect(nextToken(), false).blockingGet();
+    }
+
+    @Benchmark
+    public JWT introspectOffline() {
+        return introspectionTokenService.introspect(nextToken(), true).blockingGet();
+    }
+
+    private String nextToken() {
+        index = (index + 1) % TOKENS;
+        return tokens[index];
+    }
+
+    private static class SingleClientSyncService implements ClientSyncService {
+
+        private final Client client;
+
+        SingleClientSyncService(Client client) {
+            this.client = client;
+        }
+
+        @Override
+        public Maybe<Client> findById(String id) {
+            return Maybe.just(client);
+        }
+
+        @Override
+        public Maybe<Client> findByClientId(String clientId) {
+            return Maybe.just(client);
+        }
+
+        @Override
+        public Maybe<Client> findByDomainAndClientId(String domain, String clientId) {
+            return Maybe.just(client);
+        }
+
+        @Override
+        public Single<List<Client>> findTemplates() {
+            return Single.just(Collections.emptyList());
+        }
+
+        @Override
+        public Client addDynamicClientRegistred(Client client) {
+            return client;
+        }
+
+        @Override
+        public Client removeDynamicClientRegistred(Client client) {
+            return client;
+        }
+    }
+}
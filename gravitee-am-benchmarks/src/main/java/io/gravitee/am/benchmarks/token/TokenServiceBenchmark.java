@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.token;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.benchmarks.support.Fixtures;
+import io.gravitee.am.benchmarks.support.InMemoryAccessTokenRepository;
+import io.gravitee.am.benchmarks.support.InMemoryCertificateManager;
+import io.gravitee.am.benchmarks.support.Keys;
+import io.gravitee.am.gateway.handler.common.jwt.impl.JWTServiceImpl;
+import io.gravitee.am.gateway.handler.context.ExecutionContextFactory;
+import io.gravitee.am.gateway.handler.oauth2.service.request.OAuth2Request;
+import io.gravitee.am.gateway.handler.oauth2.service.token.Token;
+import io.gravitee.am.gateway.handler.oauth2.service.token.TokenEnhancer;
+import io.gravitee.am.gateway.handler.oauth2.service.token.TokenManager;
+import io.gravitee.am.gateway.handler.oauth2.service.token.impl.TokenServiceImpl;
+import io.gravitee.am.gateway.handler.oidc.service.discovery.OpenIDDiscoveryService;
+import io.gravitee.am.gateway.handler.oidc.service.discovery.OpenIDProviderMetadata;
+import io.gravitee.am.model.User;
+import io.gravitee.am.model.oidc.Client;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import io.gravitee.am.repository.oauth2.model.RefreshToken;
+import io.gravitee.common.service.AbstractService;
+import io.reactivex.Single;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token (and refresh token) creation through {@link TokenServiceImpl#create(OAuth2Request, Client, User)},
+ * signed with RS256, with and without custom claims evaluated by the expression language.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final String ISSUER = "https://am.gravitee.io/benchmark/oidc";
+
+    @Param({"0", "10"})
+    private int customClaims;
+
+    private TokenServiceImpl tokenService;
+    private Client client;
+    private User user;
+    private OAuth2Request oAuth2Request;
+
+    @Setup
+    public void setup() throws Exception {
+        JWTServiceImpl jwtService = new JWTServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "certificateManager", new InMemoryCertificateManager(Keys.certificateProvider("RS256")));
+        ReflectionTestUtils.setField(jwtService, "objectMapper", new ObjectMapper());
+
+        ExecutionContextFactory executionContextFactory = new ExecutionContextFactory();
+        ReflectionTestUtils.setField(executionContextFactory, "providers", Collections.emptyList());
+
+        tokenService = new TokenServiceImpl();
+        ReflectionTestUtils.setField(tokenService, "accessTokenRepository", new InMemoryAccessTokenRepository());
+        ReflectionTestUtils.setField(tokenService, "jwtService", jwtService);
+        ReflectionTestUtils.setField(tokenService, "executionContextFactory", executionContextFactory);
+        ReflectionTestUtils.setField(tokenService, "tokenEnhancer", (TokenEnhancer) (accessToken, oAuth2Request, client, endUser, executionContext) -> Single.just(accessToken));
+        ReflectionTestUtils.setField(tokenService, "tokenManager", new NoOpTokenManager());
+        ReflectionTestUtils.setField(tokenService, "openIDDiscoveryService", new OpenIDDiscoveryService() {
+            @Override
+            public OpenIDProviderMetadata getConfiguration(String basePath) {
+                return null;
+            }
+
+            @Override
+            public String getIssuer(String basePath) {
+                return ISSUER;
+            }
+        });
+
+        client = Fixtures.client(customClaims);
+        user = Fixtures.user();
+
+        oAuth2Request = new OAuth2Request();
+        oAuth2Request.setClientId(client.getClientId());
+        oAuth2Request.setGrantType("password");
+        oAuth2Request.setSubject(user.getId());
+        oAuth2Request.setScopes(new HashSet<>(Arrays.asList("openid", "profile", "email")));
+        oAuth2Request.setSupportRefreshToken(true);
+        oAuth2Request.setContextPath("/benchmark");
+        oAuth2Request.setOrigin("https://am.gravitee.io");
+    }
+
+    @Benchmark
+    public Token create() {
+        return tokenService.create(oAuth2Request, client, user).blockingGet();
+    }
+
+    private static class NoOpTokenManager extends AbstractService implements TokenManager {
+
+        @Override
+        public void storeAccessToken(AccessToken accessToken) {
+        }
+
+        @Override
+        public void storeRefreshToken(RefreshToken refreshToken) {
+        }
+
+        @Override
+        public AccessToken getPendingAccessToken(String token) {
+            return null;
+        }
+
+        @Override
+        public RefreshToken getPendingRefreshToken(String token) {
+            return null;
+        }
+
+        @Override
+        public boolean cancelAccessToken(String token) {
+            return false;
+        }
+
+        @Override
+        public boolean cancelRefreshToken(String token) {
+            return false;
+        }
+
+        @Override
+        public void cancelRefreshTokenFamily(String familyId) {
+        }
+    }
+}
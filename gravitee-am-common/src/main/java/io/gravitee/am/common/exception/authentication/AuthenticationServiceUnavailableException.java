@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.common.exception.authentication;
+
+/**
+ * Thrown when the service backing an identity provider is temporarily unavailable : too many concurrent requests,
+ * circuit opened after repeated failures or request deadline exceeded.
+ *
+ * @author GraviteeSource Team
+ */
+public class AuthenticationServiceUnavailableException extends InternalAuthenticationServiceException {
+
+    public AuthenticationServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public AuthenticationServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public String getErrorCode() {
+        return "authentication_service_unavailable";
+    }
+}
@@ -93,9 +93,14 @@ public interface Claims {
      */
     String scope = "scope";
 
+    /**
+     * The "family_id" claim identifies the refresh tokens issued by rotation from the same original grant.
+     */
+    String family_id = "family_id";
+
     static List<String> claims() {
         return Arrays.asList(iss, sub, aud, exp, nbf, iat,
-                jti, domain, claims, ip_address, user_agent, scope);
+                jti, domain, claims, ip_address, user_agent, scope, family_id);
     }
 
 }
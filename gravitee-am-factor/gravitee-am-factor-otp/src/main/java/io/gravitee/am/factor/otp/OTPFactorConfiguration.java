@@ -24,6 +24,8 @@ import io.gravitee.am.factor.api.FactorConfiguration;
 public class OTPFactorConfiguration implements FactorConfiguration {
 
     private String issuer = "Gravitee.io";
+    private int window = 1;
+    private int replayCacheSize = 10000;
 
     public String getIssuer() {
         return issuer;
@@ -32,4 +34,20 @@ public class OTPFactorConfiguration implements FactorConfiguration {
     public void setIssuer(String issuer) {
         this.issuer = issuer;
     }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public void setWindow(int window) {
+        this.window = window;
+    }
+
+    public int getReplayCacheSize() {
+        return replayCacheSize;
+    }
+
+    public void setReplayCacheSize(int replayCacheSize) {
+        this.replayCacheSize = replayCacheSize;
+    }
 }
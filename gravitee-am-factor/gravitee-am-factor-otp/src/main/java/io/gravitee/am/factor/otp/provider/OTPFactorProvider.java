@@ -22,30 +22,44 @@ import io.gravitee.am.factor.otp.OTPFactorConfiguration;
 import io.gravitee.am.factor.otp.utils.QRCode;
 import io.gravitee.am.factor.otp.utils.SharedSecret;
 import io.gravitee.am.factor.otp.utils.TOTP;
+import io.gravitee.am.factor.otp.utils.UsedCodeCache;
 import io.reactivex.Completable;
 import io.reactivex.Single;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class OTPFactorProvider implements FactorProvider {
+public class OTPFactorProvider implements FactorProvider, InitializingBean {
 
     private static final Logger logger = LoggerFactory.getLogger(OTPFactorProvider.class);
 
     @Autowired
     private OTPFactorConfiguration otpFactorConfiguration;
 
+    private UsedCodeCache usedCodes;
+
+    @Override
+    public void afterPropertiesSet() {
+        usedCodes = new UsedCodeCache(otpFactorConfiguration.getReplayCacheSize());
+    }
+
     @Override
     public Completable verify(String secretKey, String code) {
         return Completable.create(emitter -> {
             try {
-                final String otpCode = TOTP.generateTOTP(SharedSecret.base32Str2Hex(secretKey));
-                if (!code.equals(otpCode)) {
+                final long counter = TOTP.verify(SharedSecret.base32Str2Bytes(secretKey), code, System.currentTimeMillis(), otpFactorConfiguration.getWindow());
+                if (counter < 0) {
                     emitter.onError(new InvalidCodeException("Invalid 2FA Code"));
+                    return;
+                }
+                if (!usedCodes.markUsed(secretKey, counter)) {
+                    emitter.onError(new InvalidCodeException("2FA Code already used"));
+                    return;
                 }
                 emitter.onComplete();
             } catch (Exception ex) {
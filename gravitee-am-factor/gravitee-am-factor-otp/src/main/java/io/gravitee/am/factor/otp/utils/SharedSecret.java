@@ -42,6 +42,10 @@ public final class SharedSecret {
         return encoder.encodeToString(buffer);
     }
 
+    public static byte[] base32Str2Bytes(String secret) {
+        return encoder.decode(secret);
+    }
+
     public static String base32Str2Hex(String secret) {
         byte[] bytes = encoder.decode(secret);
         return Hex.encodeHexString(bytes);
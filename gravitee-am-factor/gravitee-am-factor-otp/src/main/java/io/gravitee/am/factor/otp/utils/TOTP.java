@@ -30,6 +30,8 @@ import javax.crypto.spec.SecretKeySpec;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.math.BigInteger;
 import java.security.GeneralSecurityException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This is an example implementation of the OATH
@@ -48,25 +50,35 @@ public final class TOTP {
             // 0 1  2   3    4     5      6       7        8
             = {1,10,100,1000,10000,100000,1000000,10000000,100000000 };
 
+    public static final String DEFAULT_ALGORITHM = "HmacSHA1";
+    public static final int DEFAULT_DIGITS = 6;
+    public static final long DEFAULT_TIME_STEP_MILLIS = 30000L;
+
+    /**
+     * {@link Mac#getInstance(String)} walks the security providers on each call,
+     * keep one instance per algorithm and per thread instead.
+     */
+    private static final ThreadLocal<Map<String, Mac>> MACS = ThreadLocal.withInitial(HashMap::new);
+
     private TOTP() {}
 
     /**
-     * This method uses the JCE to provide the crypto algorithm.
-     * HMAC computes a Hashed Message Authentication Code with the
-     * crypto hash algorithm as a parameter.
+     * Return a {@link Mac} initialized with the given key, the instance is owned by the current thread
+     * and can be reused for several {@link Mac#doFinal(byte[])} calls with the same key.
      *
      * @param crypto: the crypto algorithm (HmacSHA1, HmacSHA256,
      *                             HmacSHA512)
      * @param keyBytes: the bytes to use for the HMAC key
-     * @param text: the message or text to be authenticated
      */
-    private static byte[] hmac_sha(String crypto, byte[] keyBytes,  byte[] text){
+    private static Mac mac(String crypto, byte[] keyBytes) {
         try {
-            Mac hmac;
-            hmac = Mac.getInstance(crypto);
-            SecretKeySpec macKey = new SecretKeySpec(keyBytes, "RAW");
-            hmac.init(macKey);
-            return hmac.doFinal(text);
+            Mac hmac = MACS.get().get(crypto);
+            if (hmac == null) {
+                hmac = Mac.getInstance(crypto);
+                MACS.get().put(crypto, hmac);
+            }
+            hmac.init(new SecretKeySpec(keyBytes, "RAW"));
+            return hmac;
         } catch (GeneralSecurityException gse) {
             throw new UndeclaredThrowableException(gse);
         }
@@ -102,7 +114,7 @@ public final class TOTP {
     public static String generateTOTP(String key) {
         // 30 seconds StepSize (ID TOTP)
         // 6 digits to return
-        return generateTOTP(key, Long.toHexString(System.currentTimeMillis() / 30000).toUpperCase(), "6");
+        return generateTOTP(key, Long.toHexString(System.currentTimeMillis() / DEFAULT_TIME_STEP_MILLIS).toUpperCase(), String.valueOf(DEFAULT_DIGITS));
     }
 
     /**
@@ -118,7 +130,7 @@ public final class TOTP {
     public static String generateTOTP(String key,
                                       String time,
                                       String returnDigits){
-        return generateTOTP(key, time, returnDigits, "HmacSHA1");
+        return generateTOTP(key, time, returnDigits, DEFAULT_ALGORITHM);
     }
 
 
@@ -170,18 +182,84 @@ public final class TOTP {
                                       String returnDigits,
                                       String crypto){
         int codeDigits = Integer.decode(returnDigits).intValue();
-        String result = null;
+        int otp = generateTOTP(hexStr2Bytes(key), Long.parseUnsignedLong(time, 16), codeDigits, crypto);
+        return format(otp, codeDigits);
+    }
+
+    /**
+     * This method generates a TOTP value for the given
+     * set of parameters without any intermediate String conversion.
+     *
+     * @param key: the shared secret
+     * @param counter: the time step counter (T)
+     * @param codeDigits: number of digits to return
+     * @param crypto: the crypto function to use
+     *
+     * @return: the TOTP value as an int
+     */
+    public static int generateTOTP(byte[] key,
+                                   long counter,
+                                   int codeDigits,
+                                   String crypto) {
+        return truncate(mac(crypto, key), counter, codeDigits);
+    }
 
+    /**
+     * Verify a code against the time steps in [T - window, T + window] where T is the time step of the given time.
+     * All the steps of the window are computed to keep the verification time independent from the matching step.
+     *
+     * @param key: the shared secret
+     * @param code: the code submitted by the user
+     * @param timeMillis: the current time in milliseconds
+     * @param window: number of accepted time steps before and after the current one
+     *
+     * @return: the matching time step counter or -1 if the code is not valid
+     */
+    public static long verify(byte[] key, String code, long timeMillis, int window) {
+        return verify(key, code, timeMillis, window, DEFAULT_TIME_STEP_MILLIS, DEFAULT_DIGITS, DEFAULT_ALGORITHM);
+    }
+
+    /**
+     * Verify a code against the time steps in [T - window, T + window] where T is the time step of the given time.
+     *
+     * @param key: the shared secret
+     * @param code: the code submitted by the user
+     * @param timeMillis: the current time in milliseconds
+     * @param window: number of accepted time steps before and after the current one
+     * @param timeStepMillis: the time step (X) in milliseconds
+     * @param codeDigits: number of digits of the code
+     * @param crypto: the crypto function to use
+     *
+     * @return: the matching time step counter or -1 if the code is not valid
+     */
+    public static long verify(byte[] key, String code, long timeMillis, int window, long timeStepMillis, int codeDigits, String crypto) {
+        final int expected = parse(code, codeDigits);
+        if (expected < 0) {
+            return -1;
+        }
+
+        final Mac hmac = mac(crypto, key);
+        final long current = timeMillis / timeStepMillis;
+        final int steps = Math.max(0, window);
+        long matching = -1;
+        for (long counter = current - steps; counter <= current + steps; counter++) {
+            if (counter >= 0 && truncate(hmac, counter, codeDigits) == expected && matching < 0) {
+                matching = counter;
+            }
+        }
+        return matching;
+    }
+
+    private static int truncate(Mac hmac, long counter, int codeDigits) {
         // Using the counter
         // First 8 bytes are for the movingFactor
         // Compliant with base RFC 4226 (HOTP)
-        while (time.length() < 16 )
-            time = "0" + time;
-
-        // Get the HEX in a Byte[]
-        byte[] msg = hexStr2Bytes(time);
-        byte[] k = hexStr2Bytes(key);
-        byte[] hash = hmac_sha(crypto, k, msg);
+        byte[] msg = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            msg[i] = (byte) (counter & 0xff);
+            counter >>>= 8;
+        }
+        byte[] hash = hmac.doFinal(msg);
 
         // put selected bytes into result int
         int offset = hash[hash.length - 1] & 0xf;
@@ -192,13 +270,30 @@ public final class TOTP {
                         ((hash[offset + 2] & 0xff) << 8) |
                         (hash[offset + 3] & 0xff);
 
-        int otp = binary % DIGITS_POWER[codeDigits];
+        return binary % DIGITS_POWER[codeDigits];
+    }
 
-        result = Integer.toString(otp);
-        while (result.length() < codeDigits) {
-            result = "0" + result;
+    private static int parse(String code, int codeDigits) {
+        if (code == null || code.length() != codeDigits) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < codeDigits; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
         }
-        return result;
+        return value;
     }
 
+    private static String format(int otp, int codeDigits) {
+        StringBuilder result = new StringBuilder(codeDigits);
+        String value = Integer.toString(otp);
+        for (int i = value.length(); i < codeDigits; i++) {
+            result.append('0');
+        }
+        return result.append(value).toString();
+    }
 }
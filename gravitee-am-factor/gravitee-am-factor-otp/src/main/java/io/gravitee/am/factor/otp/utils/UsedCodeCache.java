@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.factor.otp.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keep track of the last time step accepted for each shared secret.
+ *
+ * The verifier MUST NOT accept the second attempt of the same OTP after the successful validation has been issued
+ * for the first OTP, which ensures one-time only use of an OTP.
+ * — RFC-6238
+ *
+ * The cache is node-local and bounded, least recently used secrets are evicted first. Secrets are only kept as
+ * SHA-256 digests.
+ *
+ * @author GraviteeSource Team
+ */
+public final class UsedCodeCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is supported by every Java platform
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Map<String, Long> lastUsedSteps;
+
+    public UsedCodeCache(int maxSize) {
+        this.lastUsedSteps = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Mark the time step as used for the given secret.
+     *
+     * @param secret the shared secret
+     * @param counter the matching time step counter
+     * @return <code>false</code> if this time step (or a later one) has already been used for this secret
+     */
+    public boolean markUsed(String secret, long counter) {
+        // hash outside of the lock
+        final String key = key(secret);
+        synchronized (this) {
+            final Long lastUsed = lastUsedSteps.get(key);
+            if (lastUsed != null && lastUsed >= counter) {
+                return false;
+            }
+            lastUsedSteps.put(key, counter);
+            return true;
+        }
+    }
+
+    public synchronized int size() {
+        return lastUsedSteps.size();
+    }
+
+    static String key(String secret) {
+        // digest() resets the instance, it can be reused by the next call of the thread
+        byte[] digest = SHA_256.get().digest(secret.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.factor.otp.utils;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test vectors from <a href="https://tools.ietf.org/html/rfc6238#appendix-B">Appendix B. Test Vectors</a>
+ *
+ * @author GraviteeSource Team
+ */
+public class TOTPTest {
+
+    private static final String SEED_SHA1 = "3132333435363738393031323334353637383930";
+    private static final String SEED_SHA256 = "3132333435363738393031323334353637383930" +
+            "313233343536373839303132";
+    private static final String SEED_SHA512 = "3132333435363738393031323334353637383930" +
+            "3132333435363738393031323334353637383930" +
+            "3132333435363738393031323334353637383930" +
+            "31323334";
+
+    private static final long[] TIMES = {59L, 1111111109L, 1111111111L, 1234567890L, 2000000000L, 20000000000L};
+    private static final String[] SHA1_CODES = {"94287082", "07081804", "14050471", "89005924", "69279037", "65353130"};
+    private static final String[] SHA256_CODES = {"46119246", "68084774", "67062674", "91819424", "90698825", "77737706"};
+    private static final String[] SHA512_CODES = {"90693936", "25091201", "99943326", "93441116", "38618901", "47863826"};
+
+    @Test
+    public void shouldGenerate_rfc6238_vectors() {
+        for (int i = 0; i < TIMES.length; i++) {
+            String time = Long.toHexString(TIMES[i] / 30).toUpperCase();
+            assertEquals(SHA1_CODES[i], TOTP.generateTOTP(SEED_SHA1, time, "8"));
+            assertEquals(SHA256_CODES[i], TOTP.generateTOTP256(SEED_SHA256, time, "8"));
+            assertEquals(SHA512_CODES[i], TOTP.generateTOTP512(SEED_SHA512, time, "8"));
+        }
+    }
+
+    @Test
+    public void shouldVerify_rfc6238_vectors() throws Exception {
+        byte[] sha1 = Hex.decodeHex(SEED_SHA1.toCharArray());
+        byte[] sha256 = Hex.decodeHex(SEED_SHA256.toCharArray());
+        byte[] sha512 = Hex.decodeHex(SEED_SHA512.toCharArray());
+        for (int i = 0; i < TIMES.length; i++) {
+            long millis = TIMES[i] * 1000;
+            long step = TIMES[i] / 30;
+            assertEquals(step, TOTP.verify(sha1, SHA1_CODES[i], millis, 0, 30000L, 8, "HmacSHA1"));
+            assertEquals(step, TOTP.verify(sha256, SHA256_CODES[i], millis, 0, 30000L, 8, "HmacSHA256"));
+            assertEquals(step, TOTP.verify(sha512, SHA512_CODES[i], millis, 0, 30000L, 8, "HmacSHA512"));
+        }
+    }
+
+    @Test
+    public void shouldVerify_withinWindow() throws Exception {
+        byte[] key = Hex.decodeHex(SEED_SHA1.toCharArray());
+        long now = 1234567890L * 1000;
+        long step = now / TOTP.DEFAULT_TIME_STEP_MILLIS;
+        String previous = String.format("%06d", TOTP.generateTOTP(key, step - 1, 6, TOTP.DEFAULT_ALGORITHM));
+        String next = String.format("%06d", TOTP.generateTOTP(key, step + 1, 6, TOTP.DEFAULT_ALGORITHM));
+
+        assertEquals(step - 1, TOTP.verify(key, previous, now, 1));
+        assertEquals(step + 1, TOTP.verify(key, next, now, 1));
+        assertEquals(-1, TOTP.verify(key, previous, now, 0));
+        assertEquals(-1, TOTP.verify(key, next, now, 0));
+    }
+
+    @Test
+    public void shouldNotVerify_malformedCode() throws Exception {
+        byte[] key = Hex.decodeHex(SEED_SHA1.toCharArray());
+        long now = System.currentTimeMillis();
+
+        assertEquals(-1, TOTP.verify(key, null, now, 1));
+        assertEquals(-1, TOTP.verify(key, "12345", now, 1));
+        assertEquals(-1, TOTP.verify(key, "12a456", now, 1));
+    }
+
+    @Test
+    public void shouldRejectReplayedCode() {
+        UsedCodeCache cache = new UsedCodeCache(2);
+
+        assertTrue(cache.markUsed("secret", 10L));
+        assertFalse(cache.markUsed("secret", 10L));
+        assertFalse(cache.markUsed("secret", 9L));
+        assertTrue(cache.markUsed("secret", 11L));
+        assertTrue(cache.markUsed("other", 10L));
+        assertTrue(cache.markUsed("third", 10L));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldNotKeepRawSecret() {
+        assertEquals(UsedCodeCache.key("secret"), UsedCodeCache.key("secret"));
+        assertNotEquals(UsedCodeCache.key("secret"), UsedCodeCache.key("other"));
+        assertFalse(UsedCodeCache.key("secret").contains("secret"));
+    }
+}
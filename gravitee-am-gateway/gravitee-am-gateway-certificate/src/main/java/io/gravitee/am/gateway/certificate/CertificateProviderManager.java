@@ -35,5 +35,22 @@ public interface CertificateProviderManager {
 
     Collection<CertificateProvider> certificateProviders();
 
+    /**
+     * Return the certificate providers deployed for the given domain.
+     *
+     * @param domain the domain id
+     * @return an immutable snapshot of the domain certificate providers, empty if none
+     */
+    Collection<CertificateProvider> certificateProviders(String domain);
+
+    /**
+     * Return the first certificate provider of the given domain which signs with the given algorithm.
+     *
+     * @param domain the domain id
+     * @param algorithm the JWS signature algorithm
+     * @return the certificate provider or null if none
+     */
+    CertificateProvider findByAlgorithm(String domain, String algorithm);
+
     CertificateProvider create(io.gravitee.am.certificate.api.CertificateProvider certificateProvider);
 }
@@ -31,9 +31,16 @@ import java.security.Key;
 import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -43,6 +50,13 @@ public class CertificateProviderManagerImpl implements CertificateProviderManage
 
     private static final Logger logger = LoggerFactory.getLogger(CertificateProviderManagerImpl.class);
     private final ConcurrentMap<String, CertificateProvider> certificateProviders = new ConcurrentHashMap<>();
+    /**
+     * Per domain indexes, rebuilt for the impacted domain on each deploy/undeploy (guarded by <code>this</code>).
+     * Readers only see immutable snapshots.
+     */
+    private final Map<String, Map<String, CertificateProvider>> domainCertificateProviders = new HashMap<>();
+    private final ConcurrentMap<String, List<CertificateProvider>> certificateProvidersByDomain = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Map<String, CertificateProvider>> certificateProvidersByAlgorithm = new ConcurrentHashMap<>();
 
     @Autowired
     private CertificatePluginManager certificatePluginManager;
@@ -59,7 +73,7 @@ public class CertificateProviderManagerImpl implements CertificateProviderManage
 
     @Override
     public void delete(String certificateId) {
-        certificateProviders.remove(certificateId);
+        undeploy(certificateId);
     }
 
     @Override
@@ -72,6 +86,17 @@ public class CertificateProviderManagerImpl implements CertificateProviderManage
         return certificateProviders.values();
     }
 
+    @Override
+    public Collection<CertificateProvider> certificateProviders(String domain) {
+        return certificateProvidersByDomain.getOrDefault(domain, Collections.emptyList());
+    }
+
+    @Override
+    public CertificateProvider findByAlgorithm(String domain, String algorithm) {
+        Map<String, CertificateProvider> domainProviders = certificateProvidersByAlgorithm.get(domain);
+        return domainProviders != null ? domainProviders.get(algorithm) : null;
+    }
+
     @Override
     public CertificateProvider create(io.gravitee.am.certificate.api.CertificateProvider provider) {
         // create certificate provider
@@ -108,10 +133,59 @@ public class CertificateProviderManagerImpl implements CertificateProviderManage
             CertificateProvider certificateProvider = create(provider);
             if (certificateProvider != null) {
                 certificateProvider.setDomain(certificate.getDomain());
-                certificateProviders.put(certificate.getId(), certificateProvider);
+                register(certificate.getId(), certificateProvider);
             }
         } else {
-            certificateProviders.remove(certificate.getId());
+            undeploy(certificate.getId());
+        }
+    }
+
+    private synchronized void register(String certificateId, CertificateProvider certificateProvider) {
+        CertificateProvider previous = certificateProviders.put(certificateId, certificateProvider);
+        if (previous != null && previous.getDomain() != null && !previous.getDomain().equals(certificateProvider.getDomain())) {
+            unindex(previous.getDomain(), certificateId);
+        }
+        if (certificateProvider.getDomain() != null) {
+            domainCertificateProviders
+                    .computeIfAbsent(certificateProvider.getDomain(), k -> new LinkedHashMap<>())
+                    .put(certificateId, certificateProvider);
+            reindex(certificateProvider.getDomain());
+        }
+    }
+
+    private synchronized void undeploy(String certificateId) {
+        CertificateProvider previous = certificateProviders.remove(certificateId);
+        if (previous != null && previous.getDomain() != null) {
+            unindex(previous.getDomain(), certificateId);
+        }
+    }
+
+    private void unindex(String domain, String certificateId) {
+        Map<String, CertificateProvider> providers = domainCertificateProviders.get(domain);
+        if (providers != null) {
+            providers.remove(certificateId);
+            if (providers.isEmpty()) {
+                domainCertificateProviders.remove(domain);
+            }
+        }
+        reindex(domain);
+    }
+
+    private void reindex(String domain) {
+        Map<String, CertificateProvider> providers = domainCertificateProviders.get(domain);
+        if (providers == null) {
+            certificateProvidersByDomain.remove(domain);
+            certificateProvidersByAlgorithm.remove(domain);
+            return;
         }
+        certificateProvidersByDomain.put(domain, Collections.unmodifiableList(new ArrayList<>(providers.values())));
+        // keep the first deployed provider for each algorithm
+        certificateProvidersByAlgorithm.put(domain, Collections.unmodifiableMap(providers.values()
+                .stream()
+                .filter(certificateProvider -> certificateProvider.getProvider() != null && certificateProvider.getProvider().signatureAlgorithm() != null)
+                .collect(Collectors.toMap(
+                        certificateProvider -> certificateProvider.getProvider().signatureAlgorithm(),
+                        certificateProvider -> certificateProvider,
+                        (first, second) -> first))));
     }
 }
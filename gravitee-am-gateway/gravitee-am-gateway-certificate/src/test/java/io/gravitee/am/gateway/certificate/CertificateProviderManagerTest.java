@@ -19,30 +19,47 @@ import io.gravitee.am.certificate.api.CertificateMetadata;
 import io.gravitee.am.certificate.api.DefaultKey;
 import io.gravitee.am.common.jwt.JWT;
 import io.gravitee.am.gateway.certificate.impl.CertificateProviderManagerImpl;
+import io.gravitee.am.model.Certificate;
 import io.gravitee.am.model.jose.JWK;
+import io.gravitee.am.plugins.certificate.core.CertificatePluginManager;
 import io.reactivex.Flowable;
 import io.reactivex.Single;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
 
 import javax.crypto.spec.SecretKeySpec;
 import java.security.Key;
+import java.util.Collection;
 import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Alexandre FARIA (contact at alexandrefaria.net)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
+@RunWith(MockitoJUnitRunner.class)
 public class CertificateProviderManagerTest {
 
     private static final String signingKeySecret = "s3cR3t4grAv1t3310AMS1g1ingDftK3y";
     private static final String signingKeyId = "default-gravitee-AM-key";
     private static final String defaultDigestAlgorithm = "SHA-256";
 
+    @InjectMocks
     private CertificateProviderManager certificateProviderManager = new CertificateProviderManagerImpl();
 
+    @Mock
+    private CertificatePluginManager certificatePluginManager;
+
     @Test
     public void noneAlgorithmCertificateProvider_nominalCase() {
         CertificateProvider certificateProvider = certificateProviderManager.create(noneProvider());
@@ -78,6 +95,63 @@ public class CertificateProviderManagerTest {
         );
     }
 
+    @Test
+    public void domainIndexes_deployAndUndeploy() {
+        when(certificatePluginManager.create(eq("hmac"), any(), any())).thenAnswer(invocation -> defaultProvider());
+        when(certificatePluginManager.create(eq("none"), any(), any())).thenAnswer(invocation -> noneProvider());
+
+        certificateProviderManager.create(certificate("cert-1", "domain-1", "hmac"));
+        certificateProviderManager.create(certificate("cert-2", "domain-1", "hmac"));
+        certificateProviderManager.create(certificate("cert-3", "domain-1", "none"));
+        certificateProviderManager.create(certificate("cert-4", "domain-2", "hmac"));
+
+        assertEquals(3, certificateProviderManager.certificateProviders("domain-1").size());
+        assertEquals(1, certificateProviderManager.certificateProviders("domain-2").size());
+        assertTrue(certificateProviderManager.certificateProviders("unknown").isEmpty());
+        assertEquals(certificateProviderManager.get("cert-1"), certificateProviderManager.findByAlgorithm("domain-1", "HS256"));
+        assertEquals(certificateProviderManager.get("cert-3"), certificateProviderManager.findByAlgorithm("domain-1", "none"));
+        assertEquals(certificateProviderManager.get("cert-4"), certificateProviderManager.findByAlgorithm("domain-2", "HS256"));
+        assertNull(certificateProviderManager.findByAlgorithm("domain-2", "none"));
+
+        certificateProviderManager.delete("cert-1");
+        assertEquals(2, certificateProviderManager.certificateProviders("domain-1").size());
+        assertEquals(certificateProviderManager.get("cert-2"), certificateProviderManager.findByAlgorithm("domain-1", "HS256"));
+
+        certificateProviderManager.delete("cert-4");
+        assertTrue(certificateProviderManager.certificateProviders("domain-2").isEmpty());
+        assertNull(certificateProviderManager.findByAlgorithm("domain-2", "HS256"));
+    }
+
+    @Test
+    public void domainIndexes_updateReplacesProvider() {
+        when(certificatePluginManager.create(eq("hmac"), any(), any())).thenAnswer(invocation -> defaultProvider());
+        when(certificatePluginManager.create(eq("none"), any(), any())).thenAnswer(invocation -> noneProvider());
+
+        certificateProviderManager.create(certificate("cert-1", "domain-1", "hmac"));
+        certificateProviderManager.update(certificate("cert-1", "domain-1", "none"));
+
+        assertEquals(1, certificateProviderManager.certificateProviders("domain-1").size());
+        assertNull(certificateProviderManager.findByAlgorithm("domain-1", "HS256"));
+        assertEquals(certificateProviderManager.get("cert-1"), certificateProviderManager.findByAlgorithm("domain-1", "none"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void domainIndexes_immutableSnapshot() {
+        when(certificatePluginManager.create(eq("hmac"), any(), any())).thenAnswer(invocation -> defaultProvider());
+        certificateProviderManager.create(certificate("cert-1", "domain-1", "hmac"));
+
+        Collection<CertificateProvider> providers = certificateProviderManager.certificateProviders("domain-1");
+        providers.clear();
+    }
+
+    private Certificate certificate(String id, String domain, String type) {
+        Certificate certificate = new Certificate();
+        certificate.setId(id);
+        certificate.setDomain(domain);
+        certificate.setType(type);
+        return certificate;
+    }
+
     private io.gravitee.am.certificate.api.CertificateProvider noneProvider() {
         CertificateMetadata certificateMetadata = new CertificateMetadata();
         certificateMetadata.setMetadata(Collections.singletonMap(CertificateMetadata.DIGEST_ALGORITHM_NAME, "none"));
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.core.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.vertx.micrometer.backends.BackendRegistries;
+
+/**
+ * Entry point for the gateway metrics.
+ *
+ * Meters are registered against the Micrometer registry created by the node when {@code services.metrics.enabled}
+ * is set, so they are exposed along with the Vert.x metrics on the node HTTP endpoint ({@code /_node/metrics/prometheus}).
+ * When metrics are disabled, a registry without any backend is returned and every meter is a no-op.
+ *
+ * @author GraviteeSource Team
+ */
+public final class GatewayMetrics {
+
+    public static final String ENDPOINT_REQUESTS = "am.gateway.endpoint.requests";
+    public static final String IDP_LOAD_USER = "am.gateway.idp.load.user";
+    public static final String IDP_POOL_ACQUIRE = "am.gateway.idp.pool.acquire";
+    public static final String IDP_POOL_ACQUIRED = "am.gateway.idp.pool.acquired";
+    public static final String IDP_POOL_PENDING = "am.gateway.idp.pool.pending";
+    public static final String REPOSITORY_CALLS = "am.gateway.repository.calls";
+    public static final String TOKEN_BUFFER_SIZE = "am.gateway.token.buffer.size";
+    public static final String TOKEN_FLUSH = "am.gateway.token.flush";
+    public static final String SYNC_REFRESH = "am.gateway.sync.refresh";
+    public static final String SYNC_EVENTS = "am.gateway.sync.events";
+    public static final String USER_STORE_SIZE = "am.gateway.user.store.size";
+
+    public static final String TAG_DOMAIN = "domain";
+    public static final String TAG_ENDPOINT = "endpoint";
+    public static final String TAG_STATUS = "status";
+    public static final String TAG_IDP = "idp";
+    public static final String TAG_IDP_TYPE = "idp_type";
+    public static final String TAG_REPOSITORY = "repository";
+    public static final String TAG_METHOD = "method";
+    public static final String TAG_TYPE = "type";
+    public static final String TAG_ACTION = "action";
+    public static final String TAG_OUTCOME = "outcome";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+
+    private static final String UNKNOWN = "unknown";
+
+    private static final MeterRegistry NOOP_REGISTRY = new CompositeMeterRegistry();
+
+    private GatewayMetrics() {
+    }
+
+    /**
+     * @return <code>true</code> if the node has been started with metrics support
+     */
+    public static boolean isEnabled() {
+        return BackendRegistries.getDefaultNow() != null;
+    }
+
+    public static MeterRegistry registry() {
+        MeterRegistry registry = BackendRegistries.getDefaultNow();
+        return registry != null ? registry : NOOP_REGISTRY;
+    }
+
+    public static Timer timer(String name, String... tags) {
+        return registry().timer(name, tags(tags));
+    }
+
+    public static Counter counter(String name, String... tags) {
+        return registry().counter(name, tags(tags));
+    }
+
+    /**
+     * Build tags from key/value pairs, a missing value being reported as <code>unknown</code>
+     * so that metrics never break the instrumented code.
+     */
+    public static Tags tags(String... keyValues) {
+        String[] sanitized = keyValues.clone();
+        for (int i = 1; i < sanitized.length; i += 2) {
+            if (sanitized[i] == null) {
+                sanitized[i] = UNKNOWN;
+            }
+        }
+        return Tags.of(sanitized);
+    }
+}
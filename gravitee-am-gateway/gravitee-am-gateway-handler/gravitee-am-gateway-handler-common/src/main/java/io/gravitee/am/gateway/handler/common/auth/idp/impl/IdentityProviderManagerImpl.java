@@ -17,11 +17,13 @@ package io.gravitee.am.gateway.handler.common.auth.idp.impl;
 
 import io.gravitee.am.common.event.EventManager;
 import io.gravitee.am.common.event.IdentityProviderEvent;
+import io.gravitee.am.gateway.core.metrics.GatewayMetrics;
 import io.gravitee.am.gateway.handler.common.auth.idp.IdentityProviderManager;
 import io.gravitee.am.gateway.handler.common.certificate.CertificateManager;
 import io.gravitee.am.gateway.handler.context.provider.UserProperties;
 import io.gravitee.am.identityprovider.api.AuthenticationProvider;
 import io.gravitee.am.identityprovider.api.UserProvider;
+import io.gravitee.am.identityprovider.api.common.ConnectionPoolMetrics;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.IdentityProvider;
 import io.gravitee.am.model.ReferenceType;
@@ -31,15 +33,24 @@ import io.gravitee.am.repository.management.api.IdentityProviderRepository;
 import io.gravitee.common.event.Event;
 import io.gravitee.common.event.EventListener;
 import io.gravitee.common.service.AbstractService;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import io.reactivex.Maybe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -68,6 +79,7 @@ public class IdentityProviderManagerImpl extends AbstractService implements Iden
     private ConcurrentMap<String, AuthenticationProvider> providers = new ConcurrentHashMap<>();
     private ConcurrentMap<String, IdentityProvider> identities = new ConcurrentHashMap<>();
     private ConcurrentMap<String, UserProvider> userProviders = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, List<Meter>> poolMeters = new ConcurrentHashMap<>();
 
     @Override
     public Maybe<AuthenticationProvider> get(String id) {
@@ -173,6 +185,10 @@ public class IdentityProviderManagerImpl extends AbstractService implements Iden
                 } else {
                     userProviders.remove(identityProvider.getId());
                 }
+                registerPoolMeters(identityProvider, "authentication", authenticationProvider.connectionPoolMetrics());
+                if (userProvider != null) {
+                    registerPoolMeters(identityProvider, "user", userProvider.connectionPoolMetrics());
+                }
             }
         } catch (Exception ex) {
             // failed to load the plugin
@@ -189,6 +205,11 @@ public class IdentityProviderManagerImpl extends AbstractService implements Iden
         AuthenticationProvider authenticationProvider = providers.remove(identityProviderId);
         UserProvider userProvider = userProviders.remove(identityProviderId);
         identities.remove(identityProviderId);
+        List<Meter> meters = poolMeters.remove(identityProviderId);
+        if (meters != null) {
+            MeterRegistry registry = GatewayMetrics.registry();
+            meters.forEach(registry::remove);
+        }
         if (authenticationProvider != null) {
             // stop the authentication provider
             try {
@@ -206,4 +227,31 @@ public class IdentityProviderManagerImpl extends AbstractService implements Iden
             }
         }
     }
+
+    /**
+     * Expose the state of the connection pool used by the provider, if any, so that a saturated pool can be told
+     * apart from a slow backend.
+     */
+    private void registerPoolMeters(IdentityProvider identityProvider, String providerType, Optional<ConnectionPoolMetrics> connectionPoolMetrics) {
+        if (!connectionPoolMetrics.isPresent()) {
+            return;
+        }
+        final ConnectionPoolMetrics metrics = connectionPoolMetrics.get();
+        final MeterRegistry registry = GatewayMetrics.registry();
+        final Tags tags = GatewayMetrics.tags(
+                GatewayMetrics.TAG_DOMAIN, domain.getId(),
+                GatewayMetrics.TAG_IDP, identityProvider.getId(),
+                GatewayMetrics.TAG_IDP_TYPE, identityProvider.getType(),
+                GatewayMetrics.TAG_TYPE, providerType);
+        List<Meter> meters = poolMeters.computeIfAbsent(identityProvider.getId(), key -> new ArrayList<>());
+        meters.add(FunctionTimer.builder(GatewayMetrics.IDP_POOL_ACQUIRE, metrics, ConnectionPoolMetrics::getAcquireCount, ConnectionPoolMetrics::getAcquireTime, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .register(registry));
+        meters.add(Gauge.builder(GatewayMetrics.IDP_POOL_ACQUIRED, metrics, ConnectionPoolMetrics::getAcquiredSize)
+                .tags(tags)
+                .register(registry));
+        meters.add(Gauge.builder(GatewayMetrics.IDP_POOL_PENDING, metrics, ConnectionPoolMetrics::getPendingAcquireSize)
+                .tags(tags)
+                .register(registry));
+    }
 }
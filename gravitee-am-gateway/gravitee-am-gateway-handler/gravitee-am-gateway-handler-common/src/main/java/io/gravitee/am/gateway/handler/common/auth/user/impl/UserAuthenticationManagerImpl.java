@@ -17,6 +17,7 @@ package io.gravitee.am.gateway.handler.common.auth.user.impl;
 
 import io.gravitee.am.common.exception.authentication.*;
 import io.gravitee.am.common.oauth2.Parameters;
+import io.gravitee.am.gateway.core.metrics.GatewayMetrics;
 import io.gravitee.am.gateway.handler.common.auth.AuthenticationDetails;
 import io.gravitee.am.gateway.handler.common.auth.event.AuthenticationEvent;
 import io.gravitee.am.gateway.handler.common.auth.idp.IdentityProviderManager;
@@ -33,6 +34,7 @@ import io.gravitee.am.model.oidc.Client;
 import io.gravitee.am.repository.management.api.search.LoginAttemptCriteria;
 import io.gravitee.am.service.LoginAttemptService;
 import io.gravitee.common.event.EventManager;
+import io.micrometer.core.instrument.Timer;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
@@ -45,6 +47,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -71,6 +75,8 @@ public class UserAuthenticationManagerImpl implements UserAuthenticationManager
     @Autowired
     private UserAuthenticationService userAuthenticationService;
 
+    private final Map<String, Timer> loadUserTimers = new ConcurrentHashMap<>();
+
     @Override
     public Single<User> authenticate(Client client, Authentication authentication, boolean preAuthenticated) {
         logger.debug("Trying to authenticate [{}]", authentication);
@@ -193,6 +199,8 @@ public class UserAuthenticationManagerImpl implements UserAuthenticationManager
                 .switchIfEmpty(Maybe.error(new BadCredentialsException("Unable to load authentication provider " + authProvider + ", an error occurred during the initialization stage")))
                 .flatMap(authenticationProvider -> {
                     logger.debug("Authentication attempt using identity provider {} ({})", authenticationProvider, authenticationProvider.getClass().getName());
+                    final String idpType = identityProviderType(authProvider);
+                    final long start = System.nanoTime();
                     return Maybe.just(preAuthenticated)
                             .flatMap(preAuth -> {
                                 if (preAuth) {
@@ -201,6 +209,9 @@ public class UserAuthenticationManagerImpl implements UserAuthenticationManager
                                     return authenticationProvider.loadUserByUsername(authentication);
                                 }
                             })
+                            .doOnSuccess(user -> recordLoadUser(idpType, GatewayMetrics.OUTCOME_SUCCESS, start))
+                            .doOnComplete(() -> recordLoadUser(idpType, GatewayMetrics.OUTCOME_FAILURE, start))
+                            .doOnError(error -> recordLoadUser(idpType, GatewayMetrics.OUTCOME_FAILURE, start))
                             .switchIfEmpty(Maybe.error(new UsernameNotFoundException(authentication.getPrincipal().toString())));
                 })
                 .map(user -> {
@@ -217,6 +228,19 @@ public class UserAuthenticationManagerImpl implements UserAuthenticationManager
                 });
     }
 
+    private String identityProviderType(String authProvider) {
+        IdentityProvider identityProvider = identityProviderManager.getIdentityProvider(authProvider);
+        return identityProvider != null && identityProvider.getType() != null ? identityProvider.getType() : "unknown";
+    }
+
+    private void recordLoadUser(String idpType, String outcome, long start) {
+        loadUserTimers.computeIfAbsent(idpType + ':' + outcome, key -> GatewayMetrics.timer(GatewayMetrics.IDP_LOAD_USER,
+                GatewayMetrics.TAG_DOMAIN, domain.getId(),
+                GatewayMetrics.TAG_IDP_TYPE, idpType,
+                GatewayMetrics.TAG_OUTCOME, outcome))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
     private Completable preAuthentication(Client client, Authentication authentication, String source) {
         return preAuthentication(client, authentication.getPrincipal().toString(), source);
     }
@@ -139,7 +139,7 @@ public class UserAuthenticationServiceImpl implements UserAuthenticationService
                 .flatMap(user -> {
                     // send an email if option is enabled
                     if (user.getEmail() != null && accountSettings.isSendRecoverAccountEmail()) {
-                        new Thread(() -> emailService.send(Template.BLOCKED_ACCOUNT, user, client)).start();
+                        emailService.send(Template.BLOCKED_ACCOUNT, user, client);
                     }
                     return Single.just(user);
                 })
@@ -38,8 +38,6 @@ import java.security.InvalidKeyException;
 import java.security.Key;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -90,25 +88,13 @@ public class CertificateManagerImpl extends AbstractService implements Certifica
             return Maybe.empty();
         }
 
-        Optional<CertificateProvider> certificate = this
-                .providers()
-                .stream()
-                .filter(certificateProvider ->
-                        certificateProvider!=null && certificateProvider.getProvider()!=null &&
-                        algorithm.equals(certificateProvider.getProvider().signatureAlgorithm())
-                )
-                .findFirst();
-
-        return certificate.isPresent()?Maybe.just(certificate.get()):Maybe.empty();
+        CertificateProvider certificateProvider = certificateProviderManager.findByAlgorithm(domain.getId(), algorithm);
+        return certificateProvider != null ? Maybe.just(certificateProvider) : Maybe.empty();
     }
 
     @Override
     public Collection<CertificateProvider> providers() {
-        return certificateProviderManager
-                .certificateProviders()
-                .stream()
-                .filter(c -> domain.getId().equals(c.getDomain()))
-                .collect(Collectors.toList());
+        return certificateProviderManager.certificateProviders(domain.getId());
     }
 
     @Override
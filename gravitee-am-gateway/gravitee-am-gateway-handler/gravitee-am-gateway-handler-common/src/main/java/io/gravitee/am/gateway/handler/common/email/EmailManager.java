@@ -15,9 +15,12 @@
  */
 package io.gravitee.am.gateway.handler.common.email;
 
+import freemarker.template.Template;
 import io.gravitee.am.model.Email;
 import io.gravitee.common.service.Service;
 
+import java.io.IOException;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -27,4 +30,13 @@ public interface EmailManager extends Service {
     String TEMPLATE_NAME_SEPARATOR = "|";
 
     Email getEmail(String template, String defaultSubject, int defaultExpiresAfter);
+
+    /**
+     * Get the compiled subject of the email, compiled once per template until the template is updated.
+     *
+     * @param email the email returned by {@link #getEmail(String, String, int)}
+     * @return the compiled subject template
+     * @throws IOException if the subject is not a valid template
+     */
+    Template getSubjectTemplate(Email email) throws IOException;
 }
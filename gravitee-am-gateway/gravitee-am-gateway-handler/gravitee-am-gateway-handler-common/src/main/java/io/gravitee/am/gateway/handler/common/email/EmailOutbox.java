@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.email;
+
+import io.gravitee.am.model.OutboxEmail;
+import io.gravitee.common.service.Service;
+import io.reactivex.Completable;
+
+/**
+ * Durable queue of rendered emails, delivered in the background by a bounded pool of workers.
+ *
+ * @author GraviteeSource Team
+ */
+public interface EmailOutbox extends Service {
+
+    /**
+     * Store the email in the outbox and schedule its delivery.
+     *
+     * @param email the rendered email
+     * @return completes once the email is stored, not once it is delivered
+     */
+    Completable enqueue(OutboxEmail email);
+}
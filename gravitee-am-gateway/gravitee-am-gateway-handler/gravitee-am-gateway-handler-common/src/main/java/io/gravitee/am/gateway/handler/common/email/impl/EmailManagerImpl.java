@@ -17,6 +17,7 @@ package io.gravitee.am.gateway.handler.common.email.impl;
 
 import freemarker.cache.StringTemplateLoader;
 import freemarker.template.Configuration;
+import freemarker.template.Template;
 import io.gravitee.am.common.event.EmailEvent;
 import io.gravitee.am.common.event.EventManager;
 import io.gravitee.am.gateway.handler.common.email.EmailManager;
@@ -34,6 +35,8 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -52,6 +55,7 @@ public class EmailManagerImpl extends AbstractService implements EmailManager, I
     private static final String TEMPLATE_SUFFIX = ".html";
     private ConcurrentMap<String, Email> emails = new ConcurrentHashMap<>();
     private ConcurrentMap<String, Email> emailTemplates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SubjectTemplate> subjectTemplates = new ConcurrentHashMap<>();
 
     @Autowired
     private EmailRepository emailRepository;
@@ -136,6 +140,19 @@ public class EmailManagerImpl extends AbstractService implements EmailManager, I
         }
     }
 
+    @Override
+    public Template getSubjectTemplate(Email email) throws IOException {
+        // same key as the one used to evict the entry when the email is updated or removed
+        final String templateName = getTemplateName(email);
+        SubjectTemplate subjectTemplate = subjectTemplates.get(templateName);
+        // the subject may differ for the same template name (default subject vs custom one)
+        if (subjectTemplate == null || !subjectTemplate.source.equals(email.getSubject())) {
+            subjectTemplate = new SubjectTemplate(email.getSubject(), new Template("subject", new StringReader(email.getSubject()), configuration));
+            subjectTemplates.put(templateName, subjectTemplate);
+        }
+        return subjectTemplate.template;
+    }
+
     private Email create(String template, String from, String fromName, String subject, int expiresAt) {
         Email email = new Email();
         email.setTemplate(template);
@@ -169,6 +186,7 @@ public class EmailManagerImpl extends AbstractService implements EmailManager, I
         Email deletedEmail = emails.remove(emailId);
         if (deletedEmail != null) {
             emailTemplates.remove(getTemplateName(deletedEmail));
+            subjectTemplates.remove(getTemplateName(deletedEmail));
             templateLoader.removeTemplate(getTemplateName(deletedEmail) + TEMPLATE_SUFFIX);
         }
     }
@@ -181,6 +199,7 @@ public class EmailManagerImpl extends AbstractService implements EmailManager, I
                     String templateName = getTemplateName(email);
                     this.emails.put(email.getId(), email);
                     this.emailTemplates.put(templateName, email);
+                    this.subjectTemplates.remove(templateName);
                     reloadTemplate(templateName + TEMPLATE_SUFFIX, email.getContent());
                     logger.info("Email {} loaded for domain {}", templateName, domain.getName());
                 });
@@ -196,6 +215,16 @@ public class EmailManagerImpl extends AbstractService implements EmailManager, I
                 + ((email.getClient() != null) ? TEMPLATE_NAME_SEPARATOR + email.getClient() : "");
     }
 
+    private static final class SubjectTemplate {
+        private final String source;
+        private final Template template;
+
+        private SubjectTemplate(String source, Template template) {
+            this.source = source;
+            this.template = template;
+        }
+    }
+
     public void setSubject(String subject) {
         this.subject = subject;
     }
@@ -204,6 +233,10 @@ public class EmailManagerImpl extends AbstractService implements EmailManager, I
         this.defaultFrom = defaultFrom;
     }
 
+    public void setConfiguration(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
     public void setEmailTemplates(ConcurrentMap<String, Email> emailTemplates) {
         this.emailTemplates = emailTemplates;
     }
@@ -0,0 +1,235 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.email.impl;
+
+import io.gravitee.am.common.email.Email;
+import io.gravitee.am.common.email.EmailBuilder;
+import io.gravitee.am.gateway.handler.common.email.EmailOutbox;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.OutboxEmail;
+import io.gravitee.am.model.ReferenceType;
+import io.gravitee.am.model.User;
+import io.gravitee.am.model.oidc.Client;
+import io.gravitee.am.repository.management.api.OutboxEmailRepository;
+import io.gravitee.am.service.AuditService;
+import io.gravitee.am.service.EmailService;
+import io.gravitee.am.service.reporter.builder.AuditBuilder;
+import io.gravitee.am.service.reporter.builder.EmailAuditBuilder;
+import io.gravitee.common.service.AbstractService;
+import io.reactivex.Completable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deliver the emails stored in the outbox of the domain.
+ *
+ * Each worker claims a batch of due emails (a lease prevents other workers or nodes from claiming them meanwhile)
+ * and sends the whole batch through a single SMTP connection. Emails which could not be delivered are rescheduled
+ * with an exponential backoff until the maximum number of attempts is reached. Emails are removed from the outbox
+ * once the retention period has elapsed, even if they have not been delivered, as their content may hold tokens.
+ *
+ * @author GraviteeSource Team
+ */
+public class EmailOutboxImpl extends AbstractService implements EmailOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxImpl.class);
+
+    @Value("${email.enabled:false}")
+    private boolean enabled;
+
+    @Value("${email.outbox.workers:2}")
+    private int workers;
+
+    @Value("${email.outbox.batchSize:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.pollInterval:30000}")
+    private long pollInterval;
+
+    @Value("${email.outbox.lease:300000}")
+    private long lease;
+
+    @Value("${email.outbox.maxAttempts:5}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff:60000}")
+    private long backoff;
+
+    @Value("${email.outbox.retention:86400000}")
+    private long retention;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private Domain domain;
+
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private ThreadPoolTaskScheduler scheduler;
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        if (enabled) {
+            logger.info("Starting email outbox for domain {}", domain.getName());
+            scheduler = new ThreadPoolTaskScheduler();
+            scheduler.setPoolSize(workers);
+            scheduler.setThreadNamePrefix("email-outbox-" + domain.getId() + "-");
+            scheduler.initialize();
+            scheduler.scheduleWithFixedDelay(this::drain, Duration.ofMillis(pollInterval));
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        if (scheduler != null) {
+            logger.info("Stopping email outbox for domain {}", domain.getName());
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public Completable enqueue(OutboxEmail email) {
+        final Date now = new Date();
+        email.setDomain(domain.getId());
+        email.setAttempts(0);
+        email.setNextAttemptAt(now);
+        email.setExpireAt(new Date(now.getTime() + retention));
+        email.setCreatedAt(now);
+        email.setUpdatedAt(now);
+        return outboxEmailRepository.create(email)
+                .doOnSuccess(created -> {
+                    final ThreadPoolTaskScheduler scheduler = this.scheduler;
+                    if (scheduler != null) {
+                        scheduler.execute(this::drain);
+                    }
+                })
+                .ignoreElement();
+    }
+
+    void drain() {
+        // every worker is already draining the outbox, the new email will be picked by one of them
+        if (activeWorkers.incrementAndGet() > workers) {
+            activeWorkers.decrementAndGet();
+            return;
+        }
+
+        try {
+            List<OutboxEmail> batch;
+            do {
+                batch = claim();
+                if (!batch.isEmpty()) {
+                    deliver(batch);
+                }
+            } while (batch.size() == batchSize && lifecycle.started());
+        } catch (Exception ex) {
+            logger.error("Unable to deliver emails of the outbox for domain {}", domain.getName(), ex);
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    private List<OutboxEmail> claim() {
+        final Date now = new Date();
+        final Date leaseExpireAt = new Date(now.getTime() + lease);
+        final List<OutboxEmail> batch = new ArrayList<>(batchSize);
+        OutboxEmail outboxEmail;
+        while (batch.size() < batchSize
+                && (outboxEmail = outboxEmailRepository.lockNext(domain.getId(), now, leaseExpireAt).blockingGet()) != null) {
+            batch.add(outboxEmail);
+        }
+        return batch;
+    }
+
+    private void deliver(List<OutboxEmail> batch) {
+        final List<Email> emails = new ArrayList<>(batch.size());
+        batch.forEach(outboxEmail -> emails.add(convert(outboxEmail)));
+
+        final Map<Email, Exception> failures = emailService.send(emails);
+
+        for (int i = 0; i < batch.size(); i++) {
+            final OutboxEmail outboxEmail = batch.get(i);
+            final Email email = emails.get(i);
+            final Exception failure = failures.get(email);
+            if (failure == null) {
+                outboxEmailRepository.delete(outboxEmail.getId()).blockingAwait();
+                auditService.report(AuditBuilder.builder(EmailAuditBuilder.class).domain(domain.getId()).client(client(outboxEmail)).email(email).user(user(outboxEmail)));
+            } else if (outboxEmail.getAttempts() + 1 >= maxAttempts) {
+                logger.error("Unable to deliver email {} after {} attempts, email is discarded", outboxEmail.getId(), maxAttempts, failure);
+                outboxEmailRepository.delete(outboxEmail.getId()).blockingAwait();
+                auditService.report(AuditBuilder.builder(EmailAuditBuilder.class).domain(domain.getId()).client(client(outboxEmail)).email(email).throwable(failure));
+            } else {
+                final int attempts = outboxEmail.getAttempts() + 1;
+                final Date now = new Date();
+                logger.debug("Unable to deliver email {}, retry #{} scheduled", outboxEmail.getId(), attempts, failure);
+                outboxEmail.setAttempts(attempts);
+                outboxEmail.setNextAttemptAt(new Date(now.getTime() + (backoff << Math.min(attempts - 1, 16))));
+                outboxEmail.setUpdatedAt(now);
+                outboxEmailRepository.update(outboxEmail).ignoreElement().blockingAwait();
+            }
+        }
+    }
+
+    private static Email convert(OutboxEmail outboxEmail) {
+        Email email = new EmailBuilder()
+                .from(outboxEmail.getFrom())
+                .fromName(outboxEmail.getFromName())
+                .to(outboxEmail.getTo().toArray(new String[0]))
+                .subject(outboxEmail.getSubject())
+                .template(outboxEmail.getTemplate())
+                .build();
+        email.setContent(outboxEmail.getContent());
+        return email;
+    }
+
+    private Client client(OutboxEmail outboxEmail) {
+        Client client = new Client();
+        client.setId(outboxEmail.getClient());
+        client.setClientId(outboxEmail.getClientId());
+        client.setClientName(outboxEmail.getClientName());
+        return client;
+    }
+
+    private User user(OutboxEmail outboxEmail) {
+        User user = new User();
+        user.setId(outboxEmail.getUser());
+        user.setUsername(outboxEmail.getUsername());
+        user.setDisplayName(outboxEmail.getUserDisplayName());
+        user.setReferenceType(ReferenceType.DOMAIN);
+        user.setReferenceId(domain.getId());
+        return user;
+    }
+}
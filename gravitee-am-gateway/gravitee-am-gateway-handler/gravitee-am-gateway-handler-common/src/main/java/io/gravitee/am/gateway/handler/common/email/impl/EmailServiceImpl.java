@@ -23,9 +23,11 @@ import io.gravitee.am.common.jwt.Claims;
 import io.gravitee.am.common.jwt.JWT;
 import io.gravitee.am.common.oidc.StandardClaims;
 import io.gravitee.am.gateway.handler.common.email.EmailManager;
+import io.gravitee.am.gateway.handler.common.email.EmailOutbox;
 import io.gravitee.am.gateway.handler.common.email.EmailService;
 import io.gravitee.am.jwt.JWTBuilder;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.OutboxEmail;
 import io.gravitee.am.model.User;
 import io.gravitee.am.model.oidc.Client;
 import io.gravitee.am.service.AuditService;
@@ -36,7 +38,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 
-import java.io.StringReader;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -71,7 +73,7 @@ public class EmailServiceImpl implements EmailService {
     private EmailManager emailManager;
 
     @Autowired
-    private io.gravitee.am.service.EmailService emailService;
+    private EmailOutbox emailOutbox;
 
     @Autowired
     private Configuration freemarkerConfiguration;
@@ -96,30 +98,47 @@ public class EmailServiceImpl implements EmailService {
             io.gravitee.am.model.Email emailTemplate = getEmailTemplate(template, client);
             // prepare email
             Email email = prepareEmail(template, emailTemplate, user, client);
-            // send email
-            sendEmail(email, user, client);
-
+            // render and store the email, delivery is done by the outbox
+            sendEmail(emailTemplate, email, user, client);
         }
     }
 
-    private void sendEmail(Email email, User user, Client client) {
+    private void sendEmail(io.gravitee.am.model.Email emailTemplate, Email email, User user, Client client) {
         try {
             final Template template = freemarkerConfiguration.getTemplate(email.getTemplate());
-            final Template plainTextTemplate = new Template("subject", new StringReader(email.getSubject()), freemarkerConfiguration);
+            final Template subjectTemplate = emailManager.getSubjectTemplate(emailTemplate);
             // compute email subject
-            final String subject = processTemplateIntoString(plainTextTemplate, email.getParams());
+            final String subject = processTemplateIntoString(subjectTemplate, email.getParams());
             // compute email content
             final String content = processTemplateIntoString(template, email.getParams());
-            final Email emailToSend = new Email(email);
-            emailToSend.setSubject(subject);
-            emailToSend.setContent(content);
-            emailService.send(emailToSend);
-            auditService.report(AuditBuilder.builder(EmailAuditBuilder.class).domain(domain.getId()).client(client).email(email).user(user));
+            emailOutbox.enqueue(prepareOutboxEmail(email, subject, content, user, client))
+                    .subscribe(
+                            () -> {},
+                            error -> auditService.report(AuditBuilder.builder(EmailAuditBuilder.class).domain(domain.getId()).client(client).email(email).throwable(error)));
         } catch (final Exception ex) {
             auditService.report(AuditBuilder.builder(EmailAuditBuilder.class).domain(domain.getId()).client(client).email(email).throwable(ex));
         }
     }
 
+    private OutboxEmail prepareOutboxEmail(Email email, String subject, String content, User user, Client client) {
+        OutboxEmail outboxEmail = new OutboxEmail();
+        if (client != null) {
+            outboxEmail.setClient(client.getId());
+            outboxEmail.setClientId(client.getClientId());
+            outboxEmail.setClientName(client.getClientName());
+        }
+        outboxEmail.setUser(user.getId());
+        outboxEmail.setUsername(user.getUsername());
+        outboxEmail.setUserDisplayName(user.getDisplayName());
+        outboxEmail.setTemplate(email.getTemplate());
+        outboxEmail.setFrom(email.getFrom());
+        outboxEmail.setFromName(email.getFromName());
+        outboxEmail.setTo(Arrays.asList(email.getTo()));
+        outboxEmail.setSubject(subject);
+        outboxEmail.setContent(content);
+        return outboxEmail;
+    }
+
     private Email prepareEmail(io.gravitee.am.model.Template template, io.gravitee.am.model.Email emailTemplate, User user, Client client) {
         Map<String, Object> params = prepareEmailParams(user, client, emailTemplate.getExpiresAfter(), template.redirectUri());
         Email email = new EmailBuilder()
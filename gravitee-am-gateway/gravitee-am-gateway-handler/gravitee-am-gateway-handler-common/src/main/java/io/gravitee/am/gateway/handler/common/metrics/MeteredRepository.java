@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.metrics;
+
+import io.gravitee.am.gateway.core.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static io.gravitee.am.gateway.core.metrics.GatewayMetrics.*;
+
+/**
+ * Proxy a repository to time each of its calls, tagged by domain, repository and method.
+ *
+ * Reactive results are timed from subscription to termination so that the measure reflects the actual backend call.
+ *
+ * @author GraviteeSource Team
+ */
+public class MeteredRepository implements InvocationHandler {
+
+    private final Object target;
+    private final String domain;
+    private final String repository;
+    private final MeterRegistry registry;
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    private MeteredRepository(Object target, String domain, String repository, MeterRegistry registry) {
+        this.target = target;
+        this.domain = domain;
+        this.repository = repository;
+        this.registry = registry;
+    }
+
+    public static Object create(Object target, String domain) {
+        return create(target, domain, GatewayMetrics.registry());
+    }
+
+    public static Object create(Object target, String domain, MeterRegistry registry) {
+        Class<?>[] interfaces = ClassUtils.getAllInterfaces(target);
+        String repository = target.getClass().getSimpleName();
+        for (Class<?> iface : interfaces) {
+            if (iface.getSimpleName().endsWith("Repository")) {
+                repository = iface.getSimpleName();
+                break;
+            }
+        }
+        return Proxy.newProxyInstance(target.getClass().getClassLoader(), interfaces, new MeteredRepository(target, domain, repository, registry));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invoke0(method, args);
+        }
+
+        final Timer[] methodTimers = timers.computeIfAbsent(method, this::timers);
+        final Object result;
+        final long start = System.nanoTime();
+        try {
+            result = invoke0(method, args);
+        } catch (Throwable t) {
+            record(methodTimers[1], start);
+            throw t;
+        }
+
+        if (result instanceof Single) {
+            return Single.defer(() -> {
+                long subscribedAt = System.nanoTime();
+                return ((Single<?>) result)
+                        .doOnSuccess(v -> record(methodTimers[0], subscribedAt))
+                        .doOnError(e -> record(methodTimers[1], subscribedAt));
+            });
+        } else if (result instanceof Maybe) {
+            return Maybe.defer(() -> {
+                long subscribedAt = System.nanoTime();
+                return ((Maybe<?>) result)
+                        .doOnSuccess(v -> record(methodTimers[0], subscribedAt))
+                        .doOnComplete(() -> record(methodTimers[0], subscribedAt))
+                        .doOnError(e -> record(methodTimers[1], subscribedAt));
+            });
+        } else if (result instanceof Completable) {
+            return Completable.defer(() -> {
+                long subscribedAt = System.nanoTime();
+                return ((Completable) result)
+                        .doOnComplete(() -> record(methodTimers[0], subscribedAt))
+                        .doOnError(e -> record(methodTimers[1], subscribedAt));
+            });
+        } else if (result instanceof Flowable) {
+            return Flowable.defer(() -> {
+                long subscribedAt = System.nanoTime();
+                return ((Flowable<?>) result)
+                        .doOnComplete(() -> record(methodTimers[0], subscribedAt))
+                        .doOnError(e -> record(methodTimers[1], subscribedAt));
+            });
+        } else if (result instanceof Observable) {
+            return Observable.defer(() -> {
+                long subscribedAt = System.nanoTime();
+                return ((Observable<?>) result)
+                        .doOnComplete(() -> record(methodTimers[0], subscribedAt))
+                        .doOnError(e -> record(methodTimers[1], subscribedAt));
+            });
+        }
+
+        record(methodTimers[0], start);
+        return result;
+    }
+
+    private Object invoke0(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private Timer[] timers(Method method) {
+        return new Timer[]{
+                timer(method, OUTCOME_SUCCESS),
+                timer(method, OUTCOME_FAILURE)
+        };
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer.builder(REPOSITORY_CALLS)
+                .tags(GatewayMetrics.tags(TAG_DOMAIN, domain, TAG_REPOSITORY, repository, TAG_METHOD, method.getName(), TAG_OUTCOME, outcome))
+                .register(registry);
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
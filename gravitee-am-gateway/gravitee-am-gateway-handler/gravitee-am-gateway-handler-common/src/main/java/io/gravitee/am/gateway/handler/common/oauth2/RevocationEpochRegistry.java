@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.oauth2;
+
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+
+import java.util.Collection;
+
+/**
+ * Node-wide in-memory view of the revocation epochs, kept up to date by the synchronization process.
+ * It allows signed tokens to be validated without looking for them in the database.
+ *
+ * Revocations recorded by another node are only known after the next synchronization: in the meantime the revoked
+ * tokens are still accepted by this node. If the synchronization stops, the registry no longer vouches for any token
+ * once <code>oauth2.revocation.maxStaleness</code> has elapsed, and the tokens are checked against the database again.
+ *
+ * @author GraviteeSource Team
+ */
+public interface RevocationEpochRegistry {
+
+    /**
+     * Load the revocation epochs known so far, the registry can then vouch for the recent tokens.
+     *
+     * @param revocationEpochs all the revocation epochs which have not expired yet
+     */
+    void init(Collection<RevocationEpoch> revocationEpochs);
+
+    /**
+     * Register a new revocation epoch, only the most recent one is kept for a given scope.
+     *
+     * @param revocationEpoch revocation epoch
+     */
+    void register(RevocationEpoch revocationEpoch);
+
+    /**
+     * Register the revocation epochs recorded since the last synchronization and remove the expired ones.
+     *
+     * @param revocationEpochs revocation epochs recorded since the last synchronization
+     */
+    void synchronize(Collection<RevocationEpoch> revocationEpochs);
+
+    /**
+     * Remove the expired revocation epochs.
+     */
+    void purge();
+
+    /**
+     * @param domain security domain of the token
+     * @param client client the token has been issued to
+     * @param subject subject of the token
+     * @param token identifier (jti) of the token
+     * @param issuedAt issue date of the token, in seconds
+     * @return true if the token itself or a scope it belongs to has been revoked after its issue date
+     */
+    boolean isRevoked(String domain, String client, String subject, String token, long issuedAt);
+
+    /**
+     * @param issuedAt issue date of the token, in seconds
+     * @return true if every revocation which could apply to a token issued at this date is known by the registry,
+     * as of the last synchronization
+     */
+    boolean covers(long issuedAt);
+}
@@ -21,6 +21,7 @@ import io.gravitee.am.common.jwt.JWT;
 import io.gravitee.am.gateway.handler.common.client.ClientSyncService;
 import io.gravitee.am.gateway.handler.common.jwt.JWTService;
 import io.gravitee.am.gateway.handler.common.oauth2.IntrospectionTokenService;
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
@@ -47,6 +48,9 @@ public class IntrospectionTokenServiceImpl implements IntrospectionTokenService
     @Autowired
     private ClientSyncService clientService;
 
+    @Autowired
+    private RevocationEpochRegistry revocationEpochRegistry;
+
     @Lazy
     @Autowired
     private AccessTokenRepository accessTokenRepository;
@@ -58,9 +62,19 @@ public class IntrospectionTokenServiceImpl implements IntrospectionTokenService
                 .switchIfEmpty(Maybe.error(new InvalidTokenException("Invalid or unknown client for this token")))
                 .flatMapSingle(client -> jwtService.decodeAndVerify(token, client))
                 .flatMap(jwt -> {
-                    // Just check the JWT signature and JWT validity if offline verification option is enabled
+                    // check if the token has been revoked since it has been issued
+                    if (revocationEpochRegistry.isRevoked(jwt.getDomain(), jwt.getAud(), jwt.getSub(), jwt.getJti(), jwt.getIat())) {
+                        return Single.error(new InvalidTokenException("The token is invalid", "Token with JTI [" + jwt.getJti() + "] has been revoked", jwt));
+                    }
+
+                    // Just check the JWT signature and JWT validity if offline verification option is enabled,
+                    // if the revocation registry knows every revocation which could apply to the token
+                    // (revocations made on another node are only known after the next synchronization, the registry
+                    // stops vouching for tokens when it has not been synchronized for a while)
                     // or if the token has just been created (could not be in database so far because of async database storing process delay)
-                    if (offlineVerification || Instant.now().isBefore(Instant.ofEpochSecond(jwt.getIat() + OFFLINE_VERIFICATION_TIMER_SECONDS))) {
+                    if (offlineVerification
+                            || revocationEpochRegistry.covers(jwt.getIat())
+                            || Instant.now().isBefore(Instant.ofEpochSecond(jwt.getIat() + OFFLINE_VERIFICATION_TIMER_SECONDS))) {
                         return Single.just(jwt);
                     }
 
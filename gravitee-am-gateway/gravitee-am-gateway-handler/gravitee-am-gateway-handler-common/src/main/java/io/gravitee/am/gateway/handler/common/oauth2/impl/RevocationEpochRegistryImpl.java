@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.oauth2.impl;
+
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.gravitee.am.service.spring.RevocationEpochProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RevocationEpochRegistryImpl implements RevocationEpochRegistry {
+
+    private static final char KEY_SEPARATOR = '\0';
+
+    @Autowired
+    private RevocationEpochProperties revocationEpochProperties;
+
+    private final ConcurrentMap<String, RevocationEpoch> revocationEpochs = new ConcurrentHashMap<>();
+
+    /**
+     * Single revoked tokens, by token identifier.
+     */
+    private final ConcurrentMap<String, RevocationEpoch> revokedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Date of the last synchronization, <code>-1</code> until the registry is initialized.
+     */
+    private volatile long synchronizedAt = -1;
+
+    @Override
+    public void init(Collection<RevocationEpoch> revocationEpochs) {
+        revocationEpochs.forEach(this::register);
+        synchronizedAt = System.currentTimeMillis();
+    }
+
+    @Override
+    public void register(RevocationEpoch revocationEpoch) {
+        if (revocationEpoch.getToken() != null) {
+            revokedTokens.put(revocationEpoch.getToken(), revocationEpoch);
+            return;
+        }
+        revocationEpochs.merge(key(revocationEpoch.getDomain(), revocationEpoch.getClient(), revocationEpoch.getSubject()), revocationEpoch,
+                (current, candidate) -> candidate.getRevokedAt().after(current.getRevokedAt()) ? candidate : current);
+    }
+
+    @Override
+    public void synchronize(Collection<RevocationEpoch> revocationEpochs) {
+        revocationEpochs.forEach(this::register);
+        purge();
+        synchronizedAt = System.currentTimeMillis();
+    }
+
+    @Override
+    public void purge() {
+        Date now = new Date();
+        revocationEpochs.values().removeIf(revocationEpoch -> isExpired(revocationEpoch, now));
+        revokedTokens.values().removeIf(revocationEpoch -> isExpired(revocationEpoch, now));
+    }
+
+    @Override
+    public boolean isRevoked(String domain, String client, String subject, String token, long issuedAt) {
+        if (token != null && revokedTokens.containsKey(token)) {
+            return true;
+        }
+        if (revocationEpochs.isEmpty()) {
+            return false;
+        }
+        return revokedSince(key(domain, client, subject), issuedAt)
+                || revokedSince(key(domain, client, null), issuedAt)
+                || revokedSince(key(domain, null, subject), issuedAt);
+    }
+
+    @Override
+    public boolean covers(long issuedAt) {
+        final long now = System.currentTimeMillis();
+        final long synchronizedAt = this.synchronizedAt;
+        return synchronizedAt != -1
+                && now - synchronizedAt <= revocationEpochProperties.getMaxStaleness()
+                && issuedAt * 1000 > now - revocationEpochProperties.getRetention();
+    }
+
+    private static boolean isExpired(RevocationEpoch revocationEpoch, Date now) {
+        return revocationEpoch.getExpireAt() != null && revocationEpoch.getExpireAt().before(now);
+    }
+
+    private boolean revokedSince(String key, long issuedAt) {
+        RevocationEpoch revocationEpoch = revocationEpochs.get(key);
+        // issue dates have a one second precision, tokens issued during the second of the revocation are revoked
+        return revocationEpoch != null && issuedAt <= revocationEpoch.getRevokedAt().getTime() / 1000;
+    }
+
+    private static String key(String domain, String client, String subject) {
+        return (domain == null ? "" : domain) + KEY_SEPARATOR + (client == null ? "" : client) + KEY_SEPARATOR + (subject == null ? "" : subject);
+    }
+}
@@ -31,4 +31,15 @@ public interface PolicyManager extends Service {
     Single<List<Policy>> findByExtensionPoint(ExtensionPoint extensionPoint);
 
     Policy create(String type, String configuration);
+
+    /**
+     * Return the policy instance of a rule, created once per rule configuration and shared between executions.
+     * The instance is dropped when the rule configuration changes or when the domain policies are redeployed.
+     *
+     * @param ruleId the rule id, the instance is not cached if null
+     * @param type the policy plugin type
+     * @param configuration the policy configuration
+     * @return the policy instance or null if the plugin can't be created
+     */
+    Policy getOrCreate(String ruleId, String type, String configuration);
 }
@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.gateway.handler.common.policy.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.am.common.policy.ExtensionPoint;
 import io.gravitee.am.common.event.EventManager;
 import io.gravitee.am.common.event.PolicyEvent;
@@ -35,10 +37,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -64,6 +72,16 @@ public class PolicyManagerImpl extends AbstractService implements PolicyManager,
     private ConcurrentMap<String, Policy> policies = new ConcurrentHashMap<>();
     private ConcurrentMap<String, io.gravitee.am.model.Policy> policyModels = new ConcurrentHashMap<>();
 
+    // ordered policy chains, rebuilt when policies are deployed/undeployed and swapped atomically
+    private static final Single<List<Policy>> EMPTY_POLICY_CHAIN = Single.just(Collections.emptyList());
+    private volatile Map<ExtensionPoint, Single<List<Policy>>> policyChains = Collections.emptyMap();
+
+    // rule (UMA access policy) instances, keyed by rule id
+    private final Cache<String, RulePolicy> rulePolicies = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
     @Override
     protected void doStart() throws Exception {
         super.doStart();
@@ -83,6 +101,8 @@ public class PolicyManagerImpl extends AbstractService implements PolicyManager,
     @Override
     public void onEvent(Event<PolicyEvent, Payload> event) {
         if (event.content().getReferenceType() == ReferenceType.DOMAIN && domain.getId().equals(event.content().getReferenceId())) {
+            // policy plugins may have been redeployed, rule instances will be created again on next use
+            rulePolicies.invalidateAll();
             switch (event.type()) {
                 case DEPLOY:
                 case UPDATE:
@@ -103,12 +123,7 @@ public class PolicyManagerImpl extends AbstractService implements PolicyManager,
 
     @Override
     public Single<List<Policy>> findByExtensionPoint(ExtensionPoint extensionPoint) {
-        return Observable.fromIterable(policyModels.values())
-                .filter(policy -> policy.isEnabled() && policy.getExtensionPoint().equals(extensionPoint))
-                .toSortedList(Comparator.comparing(io.gravitee.am.model.Policy::getOrder))
-                .map(policies1 -> policies1.stream()
-                        .map(policy -> policies.get(policy.getId()))
-                        .collect(Collectors.toList()));
+        return policyChains.getOrDefault(extensionPoint, EMPTY_POLICY_CHAIN);
     }
 
     @Override
@@ -116,6 +131,25 @@ public class PolicyManagerImpl extends AbstractService implements PolicyManager,
         return policyPluginManager.create(type, configuration);
     }
 
+    @Override
+    public Policy getOrCreate(String ruleId, String type, String configuration) {
+        if (ruleId == null) {
+            return create(type, configuration);
+        }
+        RulePolicy rulePolicy = rulePolicies.getIfPresent(ruleId);
+        if (rulePolicy != null && rulePolicy.matches(type, configuration)) {
+            return rulePolicy.policy;
+        }
+        // first use or the rule has been updated since the instance has been created
+        Policy policy = create(type, configuration);
+        if (policy != null) {
+            rulePolicies.put(ruleId, new RulePolicy(type, configuration, policy));
+        } else {
+            rulePolicies.invalidate(ruleId);
+        }
+        return policy;
+    }
+
     @Override
     public void afterPropertiesSet() {
         logger.info("Initializing policies for domain {}", domain.getName());
@@ -129,6 +163,7 @@ public class PolicyManagerImpl extends AbstractService implements PolicyManager,
                 .subscribe(
                         policy -> {
                             updatePolicyProvider(policy);
+                            updatePolicyChains();
                             logger.info("Policy {} {}d for domain {}", policyId, eventType, domain.getName());
                         },
                         error -> logger.error("Unable to {} policy for domain {}", eventType, domain.getName(), error),
@@ -139,6 +174,7 @@ public class PolicyManagerImpl extends AbstractService implements PolicyManager,
         logger.info("Domain {} has received policy event, delete policy {}", domain.getName(), policyId);
         policies.remove(policyId);
         policyModels.remove(policyId);
+        updatePolicyChains();
     }
 
     private void updatePolicyProvider(io.gravitee.am.model.Policy policy) {
@@ -158,9 +194,39 @@ public class PolicyManagerImpl extends AbstractService implements PolicyManager,
                 .subscribe(
                         policies1 -> {
                             policies1.forEach(policy -> updatePolicyProvider(policy));
+                            updatePolicyChains();
                             logger.info("Policies loaded for domain {}", domain.getName());
                         },
                         error -> logger.error("Unable to initialize policies for domain {}", domain.getName(), error)
                 );
     }
+
+    private synchronized void updatePolicyChains() {
+        Map<ExtensionPoint, Single<List<Policy>>> chains = new EnumMap<>(ExtensionPoint.class);
+        policyModels.values()
+                .stream()
+                .filter(policy -> policy.isEnabled() && policy.getExtensionPoint() != null && policies.containsKey(policy.getId()))
+                .sorted(Comparator.comparing(io.gravitee.am.model.Policy::getOrder))
+                .collect(Collectors.groupingBy(io.gravitee.am.model.Policy::getExtensionPoint,
+                        Collectors.mapping(policy -> policies.get(policy.getId()), Collectors.toList())))
+                .forEach((extensionPoint, policyChain) -> chains.put(extensionPoint, Single.just(Collections.unmodifiableList(new ArrayList<>(policyChain)))));
+        policyChains = chains;
+    }
+
+    private static class RulePolicy {
+        private final String type;
+        private final String configuration;
+        private final Policy policy;
+
+        RulePolicy(String type, String configuration, Policy policy) {
+            this.type = type;
+            this.configuration = configuration;
+            this.policy = policy;
+        }
+
+        boolean matches(String type, String configuration) {
+            return Objects.equals(this.type, type)
+                    && Objects.equals(this.configuration, configuration);
+        }
+    }
 }
@@ -29,8 +29,10 @@ import io.gravitee.am.gateway.handler.common.certificate.impl.CertificateManager
 import io.gravitee.am.gateway.handler.common.client.ClientSyncService;
 import io.gravitee.am.gateway.handler.common.client.impl.ClientSyncServiceImpl;
 import io.gravitee.am.gateway.handler.common.email.EmailManager;
+import io.gravitee.am.gateway.handler.common.email.EmailOutbox;
 import io.gravitee.am.gateway.handler.common.email.EmailService;
 import io.gravitee.am.gateway.handler.common.email.impl.EmailManagerImpl;
+import io.gravitee.am.gateway.handler.common.email.impl.EmailOutboxImpl;
 import io.gravitee.am.gateway.handler.common.email.impl.EmailServiceImpl;
 import io.gravitee.am.gateway.handler.common.jwt.JWTService;
 import io.gravitee.am.gateway.handler.common.jwt.impl.JWTServiceImpl;
@@ -52,6 +54,7 @@ import io.gravitee.am.gateway.handler.common.vertx.web.auth.provider.impl.UserAu
 import io.gravitee.am.gateway.handler.context.ExecutionContextFactory;
 import io.gravitee.am.gateway.handler.context.TemplateVariableProviderFactory;
 import io.gravitee.am.gateway.handler.context.spring.ContextConfiguration;
+import io.gravitee.am.model.Domain;
 import io.gravitee.am.gateway.policy.spring.PolicyConfiguration;
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.reactivex.core.Vertx;
@@ -77,6 +80,9 @@ public class CommonConfiguration {
     @Autowired
     private Vertx vertx;
 
+    @Autowired
+    private Domain domain;
+
     @Bean
     @Qualifier("oidcWebClient")
     public WebClient webClient() {
@@ -165,7 +171,7 @@ public class CommonConfiguration {
 
     @Bean
     public UserManager userManager() {
-        UserStore userStore = new InMemoryUserStore(vertx, environment.getProperty("http.cookie.session.timeout", Long.class, io.vertx.reactivex.ext.web.handler.SessionHandler.DEFAULT_SESSION_TIMEOUT));
+        UserStore userStore = new InMemoryUserStore(vertx, environment.getProperty("http.cookie.session.timeout", Long.class, io.vertx.reactivex.ext.web.handler.SessionHandler.DEFAULT_SESSION_TIMEOUT), domain.getId());
         return new UserManagerImpl(userStore);
     }
 
@@ -178,4 +184,9 @@ public class CommonConfiguration {
     public EmailManager emailManager() {
         return new EmailManagerImpl();
     }
+
+    @Bean
+    public EmailOutbox emailOutbox() {
+        return new EmailOutboxImpl();
+    }
 }
@@ -15,8 +15,11 @@
  */
 package io.gravitee.am.gateway.handler.common.user.impl;
 
+import io.gravitee.am.gateway.core.metrics.GatewayMetrics;
 import io.gravitee.am.gateway.handler.common.user.UserStore;
 import io.gravitee.am.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.vertx.core.Handler;
 import io.vertx.reactivex.core.Vertx;
 
@@ -41,6 +44,8 @@ public class InMemoryUserStore implements UserStore, Handler<Long> {
     private boolean closed;
     private long timeout;
     private Vertx vertx;
+    private MeterRegistry registry;
+    private Gauge sizeGauge;
 
     public InMemoryUserStore(Vertx vertx, long timeout) {
         reaperInterval = DEFAULT_REAPER_INTERVAL;
@@ -49,6 +54,14 @@ public class InMemoryUserStore implements UserStore, Handler<Long> {
         setTimer();
     }
 
+    public InMemoryUserStore(Vertx vertx, long timeout, String domain) {
+        this(vertx, timeout);
+        this.registry = GatewayMetrics.registry();
+        this.sizeGauge = Gauge.builder(GatewayMetrics.USER_STORE_SIZE, users, ConcurrentMap::size)
+                .tags(GatewayMetrics.tags(GatewayMetrics.TAG_DOMAIN, domain))
+                .register(registry);
+    }
+
     @Override
     public void add(User user) {
         users.put(user.getId(), new io.gravitee.am.gateway.handler.common.user.impl.User(user, System.currentTimeMillis()));
@@ -70,6 +83,9 @@ public class InMemoryUserStore implements UserStore, Handler<Long> {
         if (timerID != -1) {
             vertx.cancelTimer(timerID);
         }
+        if (sizeGauge != null) {
+            registry.remove(sizeGauge);
+        }
         closed = true;
     }
 
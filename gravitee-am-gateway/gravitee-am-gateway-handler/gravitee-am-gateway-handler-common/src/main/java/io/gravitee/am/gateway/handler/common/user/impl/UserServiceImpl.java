@@ -15,9 +15,13 @@
  */
 package io.gravitee.am.gateway.handler.common.user.impl;
 
+import io.gravitee.am.common.event.Action;
+import io.gravitee.am.common.event.EventManager;
+import io.gravitee.am.common.event.UserEvent;
 import io.gravitee.am.gateway.handler.common.user.UserService;
 import io.gravitee.am.model.User;
 import io.gravitee.am.model.ReferenceType;
+import io.gravitee.am.model.common.event.Payload;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +37,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private io.gravitee.am.service.UserService userService;
 
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     public Maybe<User> findById(String id) {
         return userService.findById(id);
@@ -60,7 +67,10 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Single<User> update(User user) {
-        return userService.update(user);
+        // self-service updates (registration confirmation, password reset, factors) are known by this node right away
+        return userService.update(user)
+                .doOnSuccess(updatedUser -> eventManager.publishEvent(UserEvent.UPDATE,
+                        new Payload(updatedUser.getId(), updatedUser.getReferenceType(), updatedUser.getReferenceId(), Action.UPDATE)));
     }
 
     @Override
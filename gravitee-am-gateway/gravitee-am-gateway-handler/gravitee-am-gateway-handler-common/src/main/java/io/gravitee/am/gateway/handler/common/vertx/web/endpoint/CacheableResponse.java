@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.vertx.web.endpoint;
+
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpStatusCode;
+import io.vertx.core.json.Json;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * A pre-rendered JSON response body with its strong entity-tag, rendered once and sent as-is to every request
+ * until the underlying content changes.
+ *
+ * Conditional requests are honored : a request whose <code>If-None-Match</code> header matches the entity-tag
+ * receives a <code>304 Not Modified</code> response without body.
+ *
+ * See <a href="https://tools.ietf.org/html/rfc7232#section-3.2">3.2. If-None-Match</a>
+ *
+ * @author GraviteeSource Team
+ */
+public final class CacheableResponse {
+
+    private static final String WEAK_PREFIX = "W/";
+    private final Buffer body;
+    private final String etag;
+    private final String contentType;
+
+    private CacheableResponse(byte[] body, String contentType) {
+        this.body = Buffer.buffer(body);
+        this.etag = '"' + digest(body) + '"';
+        this.contentType = contentType;
+    }
+
+    /**
+     * Render the content as compact JSON.
+     *
+     * @param content the object to render
+     * @param contentType the Content-Type of the response
+     * @return the pre-rendered response
+     */
+    public static CacheableResponse of(Object content, String contentType) {
+        return new CacheableResponse(Json.encode(content).getBytes(StandardCharsets.UTF_8), contentType);
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Send the response, or a <code>304 Not Modified</code> if the client already holds the current representation.
+     *
+     * @param context the routing context
+     * @param maxAge how long (in seconds) the response may be cached by clients, <code>0</code> or less to forbid caching
+     */
+    public void send(RoutingContext context, long maxAge) {
+        HttpServerResponse response = context.response();
+        if (maxAge > 0) {
+            response.putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAge);
+        } else {
+            response
+                    .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
+                    .putHeader(HttpHeaders.PRAGMA, "no-cache");
+        }
+        response.putHeader(HttpHeaders.ETAG, etag);
+
+        if (matches(context.request().getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response
+                    .setStatusCode(HttpStatusCode.NOT_MODIFIED_304)
+                    .end();
+            return;
+        }
+
+        response
+                .putHeader(HttpHeaders.CONTENT_TYPE, contentType)
+                .end(body);
+    }
+
+    /**
+     * If-None-Match uses the weak comparison function, the "W/" prefix is then ignored.
+     */
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith(WEAK_PREFIX)) {
+                candidate = candidate.substring(WEAK_PREFIX.length());
+            }
+            if ("*".equals(candidate) || etag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory for every Java platform implementation
+            throw new IllegalStateException(e);
+        }
+    }
+}
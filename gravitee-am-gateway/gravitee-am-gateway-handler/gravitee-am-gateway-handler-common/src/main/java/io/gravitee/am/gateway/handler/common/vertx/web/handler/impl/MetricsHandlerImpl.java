@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.vertx.web.handler.impl;
+
+import io.gravitee.am.gateway.core.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Handler;
+import io.vertx.reactivex.ext.web.RoutingContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static io.gravitee.am.gateway.core.metrics.GatewayMetrics.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MetricsHandlerImpl implements Handler<RoutingContext> {
+
+    private final MeterRegistry registry;
+    private final String domain;
+    private final String endpoint;
+    private final Map<Integer, Timer> timers = new ConcurrentHashMap<>();
+
+    public MetricsHandlerImpl(String domain, String endpoint) {
+        this.registry = GatewayMetrics.registry();
+        this.domain = domain;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        final long start = System.nanoTime();
+        context.addBodyEndHandler(v -> timer(context.response().getStatusCode()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        context.next();
+    }
+
+    private Timer timer(int status) {
+        return timers.computeIfAbsent(status, s -> Timer.builder(ENDPOINT_REQUESTS)
+                .tags(GatewayMetrics.tags(TAG_DOMAIN, domain, TAG_ENDPOINT, endpoint, TAG_STATUS, String.valueOf(s)))
+                .register(registry));
+    }
+}
@@ -20,7 +20,6 @@ import io.gravitee.am.gateway.certificate.CertificateProviderManager;
 import io.gravitee.am.gateway.handler.common.certificate.impl.CertificateManagerImpl;
 import io.gravitee.am.model.Domain;
 import io.reactivex.observers.TestObserver;
-import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -28,8 +27,9 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import java.util.Arrays;
+import java.util.Collections;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 
 /**
@@ -49,21 +49,7 @@ public class CertificateManagerTest {
     @Mock
     private Domain domain;
 
-    @Before
-    public void setUp() {
-        CertificateProvider rs256CertificateProvider = mock(CertificateProvider.class);
-        CertificateProvider rs512CertificateProvider = mock(CertificateProvider.class);
-        when(rs256CertificateProvider.signatureAlgorithm()).thenReturn("RS256");
-        when(rs512CertificateProvider.signatureAlgorithm()).thenReturn("RS512");
-
-        io.gravitee.am.gateway.certificate.CertificateProvider rs256CertProvider =
-                mock(io.gravitee.am.gateway.certificate.CertificateProvider.class);
-        io.gravitee.am.gateway.certificate.CertificateProvider rs512CertProvider =
-                mock(io.gravitee.am.gateway.certificate.CertificateProvider.class);
-        when(rs256CertProvider.getProvider()).thenReturn(rs256CertificateProvider);
-        when(rs512CertProvider.getProvider()).thenReturn(rs512CertificateProvider);
-        doReturn(Arrays.asList(rs256CertProvider,rs512CertProvider)).when(certificateManager).providers();
-    }
+    private static final String DOMAIN_ID = "domain-id";
 
     @Test
     public void findByAlgorithm_nullAlgorithm() {
@@ -85,6 +71,7 @@ public class CertificateManagerTest {
 
     @Test
     public void findByAlgorithm_unknownAlgorithm() {
+        when(domain.getId()).thenReturn(DOMAIN_ID);
         TestObserver testObserver = certificateManager.findByAlgorithm("unknown").test();
         testObserver.assertComplete();
         testObserver
@@ -94,6 +81,14 @@ public class CertificateManagerTest {
 
     @Test
     public void findByAlgorithm_foundAlgorithm() {
+        when(domain.getId()).thenReturn(DOMAIN_ID);
+        CertificateProvider rs512CertificateProvider = mock(CertificateProvider.class);
+        when(rs512CertificateProvider.signatureAlgorithm()).thenReturn("RS512");
+        io.gravitee.am.gateway.certificate.CertificateProvider rs512CertProvider =
+                mock(io.gravitee.am.gateway.certificate.CertificateProvider.class);
+        when(rs512CertProvider.getProvider()).thenReturn(rs512CertificateProvider);
+        when(certificateProviderManager.findByAlgorithm(DOMAIN_ID, "RS512")).thenReturn(rs512CertProvider);
+
         TestObserver testObserver = certificateManager.findByAlgorithm("RS512").test();
         testObserver.assertComplete();
         testObserver
@@ -104,4 +99,14 @@ public class CertificateManagerTest {
                                 .signatureAlgorithm()
                 ));
     }
+
+    @Test
+    public void providers_domainProviders() {
+        when(domain.getId()).thenReturn(DOMAIN_ID);
+        io.gravitee.am.gateway.certificate.CertificateProvider certProvider =
+                mock(io.gravitee.am.gateway.certificate.CertificateProvider.class);
+        when(certificateProviderManager.certificateProviders(DOMAIN_ID)).thenReturn(Collections.singletonList(certProvider));
+
+        assertEquals(Collections.singletonList(certProvider), certificateManager.providers());
+    }
 }
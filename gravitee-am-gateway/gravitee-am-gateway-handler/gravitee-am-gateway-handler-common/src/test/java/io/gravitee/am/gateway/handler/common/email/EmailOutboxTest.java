@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.email;
+
+import io.gravitee.am.common.email.Email;
+import io.gravitee.am.gateway.handler.common.email.impl.EmailOutboxImpl;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.OutboxEmail;
+import io.gravitee.am.repository.management.api.OutboxEmailRepository;
+import io.gravitee.am.service.AuditService;
+import io.gravitee.am.service.EmailService;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EmailOutboxTest {
+
+    @InjectMocks
+    private EmailOutboxImpl emailOutbox = new EmailOutboxImpl();
+
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private AuditService auditService;
+
+    @Before
+    public void setUp() {
+        Domain domain = new Domain();
+        domain.setId("domain-id");
+        domain.setName("domain");
+        ReflectionTestUtils.setField(emailOutbox, "domain", domain);
+        ReflectionTestUtils.setField(emailOutbox, "workers", 1);
+        ReflectionTestUtils.setField(emailOutbox, "batchSize", 10);
+        ReflectionTestUtils.setField(emailOutbox, "lease", 60000L);
+        ReflectionTestUtils.setField(emailOutbox, "maxAttempts", 3);
+        ReflectionTestUtils.setField(emailOutbox, "backoff", 1000L);
+        ReflectionTestUtils.setField(emailOutbox, "retention", 3600000L);
+    }
+
+    @Test
+    public void shouldEnqueue() {
+        OutboxEmail outboxEmail = outboxEmail("email-1", 0);
+        when(outboxEmailRepository.create(outboxEmail)).thenReturn(Single.just(outboxEmail));
+
+        emailOutbox.enqueue(outboxEmail).test().assertComplete();
+
+        verify(outboxEmailRepository).create(argThat(e -> "domain-id".equals(e.getDomain()) && e.getAttempts() == 0 && e.getNextAttemptAt() != null
+                && e.getExpireAt().getTime() - e.getCreatedAt().getTime() == 3600000L));
+    }
+
+    @Test
+    public void shouldDeliverBatch() {
+        when(outboxEmailRepository.lockNext(eq("domain-id"), any(), any()))
+                .thenReturn(Maybe.just(outboxEmail("email-1", 0)), Maybe.just(outboxEmail("email-2", 0)), Maybe.empty());
+        when(emailService.send(anyList())).thenReturn(Collections.emptyMap());
+        when(outboxEmailRepository.delete(any())).thenReturn(Completable.complete());
+
+        ReflectionTestUtils.invokeMethod(emailOutbox, "drain");
+
+        verify(emailService).send(argThat((List<Email> emails) -> emails.size() == 2));
+        verify(outboxEmailRepository).delete("email-1");
+        verify(outboxEmailRepository).delete("email-2");
+        verify(auditService, times(2)).report(any());
+    }
+
+    @Test
+    public void shouldRescheduleFailedEmail() {
+        final long now = System.currentTimeMillis();
+        when(outboxEmailRepository.lockNext(eq("domain-id"), any(), any()))
+                .thenReturn(Maybe.just(outboxEmail("email-1", 1)), Maybe.empty());
+        when(emailService.send(anyList())).thenAnswer(invocation -> {
+            List<Email> emails = invocation.getArgument(0);
+            return Collections.singletonMap(emails.get(0), new IllegalStateException("SMTP unavailable"));
+        });
+        when(outboxEmailRepository.update(any())).thenAnswer(invocation -> Single.just(invocation.getArgument(0)));
+
+        ReflectionTestUtils.invokeMethod(emailOutbox, "drain");
+
+        // second retry, backoff is doubled
+        verify(outboxEmailRepository).update(argThat(e -> e.getAttempts() == 2 && e.getNextAttemptAt().getTime() >= now + 2000));
+        verify(outboxEmailRepository, never()).delete(any());
+        verify(auditService, never()).report(any());
+    }
+
+    @Test
+    public void shouldDiscardEmail_maxAttemptsReached() {
+        when(outboxEmailRepository.lockNext(eq("domain-id"), any(), any()))
+                .thenReturn(Maybe.just(outboxEmail("email-1", 2)), Maybe.empty());
+        when(emailService.send(anyList())).thenAnswer(invocation -> {
+            List<Email> emails = invocation.getArgument(0);
+            return Collections.singletonMap(emails.get(0), new IllegalStateException("SMTP unavailable"));
+        });
+        when(outboxEmailRepository.delete("email-1")).thenReturn(Completable.complete());
+
+        ReflectionTestUtils.invokeMethod(emailOutbox, "drain");
+
+        verify(outboxEmailRepository, never()).update(any());
+        verify(auditService).report(any());
+    }
+
+    @Test
+    public void shouldClaimBatchSizeAtMost() {
+        ReflectionTestUtils.setField(emailOutbox, "batchSize", 1);
+        when(outboxEmailRepository.lockNext(eq("domain-id"), any(), any()))
+                .thenReturn(Maybe.just(outboxEmail("email-1", 0)));
+        when(emailService.send(anyList())).thenReturn(Collections.emptyMap());
+        when(outboxEmailRepository.delete(any())).thenReturn(Completable.complete());
+
+        // the outbox is not started, only one batch is drained
+        ReflectionTestUtils.invokeMethod(emailOutbox, "drain");
+
+        verify(outboxEmailRepository, times(1)).lockNext(eq("domain-id"), any(), any());
+        verify(emailService).send(argThat((List<Email> emails) -> emails.size() == 1));
+    }
+
+    private static OutboxEmail outboxEmail(String id, int attempts) {
+        OutboxEmail outboxEmail = new OutboxEmail();
+        outboxEmail.setId(id);
+        outboxEmail.setDomain("domain-id");
+        outboxEmail.setClient("client-id");
+        outboxEmail.setUser("user-id");
+        outboxEmail.setTemplate("reset_password.html");
+        outboxEmail.setFrom("noreply@acme.com");
+        outboxEmail.setTo(Collections.singletonList("user@acme.com"));
+        outboxEmail.setSubject("subject");
+        outboxEmail.setContent("content");
+        outboxEmail.setAttempts(attempts);
+        outboxEmail.setNextAttemptAt(new Date());
+        return outboxEmail;
+    }
+}
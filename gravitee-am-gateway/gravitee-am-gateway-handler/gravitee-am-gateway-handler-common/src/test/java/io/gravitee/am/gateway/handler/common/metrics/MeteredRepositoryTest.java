@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.metrics;
+
+import io.gravitee.am.gateway.core.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MeteredRepositoryTest {
+
+    private MeterRegistry registry;
+    private SampleRepository repository;
+
+    @Before
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        repository = (SampleRepository) MeteredRepository.create(new SampleRepositoryImpl(), "domain-id", registry);
+    }
+
+    @Test
+    public void shouldTimeSingle_onSubscription() {
+        Single<String> result = repository.findById("my-id");
+
+        Assert.assertEquals(0, timer("findById", GatewayMetrics.OUTCOME_SUCCESS).count());
+
+        TestObserver<String> observer = result.test();
+        observer.awaitTerminalEvent();
+        observer.assertValue("my-id");
+
+        Assert.assertEquals(1, timer("findById", GatewayMetrics.OUTCOME_SUCCESS).count());
+    }
+
+    @Test
+    public void shouldTimeMaybe_empty() {
+        TestObserver<String> observer = repository.findByName("unknown").test();
+        observer.awaitTerminalEvent();
+        observer.assertNoValues();
+        observer.assertComplete();
+
+        Assert.assertEquals(1, timer("findByName", GatewayMetrics.OUTCOME_SUCCESS).count());
+    }
+
+    @Test
+    public void shouldTimeCompletable_error() {
+        TestObserver observer = repository.delete("my-id").test();
+        observer.awaitTerminalEvent();
+        observer.assertError(IllegalStateException.class);
+
+        Assert.assertEquals(1, timer("delete", GatewayMetrics.OUTCOME_FAILURE).count());
+    }
+
+    @Test
+    public void shouldNotTimeObjectMethods() {
+        Assert.assertEquals("sample", repository.toString());
+        Assert.assertTrue(registry.getMeters().isEmpty());
+    }
+
+    private Timer timer(String method, String outcome) {
+        return registry.find(GatewayMetrics.REPOSITORY_CALLS)
+                .tags(GatewayMetrics.TAG_DOMAIN, "domain-id",
+                        GatewayMetrics.TAG_REPOSITORY, "SampleRepository",
+                        GatewayMetrics.TAG_METHOD, method,
+                        GatewayMetrics.TAG_OUTCOME, outcome)
+                .timer();
+    }
+
+    public interface SampleRepository {
+
+        Single<String> findById(String id);
+
+        Maybe<String> findByName(String name);
+
+        Completable delete(String id);
+    }
+
+    private static class SampleRepositoryImpl implements SampleRepository {
+
+        @Override
+        public Single<String> findById(String id) {
+            return Single.just(id);
+        }
+
+        @Override
+        public Maybe<String> findByName(String name) {
+            return Maybe.empty();
+        }
+
+        @Override
+        public Completable delete(String id) {
+            return Completable.error(new IllegalStateException());
+        }
+
+        @Override
+        public String toString() {
+            return "sample";
+        }
+    }
+}
@@ -58,6 +58,9 @@ public class IntrospectionTokenServiceTest {
     @Mock
     private AccessTokenRepository accessTokenRepository;
 
+    @Mock
+    private RevocationEpochRegistry revocationEpochRegistry;
+
     @Test
     public void shouldIntrospect_validToken_offline_verification() {
         final String token = "token";
@@ -191,4 +194,51 @@ public class IntrospectionTokenServiceTest {
         testObserver.assertError(InvalidTokenException.class);
         verify(accessTokenRepository, times(1)).findByToken(jwt.getJti());
     }
+
+    @Test
+    public void shouldIntrospect_validToken_revocation_registry() {
+        final String token = "token";
+        final JWT jwt = new JWT();
+        jwt.setJti("jti");
+        jwt.setDomain("domain");
+        jwt.setAud("client");
+        jwt.setSub("subject");
+        jwt.setIat(Instant.now().minus(1, ChronoUnit.HOURS).getEpochSecond());
+        final Client client = new Client();
+        client.setClientId("client-id");
+
+        when(jwtService.decode(token)).thenReturn(Single.just(jwt));
+        when(clientService.findByDomainAndClientId(jwt.getDomain(), jwt.getAud())).thenReturn(Maybe.just(client));
+        when(jwtService.decodeAndVerify(token, client)).thenReturn(Single.just(jwt));
+        when(revocationEpochRegistry.isRevoked("domain", "client", "subject", "jti", jwt.getIat())).thenReturn(false);
+        when(revocationEpochRegistry.covers(jwt.getIat())).thenReturn(true);
+
+        TestObserver testObserver = introspectionTokenService.introspect(token, false).test();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        // repository should not be call because the registry knows every revocation which could apply to the token
+        verify(accessTokenRepository, never()).findByToken(jwt.getJti());
+    }
+
+    @Test
+    public void shouldIntrospect_invalidValidToken_revocation_epoch() {
+        final String token = "token";
+        final JWT jwt = new JWT();
+        jwt.setJti("jti");
+        jwt.setDomain("domain");
+        jwt.setAud("client");
+        jwt.setSub("subject");
+        jwt.setIat(Instant.now().minus(1, ChronoUnit.HOURS).getEpochSecond());
+        final Client client = new Client();
+        client.setClientId("client-id");
+
+        when(jwtService.decode(token)).thenReturn(Single.just(jwt));
+        when(clientService.findByDomainAndClientId(jwt.getDomain(), jwt.getAud())).thenReturn(Maybe.just(client));
+        when(jwtService.decodeAndVerify(token, client)).thenReturn(Single.just(jwt));
+        when(revocationEpochRegistry.isRevoked("domain", "client", "subject", "jti", jwt.getIat())).thenReturn(true);
+
+        TestObserver testObserver = introspectionTokenService.introspect(token, true).test();
+        testObserver.assertError(InvalidTokenException.class);
+        verify(accessTokenRepository, never()).findByToken(jwt.getJti());
+    }
 }
@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.oauth2;
+
+import io.gravitee.am.gateway.handler.common.oauth2.impl.RevocationEpochRegistryImpl;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.gravitee.am.service.spring.RevocationEpochProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RevocationEpochRegistryTest {
+
+    private final RevocationEpochRegistry revocationEpochRegistry = new RevocationEpochRegistryImpl();
+
+    private final RevocationEpochProperties revocationEpochProperties = new RevocationEpochProperties();
+
+    @Before
+    public void setUp() {
+        revocationEpochProperties.setRetention(86400000l);
+        revocationEpochProperties.setMaxStaleness(30000l);
+        ReflectionTestUtils.setField(revocationEpochRegistry, "revocationEpochProperties", revocationEpochProperties);
+    }
+
+    @Test
+    public void shouldRevoke_subject() {
+        long now = System.currentTimeMillis();
+        revocationEpochRegistry.register(revocationEpoch("client", "subject", now));
+
+        assertTrue(revocationEpochRegistry.isRevoked("domain", "client", "subject", null, now / 1000 - 60));
+        assertTrue(revocationEpochRegistry.isRevoked("domain", "client", "subject", null, now / 1000));
+        assertFalse(revocationEpochRegistry.isRevoked("domain", "client", "subject", null, now / 1000 + 1));
+        assertFalse(revocationEpochRegistry.isRevoked("domain", "client", "other-subject", null, now / 1000 - 60));
+        assertFalse(revocationEpochRegistry.isRevoked("domain", "other-client", "subject", null, now / 1000 - 60));
+        assertFalse(revocationEpochRegistry.isRevoked("other-domain", "client", "subject", null, now / 1000 - 60));
+    }
+
+    @Test
+    public void shouldRevoke_wildcards() {
+        long now = System.currentTimeMillis();
+        revocationEpochRegistry.init(Arrays.asList(revocationEpoch(null, "subject", now), revocationEpoch("client", null, now)));
+
+        assertTrue(revocationEpochRegistry.isRevoked("domain", "other-client", "subject", null, now / 1000 - 60));
+        assertTrue(revocationEpochRegistry.isRevoked("domain", "client", "other-subject", null, now / 1000 - 60));
+        assertFalse(revocationEpochRegistry.isRevoked("domain", "other-client", "other-subject", null, now / 1000 - 60));
+    }
+
+    @Test
+    public void shouldRevoke_singleToken() {
+        long now = System.currentTimeMillis();
+        RevocationEpoch revocationEpoch = revocationEpoch(null, null, now);
+        revocationEpoch.setToken("jti");
+        revocationEpochRegistry.register(revocationEpoch);
+
+        assertTrue(revocationEpochRegistry.isRevoked("domain", "client", "subject", "jti", now / 1000 - 60));
+        // the other tokens of the subject and of the client are still valid
+        assertFalse(revocationEpochRegistry.isRevoked("domain", "client", "subject", "other-jti", now / 1000 - 60));
+        assertFalse(revocationEpochRegistry.isRevoked("domain", "client", null, "other-jti", now / 1000 - 60));
+    }
+
+    @Test
+    public void shouldPurgeExpiredToken() {
+        long now = System.currentTimeMillis();
+        RevocationEpoch revocationEpoch = revocationEpoch(null, null, now - 7200000);
+        revocationEpoch.setToken("jti");
+        revocationEpoch.setExpireAt(new Date(now - 3600000));
+        revocationEpochRegistry.synchronize(Collections.singletonList(revocationEpoch));
+
+        assertFalse(revocationEpochRegistry.isRevoked("domain", "client", "subject", "jti", now / 1000 - 10800));
+    }
+
+    @Test
+    public void shouldKeepMostRecentEpoch() {
+        long now = System.currentTimeMillis();
+        revocationEpochRegistry.register(revocationEpoch("client", "subject", now));
+        revocationEpochRegistry.register(revocationEpoch("client", "subject", now - 3600000));
+
+        assertTrue(revocationEpochRegistry.isRevoked("domain", "client", "subject", null, now / 1000 - 60));
+    }
+
+    @Test
+    public void shouldPurgeExpiredEpochs() {
+        long now = System.currentTimeMillis();
+        RevocationEpoch revocationEpoch = revocationEpoch("client", "subject", now - 7200000);
+        revocationEpoch.setExpireAt(new Date(now - 3600000));
+        revocationEpochRegistry.register(revocationEpoch);
+        revocationEpochRegistry.purge();
+
+        assertFalse(revocationEpochRegistry.isRevoked("domain", "client", "subject", null, now / 1000 - 10800));
+    }
+
+    @Test
+    public void shouldCover_onceInitialized() {
+        long now = System.currentTimeMillis() / 1000;
+        assertFalse(revocationEpochRegistry.covers(now));
+
+        revocationEpochRegistry.init(Collections.emptyList());
+        assertTrue(revocationEpochRegistry.covers(now));
+        assertFalse(revocationEpochRegistry.covers(0));
+    }
+
+    @Test
+    public void shouldNotCover_staleRegistry() {
+        long now = System.currentTimeMillis() / 1000;
+        revocationEpochProperties.setMaxStaleness(-1);
+
+        // the registry has not been synchronized for too long, tokens must be checked against the database
+        revocationEpochRegistry.init(Collections.emptyList());
+        assertFalse(revocationEpochRegistry.covers(now));
+
+        revocationEpochProperties.setMaxStaleness(30000l);
+        revocationEpochRegistry.synchronize(Collections.emptyList());
+        assertTrue(revocationEpochRegistry.covers(now));
+    }
+
+    private RevocationEpoch revocationEpoch(String client, String subject, long revokedAt) {
+        RevocationEpoch revocationEpoch = new RevocationEpoch();
+        revocationEpoch.setDomain("domain");
+        revocationEpoch.setClient(client);
+        revocationEpoch.setSubject(subject);
+        revocationEpoch.setRevokedAt(new Date(revokedAt));
+        revocationEpoch.setExpireAt(new Date(revokedAt + 86400000));
+        return revocationEpoch;
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.common.policy;
+
+import io.gravitee.am.common.event.PolicyEvent;
+import io.gravitee.am.common.policy.ExtensionPoint;
+import io.gravitee.am.gateway.handler.common.policy.impl.PolicyManagerImpl;
+import io.gravitee.am.gateway.policy.Policy;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.ReferenceType;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.plugins.policy.core.PolicyPluginManager;
+import io.gravitee.am.service.PolicyService;
+import io.gravitee.common.event.impl.SimpleEvent;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PolicyManagerTest {
+
+    @InjectMocks
+    private PolicyManager policyManager = new PolicyManagerImpl();
+
+    @Mock
+    private PolicyPluginManager policyPluginManager;
+
+    @Mock
+    private PolicyService policyService;
+
+    @Mock
+    private Domain domain;
+
+    @Test
+    public void shouldCreateRulePolicyOnce() {
+        when(policyPluginManager.create("groovy", "{}")).thenReturn(mock(Policy.class));
+
+        Policy policy = policyManager.getOrCreate("rule-id", "groovy", "{}");
+
+        assertSame(policy, policyManager.getOrCreate("rule-id", "groovy", "{}"));
+        verify(policyPluginManager, times(1)).create("groovy", "{}");
+    }
+
+    @Test
+    public void shouldCreateRulePolicy_configurationUpdated() {
+        when(policyPluginManager.create("groovy", "{}")).thenReturn(mock(Policy.class));
+        when(policyPluginManager.create("groovy", "{\"onRequestScript\":\"\"}")).thenReturn(mock(Policy.class));
+
+        Policy policy = policyManager.getOrCreate("rule-id", "groovy", "{}");
+
+        assertNotSame(policy, policyManager.getOrCreate("rule-id", "groovy", "{\"onRequestScript\":\"\"}"));
+    }
+
+    @Test
+    public void shouldNotCacheRulePolicy_noRuleId() {
+        when(policyPluginManager.create("groovy", "{}")).thenReturn(mock(Policy.class), mock(Policy.class));
+
+        assertNotSame(policyManager.getOrCreate(null, "groovy", "{}"), policyManager.getOrCreate(null, "groovy", "{}"));
+    }
+
+    @Test
+    public void shouldCreateRulePolicy_policyEvent() {
+        when(domain.getId()).thenReturn("domain-id");
+        when(policyPluginManager.create("groovy", "{}")).thenReturn(mock(Policy.class), mock(Policy.class));
+        when(policyService.findById("policy-id")).thenReturn(Maybe.empty());
+
+        Policy policy = policyManager.getOrCreate("rule-id", "groovy", "{}");
+        ((PolicyManagerImpl) policyManager).onEvent(new SimpleEvent<>(PolicyEvent.UPDATE, new Payload("policy-id", ReferenceType.DOMAIN, "domain-id", null)));
+
+        assertNotSame(policy, policyManager.getOrCreate("rule-id", "groovy", "{}"));
+    }
+
+    @Test
+    public void shouldFindByExtensionPoint_orderedChain() {
+        Policy policy1 = mock(Policy.class);
+        Policy policy2 = mock(Policy.class);
+        when(domain.getId()).thenReturn("domain-id");
+        when(policyPluginManager.create("type-1", "{}")).thenReturn(policy1);
+        when(policyPluginManager.create("type-2", "{}")).thenReturn(policy2);
+        when(policyService.findByDomain("domain-id")).thenReturn(Single.just(Arrays.asList(
+                policy("policy-2", "type-2", ExtensionPoint.PRE_CONSENT, 2),
+                policy("policy-1", "type-1", ExtensionPoint.PRE_CONSENT, 1))));
+
+        ((PolicyManagerImpl) policyManager).afterPropertiesSet();
+
+        policyManager.findByExtensionPoint(ExtensionPoint.PRE_CONSENT).test().assertValue(Arrays.asList(policy1, policy2));
+        policyManager.findByExtensionPoint(ExtensionPoint.POST_CONSENT).test().assertValue(Collections.emptyList());
+    }
+
+    @Test
+    public void shouldFindByExtensionPoint_policyUndeployed() {
+        Policy policy1 = mock(Policy.class);
+        when(domain.getId()).thenReturn("domain-id");
+        when(policyPluginManager.create("type-1", "{}")).thenReturn(policy1);
+        when(policyService.findByDomain("domain-id")).thenReturn(Single.just(Collections.singletonList(
+                policy("policy-1", "type-1", ExtensionPoint.POST_CONSENT, 1))));
+
+        ((PolicyManagerImpl) policyManager).afterPropertiesSet();
+        assertEquals(Collections.singletonList(policy1), policyManager.findByExtensionPoint(ExtensionPoint.POST_CONSENT).blockingGet());
+
+        ((PolicyManagerImpl) policyManager).onEvent(new SimpleEvent<>(PolicyEvent.UNDEPLOY, new Payload("policy-1", ReferenceType.DOMAIN, "domain-id", null)));
+        policyManager.findByExtensionPoint(ExtensionPoint.POST_CONSENT).test().assertValue(Collections.emptyList());
+    }
+
+    private io.gravitee.am.model.Policy policy(String id, String type, ExtensionPoint extensionPoint, int order) {
+        io.gravitee.am.model.Policy policy = new io.gravitee.am.model.Policy();
+        policy.setId(id);
+        policy.setType(type);
+        policy.setEnabled(true);
+        policy.setConfiguration("{}");
+        policy.setExtensionPoint(extensionPoint);
+        policy.setOrder(order);
+        return policy;
+    }
+}
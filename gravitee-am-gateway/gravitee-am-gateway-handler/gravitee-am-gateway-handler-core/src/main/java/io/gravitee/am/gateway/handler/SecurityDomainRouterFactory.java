@@ -17,10 +17,13 @@ package io.gravitee.am.gateway.handler;
 
 import io.gravitee.am.gateway.handler.common.audit.AuditReporterManager;
 import io.gravitee.am.gateway.handler.common.auth.idp.IdentityProviderManager;
+import io.gravitee.am.gateway.core.metrics.GatewayMetrics;
 import io.gravitee.am.gateway.handler.common.auth.listener.AuthenticationEventListener;
+import io.gravitee.am.gateway.handler.common.metrics.MeteredRepository;
 import io.gravitee.am.gateway.handler.common.policy.PolicyManager;
 import io.gravitee.am.gateway.handler.common.user.UserManager;
 import io.gravitee.am.gateway.handler.common.email.EmailManager;
+import io.gravitee.am.gateway.handler.common.email.EmailOutbox;
 import io.gravitee.am.gateway.handler.factor.FactorManager;
 import io.gravitee.am.gateway.handler.form.FormManager;
 import io.gravitee.am.gateway.handler.spring.HandlerConfiguration;
@@ -30,7 +33,9 @@ import io.gravitee.common.component.LifecycleComponent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
@@ -76,6 +81,9 @@ public class SecurityDomainRouterFactory {
         context.addBeanFactoryPostProcessor(configurer);
 
         context.getBeanFactory().registerSingleton("domain", domain);
+        if (GatewayMetrics.isEnabled()) {
+            registerMeteredRepositories(context, domain);
+        }
         context.register(HandlerConfiguration.class);
         context.setId("context-domain-" + domain.getId());
         context.refresh();
@@ -83,6 +91,28 @@ public class SecurityDomainRouterFactory {
         return context;
     }
 
+    /**
+     * Shadow the repositories registered in the gateway context by metered proxies so that every repository call
+     * issued from the security domain is timed and tagged with the domain.
+     */
+    private void registerMeteredRepositories(AnnotationConfigApplicationContext context, Domain domain) {
+        if (!(gatewayApplicationContext instanceof ConfigurableApplicationContext)) {
+            return;
+        }
+
+        ConfigurableListableBeanFactory gatewayBeanFactory = ((ConfigurableApplicationContext) gatewayApplicationContext).getBeanFactory();
+        for (String beanName : gatewayBeanFactory.getSingletonNames()) {
+            if (beanName.endsWith("Repository")) {
+                Object repository = gatewayBeanFactory.getSingleton(beanName);
+                try {
+                    context.getBeanFactory().registerSingleton(beanName, MeteredRepository.create(repository, domain.getId()));
+                } catch (Exception e) {
+                    logger.warn("Unable to register metrics for repository {}", beanName, e);
+                }
+            }
+        }
+    }
+
     private static class ReactorHandlerClassLoader extends URLClassLoader {
         public ReactorHandlerClassLoader(ClassLoader parent) {
             super(new URL[]{}, parent);
@@ -95,6 +125,7 @@ public class SecurityDomainRouterFactory {
         components.add(IdentityProviderManager.class);
         components.add(FormManager.class);
         components.add(EmailManager.class);
+        components.add(EmailOutbox.class);
         components.add(AuditReporterManager.class);
         components.add(PolicyManager.class);
         components.add(AuthenticationEventListener.class);
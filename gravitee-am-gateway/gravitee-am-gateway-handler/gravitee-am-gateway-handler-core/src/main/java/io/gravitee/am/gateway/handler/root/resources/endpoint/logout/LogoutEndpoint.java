@@ -94,7 +94,7 @@ public class LogoutEndpoint implements Handler<RoutingContext> {
             return;
         }
 
-        tokenService.deleteByUserId(user.getId())
+        tokenService.deleteByUserId(domain.getId(), user.getId())
                 .subscribe(
                         () -> handler.handle(Future.succeededFuture()),
                         error -> handler.handle(Future.failedFuture(error)));
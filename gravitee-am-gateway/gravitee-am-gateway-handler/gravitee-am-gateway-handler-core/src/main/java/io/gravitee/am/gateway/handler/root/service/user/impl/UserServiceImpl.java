@@ -322,7 +322,7 @@ public class UserServiceImpl implements UserService {
                             })
                             .onErrorResumeNext(Single.error(new UserNotFoundException(email)));
                 })
-                .doOnSuccess(user -> new Thread(() -> emailService.send(Template.RESET_PASSWORD, user, client)).start())
+                .doOnSuccess(user -> emailService.send(Template.RESET_PASSWORD, user, client))
                 .doOnSuccess(user1 -> {
                     // reload principal
                     io.gravitee.am.identityprovider.api.User principal1 = reloadPrincipal(principal, user1);
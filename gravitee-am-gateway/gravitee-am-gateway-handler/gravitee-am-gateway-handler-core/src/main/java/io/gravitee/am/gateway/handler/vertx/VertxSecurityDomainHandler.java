@@ -22,6 +22,7 @@ import io.gravitee.am.gateway.handler.common.auth.listener.AuthenticationEventLi
 import io.gravitee.am.gateway.handler.common.policy.PolicyManager;
 import io.gravitee.am.gateway.handler.common.user.UserManager;
 import io.gravitee.am.gateway.handler.common.email.EmailManager;
+import io.gravitee.am.gateway.handler.common.email.EmailOutbox;
 import io.gravitee.am.gateway.handler.factor.FactorManager;
 import io.gravitee.am.gateway.handler.form.FormManager;
 import io.gravitee.am.gateway.handler.root.RootProvider;
@@ -150,6 +151,7 @@ public class VertxSecurityDomainHandler extends AbstractService<VertxSecurityDom
         components.add(IdentityProviderManager.class);
         components.add(FormManager.class);
         components.add(EmailManager.class);
+        components.add(EmailOutbox.class);
         components.add(AuditReporterManager.class);
         components.add(PolicyManager.class);
         components.add(AuthenticationEventListener.class);
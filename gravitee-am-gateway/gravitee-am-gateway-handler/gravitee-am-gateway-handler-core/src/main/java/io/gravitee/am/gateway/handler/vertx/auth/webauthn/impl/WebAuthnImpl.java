@@ -16,6 +16,8 @@
 package io.gravitee.am.gateway.handler.vertx.auth.webauthn.impl;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.am.gateway.handler.vertx.auth.jose.JWK;
 import io.gravitee.am.gateway.handler.vertx.auth.webauthn.AuthenticatorData;
 import io.gravitee.am.gateway.handler.vertx.auth.webauthn.COSE;
@@ -43,6 +45,7 @@ import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 public class WebAuthnImpl implements WebAuthn {
 
@@ -59,6 +62,11 @@ public class WebAuthnImpl implements WebAuthn {
 
     private final Map<String, Attestation> attestations = new HashMap<>();
 
+    // decoded COSE public keys, keyed by their base64url encoded form
+    private final Cache<String, JWK> publicKeys = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .build();
+
     public WebAuthnImpl(Vertx vertx, WebAuthnOptions options, CredentialStore store) {
         random = new PRNG(vertx);
         this.options = options;
@@ -487,26 +495,42 @@ public class WebAuthnImpl implements WebAuthn {
                 .appendBytes(clientDataHash);
 
         // STEP 28 format public key
-        try (JsonParser parser = CBOR.cborParser(authr.getString("publicKey"))) {
-            // the decoded credential primary as a JWK
-            JWK publicKey = COSE.toJWK(CBOR.parse(parser));
+        JWK publicKey = publicKey(authr.getString("publicKey"));
 
-            // STEP 29 convert signature to buffer
-            byte[] signature = b64dec.decode(response.getString("signature"));
+        // STEP 29 convert signature to buffer
+        byte[] signature = b64dec.decode(response.getString("signature"));
 
-            // STEP 30 verify signature
-            boolean verified = publicKey.verify(signature, signatureBase.getBytes());
+        // STEP 30 verify signature
+        boolean verified = publicKey.verify(signature, signatureBase.getBytes());
 
-            if (!verified) {
-                throw new AttestationException("Failed to verify the signature!");
-            }
+        if (!verified) {
+            throw new AttestationException("Failed to verify the signature!");
+        }
 
-            if (authrDataStruct.getSignCounter() <= authr.getLong("counter")) {
-                throw new AttestationException("Authr counter did not increase!");
-            }
+        if (authrDataStruct.getSignCounter() <= authr.getLong("counter")) {
+            throw new AttestationException("Authr counter did not increase!");
+        }
+
+        // return the counter so it can be updated on the store
+        return authrDataStruct.getSignCounter();
+    }
 
-            // return the counter so it can be updated on the store
-            return authrDataStruct.getSignCounter();
+    /**
+     * @param cose - base64url encoded COSE public key from Database
+     * @return the decoded credential public key as a JWK
+     */
+    private JWK publicKey(String cose) throws IOException {
+        try {
+            return publicKeys.get(cose, () -> {
+                try (JsonParser parser = CBOR.cborParser(cose)) {
+                    return COSE.toJWK(CBOR.parse(parser));
+                }
+            });
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
         }
     }
 
@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.gateway.handler.vertx.auth.webauthn.store;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.am.model.Credential;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.ReferenceType;
@@ -26,30 +28,45 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.webauthn.CredentialStore;
-import io.vertx.reactivex.core.ObservableHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
+ * Credential store backed by the credential repository.
+ *
+ * Credentials are kept in a short-lived cache keyed by credential ID so that resident key assertions do not hit
+ * the repository, the stored signature counter remains the source of truth and is updated atomically
+ * (only if it increases) on each assertion.
+ *
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
 public class RepositoryCredentialStore implements CredentialStore {
 
+    private static final long CACHE_MAX_SIZE = 10000;
+    private static final long CACHE_EXPIRE_AFTER_WRITE_MINUTES = 10;
+
     @Autowired
     private CredentialService credentialService;
 
     @Autowired
     private Domain domain;
 
+    private final Cache<String, JsonObject> credentials = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_MAX_SIZE)
+            .expireAfterWrite(CACHE_EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES)
+            .build();
+
     @Override
     public CredentialStore getUserCredentialsByName(String username, Handler<AsyncResult<List<JsonObject>>> handler) {
         credentialService
                 .findByUsername(ReferenceType.DOMAIN, domain.getId(), username)
-                .map(credentials -> credentials.stream().map(this::toJson).collect(Collectors.toList()))
+                .map(credentials -> credentials.stream().map(this::toJson).map(this::cache).collect(Collectors.toList()))
                 .subscribe(
                         credentials -> handler.handle(Future.succeededFuture(credentials)),
                         error -> handler.handle(Future.failedFuture(error))
@@ -59,9 +76,15 @@ public class RepositoryCredentialStore implements CredentialStore {
 
     @Override
     public CredentialStore getUserCredentialsById(String id, Handler<AsyncResult<List<JsonObject>>> handler) {
+        final JsonObject cachedCredential = credentials.getIfPresent(id);
+        if (cachedCredential != null) {
+            handler.handle(Future.succeededFuture(Collections.singletonList(cachedCredential.copy())));
+            return this;
+        }
+
         credentialService
                 .findByCredentialId(ReferenceType.DOMAIN, domain.getId(), id)
-                .map(credentials -> credentials.stream().map(this::toJson).collect(Collectors.toList()))
+                .map(credentials -> credentials.stream().map(this::toJson).map(this::cache).collect(Collectors.toList()))
                 .subscribe(
                         credentials -> handler.handle(Future.succeededFuture(credentials)),
                         error -> handler.handle(Future.failedFuture(error))
@@ -71,7 +94,36 @@ public class RepositoryCredentialStore implements CredentialStore {
 
     @Override
     public CredentialStore updateUserCredential(String id, JsonObject data, boolean upsert, Handler<AsyncResult<Void>> handler) {
-        credentialService.findByCredentialId(ReferenceType.DOMAIN, domain.getId(), id)
+        final Completable update = upsert ? upsertUserCredential(id, data) : updateCounter(id, data);
+        update.subscribe(
+                () ->  handler.handle(Future.succeededFuture()),
+                error -> handler.handle(Future.failedFuture(error.getMessage()))
+        );
+        return this;
+    }
+
+    /**
+     * Only the signature counter changes after an assertion, update it with a single conditional write.
+     * If the stored counter is already greater or equal (cloned authenticator or concurrent assertion) nothing is updated.
+     */
+    private Completable updateCounter(String id, JsonObject data) {
+        final long counter = data.getLong("counter", 0L);
+        return credentialService.updateCounter(ReferenceType.DOMAIN, domain.getId(), id, counter)
+                .flatMapCompletable(updated -> {
+                    if (updated == 0) {
+                        credentials.invalidate(id);
+                        return Completable.error(new IllegalStateException("Nothing updated!"));
+                    }
+                    final JsonObject cachedCredential = credentials.getIfPresent(id);
+                    if (cachedCredential != null) {
+                        credentials.put(id, cachedCredential.copy().put("counter", counter));
+                    }
+                    return Completable.complete();
+                });
+    }
+
+    private Completable upsertUserCredential(String id, JsonObject data) {
+        return credentialService.findByCredentialId(ReferenceType.DOMAIN, domain.getId(), id)
                 .flatMapObservable(credentials -> Observable.fromIterable(credentials))
                 .flatMapSingle(credential -> {
                     credential.setPublicKey(data.getString("publicKey"));
@@ -84,9 +136,6 @@ public class RepositoryCredentialStore implements CredentialStore {
                     if (!credentials.isEmpty()) {
                         return Completable.complete();
                     }
-                    if (!upsert) {
-                        return Completable.error(new IllegalStateException("Nothing updated!"));
-                    }
                     // no credential found, create it
                     Credential credential = new Credential();
                     credential.setReferenceType(ReferenceType.DOMAIN);
@@ -100,11 +149,15 @@ public class RepositoryCredentialStore implements CredentialStore {
                     credential.setUpdatedAt(credential.getCreatedAt());
                     return credentialService.create(credential).ignoreElement();
                 })
-                .subscribe(
-                        () ->  handler.handle(Future.succeededFuture()),
-                        error -> handler.handle(Future.failedFuture(error.getMessage()))
-                );
-        return this;
+                .doOnComplete(() -> credentials.invalidate(id));
+    }
+
+    private JsonObject cache(JsonObject credential) {
+        final String credentialId = credential.getString("credID");
+        if (credentialId != null) {
+            credentials.put(credentialId, credential.copy());
+        }
+        return credential;
     }
 
     private JsonObject toJson(Credential credential) {
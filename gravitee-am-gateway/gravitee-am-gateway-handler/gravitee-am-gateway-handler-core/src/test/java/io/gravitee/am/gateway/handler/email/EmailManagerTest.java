@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.gateway.handler.email;
 
+import freemarker.template.Configuration;
 import io.gravitee.am.gateway.handler.common.email.EmailManager;
 import io.gravitee.am.gateway.handler.common.email.impl.EmailManagerImpl;
 import io.gravitee.am.model.Email;
@@ -24,6 +25,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.StringWriter;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -39,6 +42,7 @@ public class EmailManagerTest {
     public void setUp() {
         ((EmailManagerImpl) emailManager).setSubject("defaultSubject");
         ((EmailManagerImpl) emailManager).setDefaultFrom("defaultFrom");
+        ((EmailManagerImpl) emailManager).setConfiguration(new Configuration(Configuration.VERSION_2_3_22));
     }
 
     @Test
@@ -111,4 +115,55 @@ public class EmailManagerTest {
         Assert.assertEquals("Client subject", email.getSubject());
         Assert.assertEquals(10001, email.getExpiresAfter());
     }
+
+    @Test
+    public void shouldCompileSubjectOnce() throws Exception {
+        Email email = emailManager.getEmail(Template.RESET_PASSWORD.template(), "subject", 1000);
+
+        freemarker.template.Template subjectTemplate = emailManager.getSubjectTemplate(email);
+
+        Assert.assertSame(subjectTemplate, emailManager.getSubjectTemplate(emailManager.getEmail(Template.RESET_PASSWORD.template(), "subject", 1000)));
+        Assert.assertEquals("defaultSubject", subjectTemplate.toString());
+    }
+
+    @Test
+    public void shouldRecompileSubject_subjectChanged() throws Exception {
+        Email email = emailManager.getEmail(Template.RESET_PASSWORD.template(), "subject", 1000);
+        freemarker.template.Template subjectTemplate = emailManager.getSubjectTemplate(email);
+
+        Email domainEmail = new Email();
+        domainEmail.setEnabled(true);
+        domainEmail.setTemplate(Template.RESET_PASSWORD.template());
+        domainEmail.setSubject("Hello ${user}");
+        ConcurrentMap<String, Email> templateNames = new ConcurrentHashMap<>();
+        templateNames.put(Template.RESET_PASSWORD.template(), domainEmail);
+        ((EmailManagerImpl) emailManager).setEmailTemplates(templateNames);
+
+        freemarker.template.Template customSubjectTemplate = emailManager.getSubjectTemplate(emailManager.getEmail(Template.RESET_PASSWORD.template(), "subject", 1000));
+
+        Assert.assertNotSame(subjectTemplate, customSubjectTemplate);
+        StringWriter writer = new StringWriter();
+        customSubjectTemplate.process(Collections.singletonMap("user", "John"), writer);
+        Assert.assertEquals("Hello John", writer.toString());
+    }
+
+    @Test
+    public void shouldCompileSubjectOnce_clientTemplate() throws Exception {
+        Email clientEmail = new Email();
+        clientEmail.setEnabled(true);
+        clientEmail.setTemplate(Template.RESET_PASSWORD.template());
+        clientEmail.setClient("client1");
+        clientEmail.setSubject("Client subject");
+
+        String templateClientKey = Template.RESET_PASSWORD.template() + EmailManager.TEMPLATE_NAME_SEPARATOR + "client1";
+        ConcurrentMap<String, Email> templateNames = new ConcurrentHashMap<>();
+        templateNames.put(templateClientKey, clientEmail);
+        ((EmailManagerImpl) emailManager).setEmailTemplates(templateNames);
+
+        // the resolved email and the stored client email share the cache key used for eviction
+        freemarker.template.Template subjectTemplate = emailManager.getSubjectTemplate(emailManager.getEmail(templateClientKey, "subject", 1000));
+
+        Assert.assertSame(subjectTemplate, emailManager.getSubjectTemplate(clientEmail));
+        Assert.assertEquals("Client subject", subjectTemplate.toString());
+    }
 }
@@ -17,10 +17,12 @@ package io.gravitee.am.gateway.handler.root.service.user;
 
 import io.gravitee.am.common.exception.authentication.AccountInactiveException;
 import io.gravitee.am.gateway.handler.common.auth.idp.IdentityProviderManager;
+import io.gravitee.am.gateway.handler.common.email.EmailService;
 import io.gravitee.am.gateway.handler.root.service.user.impl.UserServiceImpl;
 import io.gravitee.am.identityprovider.api.UserProvider;
 import io.gravitee.am.model.oidc.Client;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.Template;
 import io.gravitee.am.model.User;
 import io.gravitee.am.model.account.AccountSettings;
 import io.gravitee.am.service.AuditService;
@@ -68,6 +70,9 @@ public class UserServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private EmailService emailService;
+
     @Test
     public void shouldNotResetPassword_userInactive() {
         Client client = mock(Client.class);
@@ -272,6 +277,7 @@ public class UserServiceTest {
         TestObserver testObserver = userService.forgotPassword(user.getEmail(), client).test();
         testObserver.assertComplete();
         testObserver.assertNoErrors();
+        verify(emailService).send(Template.RESET_PASSWORD, user, client);
     }
 
     @Test
@@ -21,6 +21,7 @@ import io.gravitee.am.gateway.handler.common.client.ClientSyncService;
 import io.gravitee.am.gateway.handler.common.jwt.JWTService;
 import io.gravitee.am.gateway.handler.common.vertx.web.endpoint.ErrorEndpoint;
 import io.gravitee.am.gateway.handler.common.vertx.web.handler.AuthenticationFlowHandler;
+import io.gravitee.am.gateway.handler.common.vertx.web.handler.MetricsHandler;
 import io.gravitee.am.gateway.handler.common.vertx.web.handler.PolicyChainHandler;
 import io.gravitee.am.gateway.handler.common.vertx.web.handler.SSOSessionHandler;
 import io.gravitee.am.gateway.handler.oauth2.resources.auth.handler.ClientAuthHandler;
@@ -153,6 +154,17 @@ public class OAuth2Provider extends AbstractService<ProtocolProvider> implements
         initRouter();
     }
 
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        try {
+            tokenManager.stop();
+        } catch (Exception e) {
+            logger.error("An error occurs while stopping oauth 2.0 services", e);
+        }
+    }
+
     private void initServices() {
         try {
             tokenManager.start();
@@ -179,6 +191,7 @@ public class OAuth2Provider extends AbstractService<ProtocolProvider> implements
 
         // Authorization endpoint
         oauth2Router.route(HttpMethod.GET,"/authorize")
+                .handler(MetricsHandler.create(domain.getId(), "authorize"))
                 .handler(new AuthorizationRequestParseProviderConfigurationHandler(openIDDiscoveryService))
                 .handler(new AuthorizationRequestParseRequiredParametersHandler())
                 .handler(new AuthorizationRequestParseClientHandler(clientSyncService))
@@ -209,6 +222,7 @@ public class OAuth2Provider extends AbstractService<ProtocolProvider> implements
         oauth2Router.route(HttpMethod.OPTIONS, "/token")
                 .handler(corsHandler);
         oauth2Router.route(HttpMethod.POST, "/token")
+                .handler(MetricsHandler.create(domain.getId(), "token"))
                 .handler(corsHandler)
                 .handler(new TokenRequestParseHandler())
                 .handler(clientAuthHandler)
@@ -217,6 +231,7 @@ public class OAuth2Provider extends AbstractService<ProtocolProvider> implements
         // Introspection endpoint
         oauth2Router.route(HttpMethod.POST, "/introspect")
                 .consumes(MediaType.APPLICATION_FORM_URLENCODED)
+                .handler(MetricsHandler.create(domain.getId(), "introspect"))
                 .handler(clientAuthHandler)
                 .handler(new IntrospectionEndpoint(introspectionService));
 
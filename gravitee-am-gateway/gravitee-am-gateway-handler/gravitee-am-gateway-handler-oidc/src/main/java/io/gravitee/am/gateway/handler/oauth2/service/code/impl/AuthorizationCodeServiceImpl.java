@@ -17,17 +17,22 @@ package io.gravitee.am.gateway.handler.oauth2.service.code.impl;
 
 import io.gravitee.am.common.utils.RandomString;
 import io.gravitee.am.common.utils.SecureRandomString;
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
 import io.gravitee.am.gateway.handler.oauth2.service.code.AuthorizationCodeService;
 import io.gravitee.am.gateway.handler.oauth2.service.request.AuthorizationRequest;
+import io.gravitee.am.gateway.handler.oauth2.service.token.TokenManager;
 import io.gravitee.am.model.oidc.Client;
 import io.gravitee.am.model.User;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.AuthorizationCodeRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
 import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import io.gravitee.am.service.RevocationEpochService;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -44,6 +49,12 @@ public class AuthorizationCodeServiceImpl implements AuthorizationCodeService {
     @Value("${authorization.code.validity:60000}")
     private int authorizationCodeValidity;
 
+    /**
+     * How long a redeemed code is remembered to detect replays and revoke the tokens issued from it.
+     */
+    @Value("${authorization.code.tombstone.validity:3600000}")
+    private int authorizationCodeTombstoneValidity;
+
     @Lazy
     @Autowired
     private AuthorizationCodeRepository authorizationCodeRepository;
@@ -56,6 +67,15 @@ public class AuthorizationCodeServiceImpl implements AuthorizationCodeService {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Autowired
+    private RevocationEpochService revocationEpochService;
+
+    @Autowired
+    private RevocationEpochRegistry revocationEpochRegistry;
+
+    @Autowired
+    private TokenManager tokenManager;
+
     @Override
     public Single<AuthorizationCode> create(AuthorizationRequest authorizationRequest, User user) {
         AuthorizationCode authorizationCode = new AuthorizationCode();
@@ -74,31 +94,37 @@ public class AuthorizationCodeServiceImpl implements AuthorizationCodeService {
 
     @Override
     public Maybe<AuthorizationCode> remove(String code, Client client) {
-        return authorizationCodeRepository.findByCode(code)
-                .switchIfEmpty(handleInvalidCode(code))
-                .flatMap(authorizationCode -> {
-                    if (!authorizationCode.getClientId().equals(client.getClientId())) {
-                        return Maybe.error(new InvalidGrantException("The authorization code " + code + " does not belong to the client " + client.getClientId() + "."));
-                    }
-                    return Maybe.just(authorizationCode);
-                })
-                .flatMap(authorizationCode -> authorizationCodeRepository.delete(authorizationCode.getId()));
+        return authorizationCodeRepository.consume(code, client.getClientId(), new Date(System.currentTimeMillis() + authorizationCodeTombstoneValidity))
+                .switchIfEmpty(Maybe.defer(() -> handleInvalidCode(code)));
     }
 
-
     private Maybe<AuthorizationCode> handleInvalidCode(String code) {
         // The client MUST NOT use the authorization code more than once.
         // If an authorization code is used more than once, the authorization server MUST deny the request and SHOULD
         // revoke (when possible) all tokens previously issued based on that authorization code.
         // https://tools.ietf.org/html/rfc6749#section-4.1.2
-        return accessTokenRepository.findByAuthorizationCode(code)
+        // Only codes which have actually been redeemed are replays, unknown codes are rejected without looking for tokens.
+        return authorizationCodeRepository.isConsumed(code)
+                .flatMapCompletable(consumed -> consumed ? revokeTokens(code) : Completable.complete())
+                .andThen(Maybe.error(new InvalidGrantException("The authorization code " + code + " is invalid.")));
+    }
+
+    private Completable revokeTokens(String code) {
+        // tokens issued by this node may still be buffered by the token manager
+        return Observable.defer(() -> Observable.fromIterable(tokenManager.getPendingAccessTokens(code)))
+                .concatWith(accessTokenRepository.findByAuthorizationCode(code))
+                .distinct(AccessToken::getToken)
                 .flatMapCompletable(accessToken -> {
-                    Completable deleteAccessTokenAction = accessTokenRepository.delete(accessToken.getToken());
+                    Completable deleteAccessTokenAction = Completable.defer(() -> tokenManager.cancelAccessToken(accessToken.getToken()) ?
+                            Completable.complete() : accessTokenRepository.delete(accessToken.getToken()));
                     if (accessToken.getRefreshToken() != null) {
-                        deleteAccessTokenAction.andThen(refreshTokenRepository.delete(accessToken.getRefreshToken()));
+                        deleteAccessTokenAction = deleteAccessTokenAction.andThen(Completable.defer(() -> tokenManager.cancelRefreshToken(accessToken.getRefreshToken()) ?
+                                Completable.complete() : refreshTokenRepository.delete(accessToken.getRefreshToken())));
                     }
-                    return deleteAccessTokenAction;
-                })
-                .andThen(Maybe.error(new InvalidGrantException("The authorization code " + code + " is invalid.")));
+                    // access tokens are validated without database lookup, make sure the deleted ones are rejected
+                    return deleteAccessTokenAction.andThen(revocationEpochService.revoke(accessToken.getDomain(), accessToken.getClient(), accessToken.getSubject())
+                            .doOnSuccess(revocationEpochRegistry::register)
+                            .ignoreElement());
+                });
     }
 }
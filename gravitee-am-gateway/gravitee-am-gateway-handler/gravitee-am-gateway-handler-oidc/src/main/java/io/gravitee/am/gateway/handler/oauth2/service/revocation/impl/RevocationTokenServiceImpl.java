@@ -16,12 +16,16 @@
 package io.gravitee.am.gateway.handler.oauth2.service.revocation.impl;
 
 import io.gravitee.am.common.exception.oauth2.InvalidTokenException;
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
 import io.gravitee.am.gateway.handler.oauth2.service.revocation.RevocationTokenRequest;
 import io.gravitee.am.gateway.handler.oauth2.service.revocation.RevocationTokenService;
+import io.gravitee.am.gateway.handler.oauth2.service.token.Token;
 import io.gravitee.am.gateway.handler.oauth2.service.token.TokenService;
 import io.gravitee.am.common.oauth2.TokenTypeHint;
+import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.oidc.Client;
+import io.gravitee.am.service.RevocationEpochService;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import org.slf4j.Logger;
@@ -39,6 +43,15 @@ public class RevocationTokenServiceImpl implements RevocationTokenService {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private RevocationEpochService revocationEpochService;
+
+    @Autowired
+    private RevocationEpochRegistry revocationEpochRegistry;
+
+    @Autowired
+    private Domain domain;
+
     @Override
     public Completable revoke(RevocationTokenRequest request, Client client) {
         String token = request.getToken();
@@ -127,7 +140,8 @@ public class RevocationTokenServiceImpl implements RevocationTokenService {
                         return Completable.error(new InvalidGrantException("Cannot revoke tokens issued to other clients."));
                     }
 
-                    return tokenService.deleteAccessToken(accessToken.getValue());
+                    return tokenService.deleteAccessToken(accessToken.getValue())
+                            .andThen(denyAccessToken(accessToken));
                 });
     }
 
@@ -141,7 +155,18 @@ public class RevocationTokenServiceImpl implements RevocationTokenService {
                         return Completable.error(new InvalidGrantException("Cannot revoke tokens issued to other clients."));
                     }
 
+                    // refresh tokens are always looked up in the database when they are used
                     return tokenService.deleteRefreshToken(refreshToken.getValue());
                 });
     }
+
+    /**
+     * Signed access tokens may be validated without database lookup, record that this token must be rejected
+     * until it expires.
+     */
+    private Completable denyAccessToken(Token accessToken) {
+        return revocationEpochService.revokeToken(domain.getId(), accessToken.getValue(), accessToken.getExpireAt())
+                .doOnSuccess(revocationEpochRegistry::register)
+                .ignoreElement();
+    }
 }
@@ -17,6 +17,8 @@ package io.gravitee.am.gateway.handler.oauth2.service.token;
 
 import io.gravitee.common.service.Service;
 
+import java.util.List;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -26,4 +28,51 @@ public interface TokenManager extends Service {
     void storeAccessToken(io.gravitee.am.repository.oauth2.model.AccessToken accessToken);
 
     void storeRefreshToken(io.gravitee.am.repository.oauth2.model.RefreshToken refreshToken);
+
+    /**
+     * Get an access token stored by this node but not persisted yet.
+     *
+     * @param token access token value (jti)
+     * @return the pending access token or <code>null</code>
+     */
+    io.gravitee.am.repository.oauth2.model.AccessToken getPendingAccessToken(String token);
+
+    /**
+     * Get a refresh token stored by this node but not persisted yet.
+     *
+     * @param token refresh token value (jti)
+     * @return the pending refresh token or <code>null</code>
+     */
+    io.gravitee.am.repository.oauth2.model.RefreshToken getPendingRefreshToken(String token);
+
+    /**
+     * Get the access tokens issued from an authorization code, stored by this node but not persisted yet.
+     *
+     * @param authorizationCode authorization code
+     * @return the pending access tokens
+     */
+    List<io.gravitee.am.repository.oauth2.model.AccessToken> getPendingAccessTokens(String authorizationCode);
+
+    /**
+     * Cancel the persistence of an access token stored by this node.
+     *
+     * @param token access token value (jti)
+     * @return <code>true</code> if the token was still pending, <code>false</code> if it must be deleted from the repository
+     */
+    boolean cancelAccessToken(String token);
+
+    /**
+     * Cancel the persistence of a refresh token stored by this node.
+     *
+     * @param token refresh token value (jti)
+     * @return <code>true</code> if the token was still pending, <code>false</code> if it must be deleted from the repository
+     */
+    boolean cancelRefreshToken(String token);
+
+    /**
+     * Cancel the persistence of the pending refresh tokens of a token family.
+     *
+     * @param familyId refresh token family id
+     */
+    void cancelRefreshTokenFamily(String familyId);
 }
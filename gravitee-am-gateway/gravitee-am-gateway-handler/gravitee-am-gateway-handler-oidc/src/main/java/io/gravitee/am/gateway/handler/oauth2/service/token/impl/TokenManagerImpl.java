@@ -15,20 +15,28 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.service.token.impl;
 
+import io.gravitee.am.gateway.core.metrics.GatewayMetrics;
 import io.gravitee.am.gateway.handler.oauth2.service.token.TokenManager;
 import io.gravitee.am.gateway.handler.oauth2.service.token.indexer.AccessTokenBulkProcessor;
+import io.gravitee.am.gateway.handler.oauth2.service.token.indexer.PendingTokens;
 import io.gravitee.am.gateway.handler.oauth2.service.token.indexer.RefreshTokenBulkProcessor;
+import io.gravitee.am.model.Domain;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.model.AccessToken;
 import io.gravitee.am.repository.oauth2.model.RefreshToken;
 import io.gravitee.common.service.AbstractService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.reactivex.processors.PublishProcessor;
 import io.reactivex.schedulers.Schedulers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -38,6 +46,11 @@ public class TokenManagerImpl extends AbstractService implements TokenManager {
 
     private static final Integer bulkActions = 1000;
     private static final Long flushInterval = 1l;
+    private static final String ACCESS_TOKEN = "access_token";
+    private static final String REFRESH_TOKEN = "refresh_token";
+
+    @Autowired
+    private Domain domain;
 
     @Lazy
     @Autowired
@@ -51,10 +64,29 @@ public class TokenManagerImpl extends AbstractService implements TokenManager {
 
     private final PublishProcessor<RefreshToken> bulkProcessorRefreshToken = PublishProcessor.create();
 
+    private final PendingTokens<AccessToken> pendingAccessTokenIndex = new PendingTokens<>();
+
+    private final PendingTokens<RefreshToken> pendingRefreshTokenIndex = new PendingTokens<>();
+
+    private final AtomicInteger pendingAccessTokens = new AtomicInteger();
+
+    private final AtomicInteger pendingRefreshTokens = new AtomicInteger();
+
+    private MeterRegistry registry;
+
+    private Gauge accessTokenBufferGauge;
+
+    private Gauge refreshTokenBufferGauge;
+
     @Override
     protected void doStart() throws Exception {
         super.doStart();
 
+        // init metrics
+        registry = GatewayMetrics.registry();
+        accessTokenBufferGauge = bufferGauge(pendingAccessTokens, ACCESS_TOKEN);
+        refreshTokenBufferGauge = bufferGauge(pendingRefreshTokens, REFRESH_TOKEN);
+
         // init bulk processors
         bulkProcessorAccessToken
                 .onBackpressureBuffer()
@@ -65,7 +97,8 @@ public class TokenManagerImpl extends AbstractService implements TokenManager {
                         bulkActions
                 )
                 .filter(accessTokens -> accessTokens != null && !accessTokens.isEmpty())
-                .subscribe(new AccessTokenBulkProcessor(accessTokenRepository));
+                .doOnNext(accessTokens -> pendingAccessTokens.addAndGet(-accessTokens.size()))
+                .subscribe(new AccessTokenBulkProcessor(accessTokenRepository, flushTimer(ACCESS_TOKEN), pendingAccessTokenIndex));
 
         // init bulk processors
         bulkProcessorRefreshToken
@@ -77,18 +110,71 @@ public class TokenManagerImpl extends AbstractService implements TokenManager {
                         bulkActions
                 )
                 .filter(refreshTokens -> refreshTokens != null && !refreshTokens.isEmpty())
-                .subscribe(new RefreshTokenBulkProcessor(refreshTokenRepository));
+                .doOnNext(refreshTokens -> pendingRefreshTokens.addAndGet(-refreshTokens.size()))
+                .subscribe(new RefreshTokenBulkProcessor(refreshTokenRepository, flushTimer(REFRESH_TOKEN), pendingRefreshTokenIndex));
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        registry.remove(accessTokenBufferGauge);
+        registry.remove(refreshTokenBufferGauge);
     }
 
     @Override
     public void storeAccessToken(AccessToken accessToken) {
+        pendingAccessTokenIndex.add(accessToken);
+        pendingAccessTokens.incrementAndGet();
         bulkProcessorAccessToken
                 .onNext(accessToken);
     }
 
     @Override
     public void storeRefreshToken(RefreshToken refreshToken) {
+        pendingRefreshTokenIndex.add(refreshToken);
+        pendingRefreshTokens.incrementAndGet();
         bulkProcessorRefreshToken
                 .onNext(refreshToken);
     }
+
+    @Override
+    public AccessToken getPendingAccessToken(String token) {
+        return pendingAccessTokenIndex.get(token);
+    }
+
+    @Override
+    public RefreshToken getPendingRefreshToken(String token) {
+        return pendingRefreshTokenIndex.get(token);
+    }
+
+    @Override
+    public List<AccessToken> getPendingAccessTokens(String authorizationCode) {
+        return pendingAccessTokenIndex.find(accessToken -> authorizationCode.equals(accessToken.getAuthorizationCode()));
+    }
+
+    @Override
+    public boolean cancelAccessToken(String token) {
+        return pendingAccessTokenIndex.cancel(token);
+    }
+
+    @Override
+    public boolean cancelRefreshToken(String token) {
+        return pendingRefreshTokenIndex.cancel(token);
+    }
+
+    @Override
+    public void cancelRefreshTokenFamily(String familyId) {
+        pendingRefreshTokenIndex.cancelIf(refreshToken -> familyId.equals(refreshToken.getFamilyId()));
+    }
+
+    private Gauge bufferGauge(AtomicInteger pending, String type) {
+        return Gauge.builder(GatewayMetrics.TOKEN_BUFFER_SIZE, pending, AtomicInteger::get)
+                .tags(GatewayMetrics.tags(GatewayMetrics.TAG_DOMAIN, domain.getId(), GatewayMetrics.TAG_TYPE, type))
+                .register(registry);
+    }
+
+    private Timer flushTimer(String type) {
+        return registry.timer(GatewayMetrics.TOKEN_FLUSH, GatewayMetrics.tags(GatewayMetrics.TAG_DOMAIN, domain.getId(), GatewayMetrics.TAG_TYPE, type));
+    }
 }
@@ -25,6 +25,7 @@ import io.gravitee.am.common.utils.RandomString;
 import io.gravitee.am.common.utils.SecureRandomString;
 import io.gravitee.am.gateway.handler.common.jwt.JWTService;
 import io.gravitee.am.gateway.handler.common.oauth2.IntrospectionTokenService;
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
 import io.gravitee.am.gateway.handler.context.ExecutionContextFactory;
 import io.gravitee.am.gateway.handler.context.provider.ClientProperties;
 import io.gravitee.am.gateway.handler.context.provider.UserProperties;
@@ -42,6 +43,7 @@ import io.gravitee.am.model.oidc.Client;
 import io.gravitee.am.model.uma.PermissionRequest;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
+import io.gravitee.am.service.RevocationEpochService;
 import io.gravitee.common.util.MultiValueMap;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.context.SimpleExecutionContext;
@@ -88,6 +90,12 @@ public class TokenServiceImpl implements TokenService {
     @Autowired
     private IntrospectionTokenService introspectionTokenService;
 
+    @Autowired
+    private RevocationEpochService revocationEpochService;
+
+    @Autowired
+    private RevocationEpochRegistry revocationEpochRegistry;
+
     @Override
     public Maybe<Token> getAccessToken(String token, Client client) {
         return jwtService.decodeAndVerify(token, client)
@@ -97,7 +105,8 @@ public class TokenServiceImpl implements TokenService {
                     }
                     return Single.error(ex);
                 })
-                .flatMapMaybe(jwt -> accessTokenRepository.findByToken(jwt.getJti()).map(accessToken -> convertAccessToken(jwt)));
+                .filter(jwt -> !isRevoked(jwt))
+                .flatMap(jwt -> findAccessToken(jwt.getJti()).map(accessToken -> convertAccessToken(jwt)));
     }
 
     @Override
@@ -109,7 +118,8 @@ public class TokenServiceImpl implements TokenService {
                     }
                     return Single.error(ex);
                 })
-                .flatMapMaybe(jwt -> refreshTokenRepository.findByToken(jwt.getJti()).map(refreshToken1 -> convertRefreshToken(jwt)));
+                .filter(jwt -> !isRevoked(jwt))
+                .flatMap(jwt -> findRefreshToken(jwt.getJti()).map(refreshToken1 -> convertRefreshToken(jwt)));
     }
 
     @Override
@@ -144,34 +154,111 @@ public class TokenServiceImpl implements TokenService {
     public Single<Token> refresh(String refreshToken, TokenRequest tokenRequest, Client client) {
         // invalid_grant : The provided authorization grant (e.g., authorization code, resource owner credentials) or refresh token is
         // invalid, expired, revoked or was issued to another client.
-        return getRefreshToken(refreshToken, client)
-                .switchIfEmpty(Single.error(new InvalidGrantException("Refresh token is invalid")))
-                .flatMap(refreshToken1 -> {
+        return jwtService.decodeAndVerify(refreshToken, client)
+                .onErrorResumeNext(ex -> {
+                    if (ex instanceof JWTException) {
+                        return Single.error(new InvalidTokenException(ex.getMessage(), ex));
+                    }
+                    return Single.error(ex);
+                })
+                .flatMap(jwt -> {
+                    Token refreshToken1 = convertRefreshToken(jwt);
                     if (refreshToken1.getExpireAt().before(new Date())) {
                         throw new InvalidGrantException("Refresh token is expired");
                     }
                     if (!refreshToken1.getClientId().equals(tokenRequest.getClientId())) {
                         throw new InvalidGrantException("Refresh token was issued to another client");
                     }
-                    // Propagate UMA 2.0 permissions
-                    if(refreshToken1.getAdditionalInformation().get("permissions")!=null) {
-                        tokenRequest.setPermissions((List<PermissionRequest>)refreshToken1.getAdditionalInformation().get("permissions"));
+                    if (isRevoked(jwt)) {
+                        // revoked on logout, consent revocation or user deletion, keep it from being flushed afterwards
+                        tokenManager.cancelRefreshToken(jwt.getJti());
+                        throw new InvalidGrantException("Refresh token is revoked");
                     }
 
                     // refresh token is used only once
-                    return refreshTokenRepository.delete(refreshToken1.getValue())
-                            .andThen(Single.just(refreshToken1));
+                    return consumeRefreshToken(jwt, tokenRequest.getClientId())
+                            .switchIfEmpty(Maybe.defer(() -> revokeRefreshTokenFamily(jwt)))
+                            .switchIfEmpty(Single.error(new InvalidGrantException("Refresh token is invalid")))
+                            .map(consumedToken -> {
+                                // Propagate UMA 2.0 permissions
+                                if (refreshToken1.getAdditionalInformation().get("permissions") != null) {
+                                    tokenRequest.setPermissions((List<PermissionRequest>) refreshToken1.getAdditionalInformation().get("permissions"));
+                                }
+                                return refreshToken1;
+                            });
                 });
     }
 
     @Override
     public Completable deleteAccessToken(String accessToken) {
-        return accessTokenRepository.delete(accessToken);
+        // a token not flushed yet is dropped from the token manager buffer
+        return Completable.defer(() -> tokenManager.cancelAccessToken(accessToken) ?
+                Completable.complete() : accessTokenRepository.delete(accessToken));
     }
 
     @Override
     public Completable deleteRefreshToken(String refreshToken) {
-        return refreshTokenRepository.delete(refreshToken);
+        // a token not flushed yet is dropped from the token manager buffer
+        return Completable.defer(() -> tokenManager.cancelRefreshToken(refreshToken) ?
+                Completable.complete() : refreshTokenRepository.delete(refreshToken));
+    }
+
+    /**
+     * Tokens revoked by subject or client (logout, consent revocation, user deletion) are only deleted from the
+     * repository: the ones still buffered by the token manager are rejected thanks to the revocation epochs.
+     */
+    private boolean isRevoked(JWT jwt) {
+        return revocationEpochRegistry.isRevoked(jwt.getDomain(), jwt.getAud(), jwt.getSub(), jwt.getJti(), jwt.getIat());
+    }
+
+    /**
+     * Tokens are persisted asynchronously by the token manager, look for tokens issued by this node before
+     * querying the repository.
+     */
+    private Maybe<io.gravitee.am.repository.oauth2.model.AccessToken> findAccessToken(String token) {
+        return Maybe.defer(() -> {
+            io.gravitee.am.repository.oauth2.model.AccessToken pendingToken = tokenManager.getPendingAccessToken(token);
+            return pendingToken != null ? Maybe.just(pendingToken) : accessTokenRepository.findByToken(token);
+        });
+    }
+
+    /**
+     * Consume a refresh token, in a single round-trip when the token has already been persisted.
+     */
+    private Maybe<io.gravitee.am.repository.oauth2.model.RefreshToken> consumeRefreshToken(JWT jwt, String clientId) {
+        return Maybe.defer(() -> {
+            io.gravitee.am.repository.oauth2.model.RefreshToken pendingToken = tokenManager.getPendingRefreshToken(jwt.getJti());
+            if (pendingToken != null && tokenManager.cancelRefreshToken(jwt.getJti())) {
+                return Maybe.just(pendingToken);
+            }
+            return refreshTokenRepository.consume(jwt.getJti(), clientId, new Date());
+        });
+    }
+
+    /**
+     * A valid refresh token which cannot be consumed has already been used (or revoked): it may have been stolen,
+     * revoke every refresh token issued by rotation from the same grant, and the access tokens of the subject
+     * for the client as they may have been obtained with the stolen token.
+     */
+    private Maybe<io.gravitee.am.repository.oauth2.model.RefreshToken> revokeRefreshTokenFamily(JWT jwt) {
+        final Object familyId = jwt.get(Claims.family_id);
+        if (!(familyId instanceof String)) {
+            return Maybe.empty();
+        }
+        logger.debug("Refresh token {} has already been used, revoke the token family {}", jwt.getJti(), familyId);
+        tokenManager.cancelRefreshTokenFamily((String) familyId);
+        return refreshTokenRepository.deleteByFamilyId((String) familyId)
+                .andThen(revocationEpochService.revoke(jwt.getDomain(), jwt.getAud(), jwt.getSub())
+                        .doOnSuccess(revocationEpochRegistry::register)
+                        .ignoreElement())
+                .andThen(Maybe.empty());
+    }
+
+    private Maybe<io.gravitee.am.repository.oauth2.model.RefreshToken> findRefreshToken(String token) {
+        return Maybe.defer(() -> {
+            io.gravitee.am.repository.oauth2.model.RefreshToken pendingToken = tokenManager.getPendingRefreshToken(token);
+            return pendingToken != null ? Maybe.just(pendingToken) : refreshTokenRepository.findByToken(token);
+        });
     }
 
     private void storeTokens(JWT accessToken, JWT refreshToken, OAuth2Request oAuth2Request) {
@@ -208,6 +295,7 @@ public class TokenServiceImpl implements TokenService {
         refreshToken.setSubject(token.getSub());
         refreshToken.setCreatedAt(new Date(token.getIat() * 1000));
         refreshToken.setExpireAt(new Date(token.getExp() * 1000));
+        refreshToken.setFamilyId((String) token.get(Claims.family_id));
         return refreshToken;
     }
 
@@ -290,6 +378,10 @@ public class TokenServiceImpl implements TokenService {
         Map<String, Object> customClaims = new HashMap<>(accessToken);
         Claims.claims().forEach(claim ->  customClaims.remove(claim));
         jwt.putAll(customClaims);
+        // keep the token family of the refresh token being rotated
+        Map<String, Object> previousRefreshToken = request.getRefreshToken();
+        Object familyId = previousRefreshToken != null ? previousRefreshToken.get(Claims.family_id) : null;
+        jwt.put(Claims.family_id, familyId instanceof String ? familyId : jwt.getJti());
 
         return jwt;
     }
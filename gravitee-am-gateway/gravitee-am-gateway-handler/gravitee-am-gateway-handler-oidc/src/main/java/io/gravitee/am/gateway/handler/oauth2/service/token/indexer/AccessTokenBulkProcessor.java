@@ -17,6 +17,7 @@ package io.gravitee.am.gateway.handler.oauth2.service.token.indexer;
 
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.model.AccessToken;
+import io.micrometer.core.instrument.Timer;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
@@ -34,9 +35,13 @@ public class AccessTokenBulkProcessor implements Subscriber<List<AccessToken>> {
     private final Logger logger = LoggerFactory.getLogger(AccessTokenBulkProcessor.class);
     private Subscription subscription;
     private AccessTokenRepository accessTokenRepository;
+    private Timer flushTimer;
+    private PendingTokens<AccessToken> pendingTokens;
 
-    public AccessTokenBulkProcessor(AccessTokenRepository accessTokenRepository) {
+    public AccessTokenBulkProcessor(AccessTokenRepository accessTokenRepository, Timer flushTimer, PendingTokens<AccessToken> pendingTokens) {
         this.accessTokenRepository = accessTokenRepository;
+        this.flushTimer = flushTimer;
+        this.pendingTokens = pendingTokens;
     }
 
     @Override
@@ -47,14 +52,33 @@ public class AccessTokenBulkProcessor implements Subscriber<List<AccessToken>> {
 
     @Override
     public void onNext(List<AccessToken> accessTokens) {
-        accessTokenRepository.bulkWrite(accessTokens)
+        // tokens revoked before the flush are not written
+        final List<AccessToken> tokens = pendingTokens.prepare(accessTokens);
+        if (tokens.isEmpty()) {
+            subscription.request(1);
+            return;
+        }
+        final long start = System.nanoTime();
+        accessTokenRepository.bulkWrite(tokens)
                 .retryWhen(t -> t.take(30).delay(1000, TimeUnit.MILLISECONDS))
+                .doFinally(() -> {
+                    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    pendingTokens.complete(tokens).forEach(this::delete);
+                })
                 .subscribe(
                         () -> logger.debug("Access tokens indexation completed"),
                         error -> logger.error("Unexpected error while indexing access tokens", error));
         subscription.request(1);
     }
 
+    private void delete(String token) {
+        // token revoked while being written
+        accessTokenRepository.delete(token)
+                .subscribe(
+                        () -> logger.debug("Access token {} deleted", token),
+                        error -> logger.error("Unexpected error while deleting access token {}", token, error));
+    }
+
     @Override
     public void onError(Throwable throwable) {
         logger.error("Unexpected error while indexing access tokens", throwable);
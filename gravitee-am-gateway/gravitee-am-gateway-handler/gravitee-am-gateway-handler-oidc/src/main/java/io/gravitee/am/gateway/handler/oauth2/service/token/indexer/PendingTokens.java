@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.service.token.indexer;
+
+import io.gravitee.am.repository.oauth2.model.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Node-local index of the tokens buffered by the token manager and not yet persisted, used to serve reads and
+ * deletes of freshly issued tokens before the bulk write reaches the repository.
+ *
+ * @author GraviteeSource Team
+ */
+public class PendingTokens<T extends Token> {
+
+    private static final int PENDING = 0;
+    private static final int WRITING = 1;
+    private static final int WRITTEN = 2;
+    private static final int CANCELLED = 3;
+
+    private final ConcurrentMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+
+    public void add(T token) {
+        entries.put(token.getToken(), new Entry<>(token));
+    }
+
+    /**
+     * @param token token value (jti)
+     * @return the pending token or <code>null</code> if the token is not (or no longer) buffered on this node
+     */
+    public T get(String token) {
+        Entry<T> entry = entries.get(token);
+        return entry == null || entry.state.get() == CANCELLED ? null : entry.token;
+    }
+
+    /**
+     * @param predicate tokens to look for
+     * @return the tokens matching the predicate which are buffered on this node
+     */
+    public List<T> find(Predicate<T> predicate) {
+        return entries.values()
+                .stream()
+                .filter(entry -> entry.state.get() != CANCELLED && predicate.test(entry.token))
+                .map(entry -> entry.token)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Cancel the persistence of a pending token.
+     *
+     * @param token token value (jti)
+     * @return <code>true</code> if the token was pending, it will then never be visible in the repository,
+     * <code>false</code> if it is unknown or already persisted and must be deleted from the repository
+     */
+    public boolean cancel(String token) {
+        Entry<T> entry = entries.get(token);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.state.compareAndSet(PENDING, CANCELLED)) {
+            entries.remove(token, entry);
+            return true;
+        }
+        // currently written, the token is deleted once the bulk write terminates
+        return entry.state.compareAndSet(WRITING, CANCELLED);
+    }
+
+    /**
+     * Cancel the persistence of every pending token matching the predicate.
+     *
+     * @param predicate tokens to cancel
+     */
+    public void cancelIf(Predicate<T> predicate) {
+        entries.values()
+                .stream()
+                .filter(entry -> predicate.test(entry.token))
+                .forEach(entry -> cancel(entry.token.getToken()));
+    }
+
+    /**
+     * Mark the tokens of a batch as being written, cancelled tokens are left out.
+     *
+     * @param tokens buffered tokens
+     * @return the tokens to write
+     */
+    public List<T> prepare(List<T> tokens) {
+        List<T> toWrite = new ArrayList<>(tokens.size());
+        for (T token : tokens) {
+            Entry<T> entry = entries.get(token.getToken());
+            if (entry != null && entry.token == token && entry.state.compareAndSet(PENDING, WRITING)) {
+                toWrite.add(token);
+            }
+        }
+        return toWrite;
+    }
+
+    /**
+     * Release the tokens of a batch once the bulk write has terminated.
+     *
+     * @param tokens written tokens
+     * @return values of the tokens cancelled during the write, to delete from the repository
+     */
+    public List<String> complete(List<T> tokens) {
+        List<String> cancelled = new ArrayList<>();
+        for (T token : tokens) {
+            Entry<T> entry = entries.get(token.getToken());
+            if (entry == null || entry.token != token) {
+                continue;
+            }
+            if (!entry.state.compareAndSet(WRITING, WRITTEN)) {
+                cancelled.add(token.getToken());
+            }
+            entries.remove(token.getToken(), entry);
+        }
+        return cancelled;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static class Entry<T> {
+        private final T token;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Entry(T token) {
+            this.token = token;
+        }
+    }
+}
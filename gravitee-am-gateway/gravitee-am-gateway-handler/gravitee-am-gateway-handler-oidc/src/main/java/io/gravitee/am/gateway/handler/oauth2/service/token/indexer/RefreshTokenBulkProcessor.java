@@ -17,6 +17,7 @@ package io.gravitee.am.gateway.handler.oauth2.service.token.indexer;
 
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.model.RefreshToken;
+import io.micrometer.core.instrument.Timer;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
@@ -34,9 +35,13 @@ public class RefreshTokenBulkProcessor implements Subscriber<List<RefreshToken>>
     private final Logger logger = LoggerFactory.getLogger(RefreshTokenBulkProcessor.class);
     private Subscription subscription;
     private RefreshTokenRepository refreshTokenRepository;
+    private Timer flushTimer;
+    private PendingTokens<RefreshToken> pendingTokens;
 
-    public RefreshTokenBulkProcessor(RefreshTokenRepository refreshTokenRepository) {
+    public RefreshTokenBulkProcessor(RefreshTokenRepository refreshTokenRepository, Timer flushTimer, PendingTokens<RefreshToken> pendingTokens) {
         this.refreshTokenRepository = refreshTokenRepository;
+        this.flushTimer = flushTimer;
+        this.pendingTokens = pendingTokens;
     }
 
     @Override
@@ -47,14 +52,33 @@ public class RefreshTokenBulkProcessor implements Subscriber<List<RefreshToken>>
 
     @Override
     public void onNext(List<RefreshToken> refreshTokens) {
-        refreshTokenRepository.bulkWrite(refreshTokens)
+        // tokens revoked before the flush are not written
+        final List<RefreshToken> tokens = pendingTokens.prepare(refreshTokens);
+        if (tokens.isEmpty()) {
+            subscription.request(1);
+            return;
+        }
+        final long start = System.nanoTime();
+        refreshTokenRepository.bulkWrite(tokens)
                 .retryWhen(t -> t.take(30).delay(1000, TimeUnit.MILLISECONDS))
+                .doFinally(() -> {
+                    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    pendingTokens.complete(tokens).forEach(this::delete);
+                })
                 .subscribe(
                         () -> logger.debug("Refresh tokens indexation completed"),
                         error -> logger.error("Unexpected error while indexing refresh tokens", error));
         subscription.request(1);
     }
 
+    private void delete(String token) {
+        // token revoked while being written
+        refreshTokenRepository.delete(token)
+                .subscribe(
+                        () -> logger.debug("Refresh token {} deleted", token),
+                        error -> logger.error("Unexpected error while deleting refresh token {}", token, error));
+    }
+
     @Override
     public void onError(Throwable throwable) {
         logger.error("Unexpected error while indexing refresh tokens", throwable);
@@ -21,12 +21,14 @@ import io.gravitee.am.gateway.handler.common.client.ClientSyncService;
 import io.gravitee.am.gateway.handler.common.jwt.JWTService;
 import io.gravitee.am.gateway.handler.common.vertx.web.auth.handler.OAuth2AuthHandler;
 import io.gravitee.am.gateway.handler.common.vertx.web.auth.provider.OAuth2AuthProvider;
+import io.gravitee.am.gateway.handler.common.vertx.web.handler.MetricsHandler;
 import io.gravitee.am.gateway.handler.oauth2.OAuth2Provider;
 import io.gravitee.am.gateway.handler.oauth2.resources.auth.handler.ClientAuthHandler;
 import io.gravitee.am.gateway.handler.oauth2.resources.handler.ExceptionHandler;
 import io.gravitee.am.gateway.handler.oauth2.service.assertion.ClientAssertionService;
 import io.gravitee.am.gateway.handler.oauth2.service.granter.extensiongrant.ExtensionGrantManager;
 import io.gravitee.am.gateway.handler.oauth2.service.scope.ScopeManager;
+import io.gravitee.am.gateway.handler.oauth2.service.scope.ScopeService;
 import io.gravitee.am.gateway.handler.oidc.resources.endpoint.*;
 import io.gravitee.am.gateway.handler.oidc.resources.handler.DynamicClientAccessHandler;
 import io.gravitee.am.gateway.handler.oidc.resources.handler.DynamicClientAccessTokenHandler;
@@ -37,6 +39,7 @@ import io.gravitee.am.gateway.handler.oidc.service.discovery.OpenIDDiscoveryServ
 import io.gravitee.am.gateway.handler.oidc.service.jwe.JWEService;
 import io.gravitee.am.gateway.handler.oidc.service.jwk.JWKService;
 import io.gravitee.am.gateway.handler.oidc.service.request.RequestObjectService;
+import io.gravitee.am.gateway.handler.oidc.service.userinfo.UserInfoCache;
 import io.gravitee.am.gateway.handler.uma.UMAProvider;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.service.GroupService;
@@ -51,6 +54,7 @@ import io.vertx.reactivex.ext.web.Router;
 import io.vertx.reactivex.ext.web.RoutingContext;
 import io.vertx.reactivex.ext.web.handler.CorsHandler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 
 import static io.gravitee.am.common.oauth2.Parameters.CLIENT_ID;
@@ -117,9 +121,21 @@ public class OIDCProvider extends AbstractService<ProtocolProvider> implements P
     @Autowired
     private ScopeManager scopeManager;
 
+    @Autowired
+    private ScopeService scopeService;
+
     @Autowired
     private RequestObjectService requestObjectService;
 
+    @Autowired
+    private UserInfoCache userInfoCache;
+
+    @Value("${discovery.cache.maxAge:300}")
+    private long discoveryMaxAge;
+
+    @Value("${jwks.cache.maxAge:300}")
+    private long jwksMaxAge;
+
     @Override
     protected void doStart() throws Exception {
         super.doStart();
@@ -129,6 +145,7 @@ public class OIDCProvider extends AbstractService<ProtocolProvider> implements P
         startOAuth2Protocol();
 
         // Start OpenID Connect provider
+        userInfoCache.start();
         startOpenIDConnectProtocol();
 
         // Start UMA 2.0 protocol (after Oauth2 & OIDC)
@@ -141,6 +158,7 @@ public class OIDCProvider extends AbstractService<ProtocolProvider> implements P
 
         extensionGrantManager.stop();
         scopeManager.stop();
+        userInfoCache.stop();
     }
 
     @Override
@@ -165,6 +183,8 @@ public class OIDCProvider extends AbstractService<ProtocolProvider> implements P
         // OpenID Provider Configuration Information Endpoint
         Handler<RoutingContext> openIDProviderConfigurationEndpoint = new ProviderConfigurationEndpoint();
         ((ProviderConfigurationEndpoint) openIDProviderConfigurationEndpoint).setDiscoveryService(discoveryService);
+        ((ProviderConfigurationEndpoint) openIDProviderConfigurationEndpoint).setScopeService(scopeService);
+        ((ProviderConfigurationEndpoint) openIDProviderConfigurationEndpoint).setMaxAge(discoveryMaxAge);
         oidcRouter.route("/.well-known/openid-configuration").handler(corsHandler);
         oidcRouter
                 .route(HttpMethod.GET, "/.well-known/openid-configuration")
@@ -176,23 +196,27 @@ public class OIDCProvider extends AbstractService<ProtocolProvider> implements P
         userInfoAuthHandler.extractClient(true);
         userInfoAuthHandler.forceEndUserToken(true);
 
-        Handler<RoutingContext> userInfoEndpoint = new UserInfoEndpoint(userService, roleService, groupService, jwtService, jweService, discoveryService);
+        Handler<RoutingContext> userInfoEndpoint = new UserInfoEndpoint(userService, roleService, groupService, jwtService, jweService, discoveryService, userInfoCache);
+        Handler<RoutingContext> userInfoMetricsHandler = MetricsHandler.create(domain.getId(), "userinfo");
         oidcRouter.route("/userinfo").handler(corsHandler);
         oidcRouter
                 .route(HttpMethod.GET, "/userinfo")
+                .handler(userInfoMetricsHandler)
                 .handler(userInfoAuthHandler)
                 .handler(userInfoEndpoint);
         oidcRouter
                 .route(HttpMethod.POST, "/userinfo")
                 .consumes(MediaType.APPLICATION_FORM_URLENCODED)
+                .handler(userInfoMetricsHandler)
                 .handler(userInfoAuthHandler)
                 .handler(userInfoEndpoint);
 
         // OpenID Provider JWK Set
-        Handler<RoutingContext> openIDProviderJWKSetEndpoint = new ProviderJWKSetEndpoint(jwkService);
+        Handler<RoutingContext> openIDProviderJWKSetEndpoint = new ProviderJWKSetEndpoint(jwkService, jwksMaxAge);
         oidcRouter.route("/.well-known/jwks.json").handler(corsHandler);
         oidcRouter
                 .route(HttpMethod.GET, "/.well-known/jwks.json")
+                .handler(MetricsHandler.create(domain.getId(), "jwks"))
                 .handler(openIDProviderJWKSetEndpoint);
 
         // Dynamic Client Registration templates
@@ -16,25 +16,39 @@
 package io.gravitee.am.gateway.handler.oidc.resources.endpoint;
 
 import io.gravitee.am.gateway.handler.common.vertx.utils.UriBuilderRequest;
+import io.gravitee.am.gateway.handler.common.vertx.web.endpoint.CacheableResponse;
+import io.gravitee.am.gateway.handler.oauth2.service.scope.ScopeService;
 import io.gravitee.am.gateway.handler.oidc.service.discovery.OpenIDDiscoveryService;
-import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.MediaType;
 import io.vertx.core.Handler;
-import io.vertx.core.json.Json;
 import io.vertx.reactivex.ext.web.RoutingContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static io.gravitee.am.gateway.handler.common.vertx.utils.UriBuilderRequest.CONTEXT_PATH;
 
 /**
+ * The provider configuration is rendered once per base path, the same bytes and entity-tag are then served
+ * until the discovery scopes change (a domain update restarts the whole domain handler).
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
 public class ProviderConfigurationEndpoint implements Handler<RoutingContext> {
 
     private static final Logger logger = LoggerFactory.getLogger(ProviderConfigurationEndpoint.class);
+    /**
+     * The base path depends on the (forwarded) request headers, bound the number of rendered configurations.
+     */
+    private static final int MAX_CACHED_BASE_PATHS = 64;
+    private final Map<String, RenderedConfiguration> renderedConfigurations = new ConcurrentHashMap<>();
     private OpenIDDiscoveryService discoveryService;
+    private ScopeService scopeService;
+    private long maxAge;
 
     @Override
     public void handle(RoutingContext context) {
@@ -45,11 +59,23 @@ public class ProviderConfigurationEndpoint implements Handler<RoutingContext> {
             logger.error("Unable to resolve OpenID Connect provider configuration endpoint", e);
         }
 
-        context.response()
-                .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
-                .putHeader(HttpHeaders.PRAGMA, "no-cache")
-                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
-                .end(Json.encodePrettily(discoveryService.getConfiguration(basePath)));
+        render(basePath).send(context, maxAge);
+    }
+
+    private CacheableResponse render(String basePath) {
+        if (scopeService == null) {
+            return CacheableResponse.of(discoveryService.getConfiguration(basePath), MediaType.APPLICATION_JSON);
+        }
+        List<String> discoveryScopes = scopeService.getDiscoveryScope();
+        RenderedConfiguration rendered = renderedConfigurations.get(basePath);
+        if (rendered == null || !rendered.discoveryScopes.equals(discoveryScopes)) {
+            rendered = new RenderedConfiguration(discoveryScopes,
+                    CacheableResponse.of(discoveryService.getConfiguration(basePath), MediaType.APPLICATION_JSON));
+            if (renderedConfigurations.size() < MAX_CACHED_BASE_PATHS || renderedConfigurations.containsKey(basePath)) {
+                renderedConfigurations.put(basePath, rendered);
+            }
+        }
+        return rendered.response;
     }
 
     public OpenIDDiscoveryService getDiscoveryService() {
@@ -59,4 +85,30 @@ public class ProviderConfigurationEndpoint implements Handler<RoutingContext> {
     public void setDiscoveryService(OpenIDDiscoveryService discoveryService) {
         this.discoveryService = discoveryService;
     }
+
+    public ScopeService getScopeService() {
+        return scopeService;
+    }
+
+    public void setScopeService(ScopeService scopeService) {
+        this.scopeService = scopeService;
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    private static final class RenderedConfiguration {
+        private final List<String> discoveryScopes;
+        private final CacheableResponse response;
+
+        private RenderedConfiguration(List<String> discoveryScopes, CacheableResponse response) {
+            this.discoveryScopes = discoveryScopes;
+            this.response = response;
+        }
+    }
 }
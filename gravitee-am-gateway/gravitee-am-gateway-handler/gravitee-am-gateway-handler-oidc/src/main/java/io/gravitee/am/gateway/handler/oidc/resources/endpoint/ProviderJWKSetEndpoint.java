@@ -15,11 +15,11 @@
  */
 package io.gravitee.am.gateway.handler.oidc.resources.endpoint;
 
+import io.gravitee.am.gateway.handler.common.vertx.web.endpoint.CacheableResponse;
 import io.gravitee.am.gateway.handler.oidc.service.jwk.JWKService;
 import io.gravitee.am.gateway.handler.oidc.model.jwk.converter.JWKConverter;
-import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.am.model.oidc.JWKSet;
 import io.vertx.core.Handler;
-import io.vertx.core.json.Json;
 import io.vertx.reactivex.ext.web.RoutingContext;
 
 /**
@@ -29,6 +29,9 @@ import io.vertx.reactivex.ext.web.RoutingContext;
  * The JSON object MUST have a "keys" member, with its value being an array ofxJWKs.
  * This JSON object MAY contain whitespace and/or line breaks.
  *
+ * The JWK Set is rendered once for a given set of domain keys, the same bytes and entity-tag are then served
+ * until a certificate of the domain is deployed or undeployed.
+ *
  * See <a href="https://tools.ietf.org/html/rfc7517#section-5">5. JWK Set Format</a>
  *
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -36,20 +39,43 @@ import io.vertx.reactivex.ext.web.RoutingContext;
  */
 public class ProviderJWKSetEndpoint implements Handler<RoutingContext> {
 
+    private static final String JWK_SET_CONTENT_TYPE = "application/jwk-set+json; charset=UTF-8";
     private JWKService jwkService;
+    private long maxAge;
+    private volatile RenderedKeys renderedKeys;
 
     public ProviderJWKSetEndpoint(JWKService jwkService) {
+        this(jwkService, 0);
+    }
+
+    public ProviderJWKSetEndpoint(JWKService jwkService, long maxAge) {
         this.jwkService = jwkService;
+        this.maxAge = maxAge;
     }
 
     @Override
     public void handle(RoutingContext context) {
         jwkService.getKeys()
-                .map(JWKConverter::convert)
-                .subscribe(keys -> context.response()
-                .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
-                .putHeader(HttpHeaders.PRAGMA, "no-cache")
-                .putHeader(HttpHeaders.CONTENT_TYPE, "application/jwk-set+json; charset=UTF-8")
-                .end(Json.encodePrettily(keys)), error -> context.response().setStatusCode(500).end());
+                .map(this::render)
+                .subscribe(response -> response.send(context, maxAge), error -> context.response().setStatusCode(500).end());
+    }
+
+    private CacheableResponse render(JWKSet keys) {
+        RenderedKeys rendered = renderedKeys;
+        if (rendered == null || rendered.keys != keys) {
+            rendered = new RenderedKeys(keys, CacheableResponse.of(JWKConverter.convert(keys), JWK_SET_CONTENT_TYPE));
+            renderedKeys = rendered;
+        }
+        return rendered.response;
+    }
+
+    private static final class RenderedKeys {
+        private final JWKSet keys;
+        private final CacheableResponse response;
+
+        private RenderedKeys(JWKSet keys, CacheableResponse response) {
+            this.keys = keys;
+            this.response = response;
+        }
     }
 }
@@ -27,6 +27,7 @@ import io.gravitee.am.gateway.handler.common.vertx.utils.UriBuilderRequest;
 import io.gravitee.am.gateway.handler.common.vertx.web.auth.handler.OAuth2AuthHandler;
 import io.gravitee.am.gateway.handler.oidc.service.discovery.OpenIDDiscoveryService;
 import io.gravitee.am.gateway.handler.oidc.service.request.ClaimsRequest;
+import io.gravitee.am.gateway.handler.oidc.service.userinfo.UserInfoCache;
 import io.gravitee.am.model.oidc.Client;
 import io.gravitee.am.model.Group;
 import io.gravitee.am.model.Role;
@@ -70,19 +71,22 @@ public class UserInfoEndpoint implements Handler<RoutingContext> {
     private JWTService jwtService;
     private JWEService jweService;
     private OpenIDDiscoveryService openIDDiscoveryService;
+    private UserInfoCache userInfoCache;
 
     public UserInfoEndpoint(UserService userService,
                             RoleService roleService,
                             GroupService groupService,
                             JWTService jwtService,
                             JWEService jweService,
-                            OpenIDDiscoveryService openIDDiscoveryService) {
+                            OpenIDDiscoveryService openIDDiscoveryService,
+                            UserInfoCache userInfoCache) {
         this.userService = userService;
         this.roleService = roleService;
         this.groupService = groupService;
         this.jwtService = jwtService;
         this.jweService = jweService;
         this.openIDDiscoveryService = openIDDiscoveryService;
+        this.userInfoCache = userInfoCache;
     }
 
     @Override
@@ -90,6 +94,17 @@ public class UserInfoEndpoint implements Handler<RoutingContext> {
         JWT accessToken = context.get(OAuth2AuthHandler.TOKEN_CONTEXT_KEY);
         Client client = context.get(OAuth2AuthHandler.CLIENT_CONTEXT_KEY);
         String subject = accessToken.getSub();
+        final String contentType = expectSignedOrEncryptedUserInfo(client) ? MediaType.APPLICATION_JWT : MediaType.APPLICATION_JSON;
+
+        // same token, same response : serve it from the cache
+        final long cacheVersion = userInfoCache.version();
+        final String cacheKey = cacheKey(context, accessToken, client);
+        final String cachedResponse = userInfoCache.get(subject, cacheKey);
+        if (cachedResponse != null) {
+            end(context, contentType, cachedResponse);
+            return;
+        }
+
         userService.findById(subject)
                 .switchIfEmpty(Maybe.error(new InvalidTokenException("No user found for this token")))
                 // enhance user information
@@ -99,11 +114,8 @@ public class UserInfoEndpoint implements Handler<RoutingContext> {
                 // encode response
                 .flatMap(claims -> {
                         if (!expectSignedOrEncryptedUserInfo(client)) {
-                            context.response().putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
-                            return Single.just(Json.encodePrettily(claims));
+                            return Single.just(Json.encode(claims));
                         } else {
-                            context.response().putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JWT);
-
                             JWT jwt = new JWT(claims);
                             jwt.setIss(openIDDiscoveryService.getIssuer(UriBuilderRequest.resolveProxyRequest(context)));
                             jwt.setSub(accessToken.getSub());
@@ -116,16 +128,48 @@ public class UserInfoEndpoint implements Handler<RoutingContext> {
                         }
                     }
                 )
+                .doOnSuccess(response -> userInfoCache.put(subject, cacheKey, response, expireAt(accessToken), cacheVersion))
                 .subscribe(
-                        buffer -> context.response()
-                                .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
-                                .putHeader(HttpHeaders.PRAGMA, "no-cache")
-                                .end(buffer)
-                        ,
+                        buffer -> end(context, contentType, buffer),
                         error -> context.fail(error)
                 );
     }
 
+    private void end(RoutingContext context, String contentType, String response) {
+        context.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, contentType)
+                .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
+                .putHeader(HttpHeaders.PRAGMA, "no-cache")
+                .end(response);
+    }
+
+    /**
+     * The response only depends on the user, the client, the granted scopes and claims and the response format.
+     * Signed or encrypted responses also carry the access token audience and expiration time, and the issuer.
+     */
+    private String cacheKey(RoutingContext context, JWT accessToken, Client client) {
+        StringBuilder key = new StringBuilder()
+                .append(client.getClientId()).append('\n')
+                .append(accessToken.getScope()).append('\n')
+                .append(accessToken.getClaimsRequestParameter());
+        if (expectSignedOrEncryptedUserInfo(client)) {
+            key.append('\n').append(client.getUserinfoSignedResponseAlg())
+                    .append('\n').append(client.getUserinfoEncryptedResponseAlg())
+                    .append('\n').append(client.getUserinfoEncryptedResponseEnc())
+                    .append('\n').append(accessToken.getAud())
+                    .append('\n').append(accessToken.getExp())
+                    .append('\n').append(openIDDiscoveryService.getIssuer(UriBuilderRequest.resolveProxyRequest(context)));
+        }
+        return key.toString();
+    }
+
+    /**
+     * A response must not outlive the access token it has been issued for.
+     */
+    private long expireAt(JWT accessToken) {
+        return accessToken.getExp() > 0 ? accessToken.getExp() * 1000 : Long.MAX_VALUE;
+    }
+
     /**
      * Process user claims against user data and access token information
      * @param user the end user
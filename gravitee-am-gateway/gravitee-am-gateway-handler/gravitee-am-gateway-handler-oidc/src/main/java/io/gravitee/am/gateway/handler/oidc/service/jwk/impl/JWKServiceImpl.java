@@ -16,6 +16,7 @@
 package io.gravitee.am.gateway.handler.oidc.service.jwk.impl;
 
 import io.gravitee.am.gateway.handler.common.certificate.CertificateManager;
+import io.gravitee.am.gateway.certificate.CertificateProvider;
 import io.gravitee.am.gateway.handler.oidc.service.jwk.JWKService;
 import io.gravitee.am.gateway.handler.oidc.service.jwk.converter.JWKSetDeserializer;
 import io.gravitee.am.model.oidc.Client;
@@ -32,7 +33,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
 import java.net.URISyntaxException;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
 /**
@@ -49,14 +52,26 @@ public class JWKServiceImpl implements JWKService {
     @Qualifier("oidcWebClient")
     public WebClient client;
 
+    /**
+     * The domain keys, computed once per set of certificate providers (the collection is replaced each time
+     * a certificate of the domain is deployed or undeployed).
+     */
+    private final AtomicReference<DomainKeys> domainKeys = new AtomicReference<>();
+
     @Override
     public Single<JWKSet> getKeys() {
-        return Flowable.fromIterable(certificateManager.providers())
+        final Collection<CertificateProvider> providers = certificateManager.providers();
+        final DomainKeys cachedKeys = domainKeys.get();
+        if (cachedKeys != null && cachedKeys.providers == providers) {
+            return Single.just(cachedKeys.jwkSet);
+        }
+        return Flowable.fromIterable(providers)
                 .flatMap(certificateProvider -> certificateProvider.getProvider().keys())
                 .toList()
                 .map(keys -> {
                     JWKSet jwkSet = new JWKSet();
                     jwkSet.setKeys(keys);
+                    domainKeys.set(new DomainKeys(providers, jwkSet));
                     return jwkSet;
                 });
     }
@@ -128,4 +143,14 @@ public class JWKServiceImpl implements JWKService {
         }
         return Maybe.empty();
     }
+
+    private static final class DomainKeys {
+        private final Collection<CertificateProvider> providers;
+        private final JWKSet jwkSet;
+
+        private DomainKeys(Collection<CertificateProvider> providers, JWKSet jwkSet) {
+            this.providers = providers;
+            this.jwkSet = jwkSet;
+        }
+    }
 }
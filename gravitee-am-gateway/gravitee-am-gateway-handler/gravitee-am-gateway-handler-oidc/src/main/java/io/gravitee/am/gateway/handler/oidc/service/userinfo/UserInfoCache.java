@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.service.userinfo;
+
+import io.gravitee.common.service.Service;
+
+/**
+ * Node-local cache of encoded UserInfo responses.
+ *
+ * Entries are grouped by subject so that a user update only drops the responses of this user,
+ * while role and group updates drop every response of the domain.
+ *
+ * @author GraviteeSource Team
+ */
+public interface UserInfoCache extends Service {
+
+    /**
+     * Return the cached response or null if absent or expired.
+     *
+     * @param subject the end-user id
+     * @param key the response key (client, granted scopes, claims request and response format)
+     * @return the encoded UserInfo response or null
+     */
+    String get(String subject, String key);
+
+    /**
+     * Current cache version, to be read before computing a response and passed to {@link #put}.
+     * A response computed before an invalidation is not stored.
+     */
+    long version();
+
+    void put(String subject, String key, String response, long expireAt, long version);
+
+    void invalidate(String subject);
+
+    void invalidateAll();
+}
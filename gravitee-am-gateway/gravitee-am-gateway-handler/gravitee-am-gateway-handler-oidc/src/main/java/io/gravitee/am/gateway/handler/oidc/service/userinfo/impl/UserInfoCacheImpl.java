@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.service.userinfo.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.gravitee.am.common.event.EventManager;
+import io.gravitee.am.common.event.GroupEvent;
+import io.gravitee.am.common.event.RoleEvent;
+import io.gravitee.am.common.event.UserEvent;
+import io.gravitee.am.gateway.handler.oidc.service.userinfo.UserInfoCache;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.ReferenceType;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.service.AbstractService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class UserInfoCacheImpl extends AbstractService implements UserInfoCache, InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserInfoCacheImpl.class);
+
+    @Value("${userinfo.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${userinfo.cache.maxSize:10000}")
+    private long maxSize;
+
+    @Value("${userinfo.cache.ttl:60000}")
+    private long ttl;
+
+    @Autowired
+    private Domain domain;
+
+    @Autowired
+    private EventManager eventManager;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final EventListener<UserEvent, Payload> userEventListener = event -> {
+        if (isDomainEvent(event)) {
+            invalidate(event.content().getId());
+        }
+    };
+
+    private final EventListener<RoleEvent, Payload> roleEventListener = event -> {
+        if (isDomainEvent(event)) {
+            invalidateAll();
+        }
+    };
+
+    private final EventListener<GroupEvent, Payload> groupEventListener = event -> {
+        if (isDomainEvent(event)) {
+            invalidateAll();
+        }
+    };
+
+    private Cache<String, ConcurrentMap<String, CachedUserInfo>> responses;
+
+    @Override
+    public void afterPropertiesSet() {
+        responses = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        logger.info("Register event listener for userinfo cache for domain {}", domain.getName());
+        eventManager.subscribeForEvents(userEventListener, UserEvent.class, domain.getId());
+        eventManager.subscribeForEvents(roleEventListener, RoleEvent.class, domain.getId());
+        eventManager.subscribeForEvents(groupEventListener, GroupEvent.class, domain.getId());
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        logger.info("Dispose event listener for userinfo cache for domain {}", domain.getName());
+        eventManager.unsubscribeForEvents(userEventListener, UserEvent.class, domain.getId());
+        eventManager.unsubscribeForEvents(roleEventListener, RoleEvent.class, domain.getId());
+        eventManager.unsubscribeForEvents(groupEventListener, GroupEvent.class, domain.getId());
+        invalidateAll();
+    }
+
+    @Override
+    public String get(String subject, String key) {
+        if (!enabled || subject == null) {
+            return null;
+        }
+        ConcurrentMap<String, CachedUserInfo> subjectResponses = responses.getIfPresent(subject);
+        if (subjectResponses == null) {
+            return null;
+        }
+        CachedUserInfo cachedUserInfo = subjectResponses.get(key);
+        if (cachedUserInfo == null) {
+            return null;
+        }
+        if (cachedUserInfo.expireAt <= System.currentTimeMillis()) {
+            subjectResponses.remove(key, cachedUserInfo);
+            return null;
+        }
+        return cachedUserInfo.response;
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    @Override
+    public void put(String subject, String key, String response, long expireAt, long version) {
+        if (!enabled || subject == null || expireAt <= System.currentTimeMillis()) {
+            return;
+        }
+        try {
+            responses.get(subject, ConcurrentHashMap::new).put(key, new CachedUserInfo(response, expireAt));
+        } catch (Exception ex) {
+            logger.debug("Unable to cache userinfo response for subject {}", subject, ex);
+            return;
+        }
+        // an invalidation may have happened while the response was computed
+        if (this.version.get() != version) {
+            invalidate(subject);
+        }
+    }
+
+    @Override
+    public void invalidate(String subject) {
+        if (subject != null) {
+            version.incrementAndGet();
+            responses.invalidate(subject);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        version.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    private boolean isDomainEvent(Event<?, Payload> event) {
+        return event.content().getReferenceType() == ReferenceType.DOMAIN && domain.getId().equals(event.content().getReferenceId());
+    }
+
+    private static class CachedUserInfo {
+        private final String response;
+        private final long expireAt;
+
+        CachedUserInfo(String response, long expireAt) {
+            this.response = response;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -33,6 +33,8 @@ import io.gravitee.am.gateway.handler.oidc.service.jws.JWSService;
 import io.gravitee.am.gateway.handler.oidc.service.jws.impl.JWSServiceImpl;
 import io.gravitee.am.gateway.handler.oidc.service.request.RequestObjectService;
 import io.gravitee.am.gateway.handler.oidc.service.request.impl.RequestObjectServiceImpl;
+import io.gravitee.am.gateway.handler.oidc.service.userinfo.UserInfoCache;
+import io.gravitee.am.gateway.handler.oidc.service.userinfo.impl.UserInfoCacheImpl;
 import io.gravitee.am.gateway.handler.uma.spring.UMAConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -85,4 +87,9 @@ public class OIDCConfiguration implements ProtocolConfiguration {
     public RequestObjectService requestObjectService() {
         return new RequestObjectServiceImpl();
     }
+
+    @Bean
+    public UserInfoCache userInfoCache() {
+        return new UserInfoCacheImpl();
+    }
 }
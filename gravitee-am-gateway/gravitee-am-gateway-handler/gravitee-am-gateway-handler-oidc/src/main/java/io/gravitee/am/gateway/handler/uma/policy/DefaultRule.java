@@ -25,6 +25,7 @@ import java.util.Map;
  */
 public class DefaultRule implements Rule {
 
+    private String id;
     private String type;
     private String name;
     private String description;
@@ -43,6 +44,7 @@ public class DefaultRule implements Rule {
     }
 
     public DefaultRule(AccessPolicy accessPolicy) {
+        this.id = accessPolicy.getId();
         this.type = accessPolicy.getType().getName();
         this.name = accessPolicy.getName();
         this.description = accessPolicy.getDescription();
@@ -50,6 +52,11 @@ public class DefaultRule implements Rule {
         this.condition = accessPolicy.getCondition();
     }
 
+    @Override
+    public String id() {
+        return id;
+    }
+
     @Override
     public String type() {
         return type;
@@ -19,6 +19,7 @@ import io.gravitee.am.gateway.handler.common.policy.PolicyManager;
 import io.gravitee.am.gateway.policy.Policy;
 import io.gravitee.am.gateway.policy.PolicyChainException;
 import io.gravitee.am.gateway.policy.PolicyChainProcessorFactory;
+import io.gravitee.am.gateway.policy.PolicyException;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.reactivex.Completable;
 import org.slf4j.Logger;
@@ -27,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -65,9 +67,9 @@ public class DefaultRulesEngine implements RulesEngine {
             return rules.stream()
                     .filter(rule -> rule.enabled())
                     .map(rule -> {
-                        Policy policy = policyManager.create(rule.type(), rule.condition());
-                        policy.setMetadata(rule.metadata());
-                        return policy;
+                        // policy instances are shared between executions, request metadata are carried by the rule
+                        Policy policy = policyManager.getOrCreate(rule.id(), rule.type(), rule.condition());
+                        return policy != null ? new RulePolicy(policy, rule.metadata()) : null;
                     })
                     .filter(Objects::nonNull)
                     .collect(Collectors.toList());
@@ -75,4 +77,34 @@ public class DefaultRulesEngine implements RulesEngine {
 
         return Collections.emptyList();
     }
+
+    private static class RulePolicy implements Policy {
+        private final Policy policy;
+        private final Map<String, Object> metadata;
+
+        RulePolicy(Policy policy, Map<String, Object> metadata) {
+            this.policy = policy;
+            this.metadata = metadata;
+        }
+
+        @Override
+        public String id() {
+            return policy.id();
+        }
+
+        @Override
+        public Map<String, Object> metadata() {
+            return metadata;
+        }
+
+        @Override
+        public void execute(Object... args) throws PolicyException {
+            policy.execute(args);
+        }
+
+        @Override
+        public boolean isRunnable() {
+            return policy.isRunnable();
+        }
+    }
 }
@@ -23,6 +23,7 @@ import java.util.Map;
  */
 public interface Rule {
 
+    String id();
     String type();
     String name();
     String description();
@@ -15,9 +15,11 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.service.code;
 
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
 import io.gravitee.am.gateway.handler.oauth2.service.code.impl.AuthorizationCodeServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.service.request.AuthorizationRequest;
+import io.gravitee.am.gateway.handler.oauth2.service.token.TokenManager;
 import io.gravitee.am.model.oidc.Client;
 import io.gravitee.am.model.User;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
@@ -25,6 +27,8 @@ import io.gravitee.am.repository.oauth2.api.AuthorizationCodeRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.model.AccessToken;
 import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.gravitee.am.service.RevocationEpochService;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
@@ -37,9 +41,12 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -61,6 +68,15 @@ public class AuthorizationCodeServiceTest {
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Mock
+    private RevocationEpochService revocationEpochService;
+
+    @Mock
+    private RevocationEpochRegistry revocationEpochRegistry;
+
+    @Mock
+    private TokenManager tokenManager;
+
     @Test
     public void shouldCreate_noExistingCode() {
         AuthorizationRequest authorizationRequest = new AuthorizationRequest();
@@ -92,17 +108,16 @@ public class AuthorizationCodeServiceTest {
         authorizationCode.setCode("my-code");
         authorizationCode.setClientId("my-client-id");
 
-        when(authorizationCodeRepository.findByCode(authorizationCode.getCode())).thenReturn(Maybe.just(authorizationCode));
-        when(authorizationCodeRepository.delete(authorizationCode.getId())).thenReturn(Maybe.just(authorizationCode));
-        when(accessTokenRepository.findByAuthorizationCode(authorizationCode.getCode())).thenReturn(Observable.empty());
+        when(authorizationCodeRepository.consume(eq(authorizationCode.getCode()), eq(client.getClientId()), any(Date.class))).thenReturn(Maybe.just(authorizationCode));
 
         TestObserver<AuthorizationCode> testObserver = authorizationCodeService.remove(authorizationCode.getCode(), client).test();
         testObserver.assertComplete();
         testObserver.assertNoErrors();
+        testObserver.assertValue(authorizationCode);
 
-        verify(authorizationCodeRepository, times(1)).findByCode(any());
-        verify(authorizationCodeRepository, times(1)).delete(any());
-        verify(accessTokenRepository, times(1)).findByAuthorizationCode(anyString());
+        verify(authorizationCodeRepository, times(1)).consume(anyString(), anyString(), any(Date.class));
+        verify(authorizationCodeRepository, never()).isConsumed(anyString());
+        verify(accessTokenRepository, never()).findByAuthorizationCode(anyString());
         verify(accessTokenRepository, never()).delete(anyString());
         verify(refreshTokenRepository, never()).delete(anyString());
     }
@@ -129,16 +144,20 @@ public class AuthorizationCodeServiceTest {
 
         List<AccessToken> tokens = Arrays.asList(accessToken, accessToken2);
 
-        when(authorizationCodeRepository.findByCode(any())).thenReturn(Maybe.empty());
+        when(authorizationCodeRepository.consume(anyString(), anyString(), any(Date.class))).thenReturn(Maybe.empty());
+        when(authorizationCodeRepository.isConsumed(authorizationCode.getCode())).thenReturn(Single.just(true));
         when(accessTokenRepository.findByAuthorizationCode(anyString())).thenReturn(Observable.fromIterable(tokens));
         when(accessTokenRepository.delete(anyString())).thenReturn(Completable.complete());
+        when(revocationEpochService.revoke(any(), any(), any())).thenReturn(Single.just(new RevocationEpoch()));
 
         TestObserver<AuthorizationCode> testObserver = authorizationCodeService.remove(authorizationCode.getCode(), client).test();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(authorizationCodeRepository, times(1)).findByCode(any());
+        verify(authorizationCodeRepository, times(1)).consume(anyString(), anyString(), any(Date.class));
+        verify(authorizationCodeRepository, times(1)).isConsumed(anyString());
         verify(accessTokenRepository, times(1)).findByAuthorizationCode(anyString());
         verify(accessTokenRepository, times(2)).delete(anyString());
+        verify(revocationEpochRegistry, times(2)).register(any(RevocationEpoch.class));
         verify(authorizationCodeRepository, never()).delete(any());
         verify(refreshTokenRepository, never()).delete(anyString());
     }
@@ -167,18 +186,69 @@ public class AuthorizationCodeServiceTest {
 
         List<AccessToken> tokens = Arrays.asList(accessToken, accessToken2);
 
-        when(authorizationCodeRepository.findByCode(any())).thenReturn(Maybe.empty());
+        when(authorizationCodeRepository.consume(anyString(), anyString(), any(Date.class))).thenReturn(Maybe.empty());
+        when(authorizationCodeRepository.isConsumed(authorizationCode.getCode())).thenReturn(Single.just(true));
         when(accessTokenRepository.findByAuthorizationCode(anyString())).thenReturn(Observable.fromIterable(tokens));
         when(accessTokenRepository.delete(anyString())).thenReturn(Completable.complete());
+        when(revocationEpochService.revoke(any(), any(), any())).thenReturn(Single.just(new RevocationEpoch()));
         when(refreshTokenRepository.delete(anyString())).thenReturn(Completable.complete());
 
         TestObserver<AuthorizationCode> testObserver = authorizationCodeService.remove(authorizationCode.getCode(), client).test();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(authorizationCodeRepository, times(1)).findByCode(any());
+        verify(authorizationCodeRepository, times(1)).consume(anyString(), anyString(), any(Date.class));
+        verify(authorizationCodeRepository, times(1)).isConsumed(anyString());
         verify(accessTokenRepository, times(1)).findByAuthorizationCode(anyString());
         verify(accessTokenRepository, times(2)).delete(anyString());
+        verify(revocationEpochRegistry, times(2)).register(any(RevocationEpoch.class));
         verify(refreshTokenRepository, times(2)).delete(anyString());
         verify(authorizationCodeRepository, never()).delete(any());
     }
+
+    @Test
+    public void shouldRemove_invalidCode_pendingTokens() {
+        Client client = new Client();
+        client.setClientId("my-client-id");
+
+        AccessToken accessToken = new AccessToken();
+        accessToken.setToken("my-access-token-1");
+        accessToken.setAuthorizationCode("my-code");
+        accessToken.setRefreshToken("my-refresh-token-1");
+
+        RevocationEpoch revocationEpoch = new RevocationEpoch();
+        when(authorizationCodeRepository.consume(anyString(), anyString(), any(Date.class))).thenReturn(Maybe.empty());
+        when(authorizationCodeRepository.isConsumed("my-code")).thenReturn(Single.just(true));
+        // tokens not flushed yet by the token manager
+        when(tokenManager.getPendingAccessTokens("my-code")).thenReturn(Collections.singletonList(accessToken));
+        when(tokenManager.cancelAccessToken("my-access-token-1")).thenReturn(true);
+        when(tokenManager.cancelRefreshToken("my-refresh-token-1")).thenReturn(true);
+        when(accessTokenRepository.findByAuthorizationCode("my-code")).thenReturn(Observable.empty());
+        when(revocationEpochService.revoke(any(), any(), any())).thenReturn(Single.just(revocationEpoch));
+
+        TestObserver<AuthorizationCode> testObserver = authorizationCodeService.remove("my-code", client).test();
+        testObserver.assertError(InvalidGrantException.class);
+
+        verify(tokenManager, times(1)).cancelAccessToken("my-access-token-1");
+        verify(tokenManager, times(1)).cancelRefreshToken("my-refresh-token-1");
+        verify(accessTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(revocationEpochRegistry, times(1)).register(revocationEpoch);
+    }
+
+    @Test
+    public void shouldRemove_unknownCode() {
+        Client client = new Client();
+        client.setClientId("my-client-id");
+
+        when(authorizationCodeRepository.consume(anyString(), anyString(), any(Date.class))).thenReturn(Maybe.empty());
+        when(authorizationCodeRepository.isConsumed("unknown-code")).thenReturn(Single.just(false));
+
+        TestObserver<AuthorizationCode> testObserver = authorizationCodeService.remove("unknown-code", client).test();
+        testObserver.assertError(InvalidGrantException.class);
+
+        verify(authorizationCodeRepository, times(1)).isConsumed("unknown-code");
+        verify(accessTokenRepository, never()).findByAuthorizationCode(anyString());
+        verify(accessTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, never()).delete(anyString());
+    }
 }
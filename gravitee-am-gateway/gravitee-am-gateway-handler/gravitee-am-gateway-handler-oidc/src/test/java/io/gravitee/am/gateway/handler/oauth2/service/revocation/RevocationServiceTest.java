@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.service.revocation;
 
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
 import io.gravitee.am.gateway.handler.oauth2.service.revocation.impl.RevocationTokenServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.service.token.Token;
@@ -22,9 +23,13 @@ import io.gravitee.am.gateway.handler.oauth2.service.token.TokenService;
 import io.gravitee.am.gateway.handler.oauth2.service.token.impl.AccessToken;
 import io.gravitee.am.gateway.handler.oauth2.service.token.impl.RefreshToken;
 import io.gravitee.am.common.oauth2.TokenTypeHint;
+import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.oidc.Client;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.gravitee.am.service.RevocationEpochService;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
+import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -32,7 +37,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -48,6 +55,15 @@ public class RevocationServiceTest {
     @Mock
     private TokenService tokenService;
 
+    @Mock
+    private RevocationEpochService revocationEpochService;
+
+    @Mock
+    private RevocationEpochRegistry revocationEpochRegistry;
+
+    @Mock
+    private Domain domain;
+
     @Test
     public void shouldNotRevoke_WrongRequestedClientId() {
         final RevocationTokenRequest revocationTokenRequest = new RevocationTokenRequest("token");
@@ -105,6 +121,7 @@ public class RevocationServiceTest {
 
         when(tokenService.getAccessToken("token", client)).thenReturn(Maybe.just(accessToken));
         when(tokenService.deleteAccessToken("token")).thenReturn(Completable.complete());
+        when(revocationEpochService.revokeToken(any(), eq("token"), any())).thenReturn(Single.just(new RevocationEpoch()));
 
         TestObserver testObserver = revocationTokenService.revoke(revocationTokenRequest, client).test();
 
@@ -113,6 +130,10 @@ public class RevocationServiceTest {
 
         verify(tokenService, times(1)).getAccessToken("token", client);
         verify(tokenService, times(1)).deleteAccessToken("token");
+        // only the revoked token is denied, not every token of its subject
+        verify(revocationEpochService, times(1)).revokeToken(any(), eq("token"), any());
+        verify(revocationEpochService, never()).revoke(any(), any(), any());
+        verify(revocationEpochRegistry, times(1)).register(any(RevocationEpoch.class));
         verify(tokenService, never()).getRefreshToken(anyString(), any());
         verify(tokenService, never()).deleteRefreshToken(anyString());
 
@@ -139,6 +160,8 @@ public class RevocationServiceTest {
 
         verify(tokenService, times(1)).getRefreshToken("token", client);
         verify(tokenService, times(1)).deleteRefreshToken("token");
+        verify(revocationEpochService, never()).revoke(any(), any(), any());
+        verify(revocationEpochService, never()).revokeToken(any(), any(), any());
         verify(tokenService, never()).getAccessToken("token", client);
         verify(tokenService, never()).deleteAccessToken("token");
 
@@ -15,8 +15,10 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.service.token;
 
+import io.gravitee.am.common.jwt.Claims;
 import io.gravitee.am.common.jwt.JWT;
 import io.gravitee.am.gateway.handler.common.client.ClientSyncService;
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
 import io.gravitee.am.gateway.handler.common.jwt.JWTService;
 import io.gravitee.am.gateway.handler.context.ExecutionContextFactory;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
@@ -30,6 +32,8 @@ import io.gravitee.am.model.uma.PermissionRequest;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.model.RefreshToken;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.gravitee.am.service.RevocationEpochService;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
@@ -44,11 +48,15 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -85,6 +93,12 @@ public class TokenServiceTest {
     @Mock
     private TokenManager tokenManager;
 
+    @Mock
+    private RevocationEpochService revocationEpochService;
+
+    @Mock
+    private RevocationEpochRegistry revocationEpochRegistry;
+
     @Test
     public void shouldCreate() {
         OAuth2Request oAuth2Request = new OAuth2Request();
@@ -133,6 +147,52 @@ public class TokenServiceTest {
         verify(refreshTokenRepository, never()).delete(anyString());
     }
 
+    @Test
+    public void shouldRefresh_pendingToken() {
+        String clientId = "client-id";
+        TokenRequest tokenRequest = new TokenRequest();
+        tokenRequest.setClientId(clientId);
+
+        Client client = new Client();
+        client.setId(clientId);
+        client.setClientId(clientId);
+
+        String token = "refresh-token";
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(token);
+        refreshToken.setToken(token);
+        refreshToken.setSubject("subject");
+        refreshToken.setExpireAt(new Date(System.currentTimeMillis() + 10000));
+
+        JWT jwt = new JWT();
+        jwt.setJti(token);
+        jwt.setAud(clientId);
+        jwt.setExp(refreshToken.getExpireAt().getTime() / 1000l);
+
+        when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
+        when(tokenManager.getPendingRefreshToken(token)).thenReturn(refreshToken);
+        when(tokenManager.cancelRefreshToken(token)).thenReturn(true);
+
+        TestObserver<Token> testObserver = tokenService.refresh(refreshToken.getToken(), tokenRequest, client).test();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(tokenManager, times(1)).cancelRefreshToken(token);
+        verify(refreshTokenRepository, never()).consume(anyString(), anyString(), any());
+        verify(refreshTokenRepository, never()).findByToken(any());
+        verify(refreshTokenRepository, never()).delete(anyString());
+    }
+
+    @Test
+    public void shouldDeleteAccessToken_persisted() {
+        when(tokenManager.cancelAccessToken("access-token")).thenReturn(false);
+        when(accessTokenRepository.delete("access-token")).thenReturn(Completable.complete());
+
+        tokenService.deleteAccessToken("access-token").test().assertComplete();
+
+        verify(accessTokenRepository, times(1)).delete("access-token");
+    }
+
     @Test
     public void shouldRefresh() {
         String clientId = "client-id";
@@ -156,15 +216,15 @@ public class TokenServiceTest {
         jwt.setExp(refreshToken.getExpireAt().getTime() / 1000l);
 
         when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
-        when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.just(refreshToken));
-        when(refreshTokenRepository.delete(anyString())).thenReturn(Completable.complete());
+        when(refreshTokenRepository.consume(eq(token), eq(clientId), any(Date.class))).thenReturn(Maybe.just(refreshToken));
 
         TestObserver<Token> testObserver = tokenService.refresh(refreshToken.getToken(), tokenRequest, client).test();
         testObserver.assertComplete();
         testObserver.assertNoErrors();
 
-        verify(refreshTokenRepository, times(1)).findByToken(any());
-        verify(refreshTokenRepository, times(1)).delete(anyString());
+        verify(refreshTokenRepository, times(1)).consume(eq(token), eq(clientId), any(Date.class));
+        verify(refreshTokenRepository, never()).findByToken(any());
+        verify(refreshTokenRepository, never()).delete(anyString());
     }
 
     @Test
@@ -191,8 +251,7 @@ public class TokenServiceTest {
         jwt.put("permissions", Arrays.asList(new PermissionRequest().setResourceId("one").setResourceScopes(Arrays.asList("A"))));
 
         when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
-        when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.just(refreshToken));
-        when(refreshTokenRepository.delete(anyString())).thenReturn(Completable.complete());
+        when(refreshTokenRepository.consume(eq(token), eq(clientId), any(Date.class))).thenReturn(Maybe.just(refreshToken));
 
         TestObserver<Token> testObserver = tokenService.refresh(refreshToken.getToken(), tokenRequest, client).test();
         testObserver.assertComplete();
@@ -203,8 +262,9 @@ public class TokenServiceTest {
         List<PermissionRequest> permissions = tokenRequest.getPermissions();
         assertNotNull(permissions);
         assertTrue("one".equals(permissions.get(0).getResourceId()) && "A".equals(permissions.get(0).getResourceScopes().get(0)));
-        verify(refreshTokenRepository, times(1)).findByToken(any());
-        verify(refreshTokenRepository, times(1)).delete(anyString());
+        verify(refreshTokenRepository, times(1)).consume(eq(token), eq(clientId), any(Date.class));
+        verify(refreshTokenRepository, never()).findByToken(any());
+        verify(refreshTokenRepository, never()).delete(anyString());
     }
 
     @Test
@@ -228,14 +288,14 @@ public class TokenServiceTest {
         jwt.setExp(refreshToken.getExpireAt().getTime() / 1000l);
 
         when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
-        when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.empty());
+        when(refreshTokenRepository.consume(eq(token), eq(clientId), any(Date.class))).thenReturn(Maybe.empty());
 
-        TestObserver<Token> testObserver = tokenService.refresh(any(), tokenRequest, any()).test();
+        TestObserver<Token> testObserver = tokenService.refresh(token, tokenRequest, client).test();
         testObserver.assertNotComplete();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(refreshTokenRepository, times(1)).findByToken(any());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, times(1)).consume(eq(token), eq(clientId), any(Date.class));
+        verify(refreshTokenRepository, never()).deleteByFamilyId(anyString());
         verify(accessTokenRepository, never()).create(any());
     }
 
@@ -260,14 +320,12 @@ public class TokenServiceTest {
         jwt.setExp(refreshToken.getExpireAt().getTime() / 1000l);
 
         when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
-        when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.just(refreshToken));
 
-        TestObserver<Token> testObserver = tokenService.refresh(refreshToken.getToken(), any(), any()).test();
+        TestObserver<Token> testObserver = tokenService.refresh(refreshToken.getToken(), tokenRequest, client).test();
         testObserver.assertNotComplete();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(refreshTokenRepository, times(1)).findByToken(any());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, never()).consume(anyString(), anyString(), any());
         verify(accessTokenRepository, never()).create(any());
     }
 
@@ -292,14 +350,100 @@ public class TokenServiceTest {
         jwt.setExp(refreshToken.getExpireAt().getTime() / 1000l);
 
         when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
-        when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.just(refreshToken));
 
         TestObserver<Token> testObserver = tokenService.refresh(refreshToken.getToken(), tokenRequest, client).test();
         testObserver.assertNotComplete();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(refreshTokenRepository, times(1)).findByToken(any());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, never()).consume(anyString(), anyString(), any());
         verify(accessTokenRepository, never()).create(any());
     }
+
+    @Test
+    public void shouldNotRefresh_revokedToken() {
+        String clientId = "client-id";
+        TokenRequest tokenRequest = new TokenRequest();
+        tokenRequest.setClientId(clientId);
+
+        Client client = new Client();
+        client.setClientId(clientId);
+
+        String token = "refresh-token";
+        JWT jwt = new JWT();
+        jwt.setJti(token);
+        jwt.setAud(clientId);
+        jwt.setDomain("domain");
+        jwt.setSub("subject");
+        jwt.setIat(System.currentTimeMillis() / 1000l);
+        jwt.setExp((System.currentTimeMillis() + 10000) / 1000l);
+
+        when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
+        when(revocationEpochRegistry.isRevoked("domain", clientId, "subject", token, jwt.getIat())).thenReturn(true);
+
+        TestObserver<Token> testObserver = tokenService.refresh(token, tokenRequest, client).test();
+        testObserver.assertNotComplete();
+        testObserver.assertError(InvalidGrantException.class);
+
+        // the token may still be buffered by the token manager
+        verify(tokenManager, times(1)).cancelRefreshToken(token);
+        verify(refreshTokenRepository, never()).consume(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void shouldNotRefresh_reusedTokenRevokesFamily() {
+        String clientId = "client-id";
+        TokenRequest tokenRequest = new TokenRequest();
+        tokenRequest.setClientId(clientId);
+
+        Client client = new Client();
+        client.setClientId(clientId);
+
+        String token = "refresh-token";
+        JWT jwt = new JWT();
+        jwt.setJti(token);
+        jwt.setAud(clientId);
+        jwt.setDomain("domain");
+        jwt.setSub("subject");
+        jwt.setExp((System.currentTimeMillis() + 10000) / 1000l);
+        jwt.put(Claims.family_id, "family-id");
+
+        RevocationEpoch revocationEpoch = new RevocationEpoch();
+        when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
+        when(refreshTokenRepository.consume(eq(token), eq(clientId), any(Date.class))).thenReturn(Maybe.empty());
+        when(refreshTokenRepository.deleteByFamilyId("family-id")).thenReturn(Completable.complete());
+        when(revocationEpochService.revoke("domain", clientId, "subject")).thenReturn(Single.just(revocationEpoch));
+
+        TestObserver<Token> testObserver = tokenService.refresh(token, tokenRequest, client).test();
+        testObserver.assertNotComplete();
+        testObserver.assertError(InvalidGrantException.class);
+
+        verify(tokenManager, times(1)).cancelRefreshTokenFamily("family-id");
+        verify(refreshTokenRepository, times(1)).deleteByFamilyId("family-id");
+        // access tokens obtained with the stolen token are revoked too
+        verify(revocationEpochRegistry, times(1)).register(revocationEpoch);
+    }
+
+    @Test
+    public void shouldCreate_keepRefreshTokenFamily() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setSupportRefreshToken(true);
+        Map<String, Object> previousRefreshToken = new HashMap<>();
+        previousRefreshToken.put(Claims.family_id, "family-id");
+        oAuth2Request.setRefreshToken(previousRefreshToken);
+
+        Client client = new Client();
+        client.setClientId("my-client-id");
+
+        ExecutionContext executionContext = mock(ExecutionContext.class);
+
+        when(jwtService.encode(any(), any(Client.class))).thenReturn(Single.just(""));
+        when(tokenEnhancer.enhance(any(), any(), any(), any(), any())).thenReturn(Single.just(new AccessToken("token-id")));
+        when(executionContextFactory.create(any())).thenReturn(executionContext);
+
+        tokenService.create(oAuth2Request, client, null).test().assertComplete();
+
+        ArgumentCaptor<RefreshToken> refreshTokenCaptor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(tokenManager, times(1)).storeRefreshToken(refreshTokenCaptor.capture());
+        assertEquals("family-id", refreshTokenCaptor.getValue().getFamilyId());
+    }
 }
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.service.token.indexer;
+
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class PendingTokensTest {
+
+    private final PendingTokens<AccessToken> pendingTokens = new PendingTokens<>();
+
+    @Test
+    public void shouldGetPendingToken_untilWritten() {
+        AccessToken token = accessToken("token-1");
+        pendingTokens.add(token);
+        assertSame(token, pendingTokens.get("token-1"));
+
+        List<AccessToken> batch = pendingTokens.prepare(Collections.singletonList(token));
+        assertEquals(Collections.singletonList(token), batch);
+        // still readable while being written
+        assertSame(token, pendingTokens.get("token-1"));
+
+        assertTrue(pendingTokens.complete(batch).isEmpty());
+        assertNull(pendingTokens.get("token-1"));
+        assertEquals(0, pendingTokens.size());
+    }
+
+    @Test
+    public void shouldCancelPendingToken_beforeWrite() {
+        AccessToken token1 = accessToken("token-1");
+        AccessToken token2 = accessToken("token-2");
+        pendingTokens.add(token1);
+        pendingTokens.add(token2);
+
+        assertTrue(pendingTokens.cancel("token-1"));
+        assertNull(pendingTokens.get("token-1"));
+
+        List<AccessToken> batch = pendingTokens.prepare(Arrays.asList(token1, token2));
+        assertEquals(Collections.singletonList(token2), batch);
+        assertTrue(pendingTokens.complete(batch).isEmpty());
+    }
+
+    @Test
+    public void shouldCancelPendingToken_duringWrite() {
+        AccessToken token = accessToken("token-1");
+        pendingTokens.add(token);
+        List<AccessToken> batch = pendingTokens.prepare(Collections.singletonList(token));
+
+        assertTrue(pendingTokens.cancel("token-1"));
+        assertNull(pendingTokens.get("token-1"));
+
+        // the token has to be deleted once written
+        assertEquals(Collections.singletonList("token-1"), pendingTokens.complete(batch));
+        assertEquals(0, pendingTokens.size());
+    }
+
+    @Test
+    public void shouldNotCancel_unknownOrWrittenToken() {
+        assertFalse(pendingTokens.cancel("unknown"));
+
+        AccessToken token = accessToken("token-1");
+        pendingTokens.add(token);
+        pendingTokens.complete(pendingTokens.prepare(Collections.singletonList(token)));
+
+        assertFalse(pendingTokens.cancel("token-1"));
+    }
+
+    @Test
+    public void shouldFindPendingTokens() {
+        AccessToken token1 = accessToken("token-1");
+        token1.setAuthorizationCode("code-1");
+        AccessToken token2 = accessToken("token-2");
+        token2.setAuthorizationCode("code-1");
+        AccessToken token3 = accessToken("token-3");
+        token3.setAuthorizationCode("code-2");
+        pendingTokens.add(token1);
+        pendingTokens.add(token2);
+        pendingTokens.add(token3);
+        pendingTokens.prepare(Collections.singletonList(token2));
+        pendingTokens.cancel("token-1");
+
+        // cancelled tokens are left out, tokens being written are still pending
+        assertEquals(Collections.singletonList(token2), pendingTokens.find(token -> "code-1".equals(token.getAuthorizationCode())));
+    }
+
+    private static AccessToken accessToken(String value) {
+        AccessToken accessToken = new AccessToken();
+        accessToken.setId(value);
+        accessToken.setToken(value);
+        return accessToken;
+    }
+}
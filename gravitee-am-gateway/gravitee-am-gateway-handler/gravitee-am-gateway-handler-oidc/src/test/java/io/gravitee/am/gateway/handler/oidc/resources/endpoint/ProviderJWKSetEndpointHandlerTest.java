@@ -21,6 +21,7 @@ import io.gravitee.am.gateway.handler.oauth2.resources.handler.ExceptionHandler;
 import io.gravitee.am.model.jose.JWK;
 import io.gravitee.am.model.jose.RSAKey;
 import io.gravitee.am.model.oidc.JWKSet;
+import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.HttpStatusCode;
 import io.reactivex.Single;
 import io.vertx.core.http.HttpMethod;
@@ -31,6 +32,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.Mockito.when;
 
@@ -69,12 +71,68 @@ public class ProviderJWKSetEndpointHandlerTest extends RxWebTestBase {
 
         testRequest(
                 HttpMethod.GET, "/.well-known/jwks.json",
-                HttpStatusCode.OK_200, "OK", "{\n" +
-                        "  \"keys\" : [ {\n" +
-                        "    \"kty\" : \"RSA\",\n" +
-                        "    \"kid\" : \"my-test-key\"\n" +
-                        "  } ]\n" +
-                        "}");
+                HttpStatusCode.OK_200, "OK", "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"my-test-key\"}]}");
+    }
+
+    @Test
+    public void shouldInvokeJWKSetEndpoint_notModified() throws Exception {
+        JWK jwk = new RSAKey();
+        jwk.setKty("RSA");
+        jwk.setKid("my-test-key");
+
+        JWKSet jwkSet = new JWKSet();
+        jwkSet.setKeys(Collections.singletonList(jwk));
+
+        when(jwkService.getKeys()).thenReturn(Single.just(jwkSet));
+
+        AtomicReference<String> etag = new AtomicReference<>();
+        testRequest(
+                HttpMethod.GET, "/.well-known/jwks.json",
+                null,
+                resp -> etag.set(resp.getHeader(HttpHeaders.ETAG)),
+                HttpStatusCode.OK_200, "OK", null);
+        assertNotNull(etag.get());
+
+        testRequest(
+                HttpMethod.GET, "/.well-known/jwks.json",
+                req -> req.putHeader(HttpHeaders.IF_NONE_MATCH, "W/\"other\", " + etag.get()),
+                resp -> assertEquals(etag.get(), resp.getHeader(HttpHeaders.ETAG)),
+                HttpStatusCode.NOT_MODIFIED_304, "Not Modified", null);
+    }
+
+    @Test
+    public void shouldInvokeJWKSetEndpoint_keysChanged() throws Exception {
+        JWK jwk = new RSAKey();
+        jwk.setKty("RSA");
+        jwk.setKid("my-test-key");
+
+        JWKSet jwkSet = new JWKSet();
+        jwkSet.setKeys(Collections.singletonList(jwk));
+
+        when(jwkService.getKeys()).thenReturn(Single.just(jwkSet));
+
+        AtomicReference<String> etag = new AtomicReference<>();
+        testRequest(
+                HttpMethod.GET, "/.well-known/jwks.json",
+                null,
+                resp -> etag.set(resp.getHeader(HttpHeaders.ETAG)),
+                HttpStatusCode.OK_200, "OK", null);
+
+        // a certificate of the domain has been deployed
+        JWK newJwk = new RSAKey();
+        newJwk.setKty("RSA");
+        newJwk.setKid("my-new-test-key");
+
+        JWKSet newJwkSet = new JWKSet();
+        newJwkSet.setKeys(Collections.singletonList(newJwk));
+
+        when(jwkService.getKeys()).thenReturn(Single.just(newJwkSet));
+
+        testRequest(
+                HttpMethod.GET, "/.well-known/jwks.json",
+                req -> req.putHeader(HttpHeaders.IF_NONE_MATCH, etag.get()),
+                resp -> assertFalse(etag.get().equals(resp.getHeader(HttpHeaders.ETAG))),
+                HttpStatusCode.OK_200, "OK", "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"my-new-test-key\"}]}");
     }
 
 
@@ -30,6 +30,7 @@ import io.gravitee.am.gateway.handler.oauth2.exception.InvalidClientException;
 import io.gravitee.am.gateway.handler.oauth2.exception.ServerErrorException;
 import io.gravitee.am.gateway.handler.oauth2.resources.handler.ExceptionHandler;
 import io.gravitee.am.gateway.handler.oidc.service.discovery.OpenIDDiscoveryService;
+import io.gravitee.am.gateway.handler.oidc.service.userinfo.UserInfoCache;
 import io.gravitee.am.model.oidc.Client;
 import io.gravitee.am.model.Group;
 import io.gravitee.am.model.Role;
@@ -60,6 +61,9 @@ import java.util.*;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -87,8 +91,11 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
     @Mock
     private OpenIDDiscoveryService openIDDiscoveryService;
 
+    @Mock
+    private UserInfoCache userInfoCache;
+
     @InjectMocks
-    private UserInfoEndpoint userInfoEndpoint = new UserInfoEndpoint(userService, roleService, groupService, jwtService, jweService, openIDDiscoveryService);
+    private UserInfoEndpoint userInfoEndpoint = new UserInfoEndpoint(userService, roleService, groupService, jwtService, jweService, openIDDiscoveryService, userInfoCache);
 
     @Override
     public void setUp() throws Exception {
@@ -729,6 +736,62 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
                 HttpStatusCode.OK_200, "OK", null);
     }
 
+    @Test
+    public void shouldInvokeUserEndpoint_cachedResponse() throws Exception {
+        JWT jwt = new JWT();
+        jwt.setJti("id-token");
+        jwt.setAud("client-id");
+        jwt.setSub("id-subject");
+        jwt.setScope("openid");
+
+        Client client = new Client();
+        client.setId("client-id");
+        client.setClientId("client-id");
+
+        router.route().order(-1).handler(createOAuth2AuthHandler(oAuth2AuthProvider(jwt, client)));
+
+        when(userInfoCache.get(anyString(), anyString())).thenReturn("{\"sub\":\"id-subject\"}");
+
+        testRequest(
+                HttpMethod.GET,
+                "/userinfo",
+                req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token"),
+                resp -> {
+                    assertEquals(MediaType.APPLICATION_JSON, resp.getHeader(HttpHeaders.CONTENT_TYPE));
+                    resp.bodyHandler(body -> assertEquals("{\"sub\":\"id-subject\"}", body.toString()));
+                },
+                HttpStatusCode.OK_200, "OK", null);
+
+        verify(userService, never()).findById(anyString());
+    }
+
+    @Test
+    public void shouldInvokeUserEndpoint_cacheResponse() throws Exception {
+        User user = createUser();
+
+        JWT jwt = new JWT();
+        jwt.setJti("id-token");
+        jwt.setAud("client-id");
+        jwt.setSub("id-subject");
+        jwt.setScope("openid");
+        jwt.setExp(System.currentTimeMillis() / 1000 + 60);
+
+        Client client = new Client();
+        client.setId("client-id");
+        client.setClientId("client-id");
+
+        router.route().order(-1).handler(createOAuth2AuthHandler(oAuth2AuthProvider(jwt, client)));
+
+        when(userService.findById(anyString())).thenReturn(Maybe.just(user));
+        when(userInfoCache.version()).thenReturn(1L);
+
+        testRequest(
+                HttpMethod.GET, "/userinfo", req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token"),
+                HttpStatusCode.OK_200, "OK", null);
+
+        verify(userInfoCache).put(eq("id-subject"), anyString(), anyString(), eq(jwt.getExp() * 1000), eq(1L));
+    }
+
     private User createUser() {
         User user = new User();
         user.setId("user-id");
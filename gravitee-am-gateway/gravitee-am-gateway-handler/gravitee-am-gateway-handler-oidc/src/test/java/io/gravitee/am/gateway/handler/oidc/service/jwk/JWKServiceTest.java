@@ -35,6 +35,7 @@ import io.vertx.reactivex.core.buffer.Buffer;
 import io.vertx.reactivex.ext.web.client.HttpRequest;
 import io.vertx.reactivex.ext.web.client.HttpResponse;
 import io.vertx.reactivex.ext.web.client.WebClient;
+import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -615,4 +616,27 @@ public class JWKServiceTest {
         testObserver.assertNoErrors();
         testObserver.assertValue(jwkSet -> jwkSet.getKeys().size() == 2);
     }
+
+    @Test
+    public void shouldGetJWKSet_cachedUntilCertificateProvidersChange() {
+        io.gravitee.am.model.jose.JWK key = new io.gravitee.am.model.jose.RSAKey();
+        key.setKid("my-test-key");
+
+        CertificateProvider certificateProvider = mock(CertificateProvider.class);
+        when(certificateProvider.keys()).thenReturn(Flowable.just(key));
+
+        List<io.gravitee.am.gateway.certificate.CertificateProvider> certificateProviders =
+                Collections.singletonList(new io.gravitee.am.gateway.certificate.CertificateProvider(certificateProvider));
+        when(certificateManager.providers()).thenReturn(certificateProviders);
+
+        JWKSet jwkSet = jwkService.getKeys().blockingGet();
+        Assert.assertSame(jwkSet, jwkService.getKeys().blockingGet());
+        verify(certificateProvider, times(1)).keys();
+
+        // certificates of the domain have been redeployed
+        when(certificateManager.providers()).thenReturn(new ArrayList<>(certificateProviders));
+
+        Assert.assertNotSame(jwkSet, jwkService.getKeys().blockingGet());
+        verify(certificateProvider, times(2)).keys();
+    }
 }
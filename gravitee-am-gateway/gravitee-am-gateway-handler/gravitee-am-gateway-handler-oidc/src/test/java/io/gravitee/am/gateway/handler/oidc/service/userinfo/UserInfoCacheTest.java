@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.service.userinfo;
+
+import io.gravitee.am.common.event.EventManager;
+import io.gravitee.am.gateway.handler.oidc.service.userinfo.impl.UserInfoCacheImpl;
+import io.gravitee.am.model.Domain;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UserInfoCacheTest {
+
+    @InjectMocks
+    private UserInfoCacheImpl userInfoCache = new UserInfoCacheImpl();
+
+    @Mock
+    private Domain domain;
+
+    @Mock
+    private EventManager eventManager;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(userInfoCache, "enabled", true);
+        ReflectionTestUtils.setField(userInfoCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(userInfoCache, "ttl", 60000L);
+        userInfoCache.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldGet() {
+        userInfoCache.put("user-id", "key", "response", System.currentTimeMillis() + 60000, userInfoCache.version());
+        assertEquals("response", userInfoCache.get("user-id", "key"));
+        assertNull(userInfoCache.get("user-id", "other-key"));
+        assertNull(userInfoCache.get("other-user-id", "key"));
+    }
+
+    @Test
+    public void shouldNotGet_expired() {
+        userInfoCache.put("user-id", "key", "response", System.currentTimeMillis() - 1, userInfoCache.version());
+        assertNull(userInfoCache.get("user-id", "key"));
+    }
+
+    @Test
+    public void shouldNotGet_invalidated() {
+        userInfoCache.put("user-id", "key", "response", System.currentTimeMillis() + 60000, userInfoCache.version());
+        userInfoCache.put("other-user-id", "key", "response", System.currentTimeMillis() + 60000, userInfoCache.version());
+
+        userInfoCache.invalidate("user-id");
+        assertNull(userInfoCache.get("user-id", "key"));
+        assertEquals("response", userInfoCache.get("other-user-id", "key"));
+
+        userInfoCache.invalidateAll();
+        assertNull(userInfoCache.get("other-user-id", "key"));
+    }
+
+    @Test
+    public void shouldNotPut_invalidatedWhileComputing() {
+        long version = userInfoCache.version();
+        userInfoCache.invalidate("user-id");
+        userInfoCache.put("user-id", "key", "response", System.currentTimeMillis() + 60000, version);
+        assertNull(userInfoCache.get("user-id", "key"));
+    }
+
+    @Test
+    public void shouldNotGet_disabled() {
+        ReflectionTestUtils.setField(userInfoCache, "enabled", false);
+        userInfoCache.put("user-id", "key", "response", System.currentTimeMillis() + 60000, userInfoCache.version());
+        assertNull(userInfoCache.get("user-id", "key"));
+    }
+}
@@ -15,7 +15,9 @@
  */
 package io.gravitee.am.gateway.handler.uma.policy;
 
+import io.gravitee.am.gateway.core.processor.Processor;
 import io.gravitee.am.gateway.handler.common.policy.PolicyManager;
+import io.gravitee.am.gateway.policy.Policy;
 import io.gravitee.am.gateway.policy.PolicyChainProcessorFactory;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.reactivex.observers.TestObserver;
@@ -26,8 +28,11 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -57,4 +62,29 @@ public class RulesEngineTest {
         verify(policyManager, never()).create(anyString(), anyString());
         verify(policyChainProcessorFactory, never()).create(any(), any());
     }
+
+    @Test
+    public void shouldResolve_sharedPolicyWithRuleMetadata() {
+        Policy policy = mock(Policy.class);
+        Processor<ExecutionContext> processor = mock(Processor.class);
+        when(policyManager.getOrCreate("rule-id", "groovy", "{}")).thenReturn(policy);
+        when(policyChainProcessorFactory.create(any(), eq(executionContext))).thenReturn(processor);
+        when(processor.handler(any())).thenReturn(processor);
+        when(processor.errorHandler(any())).thenReturn(processor);
+
+        Map<String, Object> metadata = Collections.singletonMap("permissionRequest", new Object());
+        Rule rule = mock(Rule.class);
+        when(rule.enabled()).thenReturn(true);
+        when(rule.id()).thenReturn("rule-id");
+        when(rule.type()).thenReturn("groovy");
+        when(rule.condition()).thenReturn("{}");
+        when(rule.metadata()).thenReturn(metadata);
+
+        rulesEngine.fire(Collections.singletonList(rule), executionContext).test();
+
+        verify(policyManager, never()).create(anyString(), anyString());
+        verify(policy, never()).setMetadata(any());
+        verify(policyChainProcessorFactory).create(argThat((List<Policy> policies) ->
+                policies.size() == 1 && policies.get(0).metadata() == metadata), eq(executionContext));
+    }
 }
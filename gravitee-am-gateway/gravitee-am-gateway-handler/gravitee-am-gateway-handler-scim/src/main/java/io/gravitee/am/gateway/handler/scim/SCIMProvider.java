@@ -102,6 +102,7 @@ public class SCIMProvider extends AbstractService<ProtocolProvider> implements P
             scimRouter.get("/Users/:id").handler(userEndpoint::get);
             scimRouter.post("/Users").handler(usersEndpoint::create);
             scimRouter.put("/Users/:id").handler(userEndpoint::update);
+            scimRouter.patch("/Users/:id").handler(userEndpoint::patch);
             scimRouter.delete("/Users/:id").handler(userEndpoint::delete);
 
             // Groups resource
@@ -112,6 +113,7 @@ public class SCIMProvider extends AbstractService<ProtocolProvider> implements P
             scimRouter.get("/Groups/:id").handler(groupEndpoint::get);
             scimRouter.post("/Groups").handler(groupsEndpoint::create);
             scimRouter.put("/Groups/:id").handler(groupEndpoint::update);
+            scimRouter.patch("/Groups/:id").handler(groupEndpoint::patch);
             scimRouter.delete("/Groups/:id").handler(groupEndpoint::delete);
 
             // error handler
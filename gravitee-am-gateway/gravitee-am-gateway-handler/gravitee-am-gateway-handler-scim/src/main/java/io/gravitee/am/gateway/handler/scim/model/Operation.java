@@ -0,0 +1,266 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.scim.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
+import io.gravitee.am.gateway.handler.scim.exception.NoTargetException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A PATCH operation.
+ *
+ * See <a href="https://tools.ietf.org/html/rfc7644#section-3.5.2">3.5.2. Modifying with PATCH</a>
+ *
+ * @author GraviteeSource Team
+ */
+public class Operation {
+
+    /**
+     * The operation to perform, op values are case insensitive.
+     */
+    private Type op;
+
+    /**
+     * The attribute path describing the target of the operation.
+     * The "path" attribute is OPTIONAL for "add" and "replace" and is REQUIRED for "remove" operations.
+     */
+    private String path;
+
+    /**
+     * The value(s) to add or replace, may be used to select the values to remove from a multi-valued attribute.
+     */
+    private JsonNode value;
+
+    public Type getOp() {
+        return op;
+    }
+
+    public void setOp(Type op) {
+        this.op = op;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public JsonNode getValue() {
+        return value;
+    }
+
+    public void setValue(JsonNode value) {
+        this.value = value;
+    }
+
+    /**
+     * Apply the operation to the JSON representation of a resource.
+     *
+     * @param resource the resource to modify
+     */
+    public void apply(ObjectNode resource) {
+        if (op == null) {
+            throw new InvalidValueException("Field [op] is required");
+        }
+        if (path == null || path.isEmpty()) {
+            // the value is a complex attribute holding the attributes to add or replace
+            if (op == Type.REMOVE) {
+                throw new NoTargetException("Field [path] is required for remove operations");
+            }
+            if (value == null || !value.isObject()) {
+                throw new InvalidValueException("Field [value] must be an object when no path is specified");
+            }
+            value.fields().forEachRemaining(attribute -> apply(resource, Path.parse(attribute.getKey()), attribute.getValue()));
+        } else {
+            apply(resource, Path.parse(path), value);
+        }
+    }
+
+    private void apply(ObjectNode resource, Path path, JsonNode value) {
+        if (op != Type.REMOVE && value == null) {
+            throw new InvalidValueException("Field [value] is required for " + op.value() + " operations");
+        }
+        String attribute = field(resource, path.getAttribute());
+        JsonNode target = resource.get(attribute);
+
+        if (path.hasFilter()) {
+            applyOnValues(resource, attribute, target, path, value);
+        } else if (path.hasSubAttribute()) {
+            ObjectNode complexAttribute = target != null && target.isObject() ? (ObjectNode) target : null;
+            if (complexAttribute == null) {
+                if (op == Type.REMOVE) {
+                    return;
+                }
+                complexAttribute = resource.putObject(attribute);
+            }
+            applyOnAttribute(complexAttribute, field(complexAttribute, path.getSubAttribute()), value);
+        } else {
+            applyOnAttribute(resource, attribute, value);
+        }
+    }
+
+    private void applyOnAttribute(ObjectNode parent, String attribute, JsonNode value) {
+        JsonNode target = parent.get(attribute);
+        switch (op) {
+            case ADD:
+                if (target != null && target.isArray()) {
+                    // add the values to the multi-valued attribute, values already present are ignored
+                    ArrayNode values = (ArrayNode) target;
+                    for (JsonNode newValue : value.isArray() ? value : JsonNodeFactory.instance.arrayNode().add(value)) {
+                        if (!contains(values, newValue)) {
+                            values.add(newValue);
+                        }
+                    }
+                } else if (target != null && target.isObject() && value.isObject()) {
+                    ((ObjectNode) target).setAll((ObjectNode) value);
+                } else {
+                    parent.set(attribute, value);
+                }
+                break;
+            case REPLACE:
+                if (value.isNull()) {
+                    parent.remove(attribute);
+                } else {
+                    parent.set(attribute, value);
+                }
+                break;
+            case REMOVE:
+                if (target != null && target.isArray() && value != null && !value.isNull()) {
+                    // remove the given values from the multi-valued attribute
+                    removeAll((ArrayNode) target, value.isArray() ? value : JsonNodeFactory.instance.arrayNode().add(value));
+                } else {
+                    parent.remove(attribute);
+                }
+                break;
+        }
+    }
+
+    private void applyOnValues(ObjectNode resource, String attribute, JsonNode target, Path path, JsonNode value) {
+        List<ObjectNode> matches = new ArrayList<>();
+        if (target != null && target.isArray()) {
+            target.forEach(element -> {
+                if (path.matches(element)) {
+                    matches.add((ObjectNode) element);
+                }
+            });
+        }
+
+        if (matches.isEmpty()) {
+            if (op != Type.ADD) {
+                throw new NoTargetException("No value of attribute [" + path.getAttribute() + "] matches the filter of path [" + this.path + "]");
+            }
+            // create the value matching the filter
+            ObjectNode element = JsonNodeFactory.instance.objectNode();
+            path.getFilter().forEach(element::set);
+            ArrayNode values = target != null && target.isArray() ? (ArrayNode) target : resource.putArray(attribute);
+            values.add(element);
+            matches.add(element);
+        }
+
+        if (op == Type.REMOVE && !path.hasSubAttribute()) {
+            Iterator<JsonNode> elements = target.elements();
+            while (elements.hasNext()) {
+                if (path.matches(elements.next())) {
+                    elements.remove();
+                }
+            }
+            return;
+        }
+
+        for (ObjectNode element : matches) {
+            if (path.hasSubAttribute()) {
+                applyOnAttribute(element, field(element, path.getSubAttribute()), value);
+            } else if (op == Type.REPLACE) {
+                if (!value.isObject()) {
+                    throw new InvalidValueException("Field [value] must be an object to replace the values of attribute [" + path.getAttribute() + "]");
+                }
+                element.removeAll();
+                element.setAll((ObjectNode) value);
+            } else if (value.isObject()) {
+                element.setAll((ObjectNode) value);
+            } else {
+                throw new InvalidValueException("Field [value] must be an object to add sub-attributes to the values of attribute [" + path.getAttribute() + "]");
+            }
+        }
+    }
+
+    private static String field(JsonNode object, String attribute) {
+        String fieldName = Path.fieldName(object, attribute);
+        return fieldName != null ? fieldName : attribute;
+    }
+
+    private static boolean contains(ArrayNode values, JsonNode value) {
+        for (JsonNode existingValue : values) {
+            if (existingValue.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void removeAll(ArrayNode values, JsonNode valuesToRemove) {
+        Iterator<JsonNode> elements = values.elements();
+        while (elements.hasNext()) {
+            JsonNode element = elements.next();
+            for (JsonNode valueToRemove : valuesToRemove) {
+                // complex values are identified by their "value" sub-attribute
+                if (element.equals(valueToRemove)
+                        || (element.isObject() && valueToRemove.isObject() && valueToRemove.has("value") && valueToRemove.get("value").equals(element.get("value")))) {
+                    elements.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    public enum Type {
+        ADD("add"),
+        REMOVE("remove"),
+        REPLACE("replace");
+
+        private final String value;
+
+        Type(String value) {
+            this.value = value;
+        }
+
+        @JsonValue
+        public String value() {
+            return value;
+        }
+
+        @JsonCreator
+        public static Type fromValue(String value) {
+            for (Type type : values()) {
+                if (type.value.equalsIgnoreCase(value)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported PATCH operation [" + value + "]");
+        }
+    }
+}
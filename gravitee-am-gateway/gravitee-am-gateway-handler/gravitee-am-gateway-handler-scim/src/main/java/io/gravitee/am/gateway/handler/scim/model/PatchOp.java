@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.scim.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The body of an HTTP PATCH request MUST contain the attribute
+ *    "Operations", whose value is an array of one or more PATCH
+ *    operations.  Each PATCH operation object MUST have exactly one "op"
+ *    member, whose value indicates the operation to perform and MAY be one
+ *    of "add", "remove", or "replace".
+ *
+ * See <a href="https://tools.ietf.org/html/rfc7644#section-3.5.2">3.5.2. Modifying with PATCH</a>
+ *
+ * @author GraviteeSource Team
+ */
+public class PatchOp {
+
+    public static final List<String> SCHEMAS = Collections.singletonList("urn:ietf:params:scim:api:messages:2.0:PatchOp");
+
+    private List<String> schemas;
+
+    @JsonProperty("Operations")
+    private List<Operation> operations;
+
+    public List<String> getSchemas() {
+        return schemas;
+    }
+
+    public void setSchemas(List<String> schemas) {
+        this.schemas = schemas;
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<Operation> operations) {
+        this.operations = operations;
+    }
+}
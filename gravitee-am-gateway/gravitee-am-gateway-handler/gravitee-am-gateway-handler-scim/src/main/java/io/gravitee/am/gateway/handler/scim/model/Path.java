@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.scim.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.gateway.handler.scim.exception.InvalidPathException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The "path" attribute value is a String containing an attribute path
+ *    describing the target of the operation.
+ *
+ *      PATH = attrPath / valuePath [subAttr]
+ *
+ * Only the "eq" operator, optionally combined with "and", is supported in value filters.
+ *
+ * See <a href="https://tools.ietf.org/html/rfc7644#section-3.5.2">3.5.2. Modifying with PATCH</a>
+ *
+ * @author GraviteeSource Team
+ */
+public final class Path {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern ATTRIBUTE = Pattern.compile("[A-Za-z$][\\w$-]*");
+    private static final Pattern CONDITION = Pattern.compile("\\s*([A-Za-z$][\\w$.-]*)\\s+(?i:eq)\\s+(\"(?:[^\"\\\\]|\\\\.)*\"|true|false|null|-?\\d+(?:\\.\\d+)?)\\s*");
+    private static final Pattern AND = Pattern.compile("(?i)and");
+    private static final String URN_PREFIX = "urn:";
+
+    private final String attribute;
+    private final Map<String, JsonNode> filter;
+    private final String subAttribute;
+
+    private Path(String attribute, Map<String, JsonNode> filter, String subAttribute) {
+        this.attribute = attribute;
+        this.filter = filter;
+        this.subAttribute = subAttribute;
+    }
+
+    /**
+     * @return the targeted attribute, or the URN of the schema extension for extension attributes
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * @return the value filter conditions (sub-attribute name to expected value), or null if the path has no value filter
+     */
+    public Map<String, JsonNode> getFilter() {
+        return filter;
+    }
+
+    public String getSubAttribute() {
+        return subAttribute;
+    }
+
+    public boolean hasFilter() {
+        return filter != null;
+    }
+
+    public boolean hasSubAttribute() {
+        return subAttribute != null;
+    }
+
+    /**
+     * @return true if the value matches all the conditions of the filter
+     */
+    public boolean matches(JsonNode value) {
+        if (filter == null) {
+            return true;
+        }
+        if (value == null || !value.isObject()) {
+            return false;
+        }
+        for (Map.Entry<String, JsonNode> condition : filter.entrySet()) {
+            String field = fieldName(value, condition.getKey());
+            JsonNode actual = field == null ? null : value.get(field);
+            if (condition.getValue().isNull() ? (actual != null && !actual.isNull()) : !condition.getValue().equals(actual)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the name of the field of the object matching the attribute name, attribute names are case insensitive
+     */
+    public static String fieldName(JsonNode object, String attribute) {
+        if (object.has(attribute)) {
+            return attribute;
+        }
+        Iterator<String> fieldNames = object.fieldNames();
+        while (fieldNames.hasNext()) {
+            String fieldName = fieldNames.next();
+            if (fieldName.equalsIgnoreCase(attribute)) {
+                return fieldName;
+            }
+        }
+        return null;
+    }
+
+    public static Path parse(String path) {
+        if (path == null || path.trim().isEmpty()) {
+            throw new InvalidPathException("Path must not be empty");
+        }
+        String value = path.trim();
+
+        // attribute of a schema extension or fully qualified core attribute
+        if (value.regionMatches(true, 0, URN_PREFIX, 0, URN_PREFIX.length())) {
+            if (isSchema(value)) {
+                return new Path(value, null, null);
+            }
+            int bracket = value.indexOf('[');
+            int separator = value.lastIndexOf(':', bracket < 0 ? value.length() : bracket);
+            String schema = value.substring(0, separator);
+            String attributePath = value.substring(separator + 1);
+            if (User.SCHEMAS.contains(schema) || Group.SCHEMAS.contains(schema)) {
+                return parseAttributePath(path, attributePath);
+            }
+            if (!isSchema(schema)) {
+                throw new InvalidPathException("Unsupported schema in path [" + path + "]");
+            }
+            return new Path(schema, null, attributePath);
+        }
+        return parseAttributePath(path, value);
+    }
+
+    private static Path parseAttributePath(String path, String value) {
+        Matcher attributeMatcher = ATTRIBUTE.matcher(value);
+        if (!attributeMatcher.lookingAt()) {
+            throw new InvalidPathException("Invalid path [" + path + "]");
+        }
+        String attribute = attributeMatcher.group();
+        int position = attributeMatcher.end();
+
+        Map<String, JsonNode> filter = null;
+        if (position < value.length() && value.charAt(position) == '[') {
+            int end = value.indexOf(']', position);
+            if (end < 0) {
+                throw new InvalidPathException("Invalid value filter in path [" + path + "]");
+            }
+            filter = parseFilter(path, value.substring(position + 1, end));
+            position = end + 1;
+        }
+
+        String subAttribute = null;
+        if (position < value.length()) {
+            if (value.charAt(position) != '.') {
+                throw new InvalidPathException("Invalid path [" + path + "]");
+            }
+            subAttribute = value.substring(position + 1);
+            if (!ATTRIBUTE.matcher(subAttribute).matches()) {
+                throw new InvalidPathException("Invalid sub-attribute in path [" + path + "]");
+            }
+        }
+        return new Path(attribute, filter, subAttribute);
+    }
+
+    private static Map<String, JsonNode> parseFilter(String path, String filter) {
+        Map<String, JsonNode> conditions = new LinkedHashMap<>();
+        Matcher matcher = CONDITION.matcher(filter);
+        Matcher and = AND.matcher(filter);
+        int position = 0;
+        while (true) {
+            matcher.region(position, filter.length());
+            if (!matcher.lookingAt()) {
+                throw new InvalidPathException("Unsupported value filter [" + filter + "] in path [" + path + "], only the eq operator is supported");
+            }
+            try {
+                conditions.put(matcher.group(1), MAPPER.readTree(matcher.group(2)));
+            } catch (JsonProcessingException e) {
+                throw new InvalidPathException("Invalid value filter [" + filter + "] in path [" + path + "]");
+            }
+            position = matcher.end();
+            if (position == filter.length()) {
+                return Collections.unmodifiableMap(conditions);
+            }
+            and.region(position, filter.length());
+            if (!and.lookingAt()) {
+                throw new InvalidPathException("Unsupported value filter [" + filter + "] in path [" + path + "], only the eq operator is supported");
+            }
+            position = and.end();
+        }
+    }
+
+    private static boolean isSchema(String value) {
+        return EntrepriseUser.SCHEMAS.stream().anyMatch(value::equalsIgnoreCase)
+                || Group.SCHEMAS.stream().anyMatch(value::equalsIgnoreCase);
+    }
+}
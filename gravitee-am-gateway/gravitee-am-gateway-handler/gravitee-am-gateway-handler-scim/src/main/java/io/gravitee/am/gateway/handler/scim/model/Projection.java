@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.scim.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Attributes to return in the resources of a response, as requested by the "attributes" and "excludedAttributes" query parameters.
+ *
+ *    attributes  A multi-valued list of strings indicating the names of resource
+ *       attributes to return in the response, overriding the set of attributes
+ *       that would be returned by default.
+ *
+ *    excludedAttributes  A multi-valued list of strings indicating the names of
+ *       resource attributes to be removed from the default set of attributes to return.
+ *       This parameter SHALL have no effect on attributes whose schema "returned" setting is "always".
+ *
+ * When both parameters are specified, "attributes" takes precedence.
+ *
+ * See <a href="https://tools.ietf.org/html/rfc7644#section-3.4.2.5">3.4.2.5. Specifying Attributes</a>
+ *
+ * @author GraviteeSource Team
+ */
+public final class Projection {
+
+    public static final Projection ALL = new Projection(null, null);
+    private static final List<String> ALWAYS_RETURNED = Arrays.asList("schemas", "id");
+    private static final String RESOURCES = "Resources";
+
+    private final List<Path> attributes;
+    private final List<Path> excludedAttributes;
+
+    private Projection(List<Path> attributes, List<Path> excludedAttributes) {
+        this.attributes = attributes;
+        this.excludedAttributes = excludedAttributes;
+    }
+
+    /**
+     * @param attributes comma separated list of the attributes to return, may be null
+     * @param excludedAttributes comma separated list of the attributes to exclude, may be null
+     */
+    public static Projection of(String attributes, String excludedAttributes) {
+        if (attributes != null && !attributes.trim().isEmpty()) {
+            return new Projection(parse(attributes), null);
+        }
+        if (excludedAttributes != null && !excludedAttributes.trim().isEmpty()) {
+            return new Projection(null, parse(excludedAttributes));
+        }
+        return ALL;
+    }
+
+    public boolean isAll() {
+        return attributes == null && excludedAttributes == null;
+    }
+
+    /**
+     * @return true if the attribute, or at least one of its sub-attributes, is returned
+     */
+    public boolean isIncluded(String attribute) {
+        if (attributes != null) {
+            return ALWAYS_RETURNED.contains(attribute) || attributes.stream().anyMatch(path -> path.getAttribute().equalsIgnoreCase(attribute));
+        }
+        return excludedAttributes == null || ALWAYS_RETURNED.contains(attribute) ||
+                excludedAttributes.stream().noneMatch(path -> path.getAttribute().equalsIgnoreCase(attribute) && !path.hasSubAttribute());
+    }
+
+    /**
+     * @return true if the sub-attribute of the attribute is returned
+     */
+    public boolean isIncluded(String attribute, String subAttribute) {
+        if (attributes != null) {
+            return attributes.stream().anyMatch(path -> path.getAttribute().equalsIgnoreCase(attribute)
+                    && (!path.hasSubAttribute() || path.getSubAttribute().equalsIgnoreCase(subAttribute)));
+        }
+        return excludedAttributes == null || excludedAttributes.stream().noneMatch(path -> path.getAttribute().equalsIgnoreCase(attribute)
+                && (!path.hasSubAttribute() || path.getSubAttribute().equalsIgnoreCase(subAttribute)));
+    }
+
+    /**
+     * @param resource the JSON representation of a resource
+     * @return the JSON representation of the resource restricted to the returned attributes
+     */
+    public JsonNode apply(JsonNode resource) {
+        if (isAll() || resource == null || !resource.isObject()) {
+            return resource;
+        }
+        return attributes != null ? include((ObjectNode) resource) : exclude(((ObjectNode) resource).deepCopy());
+    }
+
+    /**
+     * @param listResponse the JSON representation of a list response
+     * @return the JSON representation of the list response, with its resources restricted to the returned attributes
+     */
+    public JsonNode applyToResources(JsonNode listResponse) {
+        JsonNode resources = listResponse.get(RESOURCES);
+        if (isAll() || resources == null || !resources.isArray()) {
+            return listResponse;
+        }
+        ArrayNode projectedResources = JsonNodeFactory.instance.arrayNode();
+        resources.forEach(resource -> projectedResources.add(apply(resource)));
+        ((ObjectNode) listResponse).set(RESOURCES, projectedResources);
+        return listResponse;
+    }
+
+    private ObjectNode include(ObjectNode resource) {
+        ObjectNode projectedResource = JsonNodeFactory.instance.objectNode();
+        ALWAYS_RETURNED.stream()
+                .filter(resource::has)
+                .forEach(attribute -> projectedResource.set(attribute, resource.get(attribute)));
+
+        for (Path path : attributes) {
+            String field = Path.fieldName(resource, path.getAttribute());
+            if (field == null) {
+                continue;
+            }
+            JsonNode value = resource.get(field);
+            if (!path.hasSubAttribute()) {
+                projectedResource.set(field, value);
+            } else if (value.isObject()) {
+                String subField = Path.fieldName(value, path.getSubAttribute());
+                if (subField != null) {
+                    JsonNode projectedValue = projectedResource.get(field);
+                    ObjectNode projectedObject = projectedValue != null && projectedValue.isObject() ? (ObjectNode) projectedValue : projectedResource.putObject(field);
+                    projectedObject.set(subField, value.get(subField));
+                }
+            } else if (value.isArray()) {
+                // keep the sub-attribute of each value, values are merged by index when several sub-attributes are requested
+                JsonNode projectedValue = projectedResource.get(field);
+                ArrayNode projectedValues = projectedValue != null && projectedValue.isArray() ? (ArrayNode) projectedValue : projectedResource.putArray(field);
+                for (int i = 0; i < value.size(); i++) {
+                    ObjectNode projectedElement = i < projectedValues.size() ? (ObjectNode) projectedValues.get(i) : projectedValues.addObject();
+                    JsonNode element = value.get(i);
+                    String subField = element.isObject() ? Path.fieldName(element, path.getSubAttribute()) : null;
+                    if (subField != null) {
+                        projectedElement.set(subField, element.get(subField));
+                    }
+                }
+            }
+        }
+        return projectedResource;
+    }
+
+    private ObjectNode exclude(ObjectNode resource) {
+        for (Path path : excludedAttributes) {
+            if (ALWAYS_RETURNED.contains(path.getAttribute())) {
+                continue;
+            }
+            String field = Path.fieldName(resource, path.getAttribute());
+            if (field == null) {
+                continue;
+            }
+            JsonNode value = resource.get(field);
+            if (!path.hasSubAttribute()) {
+                resource.remove(field);
+            } else if (value.isObject()) {
+                removeField((ObjectNode) value, path.getSubAttribute());
+            } else if (value.isArray()) {
+                value.forEach(element -> {
+                    if (element.isObject()) {
+                        removeField((ObjectNode) element, path.getSubAttribute());
+                    }
+                });
+            }
+        }
+        return resource;
+    }
+
+    private static void removeField(ObjectNode object, String attribute) {
+        String field = Path.fieldName(object, attribute);
+        if (field != null) {
+            object.remove(field);
+        }
+    }
+
+    private static List<Path> parse(String attributes) {
+        List<Path> paths = new ArrayList<>();
+        for (String attribute : attributes.split(",")) {
+            if (attribute.trim().isEmpty()) {
+                continue;
+            }
+            Path path = Path.parse(attribute);
+            if (path.hasFilter()) {
+                throw new InvalidValueException("Attribute [" + attribute.trim() + "] must not contain a value filter");
+            }
+            paths.add(path);
+        }
+        return paths;
+    }
+}
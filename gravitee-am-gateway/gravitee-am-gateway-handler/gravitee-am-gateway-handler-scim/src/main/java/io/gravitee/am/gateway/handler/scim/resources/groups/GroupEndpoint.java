@@ -18,6 +18,8 @@ package io.gravitee.am.gateway.handler.scim.resources.groups;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidSyntaxException;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
+import io.gravitee.am.gateway.handler.scim.model.PatchOp;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.gravitee.am.gateway.handler.scim.model.Group;
 import io.gravitee.am.gateway.handler.scim.service.GroupService;
 import io.gravitee.am.service.exception.GroupNotFoundException;
@@ -39,15 +41,22 @@ public class GroupEndpoint extends AbstractGroupEndpoint {
 
     public void get(RoutingContext context) {
         final String groupId = context.request().getParam("id");
+        final Projection projection;
+        try {
+            projection = projection(context.request());
+        } catch (Exception ex) {
+            context.fail(ex);
+            return;
+        }
         groupService
-                .get(groupId, location(context.request()))
+                .get(groupId, location(context.request()), projection)
                 .subscribe(
                         group -> context.response()
                                 .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
                                 .putHeader(HttpHeaders.PRAGMA, "no-cache")
                                 .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
                                 .putHeader(HttpHeaders.LOCATION, group.getMeta().getLocation())
-                                .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(group)),
+                                .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(projection.isAll() ? group : projection.apply(objectMapper.valueToTree(group)))),
                         error -> context.fail(error),
                         () -> context.fail(new GroupNotFoundException(groupId)));
     }
@@ -105,14 +114,69 @@ public class GroupEndpoint extends AbstractGroupEndpoint {
                 return;
             }
 
-            groupService.update(groupId, group, location(context.request()))
+            // Specifying attributes (https://tools.ietf.org/html/rfc7644#section-3.9)
+            final Projection projection;
+            try {
+                projection = projection(context.request());
+            } catch (Exception ex) {
+                context.fail(ex);
+                return;
+            }
+
+            groupService.update(groupId, group, location(context.request()), projection)
+                    .subscribe(
+                            group1 -> context.response()
+                                    .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
+                                    .putHeader(HttpHeaders.PRAGMA, "no-cache")
+                                    .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                                    .putHeader(HttpHeaders.LOCATION, group1.getMeta().getLocation())
+                                    .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(projection.isAll() ? group1 : projection.apply(objectMapper.valueToTree(group1)))),
+                            error -> context.fail(error));
+        } catch (DecodeException ex) {
+            context.fail(new InvalidSyntaxException("Unable to parse body message", ex));
+        }
+    }
+
+    /**
+     * Clients request modification of a resource using the HTTP PATCH method.
+     *    The body of the request contains the list of operations to apply, each of them
+     *    targeting an attribute (or sub-attribute, or values of a multi-valued attribute
+     *    selected by a filter) of the resource.
+     *
+     * Operations are applied in sequence, if any of them fails none of the modifications are applied.
+     *
+     * See <a href="https://tools.ietf.org/html/rfc7644#section-3.5.2">3.5.2. Modifying with PATCH</a>
+     */
+    public void patch(RoutingContext context) {
+        try {
+            final PatchOp patchOp = Json.decodeValue(context.getBodyAsString(), PatchOp.class);
+            final String groupId = context.request().getParam("id");
+
+            // schemas field is REQUIRED and MUST contain valid values and MUST not contain duplicate values
+            try {
+                checkPatchOp(patchOp);
+            } catch (Exception ex) {
+                context.fail(ex);
+                return;
+            }
+
+            // Specifying attributes (https://tools.ietf.org/html/rfc7644#section-3.9)
+            final Projection projection;
+            try {
+                projection = projection(context.request());
+            } catch (Exception ex) {
+                context.fail(ex);
+                return;
+            }
+
+            groupService.patch(groupId, patchOp, location(context.request()), projection)
                     .subscribe(
                             group1 -> context.response()
                                     .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
                                     .putHeader(HttpHeaders.PRAGMA, "no-cache")
                                     .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
                                     .putHeader(HttpHeaders.LOCATION, group1.getMeta().getLocation())
-                                    .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(group1)),
+                                    .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(projection.isAll() ? group1 : projection.apply(objectMapper.valueToTree(group1)))),
                             error -> context.fail(error));
         } catch (DecodeException ex) {
             context.fail(new InvalidSyntaxException("Unable to parse body message", ex));
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidSyntaxException;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
 import io.gravitee.am.gateway.handler.scim.model.Group;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.gravitee.am.gateway.handler.scim.service.GroupService;
 import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.MediaType;
@@ -62,14 +63,23 @@ public class GroupsEndpoint extends AbstractGroupEndpoint {
 
         }
 
+        // Specifying attributes (https://tools.ietf.org/html/rfc7644#section-3.4.2.5)
+        final Projection projection;
+        try {
+            projection = projection(context.request());
+        } catch (Exception ex) {
+            context.fail(ex);
+            return;
+        }
+
         // group service use 0-based index
-        groupService.list(page - 1, size, location(context.request()))
+        groupService.list(page - 1, size, location(context.request()), projection)
                 .subscribe(
                         groups -> context.response()
                                 .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
                                 .putHeader(HttpHeaders.PRAGMA, "no-cache")
                                 .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
-                                .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(groups)),
+                                .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(projection.isAll() ? groups : projection.applyToResources(objectMapper.valueToTree(groups)))),
                         error -> context.fail(error));
 
     }
@@ -132,7 +142,16 @@ public class GroupsEndpoint extends AbstractGroupEndpoint {
                 return;
             }
 
-            groupService.create(group, location(context.request()))
+            // Specifying attributes (https://tools.ietf.org/html/rfc7644#section-3.9)
+            final Projection projection;
+            try {
+                projection = projection(context.request());
+            } catch (Exception ex) {
+                context.fail(ex);
+                return;
+            }
+
+            groupService.create(group, location(context.request()), projection)
                     .subscribe(
                             group1 -> context.response()
                                     .setStatusCode(201)
@@ -140,7 +159,7 @@ public class GroupsEndpoint extends AbstractGroupEndpoint {
                                     .putHeader(HttpHeaders.PRAGMA, "no-cache")
                                     .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
                                     .putHeader(HttpHeaders.LOCATION, group1.getMeta().getLocation())
-                                    .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(group1)),
+                                    .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(projection.isAll() ? group1 : projection.apply(objectMapper.valueToTree(group1)))),
                             error -> context.fail(error));
         } catch (DecodeException ex) {
             context.fail(new InvalidSyntaxException("Unable to parse body message", ex));
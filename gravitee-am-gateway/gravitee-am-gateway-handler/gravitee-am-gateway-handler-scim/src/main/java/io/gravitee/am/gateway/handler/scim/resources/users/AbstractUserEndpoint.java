@@ -20,6 +20,8 @@ import io.gravitee.am.gateway.handler.common.vertx.utils.UriBuilderRequest;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidSyntaxException;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
 import io.gravitee.am.gateway.handler.scim.model.EntrepriseUser;
+import io.gravitee.am.gateway.handler.scim.model.PatchOp;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.gravitee.am.gateway.handler.scim.service.UserService;
 import io.gravitee.am.service.authentication.crypto.password.PasswordValidator;
 import io.vertx.reactivex.core.http.HttpServerRequest;
@@ -64,6 +66,22 @@ public class AbstractUserEndpoint {
         });
     }
 
+    protected void checkPatchOp(PatchOp patchOp) throws Exception {
+        if (patchOp.getSchemas() == null || patchOp.getSchemas().isEmpty()) {
+            throw new InvalidValueException("Field [schemas] is required");
+        }
+        if (!PatchOp.SCHEMAS.containsAll(patchOp.getSchemas())) {
+            throw new InvalidSyntaxException("The 'schemas' attribute MUST only contain the PatchOp message schema");
+        }
+        if (patchOp.getOperations() == null || patchOp.getOperations().isEmpty()) {
+            throw new InvalidValueException("Field [Operations] is required");
+        }
+    }
+
+    protected Projection projection(HttpServerRequest request) {
+        return Projection.of(request.getParam("attributes"), request.getParam("excludedAttributes"));
+    }
+
     protected String location(HttpServerRequest request) {
         return UriBuilderRequest.resolveProxyRequest(request, request.path(), null);
     }
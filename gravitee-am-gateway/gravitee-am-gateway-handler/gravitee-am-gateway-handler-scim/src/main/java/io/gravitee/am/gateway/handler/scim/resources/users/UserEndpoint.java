@@ -18,6 +18,8 @@ package io.gravitee.am.gateway.handler.scim.resources.users;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidSyntaxException;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
+import io.gravitee.am.gateway.handler.scim.model.PatchOp;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.gravitee.am.gateway.handler.scim.model.User;
 import io.gravitee.am.gateway.handler.scim.service.UserService;
 import io.gravitee.am.service.authentication.crypto.password.PasswordValidator;
@@ -40,15 +42,22 @@ public class UserEndpoint extends AbstractUserEndpoint {
 
     public void get(RoutingContext context) {
         final String userId = context.request().getParam("id");
+        final Projection projection;
+        try {
+            projection = projection(context.request());
+        } catch (Exception ex) {
+            context.fail(ex);
+            return;
+        }
         userService
-                .get(userId, location(context.request()))
+                .get(userId, location(context.request()), projection)
                 .subscribe(
                         user -> context.response()
                                 .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
                                 .putHeader(HttpHeaders.PRAGMA, "no-cache")
                                 .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
                                 .putHeader(HttpHeaders.LOCATION, user.getMeta().getLocation())
-                                .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(user)),
+                                .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(projection.isAll() ? user : projection.apply(objectMapper.valueToTree(user)))),
                         error -> context.fail(error),
                         () -> context.fail(new UserNotFoundException(userId)));
     }
@@ -128,6 +137,43 @@ public class UserEndpoint extends AbstractUserEndpoint {
         }
     }
 
+    /**
+     * Clients request modification of a resource using the HTTP PATCH method.
+     *    The body of the request contains the list of operations to apply, each of them
+     *    targeting an attribute (or sub-attribute, or values of a multi-valued attribute
+     *    selected by a filter) of the resource.
+     *
+     * Operations are applied in sequence, if any of them fails none of the modifications are applied.
+     *
+     * See <a href="https://tools.ietf.org/html/rfc7644#section-3.5.2">3.5.2. Modifying with PATCH</a>
+     */
+    public void patch(RoutingContext context) {
+        try {
+            final PatchOp patchOp = Json.decodeValue(context.getBodyAsString(), PatchOp.class);
+            final String userId = context.request().getParam("id");
+
+            // schemas field is REQUIRED and MUST contain valid values and MUST not contain duplicate values
+            try {
+                checkPatchOp(patchOp);
+            } catch (Exception ex) {
+                context.fail(ex);
+                return;
+            }
+
+            userService.patch(userId, patchOp, location(context.request()))
+                    .subscribe(
+                            user1 -> context.response()
+                                    .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
+                                    .putHeader(HttpHeaders.PRAGMA, "no-cache")
+                                    .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                                    .putHeader(HttpHeaders.LOCATION, user1.getMeta().getLocation())
+                                    .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(user1)),
+                            error -> context.fail(error));
+        } catch (DecodeException ex) {
+            context.fail(new InvalidSyntaxException("Unable to parse body message", ex));
+        }
+    }
+
     /**
      * Clients request resource removal via DELETE.  Service providers MAY
      *    choose not to permanently delete the resource but MUST return a 404
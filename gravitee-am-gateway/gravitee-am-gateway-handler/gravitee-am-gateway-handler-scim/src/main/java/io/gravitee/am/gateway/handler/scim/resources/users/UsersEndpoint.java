@@ -20,6 +20,7 @@ import io.gravitee.am.common.scim.filter.Filter;
 import io.gravitee.am.common.scim.parser.SCIMFilterParser;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidSyntaxException;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.gravitee.am.gateway.handler.scim.model.User;
 import io.gravitee.am.gateway.handler.scim.service.UserService;
 import io.gravitee.am.service.authentication.crypto.password.PasswordValidator;
@@ -76,14 +77,23 @@ public class UsersEndpoint extends AbstractUserEndpoint {
             }
         }
 
+        // Specifying attributes (https://tools.ietf.org/html/rfc7644#section-3.4.2.5)
+        final Projection projection;
+        try {
+            projection = projection(context.request());
+        } catch (Exception ex) {
+            context.fail(ex);
+            return;
+        }
+
         // user service use 0-based index
-        userService.list(filter, page - 1, size, location(context.request()))
+        userService.list(filter, page - 1, size, location(context.request()), projection)
                 .subscribe(
                         users -> context.response()
                                 .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
                                 .putHeader(HttpHeaders.PRAGMA, "no-cache")
                                 .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
-                                .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(users)),
+                                .end(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(projection.isAll() ? users : projection.applyToResources(objectMapper.valueToTree(users)))),
                         error -> context.fail(error));
     }
 
@@ -17,6 +17,8 @@ package io.gravitee.am.gateway.handler.scim.service;
 
 import io.gravitee.am.gateway.handler.scim.model.Group;
 import io.gravitee.am.gateway.handler.scim.model.ListResponse;
+import io.gravitee.am.gateway.handler.scim.model.PatchOp;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
@@ -29,15 +31,17 @@ import java.util.List;
  */
 public interface GroupService {
 
-    Single<ListResponse<Group>> list(int page, int size, String baseUrl);
+    Single<ListResponse<Group>> list(int page, int size, String baseUrl, Projection projection);
 
     Single<List<Group>> findByMember(String memberId);
 
-    Maybe<Group> get(String groupId, String baseUrl);
+    Maybe<Group> get(String groupId, String baseUrl, Projection projection);
 
-    Single<Group> create(Group group, String baseUrl);
+    Single<Group> create(Group group, String baseUrl, Projection projection);
 
-    Single<Group> update(String groupId, Group group, String baseUrl);
+    Single<Group> update(String groupId, Group group, String baseUrl, Projection projection);
+
+    Single<Group> patch(String groupId, PatchOp patchOp, String baseUrl, Projection projection);
 
     Completable delete(String groupId);
 }
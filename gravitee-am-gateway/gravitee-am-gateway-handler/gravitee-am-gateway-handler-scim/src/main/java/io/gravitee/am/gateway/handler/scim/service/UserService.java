@@ -16,6 +16,8 @@
 package io.gravitee.am.gateway.handler.scim.service;
 
 import io.gravitee.am.gateway.handler.scim.model.ListResponse;
+import io.gravitee.am.gateway.handler.scim.model.PatchOp;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.gravitee.am.gateway.handler.scim.model.User;
 import io.gravitee.am.common.scim.filter.Filter;
 import io.reactivex.Completable;
@@ -28,13 +30,15 @@ import io.reactivex.Single;
  */
 public interface UserService {
 
-    Single<ListResponse<User>> list(Filter filter, int page, int size, String baseUrl);
+    Single<ListResponse<User>> list(Filter filter, int page, int size, String baseUrl, Projection projection);
 
-    Maybe<User> get(String userId, String baseUrl);
+    Maybe<User> get(String userId, String baseUrl, Projection projection);
 
     Single<User> create(User user, String baseUrl);
 
     Single<User> update(String userId, User user, String baseUrl);
 
+    Single<User> patch(String userId, PatchOp patchOp, String baseUrl);
+
     Completable delete(String userId);
 }
@@ -15,13 +15,21 @@
  */
 package io.gravitee.am.gateway.handler.scim.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.gravitee.am.common.utils.RandomString;
+import io.gravitee.am.gateway.handler.scim.exception.InvalidPathException;
+import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
+import io.gravitee.am.gateway.handler.scim.exception.NoTargetException;
 import io.gravitee.am.gateway.handler.scim.exception.SCIMException;
 import io.gravitee.am.gateway.handler.scim.exception.UniquenessException;
 import io.gravitee.am.gateway.handler.scim.model.Group;
 import io.gravitee.am.gateway.handler.scim.model.ListResponse;
 import io.gravitee.am.gateway.handler.scim.model.Member;
 import io.gravitee.am.gateway.handler.scim.model.Meta;
+import io.gravitee.am.gateway.handler.scim.model.Operation;
+import io.gravitee.am.gateway.handler.scim.model.PatchOp;
+import io.gravitee.am.gateway.handler.scim.model.Path;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.gravitee.am.gateway.handler.scim.service.GroupService;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.ReferenceType;
@@ -31,15 +39,21 @@ import io.gravitee.am.service.exception.AbstractManagementException;
 import io.gravitee.am.service.exception.GroupNotFoundException;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -51,6 +65,14 @@ import java.util.stream.Collectors;
 public class GroupServiceImpl implements GroupService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GroupServiceImpl.class);
+    private static final String MEMBERS = "members";
+    private static final String MEMBER_DISPLAY = "display";
+    private static final String MEMBER_REF = "$ref";
+    // only the properties required to compute the members display name are loaded
+    private static final Set<String> MEMBER_FIELDS = new HashSet<>(Arrays.asList("id", "username", "displayName", "firstName", "lastName"));
+
+    @Value("${scim.groups.membersBatchSize:1000}")
+    private int membersBatchSize = 1000;
 
     @Autowired
     private GroupRepository groupRepository;
@@ -62,7 +84,7 @@ public class GroupServiceImpl implements GroupService {
     private Domain domain;
 
     @Override
-    public Single<ListResponse<Group>> list(int page, int size, String baseUrl) {
+    public Single<ListResponse<Group>> list(int page, int size, String baseUrl, Projection projection) {
         LOGGER.debug("Find groups by domain : {}", domain.getId());
 
         return groupRepository.findByDomain(domain.getId(), page, size)
@@ -76,7 +98,7 @@ public class GroupServiceImpl implements GroupService {
                         return Observable.fromIterable(groupPage.getData())
                                 .map(group -> convert(group, baseUrl, true))
                                 // set members
-                                .flatMapSingle(group -> setMembers(group, baseUrl))
+                                .concatMapSingle(group -> setMembers(group, baseUrl, projection))
                                 .toList()
                                 .map(groups -> new ListResponse<>(groups, groupPage.getCurrentPage() + 1, groupPage.getTotalCount(), groups.size()));
                     }
@@ -100,12 +122,12 @@ public class GroupServiceImpl implements GroupService {
     }
 
     @Override
-    public Maybe<Group> get(String groupId, String baseUrl) {
+    public Maybe<Group> get(String groupId, String baseUrl, Projection projection) {
         LOGGER.debug("Find group by id : {}", groupId);
         return groupRepository.findById(groupId)
                 .map(group -> convert(group, baseUrl, false))
                 // set members
-                .flatMap(group -> setMembers(group, baseUrl).toMaybe())
+                .flatMap(group -> setMembers(group, baseUrl, projection).toMaybe())
                 .onErrorResumeNext(ex -> {
                     LOGGER.error("An error occurs while trying to find a group using its ID", groupId, ex);
                     return Maybe.error(new TechnicalManagementException(
@@ -114,7 +136,7 @@ public class GroupServiceImpl implements GroupService {
     }
 
     @Override
-    public Single<Group> create(Group group, String baseUrl) {
+    public Single<Group> create(Group group, String baseUrl, Projection projection) {
         LOGGER.debug("Create a new group {} for domain {}", group.getDisplayName(), domain.getName());
 
         // check if user is unique
@@ -126,8 +148,8 @@ public class GroupServiceImpl implements GroupService {
                     }
                     return true;
                 })
-                // set members
-                .flatMap(irrelevant -> setMembers(group, baseUrl))
+                // keep existing members only
+                .flatMap(irrelevant -> filterMembers(group))
                 .flatMap(group1 -> {
                     io.gravitee.am.model.Group groupModel = convert(group1);
                     // set technical ID
@@ -140,7 +162,7 @@ public class GroupServiceImpl implements GroupService {
                 })
                 .map(group1 -> convert(group1, baseUrl, true))
                 // set members
-                .flatMap(group1 -> setMembers(group1, baseUrl))
+                .flatMap(group1 -> setMembers(group1, baseUrl, projection))
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof SCIMException) {
                         return Single.error(ex);
@@ -152,7 +174,7 @@ public class GroupServiceImpl implements GroupService {
     }
 
     @Override
-    public Single<Group> update(String groupId, Group group, String baseUrl) {
+    public Single<Group> update(String groupId, Group group, String baseUrl, Projection projection) {
         LOGGER.debug("Update a group {} for domain {}", group.getDisplayName(), domain.getName());
         return groupRepository.findById(groupId)
                 .switchIfEmpty(Maybe.error(new GroupNotFoundException(groupId)))
@@ -165,8 +187,8 @@ public class GroupServiceImpl implements GroupService {
                             return existingGroup;
                         })
                         .defaultIfEmpty(existingGroup)
-                        // set members
-                        .flatMapSingle(irrelevant -> setMembers(group, baseUrl))
+                        // keep existing members only
+                        .flatMapSingle(irrelevant -> filterMembers(group))
                         .flatMap(group1 -> {
                             io.gravitee.am.model.Group groupToUpdate = convert(group1);
                             // set immutable attribute
@@ -179,7 +201,7 @@ public class GroupServiceImpl implements GroupService {
                         }))
                 .map(group1 -> convert(group1, baseUrl, false))
                 // set members
-                .flatMap(group1 -> setMembers(group1, baseUrl))
+                .flatMap(group1 -> setMembers(group1, baseUrl, projection))
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException || ex instanceof SCIMException) {
                         return Single.error(ex);
@@ -190,6 +212,50 @@ public class GroupServiceImpl implements GroupService {
                 });
     }
 
+    @Override
+    public Single<Group> patch(String groupId, PatchOp patchOp, String baseUrl, Projection projection) {
+        LOGGER.debug("Patch group {} for domain {}", groupId, domain.getName());
+        return groupRepository.findById(groupId)
+                .switchIfEmpty(Maybe.error(new GroupNotFoundException(groupId)))
+                .flatMapSingle(existingGroup -> {
+                    // translate the operations into targeted updates, all operations are validated before applying any of them
+                    GroupPatch groupPatch = new GroupPatch();
+                    patchOp.getOperations().forEach(groupPatch::add);
+
+                    Completable checkDisplayName = groupPatch.displayName == null || groupPatch.displayName.equals(existingGroup.getName()) ?
+                            Completable.complete() :
+                            groupRepository.findByDomainAndName(domain.getId(), groupPatch.displayName)
+                                    .flatMapCompletable(group1 -> existingGroup.getId().equals(group1.getId()) ? Completable.complete() :
+                                            Completable.error(new UniquenessException("Group with display name [" + groupPatch.displayName + "] already exists")));
+
+                    return checkDisplayName
+                            .andThen(existingMembers(groupPatch.newMembers()))
+                            .flatMapCompletable(existingMembers -> {
+                                String name = groupPatch.displayName != null && !groupPatch.displayName.equals(existingGroup.getName()) ? groupPatch.displayName : null;
+                                List<String> members = groupPatch.members == null ? null : groupPatch.members.stream().filter(existingMembers::contains).collect(Collectors.toList());
+                                List<String> addedMembers = groupPatch.addedMembers.stream().filter(existingMembers::contains).collect(Collectors.toList());
+                                List<String> removedMembers = new ArrayList<>(groupPatch.removedMembers);
+                                if (name == null && members == null && addedMembers.isEmpty() && removedMembers.isEmpty()) {
+                                    return Completable.complete();
+                                }
+                                // members are added and removed atomically, they are not resolved from the group read above
+                                return groupRepository.patch(groupId, name, members, addedMembers, removedMembers);
+                            })
+                            .andThen(Single.defer(() -> groupRepository.findById(groupId).toSingle()));
+                })
+                .map(group1 -> convert(group1, baseUrl, false))
+                // set members, only resolved if they are returned
+                .flatMap(group1 -> setMembers(group1, baseUrl, projection))
+                .onErrorResumeNext(ex -> {
+                    if (ex instanceof AbstractManagementException || ex instanceof SCIMException) {
+                        return Single.error(ex);
+                    } else {
+                        LOGGER.error("An error occurs while trying to patch a group", ex);
+                        return Single.error(new TechnicalManagementException("An error occurs while trying to patch a group", ex));
+                    }
+                });
+    }
+
     @Override
     public Completable delete(String groupId) {
         LOGGER.debug("Delete group {}", groupId);
@@ -207,29 +273,180 @@ public class GroupServiceImpl implements GroupService {
                 });
     }
 
-    private Single<Group> setMembers(Group group, String baseUrl) {
-        Set<Member> members = group.getMembers() != null ? new HashSet<>(group.getMembers()) : null;
-        if (members != null) {
-            List<String> memberIds = group.getMembers().stream().map(Member::getValue).collect(Collectors.toList());
-            return userRepository.findByIdIn(memberIds)
-                    .map(users -> {
-                        List<Member> existingMembers = users.stream().map(user -> {
-                            String display = (user.getDisplayName() != null) ? user.getDisplayName()
-                                    : (user.getFirstName() != null) ? user.getFirstName() + " " + (user.getLastName() != null ? user.getLastName() : "")
-                                    : user.getUsername();
-                            String usersBaseUrl = baseUrl.substring(0, baseUrl.lastIndexOf("/Groups")).concat("/Users");
-                            Member member = new Member();
-                            member.setValue(user.getId());
-                            member.setDisplay(display);
-                            member.setRef(usersBaseUrl + "/" + user.getId());
-                            return member;
-                        }).collect(Collectors.toList());
-                        group.setMembers(existingMembers);
-                        return group;
-                    });
-        } else {
+    private Single<Group> setMembers(Group group, String baseUrl, Projection projection) {
+        if (group.getMembers() == null) {
+            return Single.just(group);
+        }
+        if (!projection.isIncluded(MEMBERS)) {
+            group.setMembers(null);
+            return Single.just(group);
+        }
+        // member ids are already known, users are only loaded to compute the display name and the reference of the members
+        if (!projection.isIncluded(MEMBERS, MEMBER_DISPLAY) && !projection.isIncluded(MEMBERS, MEMBER_REF)) {
+            return Single.just(group);
+        }
+
+        String usersBaseUrl = baseUrl.substring(0, baseUrl.lastIndexOf("/Groups")).concat("/Users");
+        return Flowable.fromIterable(group.getMembers())
+                .map(Member::getValue)
+                .distinct()
+                .buffer(membersBatchSize)
+                .concatMapSingle(memberIds -> userRepository.findByIdIn(memberIds, MEMBER_FIELDS))
+                .concatMapIterable(users -> users)
+                .map(user -> {
+                    String display = (user.getDisplayName() != null) ? user.getDisplayName()
+                            : (user.getFirstName() != null) ? user.getFirstName() + " " + (user.getLastName() != null ? user.getLastName() : "")
+                            : user.getUsername();
+                    Member member = new Member();
+                    member.setValue(user.getId());
+                    member.setDisplay(display);
+                    member.setRef(usersBaseUrl + "/" + user.getId());
+                    return member;
+                })
+                .toList()
+                .map(existingMembers -> {
+                    group.setMembers(existingMembers);
+                    return group;
+                });
+    }
+
+    private Single<Group> filterMembers(Group group) {
+        if (group.getMembers() == null) {
             return Single.just(group);
         }
+        Set<String> memberIds = group.getMembers().stream().map(Member::getValue).collect(Collectors.toCollection(LinkedHashSet::new));
+        return existingMembers(memberIds)
+                .map(existingMembers -> {
+                    Set<String> remainingMembers = new HashSet<>(existingMembers);
+                    // unknown and duplicate members are dropped
+                    group.setMembers(group.getMembers().stream().filter(member -> remainingMembers.remove(member.getValue())).collect(Collectors.toList()));
+                    return group;
+                });
+    }
+
+    private Single<Set<String>> existingMembers(Set<String> memberIds) {
+        if (memberIds.isEmpty()) {
+            return Single.just(Collections.emptySet());
+        }
+        // members are checked by batch, as when they are resolved
+        return Flowable.fromIterable(memberIds)
+                .buffer(membersBatchSize)
+                .concatMapSingle(batch -> userRepository.findByIdIn(batch, Collections.singleton("id")))
+                .concatMapIterable(users -> users)
+                .map(io.gravitee.am.model.User::getId)
+                .<Set<String>>collect(HashSet::new, Set::add);
+    }
+
+    /**
+     * Group modifications described by the PATCH operations, the operations are folded in order so that the whole PATCH
+     * is applied by a single update of the group.
+     */
+    private static class GroupPatch {
+        private static final String DISPLAY_NAME = "displayName";
+        private static final String MEMBER_VALUE = "value";
+        private static final Set<String> IGNORED_ATTRIBUTES = new HashSet<>(Arrays.asList("schemas", "id", "externalId", "meta"));
+
+        private String displayName;
+        // new member list when the members are replaced, null if the members are only added or removed
+        private Set<String> members;
+        private final Set<String> addedMembers = new LinkedHashSet<>();
+        private final Set<String> removedMembers = new LinkedHashSet<>();
+
+        void add(Operation operation) {
+            if (operation.getOp() == null) {
+                throw new InvalidValueException("Field [op] is required");
+            }
+            if (operation.getPath() == null || operation.getPath().isEmpty()) {
+                if (operation.getOp() == Operation.Type.REMOVE) {
+                    throw new NoTargetException("Field [path] is required for remove operations");
+                }
+                if (operation.getValue() == null || !operation.getValue().isObject()) {
+                    throw new InvalidValueException("Field [value] must be an object when no path is specified");
+                }
+                operation.getValue().fields().forEachRemaining(attribute -> add(operation.getOp(), Path.parse(attribute.getKey()), attribute.getValue()));
+            } else {
+                add(operation.getOp(), Path.parse(operation.getPath()), operation.getValue());
+            }
+        }
+
+        private void add(Operation.Type op, Path path, JsonNode value) {
+            if (DISPLAY_NAME.equalsIgnoreCase(path.getAttribute()) && !path.hasFilter() && !path.hasSubAttribute()) {
+                if (op == Operation.Type.REMOVE) {
+                    throw new InvalidValueException("Field [displayName] is required");
+                }
+                if (value == null || !value.isTextual() || value.asText().isEmpty()) {
+                    throw new InvalidValueException("Field [displayName] must be a non empty string");
+                }
+                displayName = value.asText();
+            } else if (MEMBERS.equalsIgnoreCase(path.getAttribute()) && !path.hasSubAttribute()) {
+                if (path.hasFilter()) {
+                    // members[value eq "2819c223-7f76-453a-919d-413861904646"]
+                    JsonNode memberId = path.getFilter().get(MEMBER_VALUE);
+                    if (op != Operation.Type.REMOVE || path.getFilter().size() != 1 || memberId == null || !memberId.isTextual()) {
+                        throw new InvalidPathException("Only the removal of members filtered by value is supported");
+                    }
+                    updateMembers(op, Collections.singletonList(memberId.asText()));
+                } else if (op == Operation.Type.REMOVE && (value == null || value.isNull())) {
+                    updateMembers(Operation.Type.REPLACE, Collections.emptyList());
+                } else {
+                    updateMembers(op, memberIds(value));
+                }
+            } else if (!IGNORED_ATTRIBUTES.contains(path.getAttribute())) {
+                throw new InvalidPathException("Attribute [" + path.getAttribute() + "] can't be modified");
+            }
+        }
+
+        private void updateMembers(Operation.Type op, List<String> memberIds) {
+            switch (op) {
+                case REPLACE:
+                    members = new LinkedHashSet<>(memberIds);
+                    addedMembers.clear();
+                    removedMembers.clear();
+                    break;
+                case ADD:
+                    if (members != null) {
+                        members.addAll(memberIds);
+                    } else {
+                        addedMembers.addAll(memberIds);
+                        removedMembers.removeAll(memberIds);
+                    }
+                    break;
+                case REMOVE:
+                    if (members != null) {
+                        members.removeAll(memberIds);
+                    } else {
+                        removedMembers.addAll(memberIds);
+                        addedMembers.removeAll(memberIds);
+                    }
+                    break;
+            }
+        }
+
+        /**
+         * @return the members added to the group or set as its members, their existence must be checked before updating the group
+         */
+        Set<String> newMembers() {
+            Set<String> memberIds = new HashSet<>(addedMembers);
+            if (members != null) {
+                memberIds.addAll(members);
+            }
+            return memberIds;
+        }
+
+        private static List<String> memberIds(JsonNode value) {
+            if (value == null || value.isNull()) {
+                return Collections.emptyList();
+            }
+            List<String> memberIds = new ArrayList<>();
+            for (JsonNode member : value.isArray() ? value : Collections.singletonList(value)) {
+                JsonNode memberId = member.get(MEMBER_VALUE);
+                if (memberId == null || !memberId.isTextual()) {
+                    throw new InvalidValueException("Field [members] must contain objects with a [value] attribute");
+                }
+                memberIds.add(memberId.asText());
+            }
+            return memberIds;
+        }
     }
 
     private Group convert(io.gravitee.am.model.Group group, String baseUrl, boolean listing) {
@@ -15,6 +15,12 @@
  */
 package io.gravitee.am.gateway.handler.scim.service.impl;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.gravitee.am.common.event.Action;
+import io.gravitee.am.common.event.EventManager;
+import io.gravitee.am.common.event.UserEvent;
 import io.gravitee.am.common.oidc.StandardClaims;
 import io.gravitee.am.common.scim.filter.Filter;
 import io.gravitee.am.common.utils.RandomString;
@@ -30,9 +36,11 @@ import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.ReferenceType;
 import io.gravitee.am.model.Role;
 import io.gravitee.am.model.common.Page;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.am.repository.management.api.UserRepository;
 import io.gravitee.am.repository.management.api.search.FilterCriteria;
 import io.gravitee.am.service.RoleService;
+import io.gravitee.am.service.authentication.crypto.password.PasswordValidator;
 import io.gravitee.am.service.exception.*;
 import io.gravitee.am.service.validators.UserValidator;
 import io.reactivex.Completable;
@@ -54,6 +62,34 @@ public class UserServiceImpl implements UserService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserServiceImpl.class);
     private static final String DEFAULT_IDP_PREFIX = "default-idp-";
+    private static final String GROUPS = "groups";
+    private static final String ADDITIONAL_INFORMATION = "additionalInformation.";
+    // user properties used to build each SCIM attribute
+    private static final Map<String, List<String>> USER_FIELDS = new HashMap<>();
+
+    static {
+        USER_FIELDS.put("externalId", Collections.singletonList("externalId"));
+        USER_FIELDS.put("userName", Collections.singletonList("username"));
+        USER_FIELDS.put("name", Arrays.asList("firstName", "lastName", ADDITIONAL_INFORMATION + StandardClaims.MIDDLE_NAME));
+        USER_FIELDS.put("displayName", Collections.singletonList("displayName"));
+        USER_FIELDS.put("nickName", Collections.singletonList("nickName"));
+        USER_FIELDS.put("profileUrl", Collections.singletonList(ADDITIONAL_INFORMATION + StandardClaims.PROFILE));
+        USER_FIELDS.put("title", Collections.singletonList("title"));
+        USER_FIELDS.put("userType", Collections.singletonList("type"));
+        USER_FIELDS.put("preferredLanguage", Collections.singletonList("preferredLanguage"));
+        USER_FIELDS.put("locale", Collections.singletonList(ADDITIONAL_INFORMATION + StandardClaims.LOCALE));
+        USER_FIELDS.put("timezone", Collections.singletonList(ADDITIONAL_INFORMATION + StandardClaims.ZONEINFO));
+        USER_FIELDS.put("active", Collections.singletonList("enabled"));
+        USER_FIELDS.put("emails", Arrays.asList("email", "emails"));
+        USER_FIELDS.put("phoneNumbers", Collections.singletonList("phoneNumbers"));
+        USER_FIELDS.put("ims", Collections.singletonList("ims"));
+        USER_FIELDS.put("photos", Collections.singletonList("photos"));
+        USER_FIELDS.put("addresses", Collections.singletonList("addresses"));
+        USER_FIELDS.put("entitlements", Collections.singletonList("entitlements"));
+        USER_FIELDS.put("roles", Collections.singletonList("roles"));
+        USER_FIELDS.put("x509Certificates", Collections.singletonList("x509Certificates"));
+        USER_FIELDS.put("meta", Arrays.asList("createdAt", "updatedAt"));
+    }
 
     @Autowired
     private UserRepository userRepository;
@@ -70,12 +106,23 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private IdentityProviderManager identityProviderManager;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordValidator passwordValidator;
+
+    @Autowired
+    private EventManager eventManager;
+
     @Override
-    public Single<ListResponse<User>> list(Filter filter, int page, int size, String baseUrl) {
+    public Single<ListResponse<User>> list(Filter filter, int page, int size, String baseUrl, Projection projection) {
         LOGGER.debug("Find users by domain: {}", domain.getId());
+        // only load the properties of the requested attributes
+        final Set<String> fields = fields(projection);
         Single<Page<io.gravitee.am.model.User>> findUsers = filter != null ?
-                userRepository.search(ReferenceType.DOMAIN, domain.getId(), FilterCriteria.convert(filter), page, size) :
-                userRepository.findByDomain(domain.getId(), page, size);
+                userRepository.search(ReferenceType.DOMAIN, domain.getId(), FilterCriteria.convert(filter), page, size, fields) :
+                userRepository.findAll(ReferenceType.DOMAIN, domain.getId(), page, size, fields);
 
         return findUsers
                 .flatMap(userPage -> {
@@ -88,7 +135,7 @@ public class UserServiceImpl implements UserService {
                         return Observable.fromIterable(userPage.getData())
                                 .map(user1 -> convert(user1, baseUrl, true))
                                 // set groups
-                                .flatMapSingle(user1 -> setGroups(user1))
+                                .concatMapSingle(user1 -> projection.isIncluded(GROUPS) ? setGroups(user1) : Single.just(user1))
                                 .toList()
                                 .map(users -> new ListResponse<>(users, userPage.getCurrentPage() + 1, userPage.getTotalCount(), users.size()));
                     }
@@ -100,11 +147,11 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Maybe<User> get(String userId, String baseUrl) {
+    public Maybe<User> get(String userId, String baseUrl, Projection projection) {
         LOGGER.debug("Find user by id : {}", userId);
         return userRepository.findById(userId)
                 .map(user1 -> convert(user1, baseUrl, false))
-                .flatMap(scimUser -> setGroups(scimUser).toMaybe())
+                .flatMap(scimUser -> projection.isIncluded(GROUPS) ? setGroups(scimUser).toMaybe() : Maybe.just(scimUser))
                 .onErrorResumeNext(ex -> {
                     LOGGER.error("An error occurs while trying to find a user using its ID {}", userId, ex);
                     return Maybe.error(new TechnicalManagementException(
@@ -180,51 +227,59 @@ public class UserServiceImpl implements UserService {
     @Override
     public Single<User> update(String userId, User user, String baseUrl) {
         LOGGER.debug("Update a user {} for domain {}", user.getUserName(), domain.getName());
+        return userRepository.findById(userId)
+                .switchIfEmpty(Maybe.error(new UserNotFoundException(userId)))
+                .flatMapSingle(existingUser -> update(existingUser, user))
+                .map(user1 -> convert(user1, baseUrl, false))
+                // set groups
+                .flatMap(user1 -> setGroups(user1))
+                .onErrorResumeNext(ex -> {
+                    if (ex instanceof SCIMException || ex instanceof UserNotFoundException) {
+                        return Single.error(ex);
+                    }
+
+                    if (ex instanceof AbstractNotFoundException) {
+                        return Single.error(new InvalidValueException(ex.getMessage()));
+                    }
+
+                    if (ex instanceof AbstractManagementException) {
+                        return Single.error(ex);
+                    }
+
+                    LOGGER.error("An error occurs while trying to update a user", ex);
+                    return Single.error(new TechnicalManagementException("An error occurs while trying to update a user", ex));
+                });
+    }
+
+    @Override
+    public Single<User> patch(String userId, PatchOp patchOp, String baseUrl) {
+        LOGGER.debug("Patch user {} for domain {}", userId, domain.getName());
         return userRepository.findById(userId)
                 .switchIfEmpty(Maybe.error(new UserNotFoundException(userId)))
                 .flatMapSingle(existingUser -> {
-                    // check roles
-                    return checkRoles(user.getRoles())
-                            // and update the user
+                    // apply the operations to the SCIM representation of the user
+                    ObjectNode node = objectMapper.valueToTree(convert(existingUser, baseUrl, false));
+                    patchOp.getOperations().forEach(operation -> operation.apply(node));
+                    User user = objectMapper.readerFor(User.class)
+                            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                            .readValue(node);
+
+                    // username is required
+                    if (user.getUserName() == null || user.getUserName().isEmpty()) {
+                        throw new InvalidValueException("Field [userName] is required");
+                    }
+                    // password policy
+                    if (user.getPassword() != null && !passwordValidator.validate(user.getPassword())) {
+                        throw new InvalidValueException("Field [password] is invalid");
+                    }
+
+                    // only the patched attributes are copied to the existing user, other user properties are kept as is
+                    Set<String> attributes = patchedAttributes(patchOp);
+                    return checkRoles(attributes.contains("roles") ? user.getRoles() : null)
                             .andThen(Single.defer(() -> {
-                                io.gravitee.am.model.User userToUpdate = convert(user);
-                                // set immutable attribute
-                                userToUpdate.setId(existingUser.getId());
-                                userToUpdate.setExternalId(existingUser.getExternalId());
-                                userToUpdate.setUsername(existingUser.getUsername());
-                                userToUpdate.setReferenceType(existingUser.getReferenceType());
-                                userToUpdate.setReferenceId(existingUser.getReferenceId());
-                                userToUpdate.setSource(existingUser.getSource());
-                                userToUpdate.setCreatedAt(existingUser.getCreatedAt());
-                                userToUpdate.setUpdatedAt(new Date());
-
-                                return UserValidator.validate(userToUpdate).andThen(identityProviderManager.getUserProvider(userToUpdate.getSource())
-                                        .switchIfEmpty(Maybe.error(new UserProviderNotFoundException(userToUpdate.getSource())))
-                                        .flatMapSingle(userProvider -> {
-                                            // no idp user check if we need to create it
-                                            if (userToUpdate.getExternalId() == null) {
-                                                return userProvider.create(convert(userToUpdate));
-                                            } else {
-                                                return userProvider.update(userToUpdate.getExternalId(), convert(userToUpdate));
-                                            }
-                                        })
-                                        .flatMap(idpUser -> {
-                                            // AM 'users' collection is not made for authentication (but only management stuff)
-                                            // clear password
-                                            userToUpdate.setPassword(null);
-                                            // set external id
-                                            userToUpdate.setExternalId(idpUser.getId());
-                                            return userRepository.update(userToUpdate);
-                                        })
-                                        .onErrorResumeNext(ex -> {
-                                            if (ex instanceof UserNotFoundException || ex instanceof UserInvalidException) {
-                                                // idp user does not exist, only update AM user
-                                                // clear password
-                                                userToUpdate.setPassword(null);
-                                                return userRepository.update(userToUpdate);
-                                            }
-                                            return Single.error(ex);
-                                        }));
+                                copyAttributes(convert(user), existingUser, attributes);
+                                existingUser.setUpdatedAt(new Date());
+                                return update(existingUser);
                             }));
                 })
                 .map(user1 -> convert(user1, baseUrl, false))
@@ -243,8 +298,8 @@ public class UserServiceImpl implements UserService {
                         return Single.error(ex);
                     }
 
-                    LOGGER.error("An error occurs while trying to update a user", ex);
-                    return Single.error(new TechnicalManagementException("An error occurs while trying to update a user", ex));
+                    LOGGER.error("An error occurs while trying to patch a user", ex);
+                    return Single.error(new TechnicalManagementException("An error occurs while trying to patch a user", ex));
                 });
     }
 
@@ -264,6 +319,7 @@ public class UserServiceImpl implements UserService {
                             }
                             return Completable.error(ex);
                         })
+                        .doOnComplete(() -> publishUserEvent(userId, UserEvent.UNDEPLOY, Action.DELETE))
                         .onErrorResumeNext(ex -> {
                             if (ex instanceof AbstractManagementException) {
                                 return Completable.error(ex);
@@ -276,6 +332,180 @@ public class UserServiceImpl implements UserService {
     }
 
 
+    private Single<io.gravitee.am.model.User> update(io.gravitee.am.model.User existingUser, User user) {
+        // check roles
+        return checkRoles(user.getRoles())
+                // and update the user
+                .andThen(Single.defer(() -> {
+                    io.gravitee.am.model.User userToUpdate = convert(user);
+                    // set immutable attribute
+                    userToUpdate.setId(existingUser.getId());
+                    userToUpdate.setExternalId(existingUser.getExternalId());
+                    userToUpdate.setUsername(existingUser.getUsername());
+                    userToUpdate.setReferenceType(existingUser.getReferenceType());
+                    userToUpdate.setReferenceId(existingUser.getReferenceId());
+                    userToUpdate.setSource(existingUser.getSource());
+                    userToUpdate.setCreatedAt(existingUser.getCreatedAt());
+                    userToUpdate.setUpdatedAt(new Date());
+                    return update(userToUpdate);
+                }));
+    }
+
+    private Single<io.gravitee.am.model.User> update(io.gravitee.am.model.User userToUpdate) {
+        return UserValidator.validate(userToUpdate).andThen(identityProviderManager.getUserProvider(userToUpdate.getSource())
+                .switchIfEmpty(Maybe.error(new UserProviderNotFoundException(userToUpdate.getSource())))
+                .flatMapSingle(userProvider -> {
+                    // no idp user check if we need to create it
+                    if (userToUpdate.getExternalId() == null) {
+                        return userProvider.create(convert(userToUpdate));
+                    } else {
+                        return userProvider.update(userToUpdate.getExternalId(), convert(userToUpdate));
+                    }
+                })
+                .flatMap(idpUser -> {
+                    // AM 'users' collection is not made for authentication (but only management stuff)
+                    // clear password
+                    userToUpdate.setPassword(null);
+                    // set external id
+                    userToUpdate.setExternalId(idpUser.getId());
+                    return userRepository.update(userToUpdate);
+                })
+                .onErrorResumeNext(ex -> {
+                    if (ex instanceof UserNotFoundException || ex instanceof UserInvalidException) {
+                        // idp user does not exist, only update AM user
+                        // clear password
+                        userToUpdate.setPassword(null);
+                        return userRepository.update(userToUpdate);
+                    }
+                    return Single.error(ex);
+                })
+                .doOnSuccess(updatedUser -> publishUserEvent(updatedUser.getId(), UserEvent.UPDATE, Action.UPDATE)));
+    }
+
+    /**
+     * Let the components of this node caching users (e.g. the UserInfo responses) know about the change right away,
+     * the other nodes are notified by the synchronization process.
+     */
+    private void publishUserEvent(String userId, UserEvent userEvent, Action action) {
+        eventManager.publishEvent(userEvent, new Payload(userId, ReferenceType.DOMAIN, domain.getId(), action));
+    }
+
+    /**
+     * @return the names (in lower case) of the top-level attributes targeted by the PATCH operations
+     */
+    private static Set<String> patchedAttributes(PatchOp patchOp) {
+        Set<String> attributes = new HashSet<>();
+        patchOp.getOperations().forEach(operation -> {
+            if (operation.getPath() == null || operation.getPath().isEmpty()) {
+                operation.getValue().fieldNames().forEachRemaining(attribute -> attributes.add(Path.parse(attribute).getAttribute().toLowerCase()));
+            } else {
+                attributes.add(Path.parse(operation.getPath()).getAttribute().toLowerCase());
+            }
+        });
+        return attributes;
+    }
+
+    /**
+     * Copy the user properties mapped by the given SCIM attributes, immutable attributes (id, externalId, userName, meta)
+     * and read-only attributes (groups) are ignored.
+     */
+    private static void copyAttributes(io.gravitee.am.model.User source, io.gravitee.am.model.User target, Set<String> attributes) {
+        Map<String, Object> sourceInformation = source.getAdditionalInformation();
+        Map<String, Object> targetInformation = target.getAdditionalInformation() != null ? new HashMap<>(target.getAdditionalInformation()) : new HashMap<>();
+        for (String attribute : attributes) {
+            switch (attribute) {
+                case "name":
+                    target.setFirstName(source.getFirstName());
+                    target.setLastName(source.getLastName());
+                    copy(sourceInformation, targetInformation, StandardClaims.GIVEN_NAME);
+                    copy(sourceInformation, targetInformation, StandardClaims.FAMILY_NAME);
+                    copy(sourceInformation, targetInformation, StandardClaims.MIDDLE_NAME);
+                    break;
+                case "displayname":
+                    target.setDisplayName(source.getDisplayName());
+                    break;
+                case "nickname":
+                    target.setNickName(source.getNickName());
+                    break;
+                case "profileurl":
+                    copy(sourceInformation, targetInformation, StandardClaims.PROFILE);
+                    break;
+                case "title":
+                    target.setTitle(source.getTitle());
+                    break;
+                case "usertype":
+                    target.setType(source.getType());
+                    break;
+                case "preferredlanguage":
+                    target.setPreferredLanguage(source.getPreferredLanguage());
+                    break;
+                case "locale":
+                    copy(sourceInformation, targetInformation, StandardClaims.LOCALE);
+                    break;
+                case "timezone":
+                    copy(sourceInformation, targetInformation, StandardClaims.ZONEINFO);
+                    break;
+                case "active":
+                    target.setEnabled(source.isEnabled());
+                    break;
+                case "password":
+                    target.setPassword(source.getPassword());
+                    break;
+                case "emails":
+                    target.setEmail(source.getEmail());
+                    target.setEmails(source.getEmails());
+                    break;
+                case "phonenumbers":
+                    target.setPhoneNumbers(source.getPhoneNumbers());
+                    break;
+                case "ims":
+                    target.setIms(source.getIms());
+                    break;
+                case "photos":
+                    target.setPhotos(source.getPhotos());
+                    copy(sourceInformation, targetInformation, StandardClaims.PICTURE);
+                    break;
+                case "addresses":
+                    target.setAddresses(source.getAddresses());
+                    break;
+                case "entitlements":
+                    target.setEntitlements(source.getEntitlements());
+                    break;
+                case "roles":
+                    target.setRoles(source.getRoles());
+                    break;
+                case "x509certificates":
+                    target.setX509Certificates(source.getX509Certificates());
+                    break;
+                default:
+                    break;
+            }
+        }
+        target.setAdditionalInformation(targetInformation);
+    }
+
+    private static void copy(Map<String, Object> source, Map<String, Object> target, String key) {
+        if (source.containsKey(key)) {
+            target.put(key, source.get(key));
+        } else {
+            target.remove(key);
+        }
+    }
+
+    /**
+     * @return the names of the user properties required to build the attributes of the projection, or null if all the properties are required
+     */
+    private static Set<String> fields(Projection projection) {
+        if (projection.isAll()) {
+            return null;
+        }
+        return USER_FIELDS.entrySet()
+                .stream()
+                .filter(attribute -> projection.isIncluded(attribute.getKey()))
+                .flatMap(attribute -> attribute.getValue().stream())
+                .collect(Collectors.toSet());
+    }
+
     private Single<User> setGroups(User scimUser) {
         // fetch groups
         return groupService.findByMember(scimUser.getId())
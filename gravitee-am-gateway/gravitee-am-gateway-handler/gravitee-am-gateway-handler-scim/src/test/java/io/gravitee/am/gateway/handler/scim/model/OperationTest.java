@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.scim.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.gravitee.am.gateway.handler.scim.exception.NoTargetException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class OperationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldReplaceSimpleAttribute() throws Exception {
+        ObjectNode user = resource("{\"userName\":\"john\",\"displayName\":\"John\"}");
+        operation("{\"op\":\"Replace\",\"path\":\"displayName\",\"value\":\"Johnny\"}").apply(user);
+
+        assertEquals("Johnny", user.get("displayName").asText());
+        assertEquals("john", user.get("userName").asText());
+    }
+
+    @Test
+    public void shouldReplaceSubAttribute_caseInsensitive() throws Exception {
+        ObjectNode user = resource("{\"name\":{\"familyName\":\"Doe\",\"givenName\":\"John\"}}");
+        operation("{\"op\":\"replace\",\"path\":\"Name.FamilyName\",\"value\":\"Smith\"}").apply(user);
+
+        assertEquals("Smith", user.get("name").get("familyName").asText());
+        assertEquals("John", user.get("name").get("givenName").asText());
+    }
+
+    @Test
+    public void shouldAddWithoutPath() throws Exception {
+        ObjectNode user = resource("{\"userName\":\"john\",\"emails\":[{\"value\":\"john@acme.com\",\"type\":\"work\"}]}");
+        operation("{\"op\":\"add\",\"value\":{\"nickName\":\"Babs\",\"emails\":[{\"value\":\"john@home.com\",\"type\":\"home\"}]}}").apply(user);
+
+        assertEquals("Babs", user.get("nickName").asText());
+        assertEquals(2, user.get("emails").size());
+    }
+
+    @Test
+    public void shouldReplaceFilteredValue() throws Exception {
+        ObjectNode user = resource("{\"emails\":[{\"value\":\"john@acme.com\",\"type\":\"work\"},{\"value\":\"john@home.com\",\"type\":\"home\"}]}");
+        operation("{\"op\":\"replace\",\"path\":\"emails[type eq \\\"work\\\"].value\",\"value\":\"john@corp.com\"}").apply(user);
+
+        assertEquals("john@corp.com", user.get("emails").get(0).get("value").asText());
+        assertEquals("john@home.com", user.get("emails").get(1).get("value").asText());
+    }
+
+    @Test
+    public void shouldRemoveFilteredValue() throws Exception {
+        ObjectNode user = resource("{\"emails\":[{\"value\":\"john@acme.com\",\"type\":\"work\"},{\"value\":\"john@home.com\",\"type\":\"home\"}]}");
+        operation("{\"op\":\"remove\",\"path\":\"emails[type eq \\\"work\\\"]\"}").apply(user);
+
+        assertEquals(1, user.get("emails").size());
+        assertEquals("home", user.get("emails").get(0).get("type").asText());
+    }
+
+    @Test
+    public void shouldRemoveAttribute() throws Exception {
+        ObjectNode user = resource("{\"userName\":\"john\",\"title\":\"Tour Guide\"}");
+        operation("{\"op\":\"remove\",\"path\":\"title\"}").apply(user);
+
+        assertFalse(user.has("title"));
+    }
+
+    @Test(expected = NoTargetException.class)
+    public void shouldNotReplace_noMatchingValue() throws Exception {
+        ObjectNode user = resource("{\"emails\":[{\"value\":\"john@acme.com\",\"type\":\"work\"}]}");
+        operation("{\"op\":\"replace\",\"path\":\"emails[type eq \\\"home\\\"].value\",\"value\":\"john@home.com\"}").apply(user);
+    }
+
+    @Test(expected = NoTargetException.class)
+    public void shouldNotRemove_noPath() throws Exception {
+        ObjectNode user = resource("{\"userName\":\"john\"}");
+        operation("{\"op\":\"remove\"}").apply(user);
+    }
+
+    private ObjectNode resource(String json) throws Exception {
+        return (ObjectNode) objectMapper.readTree(json);
+    }
+
+    private Operation operation(String json) throws Exception {
+        return objectMapper.readValue(json, Operation.class);
+    }
+}
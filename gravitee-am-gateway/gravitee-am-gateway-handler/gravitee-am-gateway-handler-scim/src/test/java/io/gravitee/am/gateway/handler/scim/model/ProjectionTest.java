@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.scim.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ProjectionTest {
+
+    private static final String GROUP = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"],\"id\":\"group-id\",\"displayName\":\"Employees\"," +
+            "\"members\":[{\"value\":\"user-1\",\"display\":\"John\",\"$ref\":\"/Users/user-1\"},{\"value\":\"user-2\",\"display\":\"Jane\",\"$ref\":\"/Users/user-2\"}]," +
+            "\"meta\":{\"resourceType\":\"Group\",\"location\":\"/Groups/group-id\"}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldReturnAll() throws Exception {
+        JsonNode group = objectMapper.readTree(GROUP);
+        Projection projection = Projection.of(null, " ");
+
+        assertTrue(projection.isAll());
+        assertEquals(group, projection.apply(group));
+    }
+
+    @Test
+    public void shouldIncludeAttributes() throws Exception {
+        Projection projection = Projection.of("DisplayName, members.value,members.display", null);
+        JsonNode group = projection.apply(objectMapper.readTree(GROUP));
+
+        assertTrue(projection.isIncluded("members"));
+        assertFalse(projection.isIncluded("members", "$ref"));
+        assertFalse(projection.isIncluded("meta"));
+        assertEquals("group-id", group.get("id").asText());
+        assertTrue(group.has("schemas"));
+        assertEquals("Employees", group.get("displayName").asText());
+        assertFalse(group.has("meta"));
+        assertEquals(2, group.get("members").size());
+        assertEquals("user-2", group.get("members").get(1).get("value").asText());
+        assertEquals("Jane", group.get("members").get(1).get("display").asText());
+        assertFalse(group.get("members").get(1).has("$ref"));
+    }
+
+    @Test
+    public void shouldExcludeAttributes() throws Exception {
+        Projection projection = Projection.of(null, "urn:ietf:params:scim:schemas:core:2.0:Group:members,meta.location,id");
+        JsonNode group = projection.apply(objectMapper.readTree(GROUP));
+
+        assertFalse(projection.isIncluded("members"));
+        assertFalse(group.has("members"));
+        assertEquals("group-id", group.get("id").asText());
+        assertEquals("Group", group.get("meta").get("resourceType").asText());
+        assertFalse(group.get("meta").has("location"));
+    }
+
+    @Test
+    public void shouldApplyToResources() throws Exception {
+        Projection projection = Projection.of("displayName", null);
+        JsonNode listResponse = projection.applyToResources(objectMapper.readTree("{\"totalResults\":1,\"Resources\":[" + GROUP + "]}"));
+
+        assertEquals(1, listResponse.get("totalResults").asInt());
+        assertEquals(3, listResponse.get("Resources").get(0).size());
+    }
+
+    @Test(expected = InvalidValueException.class)
+    public void shouldNotAcceptValueFilter() {
+        Projection.of("members[value eq \"user-1\"]", null);
+    }
+}
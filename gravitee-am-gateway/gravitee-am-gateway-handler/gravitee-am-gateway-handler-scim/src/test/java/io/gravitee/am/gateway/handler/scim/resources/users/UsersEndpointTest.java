@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import io.gravitee.am.gateway.handler.common.vertx.RxWebTestBase;
 import io.gravitee.am.gateway.handler.scim.model.ListResponse;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.gravitee.am.gateway.handler.scim.resources.ErrorHandler;
 import io.gravitee.am.gateway.handler.scim.service.UserService;
 import io.gravitee.am.common.scim.filter.Filter;
@@ -71,7 +72,7 @@ public class UsersEndpointTest extends RxWebTestBase {
 
     @Test
     public void shouldListUsers() throws Exception {
-        when(userService.list(eq(null), eq(0), eq(100), anyString())).thenReturn(Single.just(new ListResponse<>()));
+        when(userService.list(eq(null), eq(0), eq(100), anyString(), eq(Projection.ALL))).thenReturn(Single.just(new ListResponse<>()));
         testRequest(
                 HttpMethod.GET,
                 "/Users",
@@ -99,7 +100,7 @@ public class UsersEndpointTest extends RxWebTestBase {
 
     @Test
     public void shouldListUsers_validFilter() throws Exception {
-        when(userService.list(any(Filter.class), eq(0), eq(100), anyString())).thenReturn(Single.just(new ListResponse<>()));
+        when(userService.list(any(Filter.class), eq(0), eq(100), anyString(), eq(Projection.ALL))).thenReturn(Single.just(new ListResponse<>()));
         testRequest(
                 HttpMethod.GET,
                 "/Users?filter=userName%20eq%20%22bjensen%22",
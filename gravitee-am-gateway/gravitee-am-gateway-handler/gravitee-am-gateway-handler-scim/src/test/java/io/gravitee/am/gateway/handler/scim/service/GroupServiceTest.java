@@ -0,0 +1,263 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.scim.service;
+
+import io.gravitee.am.gateway.handler.scim.exception.InvalidPathException;
+import io.gravitee.am.gateway.handler.scim.model.Group;
+import io.gravitee.am.gateway.handler.scim.model.ListResponse;
+import io.gravitee.am.gateway.handler.scim.model.PatchOp;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
+import io.gravitee.am.gateway.handler.scim.service.impl.GroupServiceImpl;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.User;
+import io.gravitee.am.model.common.Page;
+import io.gravitee.am.repository.management.api.GroupRepository;
+import io.gravitee.am.repository.management.api.UserRepository;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.vertx.core.json.Json;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class GroupServiceTest {
+
+    private static final String BASE_URL = "https://localhost/scim/Groups";
+
+    @InjectMocks
+    private GroupService groupService = new GroupServiceImpl();
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private Domain domain;
+
+    @Test
+    public void shouldListGroups_excludedMembers() {
+        when(domain.getId()).thenReturn("domain");
+        when(groupRepository.findByDomain("domain", 0, 10)).thenReturn(Single.just(new Page<>(Arrays.asList(group("user-1", "user-2"), group("user-3")), 0, 2)));
+
+        TestObserver<ListResponse<Group>> testObserver = groupService.list(0, 10, BASE_URL, Projection.of(null, "members")).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertValue(listResponse -> listResponse.getResources().size() == 2
+                && listResponse.getResources().stream().allMatch(group -> group.getMembers() == null));
+
+        verify(userRepository, never()).findByIdIn(anyList());
+        verify(userRepository, never()).findByIdIn(anyList(), anySet());
+    }
+
+    @Test
+    public void shouldGetGroup_memberValuesOnly() {
+        when(groupRepository.findById("group-id")).thenReturn(Maybe.just(group("user-1", "user-2")));
+
+        TestObserver<Group> testObserver = groupService.get("group-id", BASE_URL, Projection.of("displayName,members.value", null)).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertValue(group -> group.getMembers().size() == 2);
+
+        verify(userRepository, never()).findByIdIn(anyList(), anySet());
+    }
+
+    @Test
+    public void shouldGetGroup_resolveMembersByBatch() {
+        String[] members = IntStream.range(0, 2500).mapToObj(i -> "user-" + i).toArray(String[]::new);
+        when(groupRepository.findById("group-id")).thenReturn(Maybe.just(group(members)));
+        when(userRepository.findByIdIn(anyList(), anySet())).thenAnswer(invocation -> {
+            List<String> ids = invocation.getArgument(0);
+            return Single.just(ids.stream().map(GroupServiceTest::user).collect(Collectors.toList()));
+        });
+
+        TestObserver<Group> testObserver = groupService.get("group-id", BASE_URL, Projection.ALL).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertValue(group -> group.getMembers().size() == 2500
+                && group.getMembers().get(0).getValue().equals("user-0")
+                && group.getMembers().get(0).getDisplay().equals("user-0")
+                && group.getMembers().get(0).getRef().equals("https://localhost/scim/Users/user-0"));
+
+        verify(userRepository, times(3)).findByIdIn(anyList(), eq(new HashSet<>(Arrays.asList("id", "username", "displayName", "firstName", "lastName"))));
+    }
+
+    @Test
+    public void shouldPatchGroup_addMembers() {
+        io.gravitee.am.model.Group existingGroup = group("user-1");
+        when(groupRepository.findById("group-id")).thenReturn(Maybe.just(existingGroup));
+        when(userRepository.findByIdIn(anyList(), anySet())).thenReturn(Single.just(Collections.singletonList(user("user-2"))));
+        when(groupRepository.patch("group-id", null, null, Collections.singletonList("user-2"), Collections.emptyList())).thenReturn(Completable.complete());
+
+        PatchOp patchOp = patchOp("{\"op\":\"add\",\"path\":\"members\",\"value\":[{\"value\":\"user-2\"},{\"value\":\"unknown\"}]}");
+        TestObserver<Group> testObserver = groupService.patch("group-id", patchOp, BASE_URL, Projection.ALL).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(groupRepository, times(1)).patch("group-id", null, null, Collections.singletonList("user-2"), Collections.emptyList());
+        verify(groupRepository, never()).update(any());
+    }
+
+    @Test
+    public void shouldPatchGroup_checkMembersByBatch() {
+        List<String> members = IntStream.range(0, 2500).mapToObj(i -> "user-" + i).collect(Collectors.toList());
+        when(groupRepository.findById("group-id")).thenReturn(Maybe.just(group()));
+        when(userRepository.findByIdIn(anyList(), anySet())).thenAnswer(invocation -> {
+            List<String> ids = invocation.getArgument(0);
+            return Single.just(ids.stream().map(GroupServiceTest::user).collect(Collectors.toList()));
+        });
+        when(groupRepository.patch(eq("group-id"), any(), any(), anyList(), anyList())).thenReturn(Completable.complete());
+
+        PatchOp patchOp = patchOp("{\"op\":\"add\",\"path\":\"members\",\"value\":["
+                + members.stream().map(member -> "{\"value\":\"" + member + "\"}").collect(Collectors.joining(",")) + "]}");
+        TestObserver<Group> testObserver = groupService.patch("group-id", patchOp, BASE_URL, Projection.of(null, "members")).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(userRepository, times(3)).findByIdIn(anyList(), eq(Collections.singleton("id")));
+        verify(groupRepository, times(1)).patch("group-id", null, null, members, Collections.emptyList());
+    }
+
+    @Test
+    public void shouldPatchGroup_removeMemberWithFilter() {
+        io.gravitee.am.model.Group existingGroup = group("user-1", "user-2");
+        when(groupRepository.findById("group-id")).thenReturn(Maybe.just(existingGroup));
+        when(groupRepository.patch("group-id", null, null, Collections.emptyList(), Collections.singletonList("user-2"))).thenReturn(Completable.complete());
+        when(userRepository.findByIdIn(anyList(), anySet())).thenReturn(Single.just(Collections.singletonList(user("user-1"))));
+
+        PatchOp patchOp = patchOp("{\"op\":\"remove\",\"path\":\"members[value eq \\\"user-2\\\"]\"}");
+        TestObserver<Group> testObserver = groupService.patch("group-id", patchOp, BASE_URL, Projection.ALL).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(groupRepository, times(1)).patch("group-id", null, null, Collections.emptyList(), Collections.singletonList("user-2"));
+        verify(groupRepository, never()).update(any());
+    }
+
+    @Test
+    public void shouldPatchGroup_replaceDisplayName() {
+        io.gravitee.am.model.Group existingGroup = group();
+        when(domain.getId()).thenReturn("domain");
+        when(groupRepository.findById("group-id")).thenReturn(Maybe.just(existingGroup));
+        when(groupRepository.findByDomainAndName("domain", "new-name")).thenReturn(Maybe.empty());
+        when(groupRepository.patch("group-id", "new-name", null, Collections.emptyList(), Collections.emptyList())).thenReturn(Completable.complete());
+
+        PatchOp patchOp = patchOp("{\"op\":\"replace\",\"value\":{\"displayName\":\"new-name\"}}");
+        TestObserver<Group> testObserver = groupService.patch("group-id", patchOp, BASE_URL, Projection.ALL).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(groupRepository, times(1)).patch("group-id", "new-name", null, Collections.emptyList(), Collections.emptyList());
+    }
+
+    @Test
+    public void shouldPatchGroup_addAndRemoveMembers_atomicUpdates() {
+        io.gravitee.am.model.Group existingGroup = group("user-1", "user-2");
+        when(domain.getId()).thenReturn("domain");
+        when(groupRepository.findById("group-id")).thenReturn(Maybe.just(existingGroup));
+        when(groupRepository.findByDomainAndName("domain", "new-name")).thenReturn(Maybe.empty());
+        when(userRepository.findByIdIn(anyList(), anySet())).thenReturn(Single.just(Collections.singletonList(user("user-3"))));
+        when(groupRepository.patch("group-id", "new-name", null, Collections.singletonList("user-3"), Collections.singletonList("user-1"))).thenReturn(Completable.complete());
+
+        PatchOp patchOp = patchOp("{\"op\":\"replace\",\"path\":\"displayName\",\"value\":\"new-name\"}",
+                "{\"op\":\"add\",\"path\":\"members\",\"value\":[{\"value\":\"user-3\"}]}",
+                "{\"op\":\"remove\",\"path\":\"members[value eq \\\"user-1\\\"]\"}");
+        TestObserver<Group> testObserver = groupService.patch("group-id", patchOp, BASE_URL, Projection.ALL).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        // the member list is not resolved from the group read before the update
+        verify(groupRepository, times(1)).patch("group-id", "new-name", null, Collections.singletonList("user-3"), Collections.singletonList("user-1"));
+        verify(groupRepository, times(1)).patch(anyString(), any(), any(), any(), any());
+        verify(groupRepository, never()).update(any());
+    }
+
+    @Test
+    public void shouldPatchGroup_membersNotRequested() {
+        io.gravitee.am.model.Group existingGroup = group("user-1", "user-2");
+        when(domain.getId()).thenReturn("domain");
+        when(groupRepository.findById("group-id")).thenReturn(Maybe.just(existingGroup));
+        when(groupRepository.findByDomainAndName("domain", "new-name")).thenReturn(Maybe.empty());
+        when(groupRepository.patch("group-id", "new-name", null, Collections.emptyList(), Collections.emptyList())).thenReturn(Completable.complete());
+
+        PatchOp patchOp = patchOp("{\"op\":\"replace\",\"path\":\"displayName\",\"value\":\"new-name\"}");
+        TestObserver<Group> testObserver = groupService.patch("group-id", patchOp, BASE_URL, Projection.of("id,displayName", null)).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertValue(group -> group.getMembers() == null);
+
+        verify(userRepository, never()).findByIdIn(anyList(), anySet());
+    }
+
+    @Test
+    public void shouldNotPatchGroup_invalidPath() {
+        when(groupRepository.findById("group-id")).thenReturn(Maybe.just(group("user-1")));
+
+        PatchOp patchOp = patchOp("{\"op\":\"add\",\"path\":\"members\",\"value\":[{\"value\":\"user-2\"}]}",
+                "{\"op\":\"replace\",\"path\":\"unknown\",\"value\":\"test\"}");
+        TestObserver<Group> testObserver = groupService.patch("group-id", patchOp, BASE_URL, Projection.ALL).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertError(InvalidPathException.class);
+
+        verify(groupRepository, never()).patch(anyString(), any(), any(), any(), any());
+    }
+
+    private static PatchOp patchOp(String... operations) {
+        return Json.decodeValue("{\"schemas\":[\"" + PatchOp.SCHEMAS.get(0) + "\"],\"Operations\":[" + String.join(",", operations) + "]}", PatchOp.class);
+    }
+
+    private static io.gravitee.am.model.Group group(String... members) {
+        io.gravitee.am.model.Group group = new io.gravitee.am.model.Group();
+        group.setId("group-id");
+        group.setName("group-name");
+        group.setMembers(Arrays.asList(members));
+        return group;
+    }
+
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(id);
+        return user;
+    }
+}
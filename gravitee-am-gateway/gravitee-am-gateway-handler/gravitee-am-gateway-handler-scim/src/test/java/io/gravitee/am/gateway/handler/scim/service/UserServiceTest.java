@@ -15,33 +15,52 @@
  */
 package io.gravitee.am.gateway.handler.scim.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.event.EventManager;
+import io.gravitee.am.common.event.UserEvent;
+import io.gravitee.am.common.oidc.StandardClaims;
 import io.gravitee.am.gateway.handler.common.auth.idp.IdentityProviderManager;
 import io.gravitee.am.gateway.handler.scim.exception.InvalidValueException;
+import io.gravitee.am.gateway.handler.scim.model.ListResponse;
+import io.gravitee.am.gateway.handler.scim.model.PatchOp;
+import io.gravitee.am.gateway.handler.scim.model.Projection;
 import io.gravitee.am.gateway.handler.scim.model.User;
 import io.gravitee.am.gateway.handler.scim.service.impl.UserServiceImpl;
 import io.gravitee.am.identityprovider.api.UserProvider;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.ReferenceType;
 import io.gravitee.am.model.Role;
+import io.gravitee.am.model.factor.EnrolledFactor;
+import io.gravitee.am.model.common.Page;
 import io.gravitee.am.repository.management.api.UserRepository;
 import io.gravitee.am.service.RoleService;
+import io.gravitee.am.service.authentication.crypto.password.PasswordValidator;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
+import io.vertx.core.json.Json;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -69,6 +88,15 @@ public class UserServiceTest {
     @Mock
     private GroupService groupService;
 
+    @Mock
+    private PasswordValidator passwordValidator;
+
+    @Mock
+    private EventManager eventManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @Test
     public void shouldCreateUser_invalid_identity_provider() {
         final String domainId = "domain";
@@ -178,6 +206,75 @@ public class UserServiceTest {
 
         verify(userRepository, times(1)).update(userCaptor.capture());
         assertTrue(userCaptor.getValue().isEnabled());
+        // cached user data of this node are evicted
+        verify(eventManager, times(1)).publishEvent(eq(UserEvent.UPDATE), any());
+    }
+
+    @Test
+    public void shouldPatchUser_keepOtherProperties() {
+        io.gravitee.am.model.User existingUser = new io.gravitee.am.model.User();
+        existingUser.setId("user-id");
+        existingUser.setExternalId("user-external-id");
+        existingUser.setUsername("username");
+        existingUser.setSource("user-idp");
+        existingUser.setFirstName("John");
+        existingUser.setEnabled(true);
+        existingUser.setAccountNonLocked(false);
+        existingUser.setLoginsCount(12L);
+        existingUser.setClient("client-id");
+        existingUser.setPreRegistration(true);
+        existingUser.setFactors(Collections.singletonList(new EnrolledFactor()));
+        Map<String, Object> additionalInformation = new HashMap<>();
+        additionalInformation.put(StandardClaims.GIVEN_NAME, "John");
+        additionalInformation.put("custom", "value");
+        existingUser.setAdditionalInformation(additionalInformation);
+
+        io.gravitee.am.identityprovider.api.User idpUser = mock(io.gravitee.am.identityprovider.api.User.class);
+        when(idpUser.getId()).thenReturn("user-external-id");
+        UserProvider userProvider = mock(UserProvider.class);
+        when(userProvider.update(eq("user-external-id"), any())).thenReturn(Single.just(idpUser));
+
+        when(userRepository.findById("user-id")).thenReturn(Maybe.just(existingUser));
+        when(identityProviderManager.getUserProvider("user-idp")).thenReturn(Maybe.just(userProvider));
+        when(userRepository.update(any())).thenAnswer(invocation -> Single.just(invocation.getArgument(0)));
+        when(groupService.findByMember("user-id")).thenReturn(Single.just(Collections.emptyList()));
+
+        PatchOp patchOp = Json.decodeValue("{\"schemas\":[\"" + PatchOp.SCHEMAS.get(0) + "\"],\"Operations\":[{\"op\":\"replace\",\"path\":\"active\",\"value\":false}]}", PatchOp.class);
+        TestObserver<User> testObserver = userService.patch("user-id", patchOp, "/").test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertNoErrors();
+        testObserver.assertComplete();
+
+        ArgumentCaptor<io.gravitee.am.model.User> userCaptor = ArgumentCaptor.forClass(io.gravitee.am.model.User.class);
+        verify(userRepository, times(1)).update(userCaptor.capture());
+        io.gravitee.am.model.User updatedUser = userCaptor.getValue();
+        assertFalse(updatedUser.isEnabled());
+        assertEquals("John", updatedUser.getFirstName());
+        assertFalse(updatedUser.isAccountNonLocked());
+        assertEquals(Long.valueOf(12L), updatedUser.getLoginsCount());
+        assertEquals("client-id", updatedUser.getClient());
+        assertTrue(updatedUser.isPreRegistration());
+        assertEquals(1, updatedUser.getFactors().size());
+        assertEquals("value", updatedUser.getAdditionalInformation().get("custom"));
+        assertEquals("John", updatedUser.getAdditionalInformation().get(StandardClaims.GIVEN_NAME));
     }
 
+    @Test
+    public void shouldListUsers_projection() {
+        io.gravitee.am.model.User user = new io.gravitee.am.model.User();
+        user.setId("user-id");
+        user.setUsername("username");
+
+        when(domain.getId()).thenReturn("domain");
+        when(userRepository.findAll(eq(ReferenceType.DOMAIN), eq("domain"), eq(0), eq(10), anySet())).thenReturn(Single.just(new Page<>(Collections.singletonList(user), 0, 1)));
+
+        TestObserver<ListResponse<User>> testObserver = userService.list(null, 0, 10, "/Users", Projection.of("userName,name.givenName,active", null)).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertValue(users -> users.getResources().size() == 1 && users.getResources().get(0).getUserName().equals("username"));
+
+        verify(userRepository, times(1)).findAll(ReferenceType.DOMAIN, "domain", 0, 10,
+                new HashSet<>(Arrays.asList("username", "enabled", "firstName", "lastName", "additionalInformation." + StandardClaims.MIDDLE_NAME)));
+        verify(groupService, never()).findByMember(anyString());
+    }
 }
@@ -28,7 +28,6 @@ import io.gravitee.policy.api.PolicyResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
@@ -40,23 +39,23 @@ public class PolicyChain extends AbstractProcessor<ExecutionContext> implements
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PolicyChain.class);
     private static final String GATEWAY_POLICY_INTERNAL_ERROR_KEY = "GATEWAY_POLICY_INTERNAL_ERROR";
-    private final List<Policy> policies;
-    private final Iterator<Policy> policyIterator;
+    private static final Policy[] EMPTY_POLICIES = new Policy[0];
+    private final Policy[] policies;
     private final ExecutionContext executionContext;
+    private int position;
 
     public PolicyChain(List<Policy> policies, ExecutionContext executionContext) {
         Objects.requireNonNull(policies, "Policies must not be null");
         Objects.requireNonNull(executionContext, "ExecutionContext must not be null");
 
-        this.policies = policies;
+        this.policies = policies.toArray(EMPTY_POLICIES);
         this.executionContext = executionContext;
-        this.policyIterator = this.policies.iterator();
     }
 
     @Override
     public void doNext(Request request, Response response) {
-        if (policyIterator.hasNext()) {
-            Policy policy = policyIterator.next();
+        if (position < policies.length) {
+            Policy policy = policies[position++];
             try {
                 if (policy.isRunnable()) {
                     // enhance execution context with policy metadata
@@ -18,6 +18,8 @@ package io.gravitee.am.gateway.reactor.spring;
 import io.gravitee.am.gateway.certificate.spring.CertificateConfiguration;
 import io.gravitee.am.gateway.core.manager.EntityManager;
 import io.gravitee.am.gateway.handler.SecurityDomainRouterFactory;
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
+import io.gravitee.am.gateway.handler.common.oauth2.impl.RevocationEpochRegistryImpl;
 import io.gravitee.am.gateway.reactor.Reactor;
 import io.gravitee.am.gateway.reactor.SecurityDomainHandlerRegistry;
 import io.gravitee.am.gateway.reactor.SecurityDomainManager;
@@ -26,6 +28,7 @@ import io.gravitee.am.gateway.reactor.impl.DefaultReactor;
 import io.gravitee.am.gateway.reactor.impl.DefaultSecurityDomainHandlerRegistry;
 import io.gravitee.am.gateway.reactor.impl.DefaultSecurityDomainManager;
 import io.gravitee.am.gateway.reactor.impl.transaction.TransactionProcessorFactory;
+import io.gravitee.am.service.spring.RevocationEpochProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -65,4 +68,14 @@ public class ReactorConfiguration {
 
     @Bean
     public EntityManager clientManager() { return new DefaultClientManager(); }
+
+    @Bean
+    public RevocationEpochProperties revocationEpochProperties() {
+        return new RevocationEpochProperties();
+    }
+
+    @Bean
+    public RevocationEpochRegistry revocationEpochRegistry() {
+        return new RevocationEpochRegistryImpl();
+    }
 }
@@ -16,19 +16,25 @@
 package io.gravitee.am.gateway.services.sync;
 
 import io.gravitee.am.common.event.Action;
+import io.gravitee.am.common.event.Type;
 import io.gravitee.am.gateway.certificate.DefaultCertificateManager;
 import io.gravitee.am.gateway.core.manager.EntityManager;
+import io.gravitee.am.gateway.core.metrics.GatewayMetrics;
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
 import io.gravitee.am.gateway.reactor.SecurityDomainManager;
 import io.gravitee.am.gateway.reactor.impl.DefaultClientManager;
 import io.gravitee.am.model.Certificate;
 import io.gravitee.am.model.Application;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.ReferenceType;
 import io.gravitee.am.model.common.event.Event;
 import io.gravitee.am.model.oidc.Client;
 import io.gravitee.am.repository.management.api.ApplicationRepository;
 import io.gravitee.am.repository.management.api.CertificateRepository;
 import io.gravitee.am.repository.management.api.DomainRepository;
 import io.gravitee.am.repository.management.api.EventRepository;
+import io.gravitee.am.repository.oauth2.api.RevocationEpochRepository;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
 import io.gravitee.common.event.EventManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +45,7 @@ import org.springframework.core.env.Environment;
 
 import java.text.Collator;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
 
@@ -68,6 +75,9 @@ public class SyncManager implements InitializingBean {
     @Autowired
     private EntityManager<Certificate> certificateManager;
 
+    @Autowired
+    private RevocationEpochRegistry revocationEpochRegistry;
+
     @Autowired
     private Environment environment;
 
@@ -87,6 +97,10 @@ public class SyncManager implements InitializingBean {
     @Autowired
     private CertificateRepository certificateRepository;
 
+    @Lazy
+    @Autowired
+    private RevocationEpochRepository revocationEpochRepository;
+
     private Optional<List<String>> shardingTags;
 
     private long lastRefreshAt = -1;
@@ -105,6 +119,7 @@ public class SyncManager implements InitializingBean {
         try {
             if (lastRefreshAt == -1) {
                 logger.debug("Initial synchronization");
+                deployRevocationEpochs(nextLastRefreshAt);
                 deployDomains();
                 deployClients();
                 deployCertificates();
@@ -124,9 +139,12 @@ public class SyncManager implements InitializingBean {
                     computeEvents(sortedEvents.values());
                 }
 
+                synchronizeRevocationEpochs(lastRefreshAt - lastDelay, nextLastRefreshAt);
+
             }
             lastRefreshAt = nextLastRefreshAt;
             lastDelay = System.currentTimeMillis() - nextLastRefreshAt;
+            GatewayMetrics.timer(GatewayMetrics.SYNC_REFRESH).record(lastDelay, TimeUnit.MILLISECONDS);
         } catch (Exception ex) {
             logger.error("An error occurs while synchronizing the security domains", ex);
         }
@@ -173,6 +191,18 @@ public class SyncManager implements InitializingBean {
         logger.info("Certificates initialization done");
     }
 
+    private void deployRevocationEpochs(long to) {
+        logger.info("Starting revocation epochs initialization ...");
+        List<RevocationEpoch> revocationEpochs = revocationEpochRepository.findByTimeFrame(0, to).blockingGet();
+        revocationEpochRegistry.init(revocationEpochs);
+        logger.info("Revocation epochs initialization done");
+    }
+
+    private void synchronizeRevocationEpochs(long from, long to) {
+        List<RevocationEpoch> revocationEpochs = revocationEpochRepository.findByTimeFrame(from, to).blockingGet();
+        revocationEpochRegistry.synchronize(revocationEpochs);
+    }
+
     private void computeEvents(Collection<Event> events) {
         events.forEach(event -> {
             logger.debug("Compute event id : {}, with type : {} and timestamp : {} and payload : {}", event.getId(), event.getType(), event.getCreatedAt(), event.getPayload());
@@ -189,9 +219,23 @@ public class SyncManager implements InitializingBean {
                 default:
                     eventManager.publishEvent(io.gravitee.am.common.event.Event.valueOf(event.getType(), event.getPayload().getAction()), event.getPayload());
             }
+            GatewayMetrics.counter(GatewayMetrics.SYNC_EVENTS,
+                    GatewayMetrics.TAG_DOMAIN, eventDomain(event),
+                    GatewayMetrics.TAG_TYPE, String.valueOf(event.getType()),
+                    GatewayMetrics.TAG_ACTION, String.valueOf(event.getPayload().getAction())).increment();
         });
     }
 
+    private String eventDomain(Event event) {
+        if (event.getType() == Type.DOMAIN && event.getPayload().getId() != null) {
+            return event.getPayload().getId();
+        }
+        if (event.getPayload().getReferenceType() == ReferenceType.DOMAIN && event.getPayload().getReferenceId() != null) {
+            return event.getPayload().getReferenceId();
+        }
+        return "none";
+    }
+
     private void synchronizeDomain(Event event) {
         final String domainId = event.getPayload().getId();
         final Action action = event.getPayload().getAction();
@@ -18,6 +18,7 @@ package io.gravitee.am.gateway.services.sync;
 import io.gravitee.am.common.event.Action;
 import io.gravitee.am.common.event.Type;
 import io.gravitee.am.gateway.certificate.DefaultCertificateManager;
+import io.gravitee.am.gateway.handler.common.oauth2.RevocationEpochRegistry;
 import io.gravitee.am.gateway.reactor.SecurityDomainManager;
 import io.gravitee.am.gateway.reactor.impl.DefaultClientManager;
 import io.gravitee.am.model.Certificate;
@@ -31,6 +32,8 @@ import io.gravitee.am.repository.management.api.ApplicationRepository;
 import io.gravitee.am.repository.management.api.CertificateRepository;
 import io.gravitee.am.repository.management.api.DomainRepository;
 import io.gravitee.am.repository.management.api.EventRepository;
+import io.gravitee.am.repository.oauth2.api.RevocationEpochRepository;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
 import io.gravitee.common.event.EventManager;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
@@ -89,9 +92,16 @@ public class SyncManagerTest {
     @Mock
     private DefaultCertificateManager certificateManager;
 
+    @Mock
+    private RevocationEpochRepository revocationEpochRepository;
+
+    @Mock
+    private RevocationEpochRegistry revocationEpochRegistry;
+
     @Before
     public void before() throws Exception {
         syncManager.afterPropertiesSet();
+        when(revocationEpochRepository.findByTimeFrame(anyLong(), anyLong())).thenReturn(Single.just(Collections.emptyList()));
     }
 
     @Test
@@ -347,4 +357,23 @@ public class SyncManagerTest {
         verify(securityDomainManager, never()).update(any());
         verify(securityDomainManager, never()).undeploy(any(String.class));
     }
+
+    @Test
+    public void test_twice_revocationEpochs() {
+        when(domainRepository.findAll()).thenReturn(Single.just(Collections.emptySet()));
+        when(applicationRepository.findAll()).thenReturn(Single.just(Collections.emptyList()));
+        when(certificateRepository.findAll()).thenReturn(Single.just(Collections.emptySet()));
+
+        syncManager.refresh();
+
+        verify(revocationEpochRegistry, times(1)).init(Collections.emptyList());
+
+        RevocationEpoch revocationEpoch = new RevocationEpoch();
+        when(eventRepository.findByTimeFrame(any(Long.class), any(Long.class))).thenReturn(Single.just(Collections.emptyList()));
+        when(revocationEpochRepository.findByTimeFrame(anyLong(), anyLong())).thenReturn(Single.just(Collections.singletonList(revocationEpoch)));
+
+        syncManager.refresh();
+
+        verify(revocationEpochRegistry, times(1)).synchronize(Collections.singletonList(revocationEpoch));
+    }
 }
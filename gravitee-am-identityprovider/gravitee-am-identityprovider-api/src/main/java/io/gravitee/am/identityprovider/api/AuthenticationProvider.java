@@ -15,10 +15,13 @@
  */
 package io.gravitee.am.identityprovider.api;
 
+import io.gravitee.am.identityprovider.api.common.ConnectionPoolMetrics;
 import io.gravitee.common.component.Lifecycle;
 import io.gravitee.common.service.Service;
 import io.reactivex.Maybe;
 
+import java.util.Optional;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -30,6 +33,13 @@ public interface AuthenticationProvider extends Service<AuthenticationProvider>
 
     Maybe<User> loadUserByUsername(String username);
 
+    /**
+     * @return the metrics of the connection pool of the provider, if it uses one
+     */
+    default Optional<ConnectionPoolMetrics> connectionPoolMetrics() {
+        return Optional.empty();
+    }
+
     default Lifecycle.State lifecycleState() {
         return Lifecycle.State.INITIALIZED;
     }
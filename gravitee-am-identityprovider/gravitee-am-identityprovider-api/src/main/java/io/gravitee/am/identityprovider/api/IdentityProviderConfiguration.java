@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.identityprovider.api;
 
+import io.gravitee.am.identityprovider.api.resilience.ResilienceConfiguration;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -25,4 +27,11 @@ public interface IdentityProviderConfiguration {
     default boolean userProvider() {
         return false;
     }
+
+    /**
+     * @return the limits applied to the calls made to the remote service backing the identity provider, null if none
+     */
+    default ResilienceConfiguration getResilience() {
+        return null;
+    }
 }
@@ -15,12 +15,15 @@
  */
 package io.gravitee.am.identityprovider.api;
 
+import io.gravitee.am.identityprovider.api.common.ConnectionPoolMetrics;
 import io.gravitee.common.component.Lifecycle;
 import io.gravitee.common.service.Service;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 
+import java.util.Optional;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -39,6 +42,13 @@ public interface UserProvider extends Service<UserProvider> {
 
     Completable delete(String id);
 
+    /**
+     * @return the metrics of the connection pool of the provider, if it uses one
+     */
+    default Optional<ConnectionPoolMetrics> connectionPoolMetrics() {
+        return Optional.empty();
+    }
+
     default Lifecycle.State lifecycleState() {
         return Lifecycle.State.INITIALIZED;
     }
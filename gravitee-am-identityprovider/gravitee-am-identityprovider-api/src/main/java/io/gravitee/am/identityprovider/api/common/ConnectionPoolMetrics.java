@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.api.common;
+
+/**
+ * Metrics of the connection pool used by a provider to reach its backend, read by the gateway to expose them
+ * as meters.
+ *
+ * @author GraviteeSource Team
+ */
+public interface ConnectionPoolMetrics {
+
+    /**
+     * @return the number of connections acquired from the pool
+     */
+    long getAcquireCount();
+
+    /**
+     * @return the total time spent acquiring connections from the pool, in nanoseconds
+     */
+    long getAcquireTime();
+
+    /**
+     * @return the number of connections currently acquired
+     */
+    int getAcquiredSize();
+
+    /**
+     * @return the number of acquisitions currently waiting for a connection
+     */
+    int getPendingAcquireSize();
+}
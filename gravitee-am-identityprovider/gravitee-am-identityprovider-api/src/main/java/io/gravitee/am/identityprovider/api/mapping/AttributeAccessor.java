@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.api.mapping;
+
+import java.util.Map;
+
+/**
+ * Reads a user attribute by its name, or by its path (e.g. <code>address.country</code>) when the attributes hold
+ * nested objects.
+ *
+ * The attribute name is looked up first so that attributes whose name contains a dot are still read directly.
+ *
+ * @author GraviteeSource Team
+ */
+final class AttributeAccessor {
+
+    private static final String PATH_SEPARATOR = ".";
+
+    private final String name;
+    private final String[] path;
+
+    private AttributeAccessor(String name, String[] path) {
+        this.name = name;
+        this.path = path;
+    }
+
+    static AttributeAccessor compile(String name) {
+        if (name.contains(PATH_SEPARATOR) && !name.startsWith(PATH_SEPARATOR) && !name.endsWith(PATH_SEPARATOR)) {
+            return new AttributeAccessor(name, name.split("\\."));
+        }
+        return new AttributeAccessor(name, null);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Object get(Map<String, ?> attributes) {
+        Object value = attributes.get(name);
+        if (value != null || path == null) {
+            return value;
+        }
+        Object current = attributes;
+        for (String segment : path) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            current = ((Map<?, ?>) current).get(segment);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.api.mapping;
+
+import io.gravitee.am.identityprovider.api.IdentityProviderMapper;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * User mapping of an identity provider compiled once from its {@link IdentityProviderMapper} : each claim is bound
+ * to the accessor of its user attribute so that mapping a user is a single pass over the configured claims.
+ *
+ * @author GraviteeSource Team
+ */
+public final class ClaimMapping {
+
+    private static final ClaimMapping EMPTY = new ClaimMapping(null, new String[0], new AttributeAccessor[0]);
+
+    private final Map<String, String> source;
+    private final String[] claims;
+    private final AttributeAccessor[] accessors;
+
+    private ClaimMapping(Map<String, String> source, String[] claims, AttributeAccessor[] accessors) {
+        this.source = source;
+        this.claims = claims;
+        this.accessors = accessors;
+    }
+
+    /**
+     * @return a mapping without any rule, used until the identity provider has compiled its own
+     */
+    public static ClaimMapping empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param mapper the user mapper of the identity provider, may be null
+     * @return the compiled user mapping, empty if no mapper is configured
+     */
+    public static ClaimMapping compile(IdentityProviderMapper mapper) {
+        Map<String, String> source = mapper != null ? mapper.getMappers() : null;
+        if (source == null) {
+            return EMPTY;
+        }
+        List<String> claims = new ArrayList<>();
+        List<AttributeAccessor> accessors = new ArrayList<>();
+        source.forEach((claim, attribute) -> {
+            if (claim != null && attribute != null) {
+                claims.add(claim);
+                accessors.add(AttributeAccessor.compile(attribute));
+            }
+        });
+        return new ClaimMapping(source, claims.toArray(new String[0]), accessors.toArray(new AttributeAccessor[0]));
+    }
+
+    public boolean isEmpty() {
+        return claims.length == 0;
+    }
+
+    /**
+     * @param mapper the user mapper of the identity provider, may be null
+     * @return true if the mapping has been compiled from the current rules of the mapper
+     */
+    public boolean isCompiledFrom(IdentityProviderMapper mapper) {
+        return source == (mapper != null ? mapper.getMappers() : null);
+    }
+
+    /**
+     * @return the names of the user attributes read by the mapping
+     */
+    public Set<String> attributes() {
+        Set<String> attributes = new LinkedHashSet<>();
+        for (AttributeAccessor accessor : accessors) {
+            attributes.add(accessor.getName());
+        }
+        return attributes;
+    }
+
+    /**
+     * Map the user attributes to claims, attributes without value are ignored.
+     *
+     * @param attributes the user attributes, nested objects can be read by path
+     * @return the claims of the user
+     */
+    public Map<String, Object> apply(Map<String, ?> attributes) {
+        Map<String, Object> result = new HashMap<>(capacity());
+        for (int i = 0; i < claims.length; i++) {
+            Object value = accessors[i].get(attributes);
+            if (value != null) {
+                result.put(claims[i], value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Map the user attributes to claims, attributes without value are ignored.
+     *
+     * @param resolver resolves the value of a user attribute by its name, for users which are not held by a map
+     * @return the claims of the user
+     */
+    public Map<String, Object> apply(Function<String, Object> resolver) {
+        Map<String, Object> result = new HashMap<>(capacity());
+        for (int i = 0; i < claims.length; i++) {
+            Object value = resolver.apply(accessors[i].getName());
+            if (value != null) {
+                result.put(claims[i], value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy the user attributes to claims by their exact name: dotted names are not read as paths and attributes
+     * present with a null value are copied too.
+     *
+     * @param attributes the user attributes
+     * @return the claims of the user
+     */
+    public Map<String, Object> copy(Map<String, ?> attributes) {
+        Map<String, Object> result = new HashMap<>(capacity());
+        for (int i = 0; i < claims.length; i++) {
+            String attribute = accessors[i].getName();
+            if (attributes.containsKey(attribute)) {
+                result.put(claims[i], attributes.get(attribute));
+            }
+        }
+        return result;
+    }
+
+    private int capacity() {
+        // leave room for the sub and preferred_username claims added by the identity providers
+        return (int) ((claims.length + 2) / 0.75f) + 1;
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.api.mapping;
+
+import io.gravitee.am.identityprovider.api.IdentityProviderRoleMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Role mapping of an identity provider compiled once from its {@link IdentityProviderRoleMapper}.
+ *
+ * Rules have the following syntax <code>userAttribute=userValue</code>, they are indexed by user attribute then by
+ * attribute value so that the roles of a user are resolved with one lookup per mapped attribute value instead of
+ * evaluating every rule. Multi-valued attributes grant the roles mapped to any of their values.
+ *
+ * @author GraviteeSource Team
+ */
+public final class RoleMapping {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoleMapping.class);
+    private static final RoleMapping EMPTY = new RoleMapping(null, new AttributeAccessor[0], Collections.emptyList());
+
+    private final Map<String, String[]> source;
+    private final AttributeAccessor[] accessors;
+    private final List<Map<String, Set<String>>> valueRoles;
+
+    private RoleMapping(Map<String, String[]> source, AttributeAccessor[] accessors, List<Map<String, Set<String>>> valueRoles) {
+        this.source = source;
+        this.accessors = accessors;
+        this.valueRoles = valueRoles;
+    }
+
+    /**
+     * @return a mapping without any rule, used until the identity provider has compiled its own
+     */
+    public static RoleMapping empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param roleMapper the role mapper of the identity provider, may be null
+     * @return the compiled role mapping, empty if no role mapper is configured
+     */
+    public static RoleMapping compile(IdentityProviderRoleMapper roleMapper) {
+        Map<String, String[]> source = roleMapper != null ? roleMapper.getRoles() : null;
+        if (source == null) {
+            return EMPTY;
+        }
+        Map<String, Map<String, Set<String>>> attributeRoles = new LinkedHashMap<>();
+        source.forEach((role, users) -> {
+            if (users == null) {
+                return;
+            }
+            for (String u : users) {
+                String[] roleMapping = u == null ? new String[0] : u.split("=", 2);
+                if (roleMapping.length != 2) {
+                    LOGGER.warn("Ignoring role mapping [{}] for role {}, expected syntax is userAttribute=userValue", u, role);
+                    continue;
+                }
+                attributeRoles.computeIfAbsent(roleMapping[0], k -> new HashMap<>())
+                        .computeIfAbsent(roleMapping[1], k -> new HashSet<>())
+                        .add(role);
+            }
+        });
+        AttributeAccessor[] accessors = new AttributeAccessor[attributeRoles.size()];
+        List<Map<String, Set<String>>> valueRoles = new ArrayList<>(attributeRoles.size());
+        int i = 0;
+        for (Map.Entry<String, Map<String, Set<String>>> entry : attributeRoles.entrySet()) {
+            accessors[i++] = AttributeAccessor.compile(entry.getKey());
+            valueRoles.add(entry.getValue());
+        }
+        return new RoleMapping(source, accessors, valueRoles);
+    }
+
+    public boolean isEmpty() {
+        return accessors.length == 0;
+    }
+
+    /**
+     * @param roleMapper the role mapper of the identity provider, may be null
+     * @return true if the mapping has been compiled from the current rules of the role mapper
+     */
+    public boolean isCompiledFrom(IdentityProviderRoleMapper roleMapper) {
+        return source == (roleMapper != null ? roleMapper.getRoles() : null);
+    }
+
+    /**
+     * @return the names of the user attributes read by the mapping
+     */
+    public Set<String> attributes() {
+        Set<String> attributes = new LinkedHashSet<>();
+        for (AttributeAccessor accessor : accessors) {
+            attributes.add(accessor.getName());
+        }
+        return attributes;
+    }
+
+    /**
+     * @param attributes the user attributes, nested objects can be read by path
+     * @return the roles granted to the user
+     */
+    public List<String> apply(Map<String, ?> attributes) {
+        Set<String> roles = new HashSet<>();
+        for (int i = 0; i < accessors.length; i++) {
+            addRoles(roles, valueRoles.get(i), accessors[i].get(attributes));
+        }
+        return new ArrayList<>(roles);
+    }
+
+    /**
+     * @param resolver resolves the value of a user attribute by its name, for users which are not held by a map
+     * @return the roles granted to the user
+     */
+    public List<String> apply(Function<String, Object> resolver) {
+        Set<String> roles = new HashSet<>();
+        for (int i = 0; i < accessors.length; i++) {
+            addRoles(roles, valueRoles.get(i), resolver.apply(accessors[i].getName()));
+        }
+        return new ArrayList<>(roles);
+    }
+
+    private static void addRoles(Set<String> roles, Map<String, Set<String>> valueRoles, Object attribute) {
+        if (attribute instanceof Collection) {
+            for (Object value : (Collection<?>) attribute) {
+                addRoles(roles, valueRoles, value);
+            }
+        } else if (attribute instanceof String) {
+            Set<String> mappedRoles = valueRoles.get(attribute);
+            if (mappedRoles != null) {
+                roles.addAll(mappedRoles);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.api.resilience;
+
+import io.gravitee.am.common.exception.authentication.AuthenticationException;
+import io.gravitee.am.common.exception.authentication.AuthenticationServiceUnavailableException;
+import io.gravitee.am.common.exception.authentication.InternalAuthenticationServiceException;
+import io.reactivex.Maybe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Guards the calls made by an identity provider instance to its remote service (HTTP API, LDAP server, database...)
+ * with a concurrency limit (bulkhead), a per call deadline and a circuit breaker.
+ *
+ * Once the circuit is opened, calls fail fast until the open state duration has elapsed, then a single probe call is
+ * allowed : the circuit is closed if it succeeds, opened again otherwise.
+ * Rejected calls fail with an {@link AuthenticationServiceUnavailableException}.
+ *
+ * Only technical failures are counted by the circuit breaker, authentication failures (e.g. bad credentials) mean the
+ * remote service is responding.
+ *
+ * @author GraviteeSource Team
+ */
+public class RemoteServiceGuard {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteServiceGuard.class);
+
+    private final String name;
+    private final int maxConcurrentRequests;
+    private final long requestTimeout;
+    private final int failureThreshold;
+    private final long openStateDuration;
+
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private volatile long openedAt;
+
+    public RemoteServiceGuard(String name, ResilienceConfiguration configuration) {
+        this.name = name;
+        this.maxConcurrentRequests = configuration != null ? valueOf(configuration.getMaxConcurrentRequests()) : 0;
+        this.requestTimeout = configuration != null ? valueOf(configuration.getRequestTimeout()) : 0;
+        this.failureThreshold = configuration != null ? valueOf(configuration.getFailureThreshold()) : 0;
+        this.openStateDuration = configuration != null ? valueOf(configuration.getOpenStateDuration()) : 0;
+    }
+
+    public <T> Maybe<T> guard(Maybe<T> source) {
+        if (maxConcurrentRequests <= 0 && requestTimeout <= 0 && failureThreshold <= 0) {
+            return source;
+        }
+        return Maybe.defer(() -> {
+            final Permit permit = acquire();
+            Maybe<T> call = source;
+            if (requestTimeout > 0) {
+                call = call
+                        .timeout(requestTimeout, TimeUnit.MILLISECONDS)
+                        .onErrorResumeNext(ex -> {
+                            if (ex instanceof TimeoutException) {
+                                return Maybe.error(new AuthenticationServiceUnavailableException("Identity provider [" + name + "] did not respond within " + requestTimeout + " ms", ex));
+                            }
+                            return Maybe.error(ex);
+                        });
+            }
+            return call
+                    .doOnSuccess(t -> permit.release(null))
+                    .doOnComplete(() -> permit.release(null))
+                    .doOnError(permit::release)
+                    .doOnDispose(permit::cancel);
+        });
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private Permit acquire() {
+        if (maxConcurrentRequests > 0 && pendingRequests.incrementAndGet() > maxConcurrentRequests) {
+            pendingRequests.decrementAndGet();
+            throw new AuthenticationServiceUnavailableException("Identity provider [" + name + "] has reached its maximum of " + maxConcurrentRequests + " concurrent requests");
+        }
+
+        boolean probe = false;
+        if (failureThreshold > 0) {
+            State current = state.get();
+            if (current == State.OPEN
+                    && System.currentTimeMillis() - openedAt >= openStateDuration
+                    && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                probe = true;
+            } else if (current != State.CLOSED) {
+                if (maxConcurrentRequests > 0) {
+                    pendingRequests.decrementAndGet();
+                }
+                throw new AuthenticationServiceUnavailableException("Identity provider [" + name + "] is temporarily unavailable");
+            }
+        }
+        return new Permit(probe);
+    }
+
+    private void onSuccess(boolean probe) {
+        consecutiveFailures.set(0);
+        if (probe) {
+            state.set(State.CLOSED);
+            LOGGER.info("Identity provider [{}] is available again, circuit closed", name);
+        }
+    }
+
+    private void onFailure(boolean probe, Throwable ex) {
+        if (probe || (consecutiveFailures.incrementAndGet() >= failureThreshold && state.get() == State.CLOSED)) {
+            open();
+            LOGGER.warn("Identity provider [{}] is failing, circuit opened for {} ms", name, openStateDuration, ex);
+        }
+    }
+
+    private void open() {
+        openedAt = System.currentTimeMillis();
+        consecutiveFailures.set(0);
+        state.set(State.OPEN);
+    }
+
+    private static boolean isFailure(Throwable ex) {
+        return !(ex instanceof AuthenticationException) || ex instanceof InternalAuthenticationServiceException;
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final class Permit {
+
+        private final boolean probe;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(boolean probe) {
+            this.probe = probe;
+        }
+
+        void release(Throwable ex) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (maxConcurrentRequests > 0) {
+                pendingRequests.decrementAndGet();
+            }
+            if (failureThreshold > 0) {
+                if (ex != null && isFailure(ex)) {
+                    onFailure(probe, ex);
+                } else {
+                    onSuccess(probe);
+                }
+            }
+        }
+
+        void cancel() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (maxConcurrentRequests > 0) {
+                pendingRequests.decrementAndGet();
+            }
+            if (probe) {
+                // let the next call probe the remote service
+                openedAt = System.currentTimeMillis() - openStateDuration;
+                state.set(State.OPEN);
+            }
+        }
+    }
+}
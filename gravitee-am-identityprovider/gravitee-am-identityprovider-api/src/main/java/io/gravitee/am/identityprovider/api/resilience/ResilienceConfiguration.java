@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.api.resilience;
+
+/**
+ * Limits applied to the calls made by an identity provider instance to its remote service.
+ *
+ * @author GraviteeSource Team
+ */
+public class ResilienceConfiguration {
+
+    /**
+     * Maximum number of concurrent calls, further calls are rejected (0 for no limit).
+     */
+    private Integer maxConcurrentRequests = 0;
+
+    /**
+     * Deadline of a call in milliseconds (0 for no deadline).
+     */
+    private Integer requestTimeout = 0;
+
+    /**
+     * Number of consecutive failures opening the circuit (0 to disable the circuit breaker).
+     */
+    private Integer failureThreshold = 0;
+
+    /**
+     * Duration in milliseconds during which calls are rejected once the circuit is opened, before a probe call is allowed.
+     */
+    private Integer openStateDuration = 30000;
+
+    public Integer getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public Integer getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Integer requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Integer getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(Integer failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public Integer getOpenStateDuration() {
+        return openStateDuration;
+    }
+
+    public void setOpenStateDuration(Integer openStateDuration) {
+        this.openStateDuration = openStateDuration;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.api.mapping;
+
+import io.gravitee.am.identityprovider.api.DefaultIdentityProviderMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ClaimMappingTest {
+
+    @Test
+    public void shouldBeEmpty_noMapper() {
+        Assert.assertTrue(ClaimMapping.compile(null).isEmpty());
+        Assert.assertTrue(ClaimMapping.compile(new DefaultIdentityProviderMapper()).isEmpty());
+    }
+
+    @Test
+    public void shouldCopyAttributes() {
+        ClaimMapping mapping = ClaimMapping.compile(mapper("email", "mail", "given_name", "firstname", "family_name", "lastname"));
+
+        Map<String, Object> claims = mapping.apply(attributes("mail", "john@example.com", "firstname", "John", "uid", "john"));
+
+        Assert.assertEquals(2, claims.size());
+        Assert.assertEquals("john@example.com", claims.get("email"));
+        Assert.assertEquals("John", claims.get("given_name"));
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("mail", "firstname", "lastname")), mapping.attributes());
+    }
+
+    @Test
+    public void shouldReadNestedAttributes() {
+        ClaimMapping mapping = ClaimMapping.compile(mapper("country", "address.country", "zone", "address.zone", "dotted", "a.b"));
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("address", Collections.singletonMap("country", "FR"));
+        attributes.put("a.b", "direct");
+        Map<String, Object> claims = mapping.apply(attributes);
+
+        Assert.assertEquals(2, claims.size());
+        Assert.assertEquals("FR", claims.get("country"));
+        Assert.assertEquals("direct", claims.get("dotted"));
+    }
+
+    @Test
+    public void shouldCopyAttributesByName() {
+        ClaimMapping mapping = ClaimMapping.compile(mapper("email", "mail", "picture", "avatar", "country", "address.country"));
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("mail", "john@example.com");
+        attributes.put("avatar", null);
+        attributes.put("address", Collections.singletonMap("country", "FR"));
+        Map<String, Object> claims = mapping.copy(attributes);
+
+        Assert.assertEquals(2, claims.size());
+        Assert.assertEquals("john@example.com", claims.get("email"));
+        Assert.assertTrue(claims.containsKey("picture"));
+        Assert.assertNull(claims.get("picture"));
+    }
+
+    @Test
+    public void shouldResolveAttributes() {
+        ClaimMapping mapping = ClaimMapping.compile(mapper("email", "mail", "name", "cn"));
+
+        Map<String, Object> claims = mapping.apply(attribute -> "mail".equals(attribute) ? "john@example.com" : null);
+
+        Assert.assertEquals(Collections.singletonMap("email", "john@example.com"), claims);
+    }
+
+    @Test
+    public void shouldTrackSourceRules() {
+        DefaultIdentityProviderMapper mapper = mapper("email", "mail");
+        ClaimMapping mapping = ClaimMapping.compile(mapper);
+
+        Assert.assertTrue(mapping.isCompiledFrom(mapper));
+        mapper.setMappers(Collections.singletonMap("email", "email"));
+        Assert.assertFalse(mapping.isCompiledFrom(mapper));
+        Assert.assertTrue(ClaimMapping.compile(null).isCompiledFrom(null));
+    }
+
+    private static Map<String, Object> attributes(String... keyValues) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            attributes.put(keyValues[i], keyValues[i + 1]);
+        }
+        return attributes;
+    }
+
+    private static DefaultIdentityProviderMapper mapper(String... claimAttributes) {
+        Map<String, String> mappers = new LinkedHashMap<>();
+        for (int i = 0; i < claimAttributes.length; i += 2) {
+            mappers.put(claimAttributes[i], claimAttributes[i + 1]);
+        }
+        DefaultIdentityProviderMapper mapper = new DefaultIdentityProviderMapper();
+        mapper.setMappers(mappers);
+        return mapper;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.api.mapping;
+
+import io.gravitee.am.identityprovider.api.DefaultIdentityProviderRoleMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RoleMappingTest {
+
+    @Test
+    public void shouldBeEmpty_noRoleMapper() {
+        Assert.assertTrue(RoleMapping.compile(null).isEmpty());
+        Assert.assertTrue(RoleMapping.compile(new DefaultIdentityProviderRoleMapper()).isEmpty());
+        Assert.assertTrue(RoleMapping.compile(null).apply(attributes("username", "john")).isEmpty());
+    }
+
+    @Test
+    public void shouldMapRoles() {
+        RoleMapping mapping = RoleMapping.compile(roleMapper(
+                "admin", new String[]{"username=john", "groups=admins"},
+                "user", new String[]{"groups=users", "groups=admins"},
+                "auditor", new String[]{"department=audit"}));
+
+        Assert.assertEquals(Collections.singleton("admin"), new HashSet<>(mapping.apply(attributes("username", "john"))));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("admin", "user")), new HashSet<>(mapping.apply(attributes("groups", Arrays.asList("admins", "others")))));
+        Assert.assertEquals(Collections.singleton("user"), new HashSet<>(mapping.apply(attributes("groups", "users", "department", 1))));
+        Assert.assertTrue(mapping.apply(attributes("username", "jane")).isEmpty());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("username", "groups", "department")), mapping.attributes());
+    }
+
+    @Test
+    public void shouldMapRoles_nestedAttribute() {
+        RoleMapping mapping = RoleMapping.compile(roleMapper("admin", new String[]{"organization.role=owner"}));
+
+        Assert.assertEquals(Collections.singletonList("admin"), mapping.apply(attributes("organization", attributes("role", "owner"))));
+        Assert.assertEquals(Collections.singletonList("admin"), mapping.apply(attribute -> "organization.role".equals(attribute) ? "owner" : null));
+    }
+
+    @Test
+    public void shouldIgnoreMalformedRules() {
+        RoleMapping mapping = RoleMapping.compile(roleMapper("admin", new String[]{"john", "username=john"}));
+
+        Assert.assertEquals(Collections.singletonList("admin"), mapping.apply(attributes("username", "john")));
+        Assert.assertEquals(Collections.singleton("username"), mapping.attributes());
+    }
+
+    private static Map<String, Object> attributes(Object... keyValues) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            attributes.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return attributes;
+    }
+
+    private static DefaultIdentityProviderRoleMapper roleMapper(Object... roleRules) {
+        Map<String, String[]> roles = new LinkedHashMap<>();
+        for (int i = 0; i < roleRules.length; i += 2) {
+            roles.put((String) roleRules[i], (String[]) roleRules[i + 1]);
+        }
+        DefaultIdentityProviderRoleMapper roleMapper = new DefaultIdentityProviderRoleMapper();
+        roleMapper.setRoles(roles);
+        return roleMapper;
+    }
+}
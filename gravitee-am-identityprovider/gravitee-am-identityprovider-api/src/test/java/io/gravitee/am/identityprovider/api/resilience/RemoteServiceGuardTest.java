@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.api.resilience;
+
+import io.gravitee.am.common.exception.authentication.AuthenticationServiceUnavailableException;
+import io.gravitee.am.common.exception.authentication.BadCredentialsException;
+import io.gravitee.am.common.exception.authentication.InternalAuthenticationServiceException;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.MaybeSubject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RemoteServiceGuardTest {
+
+    @Test
+    public void shouldRejectRequestsAboveConcurrencyLimit() {
+        RemoteServiceGuard guard = new RemoteServiceGuard("idp", configuration(1, 0, 0, 0));
+        MaybeSubject<String> pending = MaybeSubject.create();
+
+        TestObserver<String> first = guard.guard(pending).test();
+        guard.guard(Maybe.just("user")).test().assertError(AuthenticationServiceUnavailableException.class);
+
+        pending.onSuccess("user");
+        first.assertValue("user");
+        guard.guard(Maybe.just("user")).test().assertValue("user");
+    }
+
+    @Test
+    public void shouldReleasePermitOnDispose() {
+        RemoteServiceGuard guard = new RemoteServiceGuard("idp", configuration(1, 0, 0, 0));
+
+        guard.guard(MaybeSubject.<String>create()).test().dispose();
+        guard.guard(Maybe.just("user")).test().assertValue("user");
+    }
+
+    @Test
+    public void shouldFailAfterTimeout() {
+        RemoteServiceGuard guard = new RemoteServiceGuard("idp", configuration(0, 50, 0, 0));
+
+        TestObserver<String> observer = guard.guard(Maybe.<String>never()).test();
+        observer.awaitTerminalEvent(1, TimeUnit.SECONDS);
+        observer.assertError(AuthenticationServiceUnavailableException.class);
+    }
+
+    @Test
+    public void shouldOpenCircuitAfterConsecutiveFailures() {
+        RemoteServiceGuard guard = new RemoteServiceGuard("idp", configuration(0, 0, 2, 60000));
+
+        guard.guard(Maybe.error(new InternalAuthenticationServiceException("down"))).test();
+        Assert.assertEquals(RemoteServiceGuard.State.CLOSED, guard.getState());
+        guard.guard(Maybe.error(new InternalAuthenticationServiceException("down"))).test();
+        Assert.assertEquals(RemoteServiceGuard.State.OPEN, guard.getState());
+
+        guard.guard(Maybe.just("user")).test().assertError(AuthenticationServiceUnavailableException.class);
+    }
+
+    @Test
+    public void shouldNotCountAuthenticationFailures() {
+        RemoteServiceGuard guard = new RemoteServiceGuard("idp", configuration(0, 0, 1, 60000));
+
+        guard.guard(Maybe.error(new BadCredentialsException("bad credentials"))).test().assertError(BadCredentialsException.class);
+
+        Assert.assertEquals(RemoteServiceGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    public void shouldCloseCircuitWhenProbeSucceeds() throws Exception {
+        RemoteServiceGuard guard = new RemoteServiceGuard("idp", configuration(0, 0, 1, 10));
+
+        guard.guard(Maybe.error(new IllegalStateException("down"))).test();
+        Assert.assertEquals(RemoteServiceGuard.State.OPEN, guard.getState());
+
+        Thread.sleep(20);
+        MaybeSubject<String> probe = MaybeSubject.create();
+        TestObserver<String> observer = guard.guard(probe).test();
+        Assert.assertEquals(RemoteServiceGuard.State.HALF_OPEN, guard.getState());
+        guard.guard(Maybe.just("user")).test().assertError(AuthenticationServiceUnavailableException.class);
+
+        probe.onSuccess("user");
+        observer.assertValue("user");
+        Assert.assertEquals(RemoteServiceGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    public void shouldReopenCircuitWhenProbeFails() throws Exception {
+        RemoteServiceGuard guard = new RemoteServiceGuard("idp", configuration(0, 0, 1, 10));
+
+        guard.guard(Maybe.error(new IllegalStateException("down"))).test();
+        Thread.sleep(20);
+        guard.guard(Maybe.error(new IllegalStateException("still down"))).test().assertError(IllegalStateException.class);
+
+        Assert.assertEquals(RemoteServiceGuard.State.OPEN, guard.getState());
+        guard.guard(Maybe.just("user")).test().assertError(AuthenticationServiceUnavailableException.class);
+    }
+
+    @Test
+    public void shouldPassThroughWithoutConfiguration() {
+        RemoteServiceGuard guard = new RemoteServiceGuard("idp", null);
+
+        guard.guard(Maybe.just("user")).test().assertValue("user");
+    }
+
+    private static ResilienceConfiguration configuration(int maxConcurrentRequests, int requestTimeout, int failureThreshold, int openStateDuration) {
+        ResilienceConfiguration configuration = new ResilienceConfiguration();
+        configuration.setMaxConcurrentRequests(maxConcurrentRequests);
+        configuration.setRequestTimeout(requestTimeout);
+        configuration.setFailureThreshold(failureThreshold);
+        configuration.setOpenStateDuration(openStateDuration);
+        return configuration;
+    }
+}
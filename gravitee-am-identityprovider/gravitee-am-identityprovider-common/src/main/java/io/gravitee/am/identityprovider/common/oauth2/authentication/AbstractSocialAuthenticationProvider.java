@@ -23,6 +23,9 @@ import io.gravitee.am.identityprovider.api.IdentityProviderMapper;
 import io.gravitee.am.identityprovider.api.IdentityProviderRoleMapper;
 import io.gravitee.am.identityprovider.api.User;
 import io.gravitee.am.identityprovider.api.common.Request;
+import io.gravitee.am.identityprovider.api.mapping.ClaimMapping;
+import io.gravitee.am.identityprovider.api.mapping.RoleMapping;
+import io.gravitee.am.identityprovider.api.resilience.RemoteServiceGuard;
 import io.gravitee.am.identityprovider.api.social.SocialAuthenticationProvider;
 import io.gravitee.am.identityprovider.api.social.SocialIdentityProviderConfiguration;
 import io.gravitee.common.http.HttpMethod;
@@ -48,6 +51,10 @@ public abstract class AbstractSocialAuthenticationProvider<T extends SocialIdent
     protected abstract IdentityProviderRoleMapper getIdentityProviderRoleMapper();
     protected abstract WebClient getClient();
 
+    private volatile RemoteServiceGuard remoteServiceGuard;
+    private volatile ClaimMapping claimMapping;
+    private volatile RoleMapping roleMapping;
+
     @Override
     public Request signInUrl(String redirectUri) {
         try {
@@ -71,8 +78,8 @@ public abstract class AbstractSocialAuthenticationProvider<T extends SocialIdent
 
     @Override
     public Maybe<User> loadUserByUsername(Authentication authentication) {
-        return authenticate(authentication)
-                .flatMap(accessToken -> profile(accessToken, authentication));
+        return getRemoteServiceGuard().guard(authenticate(authentication)
+                .flatMap(accessToken -> profile(accessToken, authentication)));
     }
 
     @Override
@@ -82,44 +89,57 @@ public abstract class AbstractSocialAuthenticationProvider<T extends SocialIdent
 
 
     protected Map<String, Object> applyUserMapping(Map<String, Object> attributes) {
-        if (!mappingEnabled()) {
+        ClaimMapping claimMapping = getClaimMapping();
+        if (claimMapping.isEmpty()) {
             return defaultClaims(attributes);
         }
-
-        Map<String, Object> claims = new HashMap<>();
-        this.getIdentityProviderMapper().getMappers().forEach((k, v) -> {
-            if (attributes.containsKey(v)) {
-                claims.put(k, attributes.get(v));
-            }
-        });
-        return claims;
+        // profiles are mapped as returned by the provider: attributes are read by their exact name, null values included
+        return claimMapping.copy(attributes);
     }
 
     protected List<String> applyRoleMapping(Map<String, Object> attributes) {
-        if (!roleMappingEnabled()) {
-            return Collections.emptyList();
+        // attributes are read by their exact name, dotted names are not resolved in nested objects
+        return getRoleMapping().apply(attributes::get);
+    }
+
+    /**
+     * @return the user mapping, compiled on first use and again if the mapper rules are replaced
+     */
+    private ClaimMapping getClaimMapping() {
+        IdentityProviderMapper mapper = getIdentityProviderMapper();
+        ClaimMapping mapping = claimMapping;
+        if (mapping == null || !mapping.isCompiledFrom(mapper)) {
+            mapping = ClaimMapping.compile(mapper);
+            claimMapping = mapping;
         }
+        return mapping;
+    }
 
-        Set<String> roles = new HashSet<>();
-        getIdentityProviderRoleMapper().getRoles().forEach((role, users) -> {
-            Arrays.asList(users).forEach(u -> {
-                // role mapping have the following syntax userAttribute=userValue
-                String[] roleMapping = u.split("=",2);
-                String userAttribute = roleMapping[0];
-                String userValue = roleMapping[1];
-                if (attributes.containsKey(userAttribute)) {
-                    Object attribute = attributes.get(userAttribute);
-                    // attribute is a list
-                    if (attribute instanceof Collection && ((Collection) attribute).contains(userValue)) {
-                        roles.add(role);
-                    } else if (userValue.equals(attributes.get(userAttribute))) {
-                        roles.add(role);
-                    }
-                }
-            });
-        });
+    /**
+     * @return the role mapping, compiled on first use and again if the role mapper rules are replaced
+     */
+    private RoleMapping getRoleMapping() {
+        IdentityProviderRoleMapper roleMapper = getIdentityProviderRoleMapper();
+        RoleMapping mapping = roleMapping;
+        if (mapping == null || !mapping.isCompiledFrom(roleMapper)) {
+            mapping = RoleMapping.compile(roleMapper);
+            roleMapping = mapping;
+        }
+        return mapping;
+    }
 
-        return new ArrayList<>(roles);
+    protected RemoteServiceGuard getRemoteServiceGuard() {
+        RemoteServiceGuard guard = remoteServiceGuard;
+        if (guard == null) {
+            synchronized (this) {
+                guard = remoteServiceGuard;
+                if (guard == null) {
+                    guard = new RemoteServiceGuard(getConfiguration().getAccessTokenUri(), getConfiguration().getResilience());
+                    remoteServiceGuard = guard;
+                }
+            }
+        }
+        return guard;
     }
 
     protected abstract Maybe<Token> authenticate(Authentication authentication);
@@ -128,19 +148,6 @@ public abstract class AbstractSocialAuthenticationProvider<T extends SocialIdent
 
     protected abstract Map<String, Object> defaultClaims(Map<String, Object> attributes);
 
-    private boolean mappingEnabled() {
-        return this.getIdentityProviderMapper() != null
-                && this.getIdentityProviderMapper().getMappers() != null
-                && !this.getIdentityProviderMapper().getMappers().isEmpty();
-    }
-
-    private boolean roleMappingEnabled() {
-        return this.getIdentityProviderRoleMapper() != null
-                && this.getIdentityProviderRoleMapper().getRoles() != null
-                && !this.getIdentityProviderRoleMapper().getRoles().isEmpty();
-    }
-
-
     protected final class Token {
         private String value;
         private String secret;
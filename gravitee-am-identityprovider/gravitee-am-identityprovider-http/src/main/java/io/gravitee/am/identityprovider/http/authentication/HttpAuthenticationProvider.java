@@ -22,33 +22,30 @@ import io.gravitee.am.identityprovider.api.Authentication;
 import io.gravitee.am.identityprovider.api.AuthenticationProvider;
 import io.gravitee.am.identityprovider.api.DefaultUser;
 import io.gravitee.am.identityprovider.api.User;
+import io.gravitee.am.identityprovider.api.mapping.ClaimMapping;
+import io.gravitee.am.identityprovider.api.mapping.RoleMapping;
+import io.gravitee.am.identityprovider.api.resilience.RemoteServiceGuard;
 import io.gravitee.am.identityprovider.http.HttpIdentityProviderMapper;
 import io.gravitee.am.identityprovider.http.HttpIdentityProviderResponse;
 import io.gravitee.am.identityprovider.http.HttpIdentityProviderRoleMapper;
 import io.gravitee.am.identityprovider.http.authentication.spring.HttpAuthenticationProviderConfiguration;
 import io.gravitee.am.identityprovider.http.configuration.HttpIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.http.configuration.HttpResourceConfiguration;
-import io.gravitee.am.identityprovider.http.configuration.HttpResponseErrorCondition;
-import io.gravitee.common.http.HttpHeader;
-import io.gravitee.common.http.HttpHeaders;
-import io.gravitee.common.http.MediaType;
+import io.gravitee.am.identityprovider.http.template.HttpRequestTemplate;
 import io.gravitee.el.TemplateEngine;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
-import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
-import io.vertx.reactivex.core.MultiMap;
 import io.vertx.reactivex.core.buffer.Buffer;
-import io.vertx.reactivex.ext.web.client.HttpRequest;
 import io.vertx.reactivex.ext.web.client.HttpResponse;
 import io.vertx.reactivex.ext.web.client.WebClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Import;
 
-import java.lang.reflect.Constructor;
 import java.util.*;
 
 /**
@@ -56,7 +53,7 @@ import java.util.*;
  * @author GraviteeSource Team
  */
 @Import(HttpAuthenticationProviderConfiguration.class)
-public class HttpAuthenticationProvider implements AuthenticationProvider {
+public class HttpAuthenticationProvider implements AuthenticationProvider, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpAuthenticationProvider.class);
     private static final String PRINCIPAL_CONTEXT_KEY = "principal";
@@ -76,6 +73,23 @@ public class HttpAuthenticationProvider implements AuthenticationProvider {
     @Autowired
     private HttpIdentityProviderRoleMapper roleMapper;
 
+    private HttpRequestTemplate authenticationRequest;
+
+    private RemoteServiceGuard remoteServiceGuard;
+
+    private ClaimMapping claimMapping = ClaimMapping.empty();
+
+    private RoleMapping roleMapping = RoleMapping.empty();
+
+    @Override
+    public void afterPropertiesSet() {
+        final HttpResourceConfiguration resourceConfiguration = configuration.getAuthenticationResource();
+        authenticationRequest = HttpRequestTemplate.compile(resourceConfiguration.getBaseURL(), resourceConfiguration);
+        remoteServiceGuard = new RemoteServiceGuard(resourceConfiguration.getBaseURL(), configuration.getResilience());
+        claimMapping = ClaimMapping.compile(mapper);
+        roleMapping = RoleMapping.compile(roleMapper);
+    }
+
     @Override
     public Maybe<User> loadUserByUsername(Authentication authentication) {
         try {
@@ -85,87 +99,33 @@ public class HttpAuthenticationProvider implements AuthenticationProvider {
             templateEngine.getTemplateContext().setVariable(CREDENTIALS_CONTEXT_KEY, authentication.getCredentials());
 
             // prepare request
-            final HttpResourceConfiguration resourceConfiguration = configuration.getAuthenticationResource();
-            final String authenticationURI = templateEngine.getValue(resourceConfiguration.getBaseURL(), String.class);
-            final HttpMethod authenticationHttpMethod = HttpMethod.valueOf(resourceConfiguration.getHttpMethod().toString());
-            final List<HttpHeader> authenticationHttpHeaders = resourceConfiguration.getHttpHeaders();
-            final String authenticationBody = resourceConfiguration.getHttpBody();
-            final HttpRequest<Buffer> httpRequest = client.requestAbs(authenticationHttpMethod, authenticationURI);
-            final List<HttpResponseErrorCondition> errorConditions = resourceConfiguration.getHttpResponseErrorConditions();
-
-            // set headers
-            if (authenticationHttpHeaders != null) {
-                authenticationHttpHeaders.forEach(header -> {
-                    String extValue = templateEngine.getValue(header.getValue(), String.class);
-                    httpRequest.putHeader(header.getName(), extValue);
-                });
-            }
-
-            // set body
-            Single<HttpResponse<Buffer>> responseHandler;
-            if (authenticationBody != null && !authenticationBody.isEmpty()) {
-                String bodyRequest = templateEngine.getValue(authenticationBody, String.class);
-                if (!httpRequest.headers().contains(HttpHeaders.CONTENT_TYPE)) {
-                    httpRequest.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(bodyRequest.length()));
-                    responseHandler = httpRequest.rxSendBuffer(Buffer.buffer(bodyRequest));
-                } else {
-                    String contentTypeHeader = httpRequest.headers().get(HttpHeaders.CONTENT_TYPE);
-                    switch (contentTypeHeader) {
-                        case(MediaType.APPLICATION_JSON):
-                            responseHandler = httpRequest.rxSendJsonObject(new JsonObject(bodyRequest));
-                            break;
-                        case(MediaType.APPLICATION_FORM_URLENCODED):
-                            Map<String, String> queryParameters = format(bodyRequest);
-                            MultiMap multiMap = MultiMap.caseInsensitiveMultiMap();
-                            multiMap.setAll(queryParameters);
-                            responseHandler = httpRequest.rxSendForm(multiMap);
-                            break;
-                        default:
-                            httpRequest.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(bodyRequest.length()));
-                            responseHandler = httpRequest.rxSendBuffer(Buffer.buffer(bodyRequest));
-                    }
-                }
-            } else {
-                responseHandler = httpRequest.rxSend();
-            }
+            final Single<HttpResponse<Buffer>> responseHandler = authenticationRequest.send(client, templateEngine);
 
-            return responseHandler
-                    .toMaybe()
+            // the response is evaluated within the guarded call so that a failing remote service opens the circuit
+            // while a rejected authentication (e.g. bad credentials) does not
+            return remoteServiceGuard.guard(responseHandler.toMaybe()
                     .map(httpResponse -> {
                         String responseBody =  httpResponse.bodyAsString();
                         // put response into template variable for EL
                         templateEngine.getTemplateContext().setVariable(AUTHENTICATION_RESPONSE_CONTEXT_KEY,
                                 new HttpIdentityProviderResponse(httpResponse, responseBody));
 
-                        // process authentication response
-                        Exception lastException = null;
-                        if (errorConditions != null) {
-                            Iterator<HttpResponseErrorCondition> iter = errorConditions.iterator();
-                            while (iter.hasNext() && lastException == null) {
-                                HttpResponseErrorCondition errorCondition = iter.next();
-                                if (templateEngine.getValue(errorCondition.getValue(), Boolean.class)) {
-                                    Class<? extends Exception> clazz = (Class<? extends Exception>) Class.forName(errorCondition.getException());
-                                    if (errorCondition.getMessage() != null) {
-                                        String errorMessage = templateEngine.getValue(errorCondition.getMessage(), String.class);
-                                        Constructor<?> constructor = clazz.getConstructor(String.class);
-                                        lastException = clazz.cast(constructor.newInstance(new Object[]{errorMessage}));
-                                    } else {
-                                        lastException = clazz.newInstance();
-                                    }
-                                }
-                            }
-                        }
+                        // process authentication response, if user authentication failed, throw exception
+                        authenticationRequest.checkErrorConditions(templateEngine);
 
-                        // if user authentication failed, throw exception
-                        if (lastException != null) {
-                            throw lastException;
+                        // remote service error not handled by the error conditions
+                        if (httpResponse.statusCode() >= 500) {
+                            throw new InternalAuthenticationServiceException("The remote HTTP identity provider responded with status " + httpResponse.statusCode());
                         }
+                        return Optional.ofNullable(responseBody);
+                    }))
+                    .map(optionalResponseBody -> {
                         // unable to get user information, throw exception
-                        if (responseBody == null) {
+                        if (!optionalResponseBody.isPresent()) {
                             throw new InternalAuthenticationServiceException("Unable to find user information");
                         }
                         // else connect the user
-                        return createUser( new JsonObject(responseBody).getMap());
+                        return createUser( new JsonObject(optionalResponseBody.get()).getMap());
                     })
                     .onErrorResumeNext(ex -> {
                         if (ex instanceof AuthenticationException) {
@@ -215,61 +175,13 @@ public class HttpAuthenticationProvider implements AuthenticationProvider {
     }
 
     private Map<String, Object> applyUserMapping(Map<String, Object> attributes) {
-        if (!mappingEnabled()) {
+        if (claimMapping.isEmpty()) {
             return attributes;
         }
-
-        Map<String, Object> claims = new HashMap<>();
-        this.mapper.getMappers().forEach((k, v) -> {
-            if (attributes.containsKey(v)) {
-                claims.put(k, attributes.get(v));
-            }
-        });
-        return claims;
+        return claimMapping.apply(attributes);
     }
 
     private List<String> applyRoleMapping(Map<String, Object> attributes) {
-        if (!roleMappingEnabled()) {
-            return Collections.emptyList();
-        }
-
-        Set<String> roles = new HashSet<>();
-        roleMapper.getRoles().forEach((role, users) -> {
-            Arrays.asList(users).forEach(u -> {
-                // role mapping have the following syntax userAttribute=userValue
-                String[] roleMapping = u.split("=",2);
-                String userAttribute = roleMapping[0];
-                String userValue = roleMapping[1];
-                if (attributes.containsKey(userAttribute)) {
-                    Object attribute = attributes.get(userAttribute);
-                    // attribute is a list
-                    if (attribute instanceof Collection && ((Collection) attribute).contains(userValue)) {
-                        roles.add(role);
-                    } else if (userValue.equals(attributes.get(userAttribute))) {
-                        roles.add(role);
-                    }
-                }
-            });
-        });
-
-        return new ArrayList<>(roles);
-    }
-
-    private boolean mappingEnabled() {
-        return this.mapper != null && this.mapper.getMappers() != null && !this.mapper.getMappers().isEmpty();
-    }
-
-    private boolean roleMappingEnabled() {
-        return this.roleMapper != null && this.roleMapper.getRoles() != null && !this.roleMapper.getRoles().isEmpty();
-    }
-
-    private static Map<String, String> format(String query) {
-        Map<String, String> queryPairs = new LinkedHashMap<String, String>();
-        String[] pairs = query.split("&");
-        for (String pair : pairs) {
-            int idx = pair.indexOf("=");
-            queryPairs.put(pair.substring(0, idx), pair.substring(idx + 1));
-        }
-        return queryPairs;
+        return roleMapping.apply(attributes);
     }
 }
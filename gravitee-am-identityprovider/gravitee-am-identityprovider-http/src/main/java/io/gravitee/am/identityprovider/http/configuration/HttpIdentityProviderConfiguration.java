@@ -16,6 +16,7 @@
 package io.gravitee.am.identityprovider.http.configuration;
 
 import io.gravitee.am.identityprovider.api.IdentityProviderConfiguration;
+import io.gravitee.am.identityprovider.api.resilience.ResilienceConfiguration;
 import io.gravitee.common.http.HttpHeader;
 import io.gravitee.common.http.HttpMethod;
 
@@ -37,6 +38,9 @@ public class HttpIdentityProviderConfiguration implements IdentityProviderConfig
     private Integer connectTimeout = 10000;
     private Integer maxPoolSize = 200;
 
+    /* ----- Resilience properties ----- */
+    private ResilienceConfiguration resilience;
+
     @Override
     public boolean userProvider() {
         return usersResource.isEnabled();
@@ -73,4 +77,13 @@ public class HttpIdentityProviderConfiguration implements IdentityProviderConfig
     public void setMaxPoolSize(Integer maxPoolSize) {
         this.maxPoolSize = maxPoolSize;
     }
+
+    @Override
+    public ResilienceConfiguration getResilience() {
+        return resilience;
+    }
+
+    public void setResilience(ResilienceConfiguration resilience) {
+        this.resilience = resilience;
+    }
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.http.template;
+
+import io.gravitee.am.identityprovider.http.configuration.HttpResponseErrorCondition;
+import io.gravitee.el.TemplateEngine;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * A {@link HttpResponseErrorCondition} with its condition and message parsed and its exception constructor resolved.
+ *
+ * @author GraviteeSource Team
+ */
+final class ErrorConditionTemplate {
+
+    private final Template condition;
+    private final Template message;
+    private final Constructor<? extends Exception> constructor;
+    private final ReflectiveOperationException constructorException;
+
+    private ErrorConditionTemplate(Template condition, Template message, Constructor<? extends Exception> constructor, ReflectiveOperationException constructorException) {
+        this.condition = condition;
+        this.message = message;
+        this.constructor = constructor;
+        this.constructorException = constructorException;
+    }
+
+    static ErrorConditionTemplate compile(HttpResponseErrorCondition errorCondition) {
+        Template message = errorCondition.getMessage() != null ? Template.compile(errorCondition.getMessage()) : null;
+        Constructor<? extends Exception> constructor = null;
+        ReflectiveOperationException constructorException = null;
+        try {
+            Class<? extends Exception> clazz = Class.forName(errorCondition.getException()).asSubclass(Exception.class);
+            constructor = message != null ? clazz.getConstructor(String.class) : clazz.getConstructor();
+        } catch (ReflectiveOperationException ex) {
+            // reported when the condition is met, as it was before conditions were compiled
+            constructorException = ex;
+        }
+        return new ErrorConditionTemplate(Template.compile(errorCondition.getValue()), message, constructor, constructorException);
+    }
+
+    /**
+     * @return the exception to raise if the condition is met, null otherwise
+     */
+    Exception evaluate(TemplateEngine templateEngine) throws ReflectiveOperationException {
+        if (!Boolean.TRUE.equals(condition.getValue(templateEngine, Boolean.class))) {
+            return null;
+        }
+        if (constructorException != null) {
+            throw constructorException;
+        }
+        return message != null ?
+                constructor.newInstance(message.getValue(templateEngine, String.class)) :
+                constructor.newInstance();
+    }
+}
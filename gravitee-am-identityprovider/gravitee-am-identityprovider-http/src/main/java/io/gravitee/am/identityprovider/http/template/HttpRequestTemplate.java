@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.http.template;
+
+import io.gravitee.am.identityprovider.http.configuration.HttpResourceConfiguration;
+import io.gravitee.am.identityprovider.http.configuration.HttpResponseErrorCondition;
+import io.gravitee.common.http.HttpHeader;
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.MediaType;
+import io.gravitee.el.TemplateEngine;
+import io.reactivex.Single;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.reactivex.core.MultiMap;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpRequest;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+
+import java.util.*;
+
+/**
+ * A {@link HttpResourceConfiguration} compiled once when the identity provider starts : the URL, the headers,
+ * the body and the error conditions are parsed and the exception constructors are resolved, so that sending a request
+ * only consists of evaluating the expressions against the template context of the request.
+ *
+ * @author GraviteeSource Team
+ */
+public final class HttpRequestTemplate {
+
+    private final HttpMethod httpMethod;
+    private final Template uri;
+    private final List<Map.Entry<String, Template>> httpHeaders;
+    private final Template httpBody;
+    /**
+     * Name/value pairs of an <code>application/x-www-form-urlencoded</code> body, null if the body can't be split
+     * before being evaluated.
+     */
+    private final List<Map.Entry<Template, Template>> formParameters;
+    private final List<ErrorConditionTemplate> errorConditions;
+
+    private HttpRequestTemplate(HttpMethod httpMethod,
+                                Template uri,
+                                List<Map.Entry<String, Template>> httpHeaders,
+                                Template httpBody,
+                                List<Map.Entry<Template, Template>> formParameters,
+                                List<ErrorConditionTemplate> errorConditions) {
+        this.httpMethod = httpMethod;
+        this.uri = uri;
+        this.httpHeaders = httpHeaders;
+        this.httpBody = httpBody;
+        this.formParameters = formParameters;
+        this.errorConditions = errorConditions;
+    }
+
+    /**
+     * Compile a resource configuration.
+     *
+     * @param uri the URI of the resource, may differ from the resource base URL (e.g. users resources are relative)
+     * @param resourceConfiguration the resource configuration
+     * @return the compiled resource, null if the resource is not configured
+     */
+    public static HttpRequestTemplate compile(String uri, HttpResourceConfiguration resourceConfiguration) {
+        if (resourceConfiguration == null || resourceConfiguration.getHttpMethod() == null) {
+            return null;
+        }
+
+        List<Map.Entry<String, Template>> httpHeaders = new ArrayList<>();
+        if (resourceConfiguration.getHttpHeaders() != null) {
+            for (HttpHeader header : resourceConfiguration.getHttpHeaders()) {
+                httpHeaders.add(new AbstractMap.SimpleImmutableEntry<>(header.getName(), Template.compile(header.getValue())));
+            }
+        }
+
+        String body = resourceConfiguration.getHttpBody();
+        boolean hasBody = body != null && !body.isEmpty();
+
+        List<ErrorConditionTemplate> errorConditions = new ArrayList<>();
+        if (resourceConfiguration.getHttpResponseErrorConditions() != null) {
+            for (HttpResponseErrorCondition errorCondition : resourceConfiguration.getHttpResponseErrorConditions()) {
+                errorConditions.add(ErrorConditionTemplate.compile(errorCondition));
+            }
+        }
+
+        return new HttpRequestTemplate(
+                HttpMethod.valueOf(resourceConfiguration.getHttpMethod().toString()),
+                Template.compile(uri),
+                httpHeaders,
+                hasBody ? Template.compile(body) : null,
+                hasBody ? compileFormParameters(body) : null,
+                errorConditions);
+    }
+
+    /**
+     * Evaluate the request against the template context and send it.
+     */
+    public Single<HttpResponse<Buffer>> send(WebClient client, TemplateEngine templateEngine) {
+        final HttpRequest<Buffer> httpRequest = client.requestAbs(httpMethod, uri.getValue(templateEngine, String.class));
+
+        // set headers
+        httpHeaders.forEach(header -> httpRequest.putHeader(header.getKey(), header.getValue().getValue(templateEngine, String.class)));
+
+        // set body
+        if (httpBody == null) {
+            return httpRequest.rxSend();
+        }
+        String contentType = httpRequest.headers().get(HttpHeaders.CONTENT_TYPE);
+        if (MediaType.APPLICATION_FORM_URLENCODED.equals(contentType)) {
+            MultiMap multiMap = MultiMap.caseInsensitiveMultiMap();
+            if (formParameters != null) {
+                formParameters.forEach(parameter -> multiMap.set(
+                        parameter.getKey().getValue(templateEngine, String.class),
+                        parameter.getValue().getValue(templateEngine, String.class)));
+            } else {
+                multiMap.setAll(format(httpBody.getValue(templateEngine, String.class)));
+            }
+            return httpRequest.rxSendForm(multiMap);
+        }
+        Buffer body = Buffer.buffer(httpBody.getValue(templateEngine, String.class));
+        if (!MediaType.APPLICATION_JSON.equals(contentType)) {
+            httpRequest.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length()));
+        }
+        return httpRequest.rxSendBuffer(body);
+    }
+
+    /**
+     * Evaluate the error conditions against the template context, once the response has been set as a variable.
+     *
+     * @throws Exception the exception of the first condition met
+     */
+    public void checkErrorConditions(TemplateEngine templateEngine) throws Exception {
+        for (ErrorConditionTemplate errorCondition : errorConditions) {
+            Exception exception = errorCondition.evaluate(templateEngine);
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Split a form body template into name/value templates, ignoring the separators which are part of an expression.
+     *
+     * @return the name/value pairs, or null if a pair doesn't have any value
+     */
+    private static List<Map.Entry<Template, Template>> compileFormParameters(String body) {
+        List<Map.Entry<Template, Template>> parameters = new ArrayList<>();
+        int depth = 0;
+        int pairStart = 0;
+        int valueStart = -1;
+        for (int i = 0; i <= body.length(); i++) {
+            char c = i < body.length() ? body.charAt(i) : '&';
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && depth > 0) {
+                depth--;
+            } else if (depth == 0 && c == '=' && valueStart == -1) {
+                valueStart = i + 1;
+            } else if (depth == 0 && c == '&') {
+                if (valueStart == -1) {
+                    return null;
+                }
+                parameters.add(new AbstractMap.SimpleImmutableEntry<>(
+                        Template.compile(body.substring(pairStart, valueStart - 1)),
+                        Template.compile(body.substring(valueStart, i))));
+                pairStart = i + 1;
+                valueStart = -1;
+            }
+        }
+        return depth == 0 ? parameters : null;
+    }
+
+    private static Map<String, String> format(String query) {
+        Map<String, String> queryPairs = new LinkedHashMap<>();
+        String[] pairs = query.split("&");
+        for (String pair : pairs) {
+            int idx = pair.indexOf("=");
+            queryPairs.put(pair.substring(0, idx), pair.substring(idx + 1));
+        }
+        return queryPairs;
+    }
+}
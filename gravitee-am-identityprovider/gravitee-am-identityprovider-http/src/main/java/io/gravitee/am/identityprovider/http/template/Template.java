@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.http.template;
+
+import io.gravitee.el.TemplateContext;
+import io.gravitee.el.TemplateEngine;
+import io.gravitee.el.spel.TemplateParserContext;
+import io.gravitee.el.spel.context.SpelTemplateContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.regex.Pattern;
+
+/**
+ * A configuration value which may contain expressions (e.g. <code>{#principal}</code>), parsed once and evaluated
+ * against the template context of each request.
+ *
+ * Templates are parsed the same way than {@link io.gravitee.el.spel.SpelTemplateEngine} does.
+ *
+ * @author GraviteeSource Team
+ */
+public final class Template {
+
+    private static final Pattern EXPRESSION_REGEX_PATTERN = Pattern.compile("\\{([^#|T|(])");
+    private static final String EXPRESSION_REGEX_SUBSTITUTE = "{'{'}$1";
+    private static final ParserContext PARSER_CONTEXT = new TemplateParserContext();
+    private static final SpelExpressionParser EXPRESSION_PARSER = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, null));
+
+    private final String source;
+    private final Expression expression;
+
+    private Template(String source, Expression expression) {
+        this.source = source;
+        this.expression = expression;
+    }
+
+    public static Template compile(String source) {
+        return new Template(source, EXPRESSION_PARSER.parseExpression(EXPRESSION_REGEX_PATTERN.matcher(source).replaceAll(EXPRESSION_REGEX_SUBSTITUTE), PARSER_CONTEXT));
+    }
+
+    /**
+     * @return true if the template doesn't contain any expression
+     */
+    public boolean isLiteral() {
+        return expression instanceof LiteralExpression;
+    }
+
+    public <T> T getValue(TemplateEngine templateEngine, Class<T> type) {
+        if (isLiteral()) {
+            // constant part (e.g. a header value), nothing to evaluate
+            return expression.getValue(type);
+        }
+        TemplateContext templateContext = templateEngine.getTemplateContext();
+        if (templateContext instanceof SpelTemplateContext) {
+            return expression.getValue(((SpelTemplateContext) templateContext).getContext(), type);
+        }
+        // unknown template engine, let it parse the template
+        return templateEngine.getValue(source, type);
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
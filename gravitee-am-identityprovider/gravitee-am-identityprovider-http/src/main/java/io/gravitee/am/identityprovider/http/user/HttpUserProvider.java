@@ -19,33 +19,28 @@ import io.gravitee.am.identityprovider.api.*;
 import io.gravitee.am.identityprovider.http.HttpIdentityProviderResponse;
 import io.gravitee.am.identityprovider.http.configuration.HttpIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.http.configuration.HttpResourceConfiguration;
-import io.gravitee.am.identityprovider.http.configuration.HttpResponseErrorCondition;
 import io.gravitee.am.identityprovider.http.configuration.HttpUsersResourceConfiguration;
+import io.gravitee.am.identityprovider.http.configuration.HttpUsersResourcePathsConfiguration;
+import io.gravitee.am.identityprovider.http.template.HttpRequestTemplate;
 import io.gravitee.am.identityprovider.http.user.spring.HttpUserProviderConfiguration;
 import io.gravitee.am.service.exception.AbstractManagementException;
 import io.gravitee.am.service.exception.TechnicalManagementException;
-import io.gravitee.common.http.HttpHeader;
-import io.gravitee.common.http.HttpHeaders;
-import io.gravitee.common.http.MediaType;
 import io.gravitee.el.TemplateEngine;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
-import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
-import io.vertx.reactivex.core.MultiMap;
 import io.vertx.reactivex.core.buffer.Buffer;
-import io.vertx.reactivex.ext.web.client.HttpRequest;
 import io.vertx.reactivex.ext.web.client.HttpResponse;
 import io.vertx.reactivex.ext.web.client.WebClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Import;
 
-import java.lang.reflect.Constructor;
 import java.util.*;
 
 /**
@@ -53,7 +48,7 @@ import java.util.*;
  * @author GraviteeSource Team
  */
 @Import({HttpUserProviderConfiguration.class})
-public class HttpUserProvider implements UserProvider {
+public class HttpUserProvider implements UserProvider, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpUserProvider.class);
     private static final String USER_CONTEXT_KEY = "user";
@@ -66,25 +61,39 @@ public class HttpUserProvider implements UserProvider {
     @Autowired
     private HttpIdentityProviderConfiguration configuration;
 
+    private HttpRequestTemplate createRequest;
+    private HttpRequestTemplate readRequest;
+    private HttpRequestTemplate readByEmailRequest;
+    private HttpRequestTemplate updateRequest;
+    private HttpRequestTemplate deleteRequest;
+
     @Override
-    public Maybe<User> findByEmail(String email) {
-        // prepare request
+    public void afterPropertiesSet() {
         final HttpUsersResourceConfiguration usersResourceConfiguration = configuration.getUsersResource();
-        final HttpResourceConfiguration readResourceConfiguration = usersResourceConfiguration.getPaths().getReadResourceByEmail();
+        if (usersResourceConfiguration == null || usersResourceConfiguration.getPaths() == null) {
+            return;
+        }
+        final HttpUsersResourcePathsConfiguration paths = usersResourceConfiguration.getPaths();
+        createRequest = compile(usersResourceConfiguration, paths.getCreateResource());
+        readRequest = compile(usersResourceConfiguration, paths.getReadResource());
+        readByEmailRequest = compile(usersResourceConfiguration, paths.getReadResourceByEmail());
+        updateRequest = compile(usersResourceConfiguration, paths.getUpdateResource());
+        deleteRequest = compile(usersResourceConfiguration, paths.getDeleteResource());
+    }
+
+    @Override
+    public Maybe<User> findByEmail(String email) {
         final DefaultUser user = new DefaultUser(null);
         user.setEmail(email);
 
-        return findByUser(usersResourceConfiguration, readResourceConfiguration, user);
+        return findByUser(readByEmailRequest, user);
     }
 
     @Override
     public Maybe<User> findByUsername(String username) {
-        // prepare request
-        final HttpUsersResourceConfiguration usersResourceConfiguration = configuration.getUsersResource();
-        final HttpResourceConfiguration readResourceConfiguration = usersResourceConfiguration.getPaths().getReadResource();
         final DefaultUser user = new DefaultUser(username);
 
-        return findByUser(usersResourceConfiguration, readResourceConfiguration, user);
+        return findByUser(readRequest, user);
     }
 
     @Override
@@ -96,18 +105,11 @@ public class HttpUserProvider implements UserProvider {
             templateEngine.getTemplateContext().setVariable(USER_CONTEXT_KEY, user);
 
             // prepare request
-            final HttpUsersResourceConfiguration usersResourceConfiguration = configuration.getUsersResource();
-            final HttpResourceConfiguration createResourceConfiguration = usersResourceConfiguration.getPaths().getCreateResource();
-            final String createUserURI = usersResourceConfiguration.getBaseURL() + createResourceConfiguration.getBaseURL();
-            final HttpMethod createUserHttpMethod = HttpMethod.valueOf(createResourceConfiguration.getHttpMethod().toString());
-            final List<HttpHeader> createUserHttpHeaders = createResourceConfiguration.getHttpHeaders();
-            final String createUserBody = createResourceConfiguration.getHttpBody();
-            final Single<HttpResponse<Buffer>> requestHandler = processRequest(templateEngine, createUserURI, createUserHttpMethod, createUserHttpHeaders, createUserBody);
+            final Single<HttpResponse<Buffer>> requestHandler = createRequest.send(client, templateEngine);
 
             return requestHandler
                     .map(httpResponse -> {
-                        final List<HttpResponseErrorCondition> errorConditions = createResourceConfiguration.getHttpResponseErrorConditions();
-                        Map<String, Object> userAttributes = processResponse(templateEngine, errorConditions, httpResponse);
+                        Map<String, Object> userAttributes = processResponse(templateEngine, createRequest, httpResponse);
                         return convert(user.getUsername(), userAttributes);
                     })
                     .onErrorResumeNext(ex -> {
@@ -133,18 +135,11 @@ public class HttpUserProvider implements UserProvider {
             templateEngine.getTemplateContext().setVariable(USER_CONTEXT_KEY, updateUser);
 
             // prepare request
-            final HttpUsersResourceConfiguration usersResourceConfiguration = configuration.getUsersResource();
-            final HttpResourceConfiguration updateResourceConfiguration = usersResourceConfiguration.getPaths().getUpdateResource();
-            final String updateUserURI = usersResourceConfiguration.getBaseURL() + updateResourceConfiguration.getBaseURL();
-            final HttpMethod updateUserHttpMethod = HttpMethod.valueOf(updateResourceConfiguration.getHttpMethod().toString());
-            final List<HttpHeader> updateUserHttpHeaders = updateResourceConfiguration.getHttpHeaders();
-            final String updateUserBody = updateResourceConfiguration.getHttpBody();
-            final Single<HttpResponse<Buffer>> requestHandler = processRequest(templateEngine, updateUserURI, updateUserHttpMethod, updateUserHttpHeaders, updateUserBody);
+            final Single<HttpResponse<Buffer>> requestHandler = updateRequest.send(client, templateEngine);
 
             return requestHandler
                     .map(httpResponse -> {
-                        final List<HttpResponseErrorCondition> errorConditions = updateResourceConfiguration.getHttpResponseErrorConditions();
-                        Map<String, Object> userAttributes = processResponse(templateEngine, errorConditions, httpResponse);
+                        Map<String, Object> userAttributes = processResponse(templateEngine, updateRequest, httpResponse);
                         return convert(updateUser.getUsername(), userAttributes);
                     })
                     .onErrorResumeNext(ex -> {
@@ -171,19 +166,12 @@ public class HttpUserProvider implements UserProvider {
             templateEngine.getTemplateContext().setVariable(USER_CONTEXT_KEY, deleteUser);
 
             // prepare request
-            final HttpUsersResourceConfiguration usersResourceConfiguration = configuration.getUsersResource();
-            final HttpResourceConfiguration deleteResourceConfiguration = usersResourceConfiguration.getPaths().getDeleteResource();
-            final String deleteUserURI = usersResourceConfiguration.getBaseURL() + deleteResourceConfiguration.getBaseURL();
-            final HttpMethod deleteUserHttpMethod = HttpMethod.valueOf(deleteResourceConfiguration.getHttpMethod().toString());
-            final List<HttpHeader> deleteUserHttpHeaders = deleteResourceConfiguration.getHttpHeaders();
-            final String updateUserBody = deleteResourceConfiguration.getHttpBody();
-            final Single<HttpResponse<Buffer>> requestHandler = processRequest(templateEngine, deleteUserURI, deleteUserHttpMethod, deleteUserHttpHeaders, updateUserBody);
+            final Single<HttpResponse<Buffer>> requestHandler = deleteRequest.send(client, templateEngine);
 
             return requestHandler
                     .flatMapCompletable(httpResponse -> {
-                        final List<HttpResponseErrorCondition> errorConditions = deleteResourceConfiguration.getHttpResponseErrorConditions();
                         try {
-                            processResponse(templateEngine, errorConditions, httpResponse);
+                            processResponse(templateEngine, deleteRequest, httpResponse);
                             return Completable.complete();
                         } catch (Exception ex) {
                             return Completable.error(ex);
@@ -202,9 +190,7 @@ public class HttpUserProvider implements UserProvider {
         }
     }
 
-    private Maybe<User> findByUser(HttpUsersResourceConfiguration usersResourceConfiguration,
-                                   HttpResourceConfiguration readResourceConfiguration,
-                                   User user) {
+    private Maybe<User> findByUser(HttpRequestTemplate readRequest, User user) {
         try {
             // prepare context
             AuthenticationContext authenticationContext = new SimpleAuthenticationContext();
@@ -212,17 +198,12 @@ public class HttpUserProvider implements UserProvider {
             templateEngine.getTemplateContext().setVariable(USER_CONTEXT_KEY, user);
 
             // prepare request
-            final String readUserURI = usersResourceConfiguration.getBaseURL() + readResourceConfiguration.getBaseURL();
-            final HttpMethod readUserHttpMethod = HttpMethod.valueOf(readResourceConfiguration.getHttpMethod().toString());
-            final List<HttpHeader> readUserHttpHeaders = readResourceConfiguration.getHttpHeaders();
-            final String readUserBody = readResourceConfiguration.getHttpBody();
-            final Single<HttpResponse<Buffer>> requestHandler = processRequest(templateEngine, readUserURI, readUserHttpMethod, readUserHttpHeaders, readUserBody);
+            final Single<HttpResponse<Buffer>> requestHandler = readRequest.send(client, templateEngine);
 
             return requestHandler
                     .toMaybe()
                     .map(httpResponse -> {
-                        final List<HttpResponseErrorCondition> errorConditions = readResourceConfiguration.getHttpResponseErrorConditions();
-                        Map<String, Object> userAttributes = processResponse(templateEngine, errorConditions, httpResponse);
+                        Map<String, Object> userAttributes = processResponse(templateEngine, readRequest, httpResponse);
                         return convert(user.getUsername(), userAttributes);
                     })
                     .onErrorResumeNext(ex -> {
@@ -257,80 +238,13 @@ public class HttpUserProvider implements UserProvider {
         return user;
     }
 
-    private Single<HttpResponse<Buffer>> processRequest(TemplateEngine templateEngine,
-                                                        String httpURI,
-                                                        HttpMethod httpMethod,
-                                                        List<HttpHeader> httpHeaders,
-                                                        String httpBody) {
-        // prepare request
-        final String evaluatedHttpURI = templateEngine.getValue(httpURI, String.class);
-        final HttpRequest<Buffer> httpRequest = client.requestAbs(httpMethod, evaluatedHttpURI);
-
-        // set headers
-        if (httpHeaders != null) {
-            httpHeaders.forEach(header -> {
-                String extValue = templateEngine.getValue(header.getValue(), String.class);
-                httpRequest.putHeader(header.getName(), extValue);
-            });
-        }
-
-        // set body
-        Single<HttpResponse<Buffer>> responseHandler;
-        if (httpBody != null && !httpBody.isEmpty()) {
-            String bodyRequest = templateEngine.getValue(httpBody, String.class);
-            if (!httpRequest.headers().contains(HttpHeaders.CONTENT_TYPE)) {
-                httpRequest.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(bodyRequest.length()));
-                responseHandler = httpRequest.rxSendBuffer(Buffer.buffer(bodyRequest));
-            } else {
-                String contentTypeHeader = httpRequest.headers().get(HttpHeaders.CONTENT_TYPE);
-                switch (contentTypeHeader) {
-                    case(MediaType.APPLICATION_JSON):
-                        responseHandler = httpRequest.rxSendJsonObject(new JsonObject(bodyRequest));
-                        break;
-                    case(MediaType.APPLICATION_FORM_URLENCODED):
-                        Map<String, String> queryParameters = format(bodyRequest);
-                        MultiMap multiMap = MultiMap.caseInsensitiveMultiMap();
-                        multiMap.setAll(queryParameters);
-                        responseHandler = httpRequest.rxSendForm(multiMap);
-                        break;
-                    default:
-                        httpRequest.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(bodyRequest.length()));
-                        responseHandler = httpRequest.rxSendBuffer(Buffer.buffer(bodyRequest));
-                }
-            }
-        } else {
-            responseHandler = httpRequest.rxSend();
-        }
-        return responseHandler;
-    }
-
-    private Map<String, Object> processResponse(TemplateEngine templateEngine, List<HttpResponseErrorCondition> errorConditions, HttpResponse<Buffer> httpResponse) throws Exception {
+    private Map<String, Object> processResponse(TemplateEngine templateEngine, HttpRequestTemplate request, HttpResponse<Buffer> httpResponse) throws Exception {
         String responseBody =  httpResponse.bodyAsString();
         templateEngine.getTemplateContext().setVariable(USER_API_RESPONSE_CONTEXT_KEY, new HttpIdentityProviderResponse(httpResponse, responseBody));
 
-        // process response
-        Exception lastException = null;
-        if (errorConditions != null) {
-            Iterator<HttpResponseErrorCondition> iter = errorConditions.iterator();
-            while (iter.hasNext() && lastException == null) {
-                HttpResponseErrorCondition errorCondition = iter.next();
-                if (templateEngine.getValue(errorCondition.getValue(), Boolean.class)) {
-                    Class<? extends Exception> clazz = (Class<? extends Exception>) Class.forName(errorCondition.getException());
-                    if (errorCondition.getMessage() != null) {
-                        String errorMessage = templateEngine.getValue(errorCondition.getMessage(), String.class);
-                        Constructor<?> constructor = clazz.getConstructor(String.class);
-                        lastException = clazz.cast(constructor.newInstance(new Object[]{errorMessage}));
-                    } else {
-                        lastException = clazz.newInstance();
-                    }
-                }
-            }
-        }
+        // process response, if remote API call failed, throw exception
+        request.checkErrorConditions(templateEngine);
 
-        // if remote API call failed, throw exception
-        if (lastException != null) {
-            throw lastException;
-        }
         if (responseBody == null) {
             return Collections.emptyMap();
         }
@@ -338,13 +252,10 @@ public class HttpUserProvider implements UserProvider {
                 new JsonArray(responseBody).getJsonObject(0).getMap() : new JsonObject(responseBody).getMap();
     }
 
-    private static Map<String, String> format(String query) {
-        Map<String, String> queryPairs = new LinkedHashMap<String, String>();
-        String[] pairs = query.split("&");
-        for (String pair : pairs) {
-            int idx = pair.indexOf("=");
-            queryPairs.put(pair.substring(0, idx), pair.substring(idx + 1));
+    private static HttpRequestTemplate compile(HttpUsersResourceConfiguration usersResourceConfiguration, HttpResourceConfiguration resourceConfiguration) {
+        if (resourceConfiguration == null) {
+            return null;
         }
-        return queryPairs;
+        return HttpRequestTemplate.compile(usersResourceConfiguration.getBaseURL() + resourceConfiguration.getBaseURL(), resourceConfiguration);
     }
 }
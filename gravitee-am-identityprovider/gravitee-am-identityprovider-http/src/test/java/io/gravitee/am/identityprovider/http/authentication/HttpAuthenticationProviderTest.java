@@ -17,6 +17,7 @@ package io.gravitee.am.identityprovider.http.authentication;
 
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import io.gravitee.am.common.exception.authentication.BadCredentialsException;
+import io.gravitee.am.common.exception.authentication.InternalAuthenticationServiceException;
 import io.gravitee.am.common.exception.authentication.UsernameNotFoundException;
 import io.gravitee.am.identityprovider.api.*;
 import io.gravitee.am.identityprovider.http.HttpIdentityProviderMapper;
@@ -26,6 +27,7 @@ import io.reactivex.observers.TestObserver;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -143,12 +145,41 @@ public class HttpAuthenticationProviderTest {
     }
 
     @Test
-    public void shouldLoadUserByUsername_userMapping() {
+    public void shouldNotLoadUserByUsername_authentication_serverError() {
+        stubFor(any(urlPathEqualTo("/api/authentication"))
+                .withRequestBody(matching(".*"))
+                .willReturn(serverError()));
+
+        TestObserver<User> testObserver = authenticationProvider.loadUserByUsername(new Authentication() {
+            @Override
+            public Object getCredentials() {
+                return "johndoe";
+            }
+
+            @Override
+            public Object getPrincipal() {
+                return "johndoepassword";
+            }
+
+            @Override
+            public AuthenticationContext getContext() {
+                return new SimpleAuthenticationContext(new DummyRequest());
+            }
+        }).test();
+
+        testObserver.awaitTerminalEvent();
+        testObserver.assertError(InternalAuthenticationServiceException.class);
+    }
+
+    @Test
+    public void shouldLoadUserByUsername_userMapping() throws Exception {
         // configure role mapping
         Map<String, String> attributes = new HashMap<>();
         attributes.put("sub", "id");
         attributes.put("preferred_username", "username");
         mapper.setMappers(attributes);
+        // mappings are compiled when the provider starts
+        ((InitializingBean) authenticationProvider).afterPropertiesSet();
 
         stubFor(any(urlPathEqualTo("/api/authentication"))
                 .withRequestBody(matching(".*"))
@@ -181,11 +212,13 @@ public class HttpAuthenticationProviderTest {
 
 
     @Test
-    public void shouldLoadUserByUsername_roleMapping() {
+    public void shouldLoadUserByUsername_roleMapping() throws Exception {
         // configure role mapping
         Map<String, String[]> roles = new HashMap<>();
         roles.put("admin", new String[] { "preferred_username=johndoe"});
         roleMapper.setRoles(roles);
+        // mappings are compiled when the provider starts
+        ((InitializingBean) authenticationProvider).afterPropertiesSet();
 
         stubFor(any(urlPathEqualTo("/api/authentication"))
                 .withRequestBody(matching(".*"))
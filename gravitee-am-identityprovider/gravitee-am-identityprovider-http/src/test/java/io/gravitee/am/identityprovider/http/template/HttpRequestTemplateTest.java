@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.http.template;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.gravitee.am.common.exception.authentication.BadCredentialsException;
+import io.gravitee.am.identityprovider.http.configuration.HttpResourceConfiguration;
+import io.gravitee.am.identityprovider.http.configuration.HttpResponseErrorCondition;
+import io.gravitee.common.http.HttpHeader;
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.el.TemplateEngine;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class HttpRequestTemplateTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().port(19998));
+
+    private Vertx vertx;
+    private WebClient client;
+    private TemplateEngine templateEngine;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        client = WebClient.create(vertx);
+        templateEngine = TemplateEngine.templateEngine();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        vertx.close();
+    }
+
+    @Test
+    public void shouldSplitFormBody_separatorsWithinExpression() {
+        stubFor(post(urlPathEqualTo("/api/token")).willReturn(ok()));
+        templateEngine.getTemplateContext().setVariable("principal", "john");
+
+        HttpRequestTemplate request = HttpRequestTemplate.compile("http://localhost:19998/api/token",
+                resource("application/x-www-form-urlencoded", "username={#principal.concat('&x=y')}&grant_type=password"));
+        request.send(client, templateEngine).blockingGet();
+
+        verify(postRequestedFor(urlPathEqualTo("/api/token"))
+                .withRequestBody(containing("username=john%26x%3Dy"))
+                .withRequestBody(containing("grant_type=password")));
+    }
+
+    @Test
+    public void shouldSplitFormBody_evaluatedValuesAreEncoded() {
+        stubFor(post(urlPathEqualTo("/api/token")).willReturn(ok()));
+        templateEngine.getTemplateContext().setVariable("principal", "john");
+        templateEngine.getTemplateContext().setVariable("credentials", "p&ss=word");
+
+        HttpRequestTemplate request = HttpRequestTemplate.compile("http://localhost:19998/api/token",
+                resource("application/x-www-form-urlencoded", "username={#principal}&password={#credentials}"));
+        request.send(client, templateEngine).blockingGet();
+
+        verify(postRequestedFor(urlPathEqualTo("/api/token"))
+                .withRequestBody(containing("username=john"))
+                .withRequestBody(containing("password=p%26ss%3Dword")));
+    }
+
+    @Test
+    public void shouldSetContentLength_multiByteValues() {
+        stubFor(post(urlPathEqualTo("/api/authentication")).willReturn(ok()));
+        templateEngine.getTemplateContext().setVariable("principal", "j\u00f6hn");
+
+        HttpRequestTemplate request = HttpRequestTemplate.compile("http://localhost:19998/api/authentication",
+                resource("text/plain", "{#principal}"));
+        request.send(client, templateEngine).blockingGet();
+
+        // 'ö' is encoded on two bytes
+        verify(postRequestedFor(urlPathEqualTo("/api/authentication"))
+                .withHeader("Content-Length", equalTo("5"))
+                .withRequestBody(equalTo("j\u00f6hn")));
+    }
+
+    @Test
+    public void shouldEvaluateErrorCondition_met() throws Exception {
+        templateEngine.getTemplateContext().setVariable("status", 401);
+        templateEngine.getTemplateContext().setVariable("error", "invalid password");
+
+        ErrorConditionTemplate errorCondition = ErrorConditionTemplate.compile(
+                errorCondition("{#status == 401}", BadCredentialsException.class.getName(), "{#error}"));
+        Exception exception = errorCondition.evaluate(templateEngine);
+
+        Assert.assertTrue(exception instanceof BadCredentialsException);
+        Assert.assertEquals("invalid password", exception.getMessage());
+    }
+
+    @Test
+    public void shouldEvaluateErrorCondition_notMet() throws Exception {
+        templateEngine.getTemplateContext().setVariable("status", 200);
+
+        ErrorConditionTemplate errorCondition = ErrorConditionTemplate.compile(
+                errorCondition("{#status == 401}", BadCredentialsException.class.getName(), null));
+
+        Assert.assertNull(errorCondition.evaluate(templateEngine));
+    }
+
+    @Test
+    public void shouldEvaluateErrorCondition_unknownExceptionOnlyWhenMet() throws Exception {
+        ErrorConditionTemplate errorCondition = ErrorConditionTemplate.compile(
+                errorCondition("{#status == 401}", "io.gravitee.am.UnknownException", null));
+
+        templateEngine.getTemplateContext().setVariable("status", 200);
+        Assert.assertNull(errorCondition.evaluate(templateEngine));
+
+        templateEngine.getTemplateContext().setVariable("status", 401);
+        try {
+            errorCondition.evaluate(templateEngine);
+            Assert.fail("The exception class should not be found");
+        } catch (ClassNotFoundException ex) {
+            // expected
+        }
+    }
+
+    @Test(expected = BadCredentialsException.class)
+    public void shouldCheckErrorConditions_firstConditionMet() throws Exception {
+        templateEngine.getTemplateContext().setVariable("status", 401);
+
+        HttpResourceConfiguration resourceConfiguration = resource("application/json", null);
+        resourceConfiguration.setHttpResponseErrorConditions(Arrays.asList(
+                errorCondition("{#status == 404}", "io.gravitee.am.common.exception.authentication.UsernameNotFoundException", null),
+                errorCondition("{#status == 401}", BadCredentialsException.class.getName(), null)));
+
+        HttpRequestTemplate.compile("http://localhost:19998/api/authentication", resourceConfiguration)
+                .checkErrorConditions(templateEngine);
+    }
+
+    private static HttpResourceConfiguration resource(String contentType, String body) {
+        HttpResourceConfiguration resourceConfiguration = new HttpResourceConfiguration();
+        resourceConfiguration.setHttpMethod(HttpMethod.POST);
+        HttpHeader httpHeader = new HttpHeader();
+        httpHeader.setName("Content-Type");
+        httpHeader.setValue(contentType);
+        resourceConfiguration.setHttpHeaders(Collections.singletonList(httpHeader));
+        resourceConfiguration.setHttpBody(body);
+        return resourceConfiguration;
+    }
+
+    private static HttpResponseErrorCondition errorCondition(String value, String exception, String message) {
+        HttpResponseErrorCondition errorCondition = new HttpResponseErrorCondition();
+        errorCondition.setValue(value);
+        errorCondition.setException(exception);
+        errorCondition.setMessage(message);
+        return errorCondition;
+    }
+}
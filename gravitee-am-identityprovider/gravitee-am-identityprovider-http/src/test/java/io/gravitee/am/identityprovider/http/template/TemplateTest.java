@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.http.template;
+
+import io.gravitee.el.TemplateEngine;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class TemplateTest {
+
+    @Test
+    public void shouldEvaluateLikeTheTemplateEngine() {
+        TemplateEngine templateEngine = TemplateEngine.templateEngine();
+        templateEngine.getTemplateContext().setVariable("principal", "john");
+        templateEngine.getTemplateContext().setVariable("credentials", "p@ss");
+
+        String source = "{\"username\":\"{#principal}\",\"password\":\"{#credentials}\"}";
+        Template template = Template.compile(source);
+
+        Assert.assertFalse(template.isLiteral());
+        Assert.assertEquals(templateEngine.getValue(source, String.class), template.getValue(templateEngine, String.class));
+        Assert.assertEquals("{\"username\":\"john\",\"password\":\"p@ss\"}", template.getValue(templateEngine, String.class));
+    }
+
+    @Test
+    public void shouldEvaluateAgainstEachContext() {
+        Template template = Template.compile("{#principal == 'john'}");
+
+        TemplateEngine john = TemplateEngine.templateEngine();
+        john.getTemplateContext().setVariable("principal", "john");
+        TemplateEngine jane = TemplateEngine.templateEngine();
+        jane.getTemplateContext().setVariable("principal", "jane");
+
+        Assert.assertTrue(template.getValue(john, Boolean.class));
+        Assert.assertFalse(template.getValue(jane, Boolean.class));
+    }
+
+    @Test
+    public void shouldCompileLiteral() {
+        Template template = Template.compile("application/json");
+
+        Assert.assertTrue(template.isLiteral());
+        Assert.assertEquals("application/json", template.getValue(TemplateEngine.templateEngine(), String.class));
+    }
+}
@@ -20,6 +20,8 @@ import io.gravitee.am.identityprovider.api.Authentication;
 import io.gravitee.am.identityprovider.api.AuthenticationProvider;
 import io.gravitee.am.identityprovider.api.DefaultUser;
 import io.gravitee.am.identityprovider.api.User;
+import io.gravitee.am.identityprovider.api.mapping.ClaimMapping;
+import io.gravitee.am.identityprovider.api.mapping.RoleMapping;
 import io.gravitee.am.identityprovider.inline.InlineIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.inline.InlineIdentityProviderMapper;
 import io.gravitee.am.identityprovider.inline.InlineIdentityProviderRoleMapper;
@@ -61,12 +63,18 @@ public class InlineAuthenticationProvider implements AuthenticationProvider, Ini
     @Autowired
     private InlineIdentityProviderMapper mapper;
 
+    private ClaimMapping claimMapping = ClaimMapping.empty();
+
+    private RoleMapping roleMapping = RoleMapping.empty();
+
     @Override
     public void afterPropertiesSet() {
         for(io.gravitee.am.identityprovider.inline.model.User user : configuration.getUsers()) {
             LOGGER.debug("Add an inline user: {}", user);
             userDetailsService.createUser(user);
         }
+        claimMapping = ClaimMapping.compile(mapper);
+        roleMapping = RoleMapping.compile(roleMapper);
     }
 
     @Override
@@ -89,23 +97,8 @@ public class InlineAuthenticationProvider implements AuthenticationProvider, Ini
     }
 
     private List<String> getUserRoles(io.gravitee.am.identityprovider.inline.model.User inlineUser) {
-        Set<String> roles = new HashSet();
-        if (roleMapper != null && roleMapper.getRoles() != null) {
-            roleMapper.getRoles().forEach((role, users) -> {
-                Arrays.asList(users).forEach(u -> {
-                    // user/group have the following syntax userAttribute=userValue
-                    String[] attributes = u.split("=", 2);
-                    String userAttribute = attributes[0];
-                    String userValue = attributes[1];
-
-                    // for inline provider we only find by username
-                    if (USERNAME.equals(userAttribute) && inlineUser.getUsername().equals(userValue)) {
-                        roles.add(role);
-                    }
-                });
-            });
-        }
-        return new ArrayList<>(roles);
+        // for inline provider we only find by username
+        return roleMapping.apply(userAttribute -> USERNAME.equals(userAttribute) ? inlineUser.getUsername() : null);
     }
 
     private User createUser(io.gravitee.am.identityprovider.inline.model.User inlineUser) {
@@ -116,13 +109,8 @@ public class InlineAuthenticationProvider implements AuthenticationProvider, Ini
         Map<String, Object> claims = new HashMap<>();
         claims.put(StandardClaims.SUB, inlineUser.getUsername());
 
-        if (mapper != null && mapper.getMappers() != null && !mapper.getMappers().isEmpty()) {
-            mapper.getMappers().forEach((k, v) -> {
-                Object attributeValue = inlineUser.getAttributeValue(v);
-                if (attributeValue != null) {
-                    claims.put(k, attributeValue);
-                }
-            });
+        if (!claimMapping.isEmpty()) {
+            claims.putAll(claimMapping.apply(inlineUser::getAttributeValue));
         } else {
             // default values
             claims.put(StandardClaims.NAME, inlineUser.getFirstname() + " " + inlineUser.getLastname());
@@ -16,8 +16,8 @@
 package io.gravitee.am.identityprovider.inline.authentication;
 
 import io.gravitee.am.identityprovider.inline.authentication.provisioning.InlineInMemoryUserDetailsManager;
-import io.gravitee.am.service.authentication.crypto.password.NoOpPasswordEncoder;
 import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -30,7 +30,9 @@ public class InlineAuthenticationProviderConfiguration {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return NoOpPasswordEncoder.getInstance();
+        // inline users are part of the configuration and are never re-encoded, their passwords can be set in plain text
+        // or encoded with any supported algorithm (e.g. BCrypt hashes or {pbkdf2}, {scrypt}, {argon2} tagged values)
+        return PasswordEncoderFactory.create(PasswordEncoderFactory.NONE, null);
     }
 
     @Bean
@@ -23,26 +23,32 @@ import io.gravitee.am.identityprovider.api.Authentication;
 import io.gravitee.am.identityprovider.api.AuthenticationProvider;
 import io.gravitee.am.identityprovider.api.DefaultUser;
 import io.gravitee.am.identityprovider.api.User;
+import io.gravitee.am.identityprovider.api.common.ConnectionPoolMetrics;
+import io.gravitee.am.identityprovider.api.mapping.ClaimMapping;
+import io.gravitee.am.identityprovider.api.mapping.RoleMapping;
+import io.gravitee.am.identityprovider.api.resilience.RemoteServiceGuard;
 import io.gravitee.am.identityprovider.jdbc.JdbcIdentityProviderMapper;
 import io.gravitee.am.identityprovider.jdbc.JdbcIdentityProviderRoleMapper;
 import io.gravitee.am.identityprovider.jdbc.authentication.spring.JdbcAuthenticationProviderConfiguration;
 import io.gravitee.am.identityprovider.jdbc.configuration.JdbcIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.jdbc.utils.ColumnMapRowMapper;
+import io.gravitee.am.identityprovider.jdbc.utils.ConnectionPoolMonitor;
 import io.gravitee.am.identityprovider.jdbc.utils.ObjectUtils;
 import io.gravitee.am.identityprovider.jdbc.utils.ParametersUtils;
 import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
 import io.gravitee.common.service.AbstractService;
 import io.r2dbc.pool.ConnectionPool;
-import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.spi.ConnectionFactories;
-import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.ConnectionFactoryOptions;
 import io.r2dbc.spi.Option;
 import io.reactivex.Completable;
 import io.reactivex.Flowable;
 import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 
@@ -55,7 +61,7 @@ import static io.r2dbc.spi.ConnectionFactoryOptions.*;
  * @author GraviteeSource Team
  */
 @Import(JdbcAuthenticationProviderConfiguration.class)
-public class JdbcAuthenticationProvider extends AbstractService<AuthenticationProvider> implements AuthenticationProvider {
+public class JdbcAuthenticationProvider extends AbstractService<AuthenticationProvider> implements AuthenticationProvider, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JdbcAuthenticationProvider.class);
 
@@ -73,8 +79,39 @@ public class JdbcAuthenticationProvider extends AbstractService<AuthenticationPr
 
     private ConnectionPool connectionPool;
 
+    private ConnectionPoolMonitor connectionPoolMonitor;
+
+    private RemoteServiceGuard remoteServiceGuard;
+
+    private String selectUserByUsernameQuery;
+
+    private String updatePasswordQuery;
+
+    private ClaimMapping claimMapping = ClaimMapping.empty();
+
+    private RoleMapping roleMapping = RoleMapping.empty();
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Override
+    public void afterPropertiesSet() {
+        remoteServiceGuard = new RemoteServiceGuard(poolName(), configuration.getResilience());
+        selectUserByUsernameQuery = String.format(configuration.getSelectUserByUsernameQuery(), getIndexParameter(1, "username"));
+        updatePasswordQuery = String.format("UPDATE %s SET %s = %s WHERE %s = %s AND %s = %s",
+                configuration.getUsersTable(),
+                configuration.getPasswordAttribute(),
+                getIndexParameter(1, "password"),
+                configuration.getIdentifierAttribute(),
+                getIndexParameter(2, "id"),
+                configuration.getPasswordAttribute(),
+                getIndexParameter(3, "oldPassword"));
+        claimMapping = ClaimMapping.compile(mapper);
+        roleMapping = RoleMapping.compile(roleMapper);
+        if (connectionPool != null) {
+            connectionPoolMonitor = new ConnectionPoolMonitor(poolName(), connectionPool);
+        }
+    }
+
     @Override
     protected void doStart() throws Exception {
         super.doStart();
@@ -103,7 +140,9 @@ public class JdbcAuthenticationProvider extends AbstractService<AuthenticationPr
         }
 
         connectionPool = (ConnectionPool) ConnectionFactories.get(builder.build());
+        connectionPoolMonitor = new ConnectionPoolMonitor(poolName(), connectionPool);
         LOGGER.info("Connection pool created for database server {} on host {}", configuration.getProtocol(), configuration.getHost());
+        connectionPoolMonitor.warmup();
     }
 
     @Override
@@ -140,6 +179,10 @@ public class JdbcAuthenticationProvider extends AbstractService<AuthenticationPr
                         LOGGER.debug("Authentication failed: password does not match stored value");
                         throw new BadCredentialsException("Bad credentials");
                     }
+
+                    if (rehashOnLogin() && passwordEncoder.upgradeEncoding(password)) {
+                        rehashPassword(result.get(configuration.getIdentifierAttribute()), password, presentedPassword);
+                    }
                     // create the user
                     return createUser(result);
                 });
@@ -151,17 +194,65 @@ public class JdbcAuthenticationProvider extends AbstractService<AuthenticationPr
                 .map(this::createUser);
     }
 
+    private boolean rehashOnLogin() {
+        return configuration.getPasswordEncoderOptions() != null && configuration.getPasswordEncoderOptions().isRehashOnLogin();
+    }
+
+    /**
+     * Re-encode the password of the user with the configured encoder, failures are only logged as the user has been
+     * authenticated and will be re-hashed on a next login.
+     * The password is encoded on the computation scheduler so that the login does not pay for the new hash.
+     */
+    private void rehashPassword(Object id, String password, String presentedPassword) {
+        if (id == null) {
+            return;
+        }
+        Single.fromCallable(() -> passwordEncoder.encode(presentedPassword))
+                .subscribeOn(Schedulers.computation())
+                .flatMapCompletable(encodedPassword -> updatePassword(id, password, encodedPassword))
+                .subscribe(
+                        () -> LOGGER.debug("Password of user {} has been re-hashed", id),
+                        error -> LOGGER.warn("Unable to re-hash the password of user {}", id, error));
+    }
+
+    /**
+     * Replace the password of the user only if it is still the verified one, so that a password changed while the
+     * new hash was computed is not overwritten.
+     */
+    Completable updatePassword(Object id, String password, String encodedPassword) {
+        return connectionPoolMonitor.acquire()
+                .flatMap(connection -> Flowable.fromPublisher(connection.createStatement(updatePasswordQuery)
+                        .bind(0, encodedPassword)
+                        .bind(1, id)
+                        .bind(2, password)
+                        .execute())
+                        .flatMap(result -> result.getRowsUpdated())
+                        .reduce(0, (total, rowsUpdated) -> total + rowsUpdated)
+                        .doFinally(() -> Completable.fromPublisher(connection.close()).subscribe()))
+                .doOnSuccess(rowsUpdated -> {
+                    if (rowsUpdated == 0) {
+                        LOGGER.debug("Password of user {} has changed since it was verified, re-hash skipped", id);
+                    }
+                })
+                .ignoreElement();
+    }
+
     public void setConnectionPool(ConnectionPool connectionPool) {
         this.connectionPool = connectionPool;
     }
 
+    @Override
+    public Optional<ConnectionPoolMetrics> connectionPoolMetrics() {
+        return Optional.ofNullable(connectionPoolMonitor);
+    }
+
     private Maybe<Map<String, Object>> selectUserByUsername(String username) {
-        final String sql = String.format(configuration.getSelectUserByUsernameQuery(), getIndexParameter("username"));
-        return Flowable.fromPublisher(connectionPool.create())
-                .flatMap(connection -> Flowable.fromPublisher(connection.createStatement(sql).bind(0, username).execute())
+        return remoteServiceGuard.guard(connectionPoolMonitor.acquire()
+                .toFlowable()
+                .flatMap(connection -> Flowable.fromPublisher(connection.createStatement(selectUserByUsernameQuery).bind(0, username).execute())
                         .doFinally(() -> Completable.fromPublisher(connection.close()).subscribe()))
                 .flatMap(result -> result.map(ColumnMapRowMapper::mapRow))
-                .firstElement();
+                .firstElement());
     }
 
     private User createUser(Map<String, Object> claims) {
@@ -204,55 +295,22 @@ public class JdbcAuthenticationProvider extends AbstractService<AuthenticationPr
     }
 
     private Map<String, Object> applyUserMapping(Map<String, Object> attributes) {
-        if (!mappingEnabled()) {
+        if (claimMapping.isEmpty()) {
             return attributes;
         }
-
-        Map<String, Object> claims = new HashMap<>();
-        this.mapper.getMappers().forEach((k, v) -> {
-            if (attributes.containsKey(v)) {
-                claims.put(k, attributes.get(v));
-            }
-        });
-        return claims;
+        return claimMapping.apply(attributes);
     }
 
     private List<String> applyRoleMapping(Map<String, Object> attributes) {
-        if (!roleMappingEnabled()) {
-            return Collections.emptyList();
-        }
-
-        Set<String> roles = new HashSet<>();
-        roleMapper.getRoles().forEach((role, users) -> {
-            Arrays.asList(users).forEach(u -> {
-                // role mapping have the following syntax userAttribute=userValue
-                String[] roleMapping = u.split("=", 2);
-                String userAttribute = roleMapping[0];
-                String userValue = roleMapping[1];
-                if (attributes.containsKey(userAttribute)) {
-                    Object attribute = attributes.get(userAttribute);
-                    // attribute is a list
-                    if (attribute instanceof Collection && ((Collection) attribute).contains(userValue)) {
-                        roles.add(role);
-                    } else if (userValue.equals(attributes.get(userAttribute))) {
-                        roles.add(role);
-                    }
-                }
-            });
-        });
-        return new ArrayList<>(roles);
-    }
-
-    private boolean mappingEnabled() {
-        return this.mapper != null && this.mapper.getMappers() != null && !this.mapper.getMappers().isEmpty();
+        return roleMapping.apply(attributes);
     }
 
-    private boolean roleMappingEnabled() {
-        return this.roleMapper != null && this.roleMapper.getRoles() != null && !this.roleMapper.getRoles().isEmpty();
+    private String poolName() {
+        return configuration.getProtocol() + "://" + configuration.getHost();
     }
 
-    private String getIndexParameter(String field) {
-        return ParametersUtils.getIndexParameter(configuration.getProtocol(), 1, field);
+    private String getIndexParameter(int index, String field) {
+        return ParametersUtils.getIndexParameter(configuration.getProtocol(), index, field);
     }
 
     private void computeMetadata(Map<String, Object> claims) {
@@ -16,9 +16,8 @@
 package io.gravitee.am.identityprovider.jdbc.authentication.spring;
 
 import io.gravitee.am.identityprovider.jdbc.configuration.JdbcIdentityProviderConfiguration;
-import io.gravitee.am.service.authentication.crypto.password.NoOpPasswordEncoder;
 import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
-import io.gravitee.am.service.authentication.crypto.password.bcrypt.BCryptPasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,10 +34,6 @@ public class JdbcAuthenticationProviderConfiguration {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        if (configuration.getPasswordEncoder() != null &&
-                io.gravitee.am.identityprovider.jdbc.utils.PasswordEncoder.BCRYPT.getValue().equals(configuration.getPasswordEncoder())) {
-            return new BCryptPasswordEncoder();
-        }
-        return NoOpPasswordEncoder.getInstance();
+        return PasswordEncoderFactory.create(configuration.getPasswordEncoder(), configuration.getPasswordEncoderOptions());
     }
 }
@@ -16,7 +16,9 @@
 package io.gravitee.am.identityprovider.jdbc.configuration;
 
 import io.gravitee.am.identityprovider.api.IdentityProviderConfiguration;
+import io.gravitee.am.identityprovider.api.resilience.ResilienceConfiguration;
 import io.gravitee.am.identityprovider.jdbc.utils.PasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderOptions;
 
 import java.util.List;
 import java.util.Map;
@@ -44,7 +46,9 @@ public class JdbcIdentityProviderConfiguration implements IdentityProviderConfig
     private String usernameAttribute = FIELD_USERNAME;
     private String passwordAttribute = FIELD_PASSWORD;
     private String passwordEncoder = PasswordEncoder.BCRYPT.getValue();
+    private PasswordEncoderOptions passwordEncoderOptions;
     private List<Map<String, String>> options;
+    private ResilienceConfiguration resilience;
 
     @Override
     public boolean userProvider() {
@@ -147,6 +151,14 @@ public class JdbcIdentityProviderConfiguration implements IdentityProviderConfig
         this.passwordEncoder = passwordEncoder;
     }
 
+    public PasswordEncoderOptions getPasswordEncoderOptions() {
+        return passwordEncoderOptions;
+    }
+
+    public void setPasswordEncoderOptions(PasswordEncoderOptions passwordEncoderOptions) {
+        this.passwordEncoderOptions = passwordEncoderOptions;
+    }
+
     public List<Map<String, String>> getOptions() {
         return options;
     }
@@ -162,4 +174,13 @@ public class JdbcIdentityProviderConfiguration implements IdentityProviderConfig
     public String getMetadataAttribute() {
         return FIELD_METADATA;
     }
+
+    @Override
+    public ResilienceConfiguration getResilience() {
+        return resilience;
+    }
+
+    public void setResilience(ResilienceConfiguration resilience) {
+        this.resilience = resilience;
+    }
 }
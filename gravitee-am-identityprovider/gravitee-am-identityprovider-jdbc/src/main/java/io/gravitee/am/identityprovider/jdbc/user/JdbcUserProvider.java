@@ -21,9 +21,11 @@ import io.gravitee.am.common.utils.RandomString;
 import io.gravitee.am.identityprovider.api.DefaultUser;
 import io.gravitee.am.identityprovider.api.User;
 import io.gravitee.am.identityprovider.api.UserProvider;
+import io.gravitee.am.identityprovider.api.common.ConnectionPoolMetrics;
 import io.gravitee.am.identityprovider.jdbc.configuration.JdbcIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.jdbc.user.spring.JdbcUserProviderConfiguration;
 import io.gravitee.am.identityprovider.jdbc.utils.ColumnMapRowMapper;
+import io.gravitee.am.identityprovider.jdbc.utils.ConnectionPoolMonitor;
 import io.gravitee.am.identityprovider.jdbc.utils.ObjectUtils;
 import io.gravitee.am.identityprovider.jdbc.utils.ParametersUtils;
 import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
@@ -31,7 +33,6 @@ import io.gravitee.am.service.exception.UserAlreadyExistsException;
 import io.gravitee.am.service.exception.UserNotFoundException;
 import io.gravitee.common.service.AbstractService;
 import io.r2dbc.pool.ConnectionPool;
-import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.spi.*;
 import io.reactivex.Completable;
 import io.reactivex.Flowable;
@@ -39,12 +40,14 @@ import io.reactivex.Maybe;
 import io.reactivex.Single;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static io.r2dbc.spi.ConnectionFactoryOptions.*;
 
@@ -53,7 +56,7 @@ import static io.r2dbc.spi.ConnectionFactoryOptions.*;
  * @author GraviteeSource Team
  */
 @Import(JdbcUserProviderConfiguration.class)
-public class JdbcUserProvider extends AbstractService<UserProvider> implements UserProvider {
+public class JdbcUserProvider extends AbstractService<UserProvider> implements UserProvider, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JdbcUserProvider.class);
 
@@ -65,8 +68,57 @@ public class JdbcUserProvider extends AbstractService<UserProvider> implements U
 
     private ConnectionPool connectionPool;
 
+    private ConnectionPoolMonitor connectionPoolMonitor;
+
+    private String selectUserByUsernameQuery;
+
+    private String insertUserQuery;
+
+    private String updateUserQuery;
+
+    private String updateUserWithPasswordQuery;
+
+    private String deleteUserQuery;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Override
+    public void afterPropertiesSet() {
+        // statements only depend on the configuration and the database dialect, build them once
+        selectUserByUsernameQuery = String.format(configuration.getSelectUserByUsernameQuery(), getIndexParameter(1, "username"));
+        insertUserQuery = String.format("INSERT INTO %s (%s, %s, %s, %s, %s) VALUES (%s, %s, %s, %s, %s)",
+                configuration.getUsersTable(),
+                configuration.getIdentifierAttribute(),
+                configuration.getUsernameAttribute(),
+                configuration.getPasswordAttribute(),
+                configuration.getEmailAttribute(),
+                configuration.getMetadataAttribute(),
+                getIndexParameter(1, "id"),
+                getIndexParameter(2, "username"),
+                getIndexParameter(3, "password"),
+                getIndexParameter(4, "email"),
+                getIndexParameter(5, "metadata"));
+        updateUserWithPasswordQuery = String.format("UPDATE %s SET %s = %s, %s = %s WHERE id = %s",
+                configuration.getUsersTable(),
+                configuration.getPasswordAttribute(),
+                getIndexParameter(1, "password"),
+                configuration.getMetadataAttribute(),
+                getIndexParameter(2, "metadata"),
+                getIndexParameter(3, "id"));
+        updateUserQuery = String.format("UPDATE %s SET %s = %s WHERE id = %s",
+                configuration.getUsersTable(),
+                configuration.getMetadataAttribute(),
+                getIndexParameter(1, "metadata"),
+                getIndexParameter(2, "id"));
+        deleteUserQuery = String.format("DELETE FROM %s where id = %s",
+                configuration.getUsersTable(),
+                getIndexParameter(1, "id"));
+
+        if (connectionPool != null) {
+            connectionPoolMonitor = new ConnectionPoolMonitor(poolName(), connectionPool);
+        }
+    }
+
     @Override
     protected void doStart() throws Exception {
         super.doStart();
@@ -94,7 +146,9 @@ public class JdbcUserProvider extends AbstractService<UserProvider> implements U
         }
 
         connectionPool = (ConnectionPool) ConnectionFactories.get(builder.build());
+        connectionPoolMonitor = new ConnectionPoolMonitor(poolName(), connectionPool);
         LOGGER.info("Connection pool created for database server {} on host {}", configuration.getProtocol(), configuration.getHost());
+        connectionPoolMonitor.warmup();
     }
 
     @Override
@@ -129,19 +183,6 @@ public class JdbcUserProvider extends AbstractService<UserProvider> implements U
                     if (!isEmpty) {
                         return Single.error(new UserAlreadyExistsException(user.getUsername()));
                     } else {
-                        final String sql = String.format("INSERT INTO %s (%s, %s, %s, %s, %s) VALUES (%s, %s, %s, %s, %s)",
-                                configuration.getUsersTable(),
-                                configuration.getIdentifierAttribute(),
-                                configuration.getUsernameAttribute(),
-                                configuration.getPasswordAttribute(),
-                                configuration.getEmailAttribute(),
-                                configuration.getMetadataAttribute(),
-                                getIndexParameter(1, "id"),
-                                getIndexParameter(2, "username"),
-                                getIndexParameter(3, "password"),
-                                getIndexParameter(4, "email"),
-                                getIndexParameter(5, "metadata"));
-
                         Object[] args = new Object[5];
                         args[0] = user.getId();
                         args[1] = user.getUsername();
@@ -149,7 +190,7 @@ public class JdbcUserProvider extends AbstractService<UserProvider> implements U
                         args[3] = user.getEmail();
                         args[4] = user.getAdditionalInformation() != null ? objectMapper.writeValueAsString(user.getAdditionalInformation()) : null;
 
-                        return query(sql, args)
+                        return query(insertUserQuery, args)
                                 .flatMap(Result::getRowsUpdated)
                                 .first(0)
                                 .map(result -> user);
@@ -165,23 +206,13 @@ public class JdbcUserProvider extends AbstractService<UserProvider> implements U
 
         if (updateUser.getCredentials() != null) {
             args = new Object[3];
-            sql = String.format("UPDATE %s SET %s = %s, %s = %s WHERE id = %s",
-                    configuration.getUsersTable(),
-                    configuration.getPasswordAttribute(),
-                    getIndexParameter(1, "password"),
-                    configuration.getMetadataAttribute(),
-                    getIndexParameter(2, "metadata"),
-                    getIndexParameter(3, "id"));
+            sql = updateUserWithPasswordQuery;
             args[0] = passwordEncoder.encode(updateUser.getCredentials());
             args[1] = metadata;
             args[2] = id;
         } else {
             args = new Object[2];
-            sql = String.format("UPDATE %s SET %s = %s WHERE id = %s",
-                    configuration.getUsersTable(),
-                    configuration.getMetadataAttribute(),
-                    getIndexParameter(1, "metadata"),
-                    getIndexParameter(2, "id"));
+            sql = updateUserQuery;
             args[0] = metadata;
             args[1] = id;
         }
@@ -199,11 +230,7 @@ public class JdbcUserProvider extends AbstractService<UserProvider> implements U
 
     @Override
     public Completable delete(String id) {
-        final String sql = String.format("DELETE FROM %s where id = %s",
-                configuration.getUsersTable(),
-                getIndexParameter(1, "id"));
-
-        return query(sql, id)
+        return query(deleteUserQuery, id)
                 .flatMap(Result::getRowsUpdated)
                 .flatMapCompletable(rowsUpdated -> {
                     if (rowsUpdated == 0) {
@@ -217,15 +244,19 @@ public class JdbcUserProvider extends AbstractService<UserProvider> implements U
         this.connectionPool = connectionPool;
     }
 
+    @Override
+    public Optional<ConnectionPoolMetrics> connectionPoolMetrics() {
+        return Optional.ofNullable(connectionPoolMonitor);
+    }
+
     private Maybe<Map<String, Object>> selectUserByUsername(String username) {
-        final String sql = String.format(configuration.getSelectUserByUsernameQuery(), getIndexParameter(1, "username"));
-        return query(sql, username)
+        return query(selectUserByUsernameQuery, username)
                 .flatMap(result -> result.map(ColumnMapRowMapper::mapRow))
                 .firstElement();
     }
 
     private Flowable<Result> query(String sql, Object... args) {
-        return Single.fromPublisher(connectionPool.create())
+        return connectionPoolMonitor.acquire()
                 .toFlowable()
                 .flatMap(connection -> {
                     Statement statement = connection.createStatement(sql);
@@ -274,6 +305,10 @@ public class JdbcUserProvider extends AbstractService<UserProvider> implements U
         }
     }
 
+    private String poolName() {
+        return configuration.getProtocol() + "://" + configuration.getHost();
+    }
+
     private String getIndexParameter(int index, String field) {
         return ParametersUtils.getIndexParameter(configuration.getProtocol(), index, field);
     }
@@ -15,12 +15,12 @@
  */
 package io.gravitee.am.identityprovider.jdbc.utils;
 
+import io.r2dbc.spi.ColumnMetadata;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -29,10 +29,15 @@ import java.util.stream.Collectors;
 public final class ColumnMapRowMapper {
 
     public static Map<String, Object> mapRow(Row row, RowMetadata rowMetadata) {
-        Map<String, Object> claims = new HashMap(rowMetadata.getColumnNames()
-                .stream()
-                .filter(c -> row.get(c) != null)
-                .collect(Collectors.toMap(c -> c, c -> row.get(c))));
+        // column metadata are ordered by index, values are read by index to avoid the name lookups of the drivers
+        Map<String, Object> claims = new HashMap<>();
+        int index = 0;
+        for (ColumnMetadata columnMetadata : rowMetadata.getColumnMetadatas()) {
+            Object value = row.get(index++);
+            if (value != null) {
+                claims.put(columnMetadata.getName(), value);
+            }
+        }
         return claims;
     }
 }
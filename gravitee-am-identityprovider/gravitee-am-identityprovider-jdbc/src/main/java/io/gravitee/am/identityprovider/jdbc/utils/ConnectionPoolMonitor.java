@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.jdbc.utils;
+
+import io.gravitee.am.identityprovider.api.common.ConnectionPoolMetrics;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.reactivex.Single;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acquire connections from the pool while recording how long the acquisitions take, and report when the pool
+ * is saturated (i.e. acquisitions are waiting for a connection to be released).
+ *
+ * @author GraviteeSource Team
+ */
+public class ConnectionPoolMonitor implements ConnectionPoolMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPoolMonitor.class);
+    private final String name;
+    private final ConnectionPool connectionPool;
+    // live view of the pool state, null if the pool does not expose metrics
+    private final PoolMetrics metrics;
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireTime = new LongAdder();
+    private final AtomicLong maxAcquireTime = new AtomicLong();
+    private final AtomicBoolean saturated = new AtomicBoolean();
+
+    public ConnectionPoolMonitor(String name, ConnectionPool connectionPool) {
+        this.name = name;
+        this.connectionPool = connectionPool;
+        this.metrics = connectionPool.getMetrics().orElse(null);
+    }
+
+    public Single<Connection> acquire() {
+        return Single.defer(() -> {
+            checkSaturation();
+            final long start = System.nanoTime();
+            return Single.fromPublisher(connectionPool.create())
+                    .doOnSuccess(connection -> record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Open the initial connections of the pool so that the first logins don't pay for the connection establishment.
+     */
+    public void warmup() {
+        connectionPool.warmup().subscribe(
+                connections -> LOGGER.info("Connection pool for {} warmed up with {} connection(s)", name, connections),
+                error -> LOGGER.warn("Unable to warm up connection pool for {}", name, error));
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    @Override
+    public long getAcquireTime() {
+        return acquireTime.sum();
+    }
+
+    public Duration getAverageAcquireTime() {
+        long count = acquireCount.sum();
+        return Duration.ofNanos(count == 0 ? 0 : acquireTime.sum() / count);
+    }
+
+    public Duration getMaxAcquireTime() {
+        return Duration.ofNanos(maxAcquireTime.get());
+    }
+
+    /**
+     * @return true if acquisitions were waiting for a connection the last time a connection was requested
+     */
+    public boolean isSaturated() {
+        return saturated.get();
+    }
+
+    @Override
+    public int getAcquiredSize() {
+        return metrics != null ? metrics.acquiredSize() : 0;
+    }
+
+    @Override
+    public int getPendingAcquireSize() {
+        return metrics != null ? metrics.pendingAcquireSize() : 0;
+    }
+
+    private void record(long elapsed) {
+        acquireCount.increment();
+        acquireTime.add(elapsed);
+        maxAcquireTime.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private void checkSaturation() {
+        if (metrics == null) {
+            return;
+        }
+        int pending = metrics.pendingAcquireSize();
+        if (pending > 0 && saturated.compareAndSet(false, true)) {
+            LOGGER.warn("Connection pool for {} is saturated: {} pending acquisition(s), {}/{} connection(s) acquired, average acquire time {} ms",
+                    name, pending, metrics.acquiredSize(), metrics.getMaxAllocatedSize(), getAverageAcquireTime().toMillis());
+        } else if (pending == 0 && saturated.compareAndSet(true, false)) {
+            LOGGER.info("Connection pool for {} is no longer saturated", name);
+        }
+    }
+}
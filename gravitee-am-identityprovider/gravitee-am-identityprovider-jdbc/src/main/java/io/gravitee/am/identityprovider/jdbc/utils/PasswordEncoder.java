@@ -22,7 +22,10 @@ package io.gravitee.am.identityprovider.jdbc.utils;
 public enum PasswordEncoder {
 
     NONE("None"),
-    BCRYPT("BCrypt");
+    BCRYPT("BCrypt"),
+    PBKDF2("PBKDF2"),
+    SCRYPT("SCrypt"),
+    ARGON2("Argon2");
 
     private final String value;
 
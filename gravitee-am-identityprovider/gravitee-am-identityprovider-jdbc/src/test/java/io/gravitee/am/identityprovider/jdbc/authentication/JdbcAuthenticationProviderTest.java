@@ -107,4 +107,32 @@ public abstract class JdbcAuthenticationProviderTest {
         testObserver.awaitTerminalEvent();
         testObserver.assertError(UsernameNotFoundException.class);
     }
+
+    @Test
+    public void shouldNotUpdatePassword_passwordChangedMeanwhile() {
+        // the verified password is no longer the stored one when the re-hashed password is written
+        ((JdbcAuthenticationProvider) authenticationProvider).updatePassword("2", "carolsoldpassword", "rehashedpassword").blockingAwait();
+
+        TestObserver<User> testObserver = authenticationProvider.loadUserByUsername(new Authentication() {
+            @Override
+            public Object getCredentials() {
+                return "carolspassword";
+            }
+
+            @Override
+            public Object getPrincipal() {
+                return "carol";
+            }
+
+            @Override
+            public AuthenticationContext getContext() {
+                return null;
+            }
+        }).test();
+
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(u -> "carol".equals(u.getUsername()));
+    }
 }
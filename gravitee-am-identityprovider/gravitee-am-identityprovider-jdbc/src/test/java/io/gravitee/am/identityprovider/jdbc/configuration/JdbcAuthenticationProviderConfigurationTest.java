@@ -54,6 +54,7 @@ public abstract class JdbcAuthenticationProviderConfigurationTest implements Ini
         Connection connection = connectionPool.create().block();
         Single.fromPublisher(connection.createStatement("create table users(id varchar(256), username varchar(256), password varchar(256), email varchar(256), metadata text)").execute()).subscribe();
         Single.fromPublisher(connection.createStatement("insert into users values('1', 'bob', 'bobspassword', null, null)").execute()).subscribe();
+        Single.fromPublisher(connection.createStatement("insert into users values('2', 'carol', 'carolspassword', null, null)").execute()).subscribe();
         Completable.fromPublisher(connection.close()).subscribe();
     }
 
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.jdbc.user;
+
+import io.gravitee.am.identityprovider.jdbc.configuration.JdbcIdentityProviderConfiguration;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Statements are built once from the configuration and the database dialect, check the templates of each dialect.
+ *
+ * @author GraviteeSource Team
+ */
+public class JdbcUserProviderStatementsTest {
+
+    @Test
+    public void shouldBuildStatements_postgresql() {
+        JdbcUserProvider userProvider = userProvider("postgresql");
+
+        assertEquals("SELECT * FROM users WHERE username = $1", statement(userProvider, "selectUserByUsernameQuery"));
+        assertEquals("INSERT INTO users (id, username, password, email, metadata) VALUES ($1, $2, $3, $4, $5)", statement(userProvider, "insertUserQuery"));
+        assertEquals("UPDATE users SET password = $1, metadata = $2 WHERE id = $3", statement(userProvider, "updateUserWithPasswordQuery"));
+        assertEquals("UPDATE users SET metadata = $1 WHERE id = $2", statement(userProvider, "updateUserQuery"));
+        assertEquals("DELETE FROM users where id = $1", statement(userProvider, "deleteUserQuery"));
+    }
+
+    @Test
+    public void shouldBuildStatements_mysql() {
+        shouldBuildStatements_positional("mysql");
+    }
+
+    @Test
+    public void shouldBuildStatements_mariadb() {
+        shouldBuildStatements_positional("mariadb");
+    }
+
+    @Test
+    public void shouldBuildStatements_sqlserver() {
+        JdbcUserProvider userProvider = userProvider("sqlserver");
+
+        assertEquals("SELECT * FROM users WHERE username = @username", statement(userProvider, "selectUserByUsernameQuery"));
+        assertEquals("INSERT INTO users (id, username, password, email, metadata) VALUES (@id, @username, @password, @email, @metadata)", statement(userProvider, "insertUserQuery"));
+        assertEquals("UPDATE users SET password = @password, metadata = @metadata WHERE id = @id", statement(userProvider, "updateUserWithPasswordQuery"));
+        assertEquals("UPDATE users SET metadata = @metadata WHERE id = @id", statement(userProvider, "updateUserQuery"));
+        assertEquals("DELETE FROM users where id = @id", statement(userProvider, "deleteUserQuery"));
+    }
+
+    @Test
+    public void shouldBuildStatements_customTable() {
+        JdbcIdentityProviderConfiguration configuration = configuration("postgresql");
+        configuration.setUsersTable("accounts");
+        configuration.setPasswordAttribute("pwd");
+        JdbcUserProvider userProvider = userProvider(configuration);
+
+        assertEquals("INSERT INTO accounts (id, username, pwd, email, metadata) VALUES ($1, $2, $3, $4, $5)", statement(userProvider, "insertUserQuery"));
+        assertEquals("UPDATE accounts SET pwd = $1, metadata = $2 WHERE id = $3", statement(userProvider, "updateUserWithPasswordQuery"));
+    }
+
+    private void shouldBuildStatements_positional(String protocol) {
+        JdbcUserProvider userProvider = userProvider(protocol);
+
+        assertEquals("SELECT * FROM users WHERE username = ?", statement(userProvider, "selectUserByUsernameQuery"));
+        assertEquals("INSERT INTO users (id, username, password, email, metadata) VALUES (?, ?, ?, ?, ?)", statement(userProvider, "insertUserQuery"));
+        assertEquals("UPDATE users SET password = ?, metadata = ? WHERE id = ?", statement(userProvider, "updateUserWithPasswordQuery"));
+        assertEquals("UPDATE users SET metadata = ? WHERE id = ?", statement(userProvider, "updateUserQuery"));
+        assertEquals("DELETE FROM users where id = ?", statement(userProvider, "deleteUserQuery"));
+    }
+
+    private static JdbcIdentityProviderConfiguration configuration(String protocol) {
+        JdbcIdentityProviderConfiguration configuration = new JdbcIdentityProviderConfiguration();
+        configuration.setProtocol(protocol);
+        configuration.setSelectUserByUsernameQuery("SELECT * FROM users WHERE username = %s");
+        return configuration;
+    }
+
+    private static JdbcUserProvider userProvider(String protocol) {
+        return userProvider(configuration(protocol));
+    }
+
+    private static JdbcUserProvider userProvider(JdbcIdentityProviderConfiguration configuration) {
+        JdbcUserProvider userProvider = new JdbcUserProvider();
+        ReflectionTestUtils.setField(userProvider, "configuration", configuration);
+        userProvider.afterPropertiesSet();
+        return userProvider;
+    }
+
+    private static String statement(JdbcUserProvider userProvider, String name) {
+        return (String) ReflectionTestUtils.getField(userProvider, name);
+    }
+}
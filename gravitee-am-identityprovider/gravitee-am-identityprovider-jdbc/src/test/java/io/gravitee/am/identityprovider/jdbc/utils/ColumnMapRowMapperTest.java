@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.jdbc.utils;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ColumnMapRowMapperTest {
+
+    @Test
+    public void shouldMapColumnsByIndex() {
+        RowMetadata rowMetadata = mock(RowMetadata.class);
+        doReturn(Arrays.asList(column("id"), column("username"), column("email"))).when(rowMetadata).getColumnMetadatas();
+        Row row = mock(Row.class);
+        when(row.get(0)).thenReturn("user-id");
+        when(row.get(1)).thenReturn("bob");
+        when(row.get(2)).thenReturn(null);
+
+        Map<String, Object> claims = ColumnMapRowMapper.mapRow(row, rowMetadata);
+
+        assertEquals(2, claims.size());
+        assertEquals("user-id", claims.get("id"));
+        assertEquals("bob", claims.get("username"));
+        // null values are not mapped
+        assertFalse(claims.containsKey("email"));
+        // values are never looked up by name
+        verify(row, never()).get(anyString());
+    }
+
+    private static ColumnMetadata column(String name) {
+        ColumnMetadata columnMetadata = mock(ColumnMetadata.class);
+        when(columnMetadata.getName()).thenReturn(name);
+        return columnMetadata;
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.jdbc.utils;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.reactivex.observers.TestObserver;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ConnectionPoolMonitorTest {
+
+    @Mock
+    private ConnectionPool connectionPool;
+
+    @Mock
+    private PoolMetrics poolMetrics;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionPoolMonitor connectionPoolMonitor;
+
+    @Before
+    public void setUp() {
+        connectionPoolMonitor = new ConnectionPoolMonitor("test-pool", connectionPool);
+    }
+
+    @Test
+    public void shouldNotHaveAcquisitions() {
+        assertEquals(0, connectionPoolMonitor.getAcquireCount());
+        assertEquals(Duration.ZERO, connectionPoolMonitor.getAverageAcquireTime());
+        assertEquals(Duration.ZERO, connectionPoolMonitor.getMaxAcquireTime());
+    }
+
+    @Test
+    public void shouldRecordAcquisitions() {
+        when(connectionPool.getMetrics()).thenReturn(Optional.empty());
+        when(connectionPool.create()).thenReturn(
+                Mono.just(connection),
+                Mono.just(connection).delayElement(Duration.ofMillis(50)));
+
+        assertEquals(connection, connectionPoolMonitor.acquire().blockingGet());
+        assertEquals(connection, connectionPoolMonitor.acquire().blockingGet());
+
+        assertEquals(2, connectionPoolMonitor.getAcquireCount());
+        assertTrue(connectionPoolMonitor.getMaxAcquireTime().toMillis() >= 50);
+        // the average is at least half of the slowest acquisition and at most the slowest acquisition
+        assertTrue(connectionPoolMonitor.getAverageAcquireTime().toMillis() >= 25);
+        assertTrue(connectionPoolMonitor.getAverageAcquireTime().compareTo(connectionPoolMonitor.getMaxAcquireTime()) <= 0);
+    }
+
+    @Test
+    public void shouldNotRecordFailedAcquisitions() {
+        when(connectionPool.getMetrics()).thenReturn(Optional.empty());
+        when(connectionPool.create()).thenReturn(Mono.error(new IllegalStateException("pool closed")));
+
+        TestObserver<Connection> testObserver = connectionPoolMonitor.acquire().test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertError(IllegalStateException.class);
+
+        assertEquals(0, connectionPoolMonitor.getAcquireCount());
+    }
+
+    @Test
+    public void shouldReportSaturationAndRecovery() {
+        when(connectionPool.getMetrics()).thenReturn(Optional.of(poolMetrics));
+        when(connectionPool.create()).thenReturn(Mono.just(connection));
+        when(poolMetrics.pendingAcquireSize()).thenReturn(0, 2, 1, 0);
+
+        connectionPoolMonitor.acquire().blockingGet();
+        assertFalse(connectionPoolMonitor.isSaturated());
+
+        // acquisitions are pending
+        connectionPoolMonitor.acquire().blockingGet();
+        assertTrue(connectionPoolMonitor.isSaturated());
+        connectionPoolMonitor.acquire().blockingGet();
+        assertTrue(connectionPoolMonitor.isSaturated());
+
+        // no more pending acquisitions
+        connectionPoolMonitor.acquire().blockingGet();
+        assertFalse(connectionPoolMonitor.isSaturated());
+        assertEquals(4, connectionPoolMonitor.getAcquireCount());
+    }
+
+    @Test
+    public void shouldReadPoolSizes() {
+        when(connectionPool.getMetrics()).thenReturn(Optional.of(poolMetrics));
+        when(poolMetrics.acquiredSize()).thenReturn(8);
+        when(poolMetrics.pendingAcquireSize()).thenReturn(3);
+
+        assertEquals(8, connectionPoolMonitor.getAcquiredSize());
+        assertEquals(3, connectionPoolMonitor.getPendingAcquireSize());
+    }
+
+    @Test
+    public void shouldReadPoolSizes_noMetrics() {
+        when(connectionPool.getMetrics()).thenReturn(Optional.empty());
+
+        assertEquals(0, connectionPoolMonitor.getAcquiredSize());
+        assertEquals(0, connectionPoolMonitor.getPendingAcquireSize());
+    }
+}
@@ -16,6 +16,7 @@
 package io.gravitee.am.identityprovider.ldap;
 
 import io.gravitee.am.identityprovider.api.IdentityProviderConfiguration;
+import io.gravitee.am.identityprovider.api.resilience.ResilienceConfiguration;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -61,6 +62,8 @@ public class LdapIdentityProviderConfiguration implements IdentityProviderConfig
 
     private boolean hashEncodedByThirdParty;
 
+    private ResilienceConfiguration resilience;
+
     public String getContextSourceUrl() {
         return contextSourceUrl;
     }
@@ -212,4 +215,13 @@ public class LdapIdentityProviderConfiguration implements IdentityProviderConfig
     public void setHashEncodedByThirdParty(boolean hashEncodedByThirdParty) {
         this.hashEncodedByThirdParty = hashEncodedByThirdParty;
     }
+
+    @Override
+    public ResilienceConfiguration getResilience() {
+        return resilience;
+    }
+
+    public void setResilience(ResilienceConfiguration resilience) {
+        this.resilience = resilience;
+    }
 }
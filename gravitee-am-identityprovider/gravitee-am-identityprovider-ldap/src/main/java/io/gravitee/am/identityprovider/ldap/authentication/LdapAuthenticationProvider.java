@@ -20,6 +20,9 @@ import io.gravitee.am.identityprovider.api.Authentication;
 import io.gravitee.am.identityprovider.api.AuthenticationProvider;
 import io.gravitee.am.identityprovider.api.DefaultUser;
 import io.gravitee.am.identityprovider.api.User;
+import io.gravitee.am.identityprovider.api.mapping.ClaimMapping;
+import io.gravitee.am.identityprovider.api.mapping.RoleMapping;
+import io.gravitee.am.identityprovider.api.resilience.RemoteServiceGuard;
 import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderMapper;
 import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderRoleMapper;
@@ -54,6 +57,7 @@ public class LdapAuthenticationProvider extends AbstractService<AuthenticationPr
     private final Logger LOGGER = LoggerFactory.getLogger(LdapAuthenticationProvider.class);
 
     private static final String MEMBEROF_ATTRIBUTE = "memberOf";
+    private static final String[] DEFAULT_CLAIM_ATTRIBUTES = { "displayname", "givenname", "sn", "mail" };
 
     @Autowired
     private LdapIdentityProviderMapper mapper;
@@ -82,6 +86,17 @@ public class LdapAuthenticationProvider extends AbstractService<AuthenticationPr
     @Qualifier("userSearchExecutor")
     private SearchExecutor userSearchExecutor;
 
+    private RemoteServiceGuard remoteServiceGuard;
+
+    /**
+     * Attributes of the user entry used by the mappers, the only ones requested to the LDAP server.
+     */
+    private String[] returnAttributes;
+
+    private ClaimMapping claimMapping = ClaimMapping.empty();
+
+    private RoleMapping roleMapping = RoleMapping.empty();
+
     @Override
     public void afterPropertiesSet() {
         String searchFilter = configuration.getUserSearchFilter();
@@ -97,6 +112,13 @@ public class LdapAuthenticationProvider extends AbstractService<AuthenticationPr
         }
 
         LOGGER.info("User identifier is based on the [{}] attribute", identifierAttribute);
+
+        claimMapping = ClaimMapping.compile(mapper);
+        roleMapping = RoleMapping.compile(roleMapper);
+        returnAttributes = returnAttributes();
+        LOGGER.debug("Fetching LDAP user's attributes {}", Arrays.toString(returnAttributes));
+
+        remoteServiceGuard = new RemoteServiceGuard(configuration.getContextSourceUrl(), configuration.getResilience());
     }
 
     @Override
@@ -127,12 +149,12 @@ public class LdapAuthenticationProvider extends AbstractService<AuthenticationPr
 
     @Override
     public Maybe<User> loadUserByUsername(Authentication authentication) {
-        return Maybe.fromCallable(() -> {
+        return remoteServiceGuard.guard(Maybe.fromCallable(() -> {
             try {
                 String username = (String) authentication.getPrincipal();
                 String password = (String) authentication.getCredentials();
                 // authenticate user and and fetch groups if exist
-                AuthenticationResponse response = authenticator.authenticate(new AuthenticationRequest(username, new Credential(password), ReturnAttributes.ALL_USER.value()));
+                AuthenticationResponse response = authenticator.authenticate(new AuthenticationRequest(username, new Credential(password), returnAttributes));
                 if (response.getResult()) { // authentication succeeded
                     LdapEntry userEntry = response.getLdapEntry();
                     return userEntry;
@@ -144,17 +166,17 @@ public class LdapAuthenticationProvider extends AbstractService<AuthenticationPr
                 LOGGER.error("An error occurs during LDAP authentication", e);
                 throw new InternalAuthenticationServiceException(e.getMessage(), e);
             }
-        })
+        }))
         .map(this::createUser);
     }
 
     @Override
     public Maybe<User> loadUserByUsername(String username) {
-        return Maybe.fromCallable(() -> {
+        return remoteServiceGuard.guard(Maybe.fromCallable(() -> {
             try {
                 // find user
                 SearchFilter searchFilter = createSearchFilter(userSearchExecutor, username);
-                SearchResult userSearchResult = userSearchExecutor.search(searchConnectionFactory, searchFilter).getResult();
+                SearchResult userSearchResult = userSearchExecutor.search(searchConnectionFactory, searchFilter, returnAttributes).getResult();
                 LdapEntry userEntry = userSearchResult.getEntry();
                 if (userEntry != null) {
                     return userEntry;
@@ -165,7 +187,7 @@ public class LdapAuthenticationProvider extends AbstractService<AuthenticationPr
                 LOGGER.error("An error occurs while searching for a LDAP user", e);
                 throw new InternalAuthenticationServiceException(e.getMessage(), e);
             }
-        })
+        }))
         .map(this::createUser);
 
     }
@@ -176,26 +198,21 @@ public class LdapAuthenticationProvider extends AbstractService<AuthenticationPr
         // add additional information
         Map<String, Object> claims = new HashMap<>();
         claims.put(StandardClaims.SUB, user.getUsername());
-        if (mapper.getMappers() != null && !mapper.getMappers().isEmpty()) {
-            mapper.getMappers().forEach((k, v) -> {
-                LdapAttribute ldapAttribute = ldapEntry.getAttribute(v);
-                if (ldapAttribute != null) {
-                    Collection<String> ldapValues = ldapAttribute.getStringValues();
-                    if (ldapValues != null) {
-                        if (ldapValues.size() == 1) {
-                            claims.put(k, ldapValues.iterator().next());
-                        } else {
-                            claims.put(k, ldapValues);
-                        }
-                    }
+        if (!claimMapping.isEmpty()) {
+            claims.putAll(claimMapping.apply(attribute -> {
+                LdapAttribute ldapAttribute = ldapEntry.getAttribute(attribute);
+                Collection<String> ldapValues = ldapAttribute != null ? ldapAttribute.getStringValues() : null;
+                if (ldapValues == null) {
+                    return null;
                 }
-            });
+                return ldapValues.size() == 1 ? ldapValues.iterator().next() : ldapValues;
+            }));
         } else {
             // default values
-            addClaim(claims, ldapEntry, StandardClaims.NAME, "displayname");
-            addClaim(claims, ldapEntry, StandardClaims.GIVEN_NAME, "givenname");
-            addClaim(claims, ldapEntry, StandardClaims.FAMILY_NAME, "sn");
-            addClaim(claims, ldapEntry, StandardClaims.EMAIL, "mail");
+            addClaim(claims, ldapEntry, StandardClaims.NAME, DEFAULT_CLAIM_ATTRIBUTES[0]);
+            addClaim(claims, ldapEntry, StandardClaims.GIVEN_NAME, DEFAULT_CLAIM_ATTRIBUTES[1]);
+            addClaim(claims, ldapEntry, StandardClaims.FAMILY_NAME, DEFAULT_CLAIM_ATTRIBUTES[2]);
+            addClaim(claims, ldapEntry, StandardClaims.EMAIL, DEFAULT_CLAIM_ATTRIBUTES[3]);
             addClaim(claims, ldapEntry, StandardClaims.PREFERRED_USERNAME, user.getUsername());
         }
         user.setAdditionalInformation(claims);
@@ -214,31 +231,34 @@ public class LdapAuthenticationProvider extends AbstractService<AuthenticationPr
     }
 
     private List<String> getUserRoles(LdapEntry ldapEntry) {
-        Set<String> roles = new HashSet();
-        if (roleMapper != null && roleMapper.getRoles() != null) {
-            roleMapper.getRoles().forEach((role, users) -> {
-                Arrays.asList(users).forEach(u -> {
-                    // user/group have the following syntax userAttribute=userValue
-                    String[] attributes = u.split("=",2);
-                    String userAttribute = attributes[0];
-                    String userValue = attributes[1];
-
-                    // group
-                    if (MEMBEROF_ATTRIBUTE.equals(userAttribute) && ldapEntry.getAttribute(MEMBEROF_ATTRIBUTE) != null) {
-                        if (ldapEntry.getAttribute(MEMBEROF_ATTRIBUTE).getStringValues().contains(userValue)) {
-                            roles.add(role);
-                        }
-                    // user
-                    } else {
-                        if (ldapEntry.getAttribute(userAttribute) != null &&
-                                ldapEntry.getAttribute(userAttribute).getStringValue().equals(userValue)) {
-                            roles.add(role);
-                        }
-                    }
-                });
-            });
+        return roleMapping.apply(attribute -> {
+            LdapAttribute ldapAttribute = ldapEntry.getAttribute(attribute);
+            if (ldapAttribute == null) {
+                return null;
+            }
+            // a user is granted the roles of any of its groups
+            return MEMBEROF_ATTRIBUTE.equals(attribute) ? ldapAttribute.getStringValues() : ldapAttribute.getStringValue();
+        });
+    }
+
+    /**
+     * @return the attributes of the user entry read by the user and role mappers
+     */
+    private String[] returnAttributes() {
+        Set<String> attributes = new LinkedHashSet<>();
+        attributes.add(identifierAttribute);
+        if (!claimMapping.isEmpty()) {
+            attributes.addAll(claimMapping.attributes());
+        } else {
+            attributes.addAll(Arrays.asList(DEFAULT_CLAIM_ATTRIBUTES));
+        }
+        Set<String> roleAttributes = roleMapping.attributes();
+        // groups are added to the entry by the group search if enabled
+        if (roleAttributes.remove(MEMBEROF_ATTRIBUTE) && !configuration.isFetchGroups()) {
+            attributes.add(MEMBEROF_ATTRIBUTE);
         }
-        return new ArrayList<>(roles);
+        attributes.addAll(roleAttributes);
+        return attributes.toArray(new String[0]);
     }
 
     /**
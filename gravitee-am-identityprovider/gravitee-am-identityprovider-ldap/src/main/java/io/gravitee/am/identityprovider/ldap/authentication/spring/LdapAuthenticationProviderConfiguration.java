@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.identityprovider.ldap.authentication.spring;
 
+import io.gravitee.am.identityprovider.api.resilience.ResilienceConfiguration;
 import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.ldap.authentication.CompareAuthenticationHandler;
 import io.gravitee.am.identityprovider.ldap.authentication.GroupSearchEntryHandler;
@@ -113,7 +114,7 @@ public class LdapAuthenticationProviderConfiguration {
     public ConnectionConfig connectionConfig() {
         ConnectionConfig connectionConfig = new ConnectionConfig();
         connectionConfig.setConnectTimeout(Duration.ofMillis(configuration.getConnectTimeout()));
-        connectionConfig.setResponseTimeout(Duration.ofMillis(configuration.getResponseTimeout()));
+        connectionConfig.setResponseTimeout(Duration.ofMillis(responseTimeout()));
         connectionConfig.setLdapUrl(configuration.getContextSourceUrl());
         connectionConfig.setUseStartTLS(configuration.isUseStartTLS());
         BindConnectionInitializer connectionInitializer =
@@ -122,6 +123,19 @@ public class LdapAuthenticationProviderConfiguration {
         return connectionConfig;
     }
 
+    /**
+     * LDAP calls are blocking : when the remote service guard gives up on a call, the pooled connection is only
+     * released once the LDAP response timeout has elapsed, so it must not exceed the guard request timeout.
+     */
+    private long responseTimeout() {
+        long responseTimeout = configuration.getResponseTimeout();
+        ResilienceConfiguration resilience = configuration.getResilience();
+        if (resilience != null && resilience.getRequestTimeout() != null && resilience.getRequestTimeout() > 0) {
+            return Math.min(responseTimeout, resilience.getRequestTimeout());
+        }
+        return responseTimeout;
+    }
+
     @Bean("userSearchExecutor")
     public SearchExecutor userSearchExecutor() {
         SearchExecutor searchExecutor = new SearchExecutor();
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.ldap.authentication;
+
+import io.gravitee.am.common.oidc.StandardClaims;
+import io.gravitee.am.identityprovider.api.Authentication;
+import io.gravitee.am.identityprovider.api.AuthenticationContext;
+import io.gravitee.am.identityprovider.api.AuthenticationProvider;
+import io.gravitee.am.identityprovider.api.User;
+import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderConfiguration;
+import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderMapper;
+import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderRoleMapper;
+import io.gravitee.am.identityprovider.ldap.authentication.spring.LdapAuthenticationProviderConfiguration;
+import io.reactivex.observers.TestObserver;
+import org.junit.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * @author GraviteeSource Team
+ */
+@ContextConfiguration(classes = { LdapAuthenticationProviderConfiguration.class,
+        LdapRoleMappingAuthenticationProviderTest.LdapAuthenticationConfiguration.class })
+public class LdapRoleMappingAuthenticationProviderTest extends LdapAuthenticationProviderTest {
+
+    @Test
+    public void shouldLoadUserByUsername_authentication_mappedClaimsAndRoles() throws Exception {
+        embeddedLdapRule.ldapConnection();
+
+        TestObserver<User> testObserver = authenticationProvider.loadUserByUsername(new Authentication() {
+            @Override
+            public Object getCredentials() {
+                return "bobspassword";
+            }
+
+            @Override
+            public Object getPrincipal() {
+                return "bob";
+            }
+
+            @Override
+            public AuthenticationContext getContext() {
+                return null;
+            }
+        }).test();
+
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(u -> "bob".equals(u.getUsername())
+                && "Bob Hamilton".equals(u.getAdditionalInformation().get(StandardClaims.NAME))
+                && u.getAdditionalInformation().size() == 2
+                && new HashSet<>(u.getRoles()).equals(new HashSet<>(Arrays.asList("ROLE_DEVELOPER", "ROLE_HAMILTON"))));
+    }
+
+    @Test
+    public void shouldLoadUserByUsername_mappedRoles() throws Exception {
+        embeddedLdapRule.ldapConnection();
+
+        TestObserver<User> testObserver = authenticationProvider.loadUserByUsername("ben").test();
+
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(u -> "ben".equals(u.getUsername())
+                && new HashSet<>(u.getRoles()).equals(new HashSet<>(Arrays.asList("ROLE_DEVELOPER", "ROLE_MANAGER"))));
+    }
+
+    @Configuration
+    static class LdapAuthenticationConfiguration {
+
+        @Bean
+        public LdapIdentityProviderConfiguration configuration() {
+            LdapIdentityProviderConfiguration configuration = new LdapIdentityProviderConfiguration();
+
+            configuration.setContextSourceUsername("uid=bob,ou=people,dc=example,dc=org");
+            configuration.setContextSourcePassword("bobspassword");
+            configuration.setContextSourceBase("dc=example,dc=org");
+            configuration.setContextSourceUrl("ldap://localhost:61000");
+
+            configuration.setUserSearchBase("ou=people");
+            configuration.setUserSearchFilter("uid={0}");
+
+            configuration.setGroupSearchBase("ou=groups");
+            configuration.setGroupSearchFilter("uniqueMember={0}");
+            configuration.setGroupRoleAttribute("cn");
+
+            return configuration;
+        }
+
+        @Bean
+        public AuthenticationProvider authenticationProvider() {
+            return new LdapAuthenticationProvider();
+        }
+
+        @Bean
+        public LdapIdentityProviderMapper mapper() {
+            LdapIdentityProviderMapper mapper = new LdapIdentityProviderMapper();
+            mapper.setMappers(Collections.singletonMap(StandardClaims.NAME, "cn"));
+            return mapper;
+        }
+
+        @Bean
+        public LdapIdentityProviderRoleMapper roleMapper() {
+            Map<String, String[]> roles = new HashMap<>();
+            roles.put("ROLE_DEVELOPER", new String[] { "memberOf=developers" });
+            roles.put("ROLE_MANAGER", new String[] { "memberOf=managers", "memberOf=submanagers" });
+            roles.put("ROLE_HAMILTON", new String[] { "sn=Hamilton" });
+            roles.put("ROLE_INVALID", new String[] { "invalid" });
+
+            LdapIdentityProviderRoleMapper roleMapper = new LdapIdentityProviderRoleMapper();
+            roleMapper.setRoles(roles);
+            return roleMapper;
+        }
+    }
+}
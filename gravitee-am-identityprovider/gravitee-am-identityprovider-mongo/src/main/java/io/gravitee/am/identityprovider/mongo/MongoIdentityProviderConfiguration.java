@@ -17,6 +17,7 @@ package io.gravitee.am.identityprovider.mongo;
 
 import io.gravitee.am.identityprovider.api.IdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.mongo.utils.PasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderOptions;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -41,6 +42,7 @@ public class MongoIdentityProviderConfiguration implements IdentityProviderConfi
     private String usernameField = FIELD_USERNAME;
     private String passwordField = FIELD_PASSWORD;
     private String passwordEncoder = PasswordEncoder.BCRYPT.getValue();
+    private PasswordEncoderOptions passwordEncoderOptions;
 
     @Override
     public boolean userProvider() {
@@ -158,4 +160,12 @@ public class MongoIdentityProviderConfiguration implements IdentityProviderConfi
     public void setPasswordEncoder(String passwordEncoder) {
         this.passwordEncoder = passwordEncoder;
     }
+
+    public PasswordEncoderOptions getPasswordEncoderOptions() {
+        return passwordEncoderOptions;
+    }
+
+    public void setPasswordEncoderOptions(PasswordEncoderOptions passwordEncoderOptions) {
+        this.passwordEncoderOptions = passwordEncoderOptions;
+    }
 }
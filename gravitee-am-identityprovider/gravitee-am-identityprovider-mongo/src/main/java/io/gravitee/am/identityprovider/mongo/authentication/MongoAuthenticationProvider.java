@@ -22,6 +22,8 @@ import io.gravitee.am.identityprovider.api.Authentication;
 import io.gravitee.am.identityprovider.api.AuthenticationProvider;
 import io.gravitee.am.identityprovider.api.DefaultUser;
 import io.gravitee.am.identityprovider.api.User;
+import io.gravitee.am.identityprovider.api.mapping.ClaimMapping;
+import io.gravitee.am.identityprovider.api.mapping.RoleMapping;
 import io.gravitee.am.identityprovider.mongo.MongoIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.mongo.MongoIdentityProviderMapper;
 import io.gravitee.am.identityprovider.mongo.MongoIdentityProviderRoleMapper;
@@ -29,25 +31,33 @@ import io.gravitee.am.identityprovider.mongo.authentication.spring.MongoAuthenti
 import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
 import io.gravitee.am.common.exception.authentication.BadCredentialsException;
 import io.gravitee.am.common.exception.authentication.UsernameNotFoundException;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 
 import java.util.*;
 
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Updates.set;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Import({MongoAuthenticationProviderConfiguration.class})
-public class MongoAuthenticationProvider implements AuthenticationProvider {
+public class MongoAuthenticationProvider implements AuthenticationProvider, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoAuthenticationProvider.class);
     private static final String FIELD_ID = "_id";
@@ -70,6 +80,16 @@ public class MongoAuthenticationProvider implements AuthenticationProvider {
     @Autowired
     private MongoClient mongoClient;
 
+    private ClaimMapping claimMapping = ClaimMapping.empty();
+
+    private RoleMapping roleMapping = RoleMapping.empty();
+
+    @Override
+    public void afterPropertiesSet() {
+        claimMapping = ClaimMapping.compile(mapper);
+        roleMapping = RoleMapping.compile(roleMapper);
+    }
+
     public Maybe<User> loadUserByUsername(Authentication authentication) {
         String username = ((String) authentication.getPrincipal()).toLowerCase();
         return findUserByUsername(username)
@@ -87,10 +107,53 @@ public class MongoAuthenticationProvider implements AuthenticationProvider {
                         LOGGER.debug("Authentication failed: password does not match stored value");
                         throw new BadCredentialsException("Bad credentials");
                     }
+
+                    if (rehashOnLogin() && passwordEncoder.upgradeEncoding(password)) {
+                        rehashPassword(user, password, presentedPassword);
+                    }
                     return createUser(user);
                 });
     }
 
+    private boolean rehashOnLogin() {
+        return configuration.getPasswordEncoderOptions() != null && configuration.getPasswordEncoderOptions().isRehashOnLogin();
+    }
+
+    /**
+     * Re-encode the password of the user with the configured encoder, failures are only logged as the user has been
+     * authenticated and will be re-hashed on a next login.
+     * The password is encoded on the computation scheduler so that the login does not pay for the new hash.
+     */
+    private void rehashPassword(Document user, String password, String presentedPassword) {
+        Object id = user.get(FIELD_ID);
+        if (id == null) {
+            return;
+        }
+        Single.fromCallable(() -> passwordEncoder.encode(presentedPassword))
+                .subscribeOn(Schedulers.computation())
+                .flatMapCompletable(encodedPassword -> updatePassword(id, password, encodedPassword))
+                .subscribe(
+                        () -> LOGGER.debug("Password of user {} has been re-hashed", id),
+                        error -> LOGGER.warn("Unable to re-hash the password of user {}", id, error));
+    }
+
+    /**
+     * Replace the password of the user only if it is still the verified one, so that a password changed while the
+     * new hash was computed is not overwritten.
+     */
+    Completable updatePassword(Object id, String password, String encodedPassword) {
+        MongoCollection<Document> usersCol = this.mongoClient.getDatabase(this.configuration.getDatabase()).getCollection(this.configuration.getUsersCollection());
+        return Single.fromPublisher(usersCol.updateOne(
+                and(eq(FIELD_ID, id), eq(this.configuration.getPasswordField(), password)),
+                set(this.configuration.getPasswordField(), encodedPassword)))
+                .doOnSuccess(updateResult -> {
+                    if (updateResult.getMatchedCount() == 0) {
+                        LOGGER.debug("Password of user {} has changed since it was verified, re-hash skipped", id);
+                    }
+                })
+                .ignoreElement();
+    }
+
     public Maybe<User> loadUserByUsername(String username) {
         final String encodedUsername = username.toLowerCase();
         return findUserByUsername(encodedUsername)
@@ -117,13 +180,13 @@ public class MongoAuthenticationProvider implements AuthenticationProvider {
         user.setId(sub);
 
         // set user roles
-        user.setRoles(getUserRoles(document));
+        user.setRoles(roleMapping.apply(document));
 
         // set claims
         claims.put(StandardClaims.SUB, sub);
         claims.put(StandardClaims.PREFERRED_USERNAME, username);
-        if (this.mapper.getMappers() != null && !this.mapper.getMappers().isEmpty()) {
-            this.mapper.getMappers().forEach((k, v) -> claims.put(k, document.get(v)));
+        if (!claimMapping.isEmpty()) {
+            claims.putAll(claimMapping.apply(document));
         } else {
             // default claims
             // remove reserved claims
@@ -146,22 +209,4 @@ public class MongoAuthenticationProvider implements AuthenticationProvider {
         rawString = rawString.replaceAll("[^\\{\\}\\[\\],:]+", "\"$0\"").replaceAll("\\s+","");
         return rawString;
     }
-
-    private List<String> getUserRoles(Document document) {
-        Set<String> roles = new HashSet();
-        if (roleMapper != null && roleMapper.getRoles() != null) {
-            roleMapper.getRoles().forEach((role, users) -> {
-                Arrays.asList(users).forEach(u -> {
-                    // user/group have the following syntax userAttribute=userValue
-                    String[] attributes = u.split("=", 2);
-                    String userAttribute = attributes[0];
-                    String userValue = attributes[1];
-                    if (document.containsKey(userAttribute) && document.getString(userAttribute).equals(userValue)) {
-                        roles.add(role);
-                    }
-                });
-            });
-        }
-        return new ArrayList<>(roles);
-    }
 }
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.mongo.authentication;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import io.gravitee.am.identityprovider.api.Authentication;
+import io.gravitee.am.identityprovider.api.AuthenticationContext;
+import io.gravitee.am.identityprovider.api.AuthenticationProvider;
+import io.gravitee.am.identityprovider.api.User;
+import io.gravitee.am.identityprovider.mongo.authentication.spring.MongoAuthenticationProviderConfiguration;
+import io.gravitee.am.service.authentication.crypto.password.bcrypt.BCryptPasswordEncoder;
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import org.bson.Document;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Updates.set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = { MongoAuthenticationProviderRehashTestConfiguration.class, MongoAuthenticationProviderConfiguration.class }, loader = AnnotationConfigContextLoader.class)
+public class MongoAuthenticationProviderRehashTest {
+
+    @Autowired
+    private AuthenticationProvider authenticationProvider;
+
+    @Autowired
+    private MongoDatabase mongoDatabase;
+
+    @Test
+    public void shouldRehashLegacyPassword_onLogin() throws Exception {
+        TestObserver<User> testObserver = authenticationProvider.loadUserByUsername(new Authentication() {
+            @Override
+            public Object getCredentials() {
+                return "alicespassword";
+            }
+
+            @Override
+            public Object getPrincipal() {
+                return "alice";
+            }
+
+            @Override
+            public AuthenticationContext getContext() {
+                return null;
+            }
+        }).test();
+
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(u -> "alice".equals(u.getUsername()));
+
+        // the password is re-hashed in the background once the user has been authenticated
+        String password = storedPassword();
+        for (int i = 0; i < 50 && password.startsWith("{SHA-256}"); i++) {
+            Thread.sleep(100);
+            password = storedPassword();
+        }
+
+        assertTrue(password.startsWith("$2"));
+        assertTrue(new BCryptPasswordEncoder().matches("alicespassword", password));
+    }
+
+    @Test
+    public void shouldNotRehash_passwordChangedMeanwhile() {
+        Document bob = user("bob");
+        String verifiedPassword = bob.getString("password");
+        // the password is changed while the re-hash of the verified one is computed
+        Observable.fromPublisher(mongoDatabase.getCollection("users").updateOne(eq("_id", bob.get("_id")), set("password", "{SHA-256}changed"))).blockingFirst();
+
+        ((MongoAuthenticationProvider) authenticationProvider)
+                .updatePassword(bob.get("_id"), verifiedPassword, new BCryptPasswordEncoder(4).encode("bobspassword"))
+                .blockingAwait();
+
+        assertEquals("{SHA-256}changed", user("bob").getString("password"));
+    }
+
+    private String storedPassword() {
+        return user("alice").getString("password");
+    }
+
+    private Document user(String username) {
+        return Observable.fromPublisher(mongoDatabase.getCollection("users").find(eq("username", username)).first())
+                .blockingFirst();
+    }
+}
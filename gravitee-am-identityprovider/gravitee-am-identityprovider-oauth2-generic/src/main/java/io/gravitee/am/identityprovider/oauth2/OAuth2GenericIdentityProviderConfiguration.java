@@ -17,6 +17,7 @@ package io.gravitee.am.identityprovider.oauth2;
 
 import io.gravitee.am.common.jwt.SignatureAlgorithm;
 import io.gravitee.am.identityprovider.api.IdentityProviderConfiguration;
+import io.gravitee.am.identityprovider.api.resilience.ResilienceConfiguration;
 import io.gravitee.am.identityprovider.api.oidc.OpenIDConnectIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.api.oidc.jwt.KeyResolver;
 import io.gravitee.am.identityprovider.api.social.SocialIdentityProviderConfiguration;
@@ -46,6 +47,7 @@ public class OAuth2GenericIdentityProviderConfiguration implements OpenIDConnect
     private boolean encodeRedirectUri;
     private Integer connectTimeout = 10000;
     private Integer maxPoolSize = 200;
+    private ResilienceConfiguration resilience;
 
     public String getClientId() {
         return clientId;
@@ -175,4 +177,13 @@ public class OAuth2GenericIdentityProviderConfiguration implements OpenIDConnect
     public SignatureAlgorithm getSignatureAlgorithm() {
         return this.signature == null ? null : this.signature.getAlg();
     }
+
+    @Override
+    public ResilienceConfiguration getResilience() {
+        return resilience;
+    }
+
+    public void setResilience(ResilienceConfiguration resilience) {
+        this.resilience = resilience;
+    }
 }
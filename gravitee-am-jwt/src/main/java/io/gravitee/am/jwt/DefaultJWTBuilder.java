@@ -16,10 +16,12 @@
 package io.gravitee.am.jwt;
 
 import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.bc.BouncyCastleProviderSingleton;
 import com.nimbusds.jose.jca.JCASupport;
+import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import io.gravitee.am.common.exception.jwt.MalformedJWTException;
@@ -31,9 +33,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.PrivateKey;
+import java.security.interfaces.ECPrivateKey;
 import java.text.ParseException;
 
 /**
@@ -45,12 +49,23 @@ public class DefaultJWTBuilder implements JWTBuilder {
     private static final Logger logger = LoggerFactory.getLogger(DefaultJWTBuilder.class);
     private final JWSSigner signer;
     private final JWSHeader header;
+    /**
+     * Base64URL encoded header, computed once per key, or null if the signer does not support the header algorithm
+     * (the Nimbus path is then used to report the error).
+     */
+    private final byte[] encodedHeader;
     private String issuer;
 
     public DefaultJWTBuilder(final Key key,
                              final String signatureAlgorithm,
                              final String keyId) throws InvalidKeyException {
-        if (key instanceof PrivateKey) {
+        if (key instanceof ECPrivateKey) {
+            try {
+                signer = new ECDSASigner((ECPrivateKey) key);
+            } catch (JOSEException e) {
+                throw new InvalidKeyException(e);
+            }
+        } else if (key instanceof PrivateKey) {
             signer = new RSASSASigner((PrivateKey) key, true);
             // if JCA doesn't support at least the PS256 algorithm (jdk <= 8)
             // add BouncyCastle JCA provider
@@ -67,6 +82,8 @@ public class DefaultJWTBuilder implements JWTBuilder {
             throw new InvalidKeyException("No matching JWT signer for key : " + key);
         }
         header = new JWSHeader.Builder(new JWSAlgorithm(signatureAlgorithm)).keyID(keyId).build();
+        encodedHeader = signer.supportedJWSAlgorithms().contains(header.getAlgorithm()) ?
+                header.toBase64URL().toString().getBytes(StandardCharsets.US_ASCII) : null;
     }
 
     public DefaultJWTBuilder(final Key key,
@@ -80,6 +97,26 @@ public class DefaultJWTBuilder implements JWTBuilder {
 
     @Override
     public String sign(JWT payload) {
+        byte[] signingInput = encodedHeader != null ? JWTSigningInputEncoder.encode(encodedHeader, payload, issuer) : null;
+        if (signingInput == null) {
+            return signWithClaimsSet(payload);
+        }
+        try {
+            Base64URL signature = signer.sign(header, signingInput);
+            return new String(signingInput, StandardCharsets.US_ASCII) + '.' + signature.toString();
+        } catch (JOSEException ex) {
+            logger.debug("Signing JWT token: {} has failed", payload);
+            throw new SignatureException("Signing JWT token has failed", ex);
+        } catch (Exception ex) {
+            logger.error("An error occurs while signing JWT token : {}", payload, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Sign the payload through the Nimbus claims set, used for payloads the streaming encoder can't handle.
+     */
+    private String signWithClaimsSet(JWT payload) {
         try {
             JSONObject jsonObject = new JSONObject(payload);
             if (issuer != null && !jsonObject.containsKey(Claims.iss)) {
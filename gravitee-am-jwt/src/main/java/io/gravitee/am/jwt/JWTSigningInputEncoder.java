@@ -0,0 +1,321 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.jwt;
+
+import io.gravitee.am.common.jwt.Claims;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONAware;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONStreamAware;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming encoder producing the JWS signing input (<code>BASE64URL(header) '.' BASE64URL(claims)</code>) of a JWT.
+ *
+ * Claims are normalized the same way {@link com.nimbusds.jwt.JWTClaimsSet} does and written with the
+ * json-smart default style directly into a per-thread reusable UTF-8 buffer, so the resulting bytes are identical
+ * to the ones produced by {@link com.nimbusds.jwt.SignedJWT} without building the intermediate claims set,
+ * JSON string and Base64URL copies.
+ *
+ * Payloads holding values this encoder does not know how to reproduce exactly (dates, beans, arrays, invalid
+ * registered claims, ...) are rejected by returning <code>null</code> and must go through the Nimbus path.
+ *
+ * @author GraviteeSource Team
+ */
+final class JWTSigningInputEncoder {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final long MAX_SECONDS = Long.MAX_VALUE / 1000L;
+    private static final long MIN_SECONDS = Long.MIN_VALUE / 1000L;
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<JWTSigningInputEncoder> ENCODERS = ThreadLocal.withInitial(JWTSigningInputEncoder::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int count;
+
+    private JWTSigningInputEncoder() { }
+
+    /**
+     * Encode the signing input of the given claims.
+     *
+     * @param encodedHeader ASCII bytes of the Base64URL encoded JWS header
+     * @param payload JWT claims
+     * @param issuer default issuer added when the payload has no <code>iss</code> entry, may be null
+     * @return the signing input ASCII bytes or <code>null</code> if the payload must be encoded by Nimbus
+     */
+    static byte[] encode(byte[] encodedHeader, Map<String, Object> payload, String issuer) {
+        return ENCODERS.get().encodeSigningInput(encodedHeader, payload, issuer);
+    }
+
+    private byte[] encodeSigningInput(byte[] encodedHeader, Map<String, Object> payload, String issuer) {
+        Map<String, Object> claims = normalize(payload, issuer);
+        if (claims == null) {
+            return null;
+        }
+        count = 0;
+        try {
+            if (!writeObject(claims)) {
+                return null;
+            }
+            return signingInput(encodedHeader);
+        } finally {
+            if (buffer.length > MAX_RETAINED_CAPACITY) {
+                buffer = new byte[INITIAL_CAPACITY];
+            }
+        }
+    }
+
+    /**
+     * Apply the {@link com.nimbusds.jwt.JWTClaimsSet} parse/serialize round trip to the payload. Both the copy and
+     * the result are plain hash maps filled in the same order as Nimbus does, so entries iterate in the same order.
+     */
+    private static Map<String, Object> normalize(Map<String, Object> payload, String issuer) {
+        Map<String, Object> source = new HashMap<>(payload);
+        if (issuer != null && !source.containsKey(Claims.iss)) {
+            source.put(Claims.iss, issuer);
+        }
+
+        Map<String, Object> claims = new HashMap<>();
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            String name = entry.getKey();
+            Object value = entry.getValue();
+            if (name == null) {
+                return null;
+            }
+            switch (name) {
+                case Claims.iss:
+                case Claims.sub:
+                case Claims.jti:
+                    if (value != null && !(value instanceof String)) {
+                        return null;
+                    }
+                    break;
+                case Claims.aud:
+                    if (value instanceof JSONArray) {
+                        List<?> audiences = (List<?>) value;
+                        for (Object audience : audiences) {
+                            if (!(audience instanceof String)) {
+                                return null;
+                            }
+                        }
+                        value = audiences.isEmpty() ? null : audiences.size() == 1 ? audiences.get(0) : value;
+                    } else if (value != null && !(value instanceof String)) {
+                        return null;
+                    }
+                    break;
+                case Claims.exp:
+                case Claims.nbf:
+                case Claims.iat:
+                    if (!(value instanceof Number)) {
+                        return null;
+                    }
+                    long seconds = ((Number) value).longValue();
+                    if (seconds > MAX_SECONDS || seconds < MIN_SECONDS) {
+                        return null;
+                    }
+                    value = seconds;
+                    break;
+                default:
+                    break;
+            }
+            if (value != null) {
+                claims.put(name, value);
+            }
+        }
+        return claims;
+    }
+
+    private boolean writeValue(Object value) {
+        if (value == null) {
+            writeAscii("null");
+            return true;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            writeString((String) value);
+        } else if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+                || type == BigInteger.class || type == BigDecimal.class || type == Boolean.class) {
+            writeAscii(value.toString());
+        } else if (type == Double.class) {
+            writeAscii(((Double) value).isInfinite() ? "null" : value.toString());
+        } else if (type == Float.class) {
+            writeAscii(((Float) value).isInfinite() ? "null" : value.toString());
+        } else if ((value instanceof JSONAware || value instanceof JSONStreamAware)
+                && !(value instanceof JSONObject) && !(value instanceof JSONArray)) {
+            return false;
+        } else if (value instanceof Map) {
+            return writeObject((Map<?, ?>) value);
+        } else if (value instanceof Collection) {
+            return writeArray((Collection<?>) value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean writeObject(Map<?, ?> map) {
+        writeByte('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!(entry.getKey() instanceof String)) {
+                return false;
+            }
+            if (!first) {
+                writeByte(',');
+            }
+            first = false;
+            writeString((String) entry.getKey());
+            writeByte(':');
+            if (!writeValue(entry.getValue())) {
+                return false;
+            }
+        }
+        writeByte('}');
+        return true;
+    }
+
+    private boolean writeArray(Collection<?> collection) {
+        writeByte('[');
+        boolean first = true;
+        for (Object item : collection) {
+            if (!first) {
+                writeByte(',');
+            }
+            first = false;
+            if (!writeValue(item)) {
+                return false;
+            }
+        }
+        writeByte(']');
+        return true;
+    }
+
+    /**
+     * Quote and escape the string like json-smart (including the '/' character) and encode it as UTF-8.
+     */
+    private void writeString(String s) {
+        ensureCapacity(s.length() * 6 + 2);
+        byte[] buf = buffer;
+        int pos = count;
+        buf[pos++] = '"';
+        for (int i = 0, len = s.length(); i < len; i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"': buf[pos++] = '\\'; buf[pos++] = '"'; break;
+                case '\\': buf[pos++] = '\\'; buf[pos++] = '\\'; break;
+                case '\b': buf[pos++] = '\\'; buf[pos++] = 'b'; break;
+                case '\f': buf[pos++] = '\\'; buf[pos++] = 'f'; break;
+                case '\n': buf[pos++] = '\\'; buf[pos++] = 'n'; break;
+                case '\r': buf[pos++] = '\\'; buf[pos++] = 'r'; break;
+                case '\t': buf[pos++] = '\\'; buf[pos++] = 't'; break;
+                case '/': buf[pos++] = '\\'; buf[pos++] = '/'; break;
+                default:
+                    if (ch <= '\u001F' || (ch >= '\u007F' && ch <= '\u009F') || (ch >= '\u2000' && ch <= '\u20FF')) {
+                        buf[pos++] = '\\';
+                        buf[pos++] = 'u';
+                        buf[pos++] = HEX[ch >> 12 & 0x0F];
+                        buf[pos++] = HEX[ch >> 8 & 0x0F];
+                        buf[pos++] = HEX[ch >> 4 & 0x0F];
+                        buf[pos++] = HEX[ch & 0x0F];
+                    } else if (ch < 0x80) {
+                        buf[pos++] = (byte) ch;
+                    } else if (ch < 0x800) {
+                        buf[pos++] = (byte) (0xC0 | (ch >> 6));
+                        buf[pos++] = (byte) (0x80 | (ch & 0x3F));
+                    } else if (Character.isHighSurrogate(ch) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        int cp = Character.toCodePoint(ch, s.charAt(++i));
+                        buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                        buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                        buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                        buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                    } else if (Character.isSurrogate(ch)) {
+                        // unpaired surrogate, replaced the same way String#getBytes does
+                        buf[pos++] = '?';
+                    } else {
+                        buf[pos++] = (byte) (0xE0 | (ch >> 12));
+                        buf[pos++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                        buf[pos++] = (byte) (0x80 | (ch & 0x3F));
+                    }
+            }
+        }
+        buf[pos++] = '"';
+        count = pos;
+    }
+
+    private void writeAscii(String s) {
+        int len = s.length();
+        ensureCapacity(len);
+        for (int i = 0; i < len; i++) {
+            buffer[count++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[count++] = (byte) c;
+    }
+
+    private void ensureCapacity(int extra) {
+        int required = count + extra;
+        if (required > buffer.length) {
+            byte[] grown = new byte[Math.max(required, buffer.length << 1)];
+            System.arraycopy(buffer, 0, grown, 0, count);
+            buffer = grown;
+        }
+    }
+
+    /**
+     * Build <code>header '.' BASE64URL(buffer)</code> (no padding) into a single exactly sized array.
+     */
+    private byte[] signingInput(byte[] encodedHeader) {
+        int remainder = count % 3;
+        int encodedLength = (count / 3) * 4 + (remainder == 0 ? 0 : remainder + 1);
+        byte[] out = new byte[encodedHeader.length + 1 + encodedLength];
+        System.arraycopy(encodedHeader, 0, out, 0, encodedHeader.length);
+        int pos = encodedHeader.length;
+        out[pos++] = '.';
+
+        byte[] buf = buffer;
+        int i = 0;
+        for (int end = count - remainder; i < end; i += 3) {
+            int bits = (buf[i] & 0xFF) << 16 | (buf[i + 1] & 0xFF) << 8 | (buf[i + 2] & 0xFF);
+            out[pos++] = BASE64URL[bits >>> 18 & 0x3F];
+            out[pos++] = BASE64URL[bits >>> 12 & 0x3F];
+            out[pos++] = BASE64URL[bits >>> 6 & 0x3F];
+            out[pos++] = BASE64URL[bits & 0x3F];
+        }
+        if (remainder == 1) {
+            int bits = (buf[i] & 0xFF) << 16;
+            out[pos++] = BASE64URL[bits >>> 18 & 0x3F];
+            out[pos++] = BASE64URL[bits >>> 12 & 0x3F];
+        } else if (remainder == 2) {
+            int bits = (buf[i] & 0xFF) << 16 | (buf[i + 1] & 0xFF) << 8;
+            out[pos++] = BASE64URL[bits >>> 18 & 0x3F];
+            out[pos++] = BASE64URL[bits >>> 12 & 0x3F];
+            out[pos++] = BASE64URL[bits >>> 6 & 0x3F];
+        }
+        return out;
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.gravitee.am.common.exception.jwt.MalformedJWTException;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.common.jwt.SignatureAlgorithm;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class DefaultJWTBuilderTest {
+
+    private static final String ISSUER = "https://gravitee.io/domain/oidc";
+
+    private static RSAKey rsaJWK;
+    private static ECKey ecJWK;
+    private static SecretKeySpec hmacKey;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        rsaJWK = new RSAKeyGenerator(2048).keyID("rsa-kid").generate();
+        ecJWK = new ECKeyGenerator(Curve.P_256).keyID("ec-kid").generate();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        hmacKey = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    @Test
+    public void shouldSign_sameAsClaimsSet_hmac() throws Exception {
+        DefaultJWTBuilder builder = new DefaultJWTBuilder(hmacKey, SignatureAlgorithm.HS256.getValue(), "hmac-kid", ISSUER);
+        for (JWT payload : payloads()) {
+            String expected = legacySign(new MACSigner(hmacKey), JWSAlgorithm.HS256, "hmac-kid", payload, ISSUER);
+            String token = builder.sign(payload);
+            assertEquals(expected, token);
+            assertEquals(claims(expected), new DefaultJWTParser(hmacKey).parse(token));
+        }
+    }
+
+    @Test
+    public void shouldSign_sameAsClaimsSet_rsa() throws Exception {
+        DefaultJWTBuilder builder = new DefaultJWTBuilder(rsaJWK.toRSAPrivateKey(), SignatureAlgorithm.RS256.getValue(), rsaJWK.getKeyID());
+        JWTParser parser = new DefaultJWTParser(rsaJWK.toRSAPublicKey());
+        for (JWT payload : payloads()) {
+            String expected = legacySign(new RSASSASigner(rsaJWK.toRSAPrivateKey()), JWSAlgorithm.RS256, rsaJWK.getKeyID(), payload, null);
+            String token = builder.sign(payload);
+            assertEquals(expected, token);
+            assertEquals(claims(expected), parser.parse(token));
+        }
+    }
+
+    @Test
+    public void shouldSign_sameAsClaimsSet_ec() throws Exception {
+        DefaultJWTBuilder builder = new DefaultJWTBuilder(ecJWK.toECPrivateKey(), SignatureAlgorithm.ES256.getValue(), ecJWK.getKeyID(), ISSUER);
+        JWTParser parser = new DefaultJWTParser(ecJWK.toECPublicKey());
+        for (JWT payload : payloads()) {
+            String expected = legacySign(null, JWSAlgorithm.ES256, ecJWK.getKeyID(), payload, ISSUER);
+            String token = builder.sign(payload);
+            assertEquals(expected.substring(0, expected.lastIndexOf('.')), token.substring(0, token.lastIndexOf('.')));
+            assertEquals(claims(expected), parser.parse(token));
+        }
+    }
+
+    @Test
+    public void shouldSign_fallbackOnUnsupportedValues() throws Exception {
+        DefaultJWTBuilder builder = new DefaultJWTBuilder(hmacKey, SignatureAlgorithm.HS256.getValue(), "hmac-kid");
+
+        JWT payload = new JWT();
+        payload.setSub("alice");
+        payload.put("auth_time", new Date(1_500_000_000_000L));
+        payload.put("amr", new String[] { "pwd", "otp" });
+
+        assertEquals(legacySign(new MACSigner(hmacKey), JWSAlgorithm.HS256, "hmac-kid", payload, null), builder.sign(payload));
+        assertEquals(1_500_000_000L, ((Number) new DefaultJWTParser(hmacKey).parse(builder.sign(payload)).get("auth_time")).longValue());
+    }
+
+    @Test(expected = MalformedJWTException.class)
+    public void shouldNotSign_invalidRegisteredClaim() throws Exception {
+        DefaultJWTBuilder builder = new DefaultJWTBuilder(hmacKey, SignatureAlgorithm.HS256.getValue(), "hmac-kid");
+
+        JWT payload = new JWT();
+        payload.put("exp", "tomorrow");
+        builder.sign(payload);
+    }
+
+    @Test(expected = MalformedJWTException.class)
+    public void shouldNotSign_audienceList() throws Exception {
+        DefaultJWTBuilder builder = new DefaultJWTBuilder(hmacKey, SignatureAlgorithm.HS256.getValue(), "hmac-kid");
+
+        JWT payload = new JWT();
+        payload.put("aud", Arrays.asList("client-1", "client-2"));
+        builder.sign(payload);
+    }
+
+    private static List<JWT> payloads() {
+        long now = Instant.now().getEpochSecond();
+        List<JWT> payloads = new ArrayList<>();
+
+        JWT accessToken = new JWT();
+        accessToken.setSub("6b7ef0a0-0c11-4c25-bef0-a00c114c2562");
+        accessToken.setAud("my-client");
+        accessToken.setDomain("my-domain");
+        accessToken.setIat(now);
+        accessToken.setExp(now + 7200);
+        accessToken.setJti(UUID.randomUUID().toString());
+        accessToken.setScope("openid profile email");
+        payloads.add(accessToken);
+
+        JWT specialChars = new JWT();
+        specialChars.setIss("https://idp.example.com/path?query=\"quoted\"");
+        specialChars.setSub("back\\slash/and\ttab\nnew line\r\b\f\u0001\u007F\u0085  end");
+        specialChars.put("name", "Zoë Ωmega 漢字 😀 lone \uD800 surrogate");
+        specialChars.put("empty", "");
+        specialChars.put("null_claim", null);
+        specialChars.setIat(now);
+        specialChars.put("nbf", (int) now);
+        specialChars.put("exp", (double) now + 3600.7);
+        payloads.add(specialChars);
+
+        JWT nested = new JWT();
+        nested.setSub("bob");
+        JSONArray audiences = new JSONArray();
+        audiences.add("client-1");
+        audiences.add("client-2");
+        nested.put("aud", audiences);
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("street_address", "1 rue de la Paix");
+        address.put("postal_code", 75000);
+        address.put("country", null);
+        Map<String, Object> geo = new HashMap<>();
+        geo.put("lat", 48.8566d);
+        geo.put("lng", 2.3522f);
+        geo.put("alt", Double.POSITIVE_INFINITY);
+        address.put("geo", geo);
+        nested.put("address", address);
+        nested.put("roles", Arrays.asList("admin", "user", null));
+        nested.put("groups", new TreeSet<>(Arrays.asList("b", "a")));
+        nested.put("email_verified", true);
+        nested.put("balance", new BigDecimal("12345678901234567890.123"));
+        nested.put("count", 3L);
+        nested.put("small", (short) 2);
+        JSONObject claims = new JSONObject();
+        claims.put("acr", "urn:mace:incommon:iap:silver");
+        nested.put("claims", claims);
+        nested.setIat(now);
+        nested.setExp(now + 60);
+        payloads.add(nested);
+
+        JWT singleAudience = new JWT();
+        JSONArray single = new JSONArray();
+        single.add("only-client");
+        singleAudience.put("aud", single);
+        singleAudience.put("iss", null);
+        singleAudience.setIat(now);
+        payloads.add(singleAudience);
+
+        JWT emptyAudience = new JWT();
+        emptyAudience.put("aud", new JSONArray());
+        emptyAudience.put("sub", null);
+        payloads.add(emptyAudience);
+
+        JWT many = new JWT();
+        for (int i = 0; i < 200; i++) {
+            many.put("claim_" + i, "value_" + i);
+        }
+        payloads.add(many);
+
+        payloads.add(new JWT());
+        return payloads;
+    }
+
+    private static String legacySign(com.nimbusds.jose.JWSSigner signer, JWSAlgorithm algorithm, String keyId, JWT payload, String issuer) throws Exception {
+        JSONObject jsonObject = new JSONObject(payload);
+        if (issuer != null && !jsonObject.containsKey("iss")) {
+            jsonObject.put("iss", issuer);
+        }
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(keyId).build(), JWTClaimsSet.parse(jsonObject));
+        if (JWSAlgorithm.Family.EC.contains(algorithm)) {
+            // ECDSA signatures are randomized, only the signing input is compared
+            return new String(signedJWT.getSigningInput(), StandardCharsets.US_ASCII) + ".AA";
+        }
+        signedJWT.sign(signer);
+        return signedJWT.serialize();
+    }
+
+    private static JWT claims(String token) throws Exception {
+        return new JWT(SignedJWT.parse(token).getPayload().toJSONObject());
+    }
+}
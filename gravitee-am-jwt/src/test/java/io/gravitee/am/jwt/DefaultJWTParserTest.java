@@ -15,7 +15,10 @@
  */
 package io.gravitee.am.jwt;
 
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
 import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
 import io.gravitee.am.common.exception.jwt.ExpiredJWTException;
 import io.gravitee.am.common.exception.jwt.MalformedJWTException;
@@ -65,6 +68,25 @@ public class DefaultJWTParserTest {
         assertTrue(new Date().before(new Date(parsedJWT.getExp() * 1000)));
     }
 
+    @Test
+    public void shouldParse_ec() throws Exception {
+        ECKey ecJWK = new ECKeyGenerator(Curve.P_256)
+                .keyID("123")
+                .generate();
+        JWTBuilder jwtBuilder  = new DefaultJWTBuilder(ecJWK.toECPrivateKey(), SignatureAlgorithm.ES256.getValue(), ecJWK.getKeyID());
+        JWTParser jwtParser = new DefaultJWTParser(ecJWK.toECPublicKey());
+
+        JWT jwt = new JWT();
+        jwt.setIss("https://gravitee.io");
+        jwt.setSub("alice");
+        jwt.setExp(Instant.now().plus(1, ChronoUnit.HOURS).getEpochSecond());
+        String signedJWT = jwtBuilder.sign(jwt);
+
+        JWT parsedJWT = jwtParser.parse(signedJWT);
+        assertEquals("alice", parsedJWT.getSub());
+        assertEquals("https://gravitee.io", parsedJWT.getIss());
+    }
+
     @Test(expected = SignatureException.class)
     public void shouldNotParse_rsa_wrongSignature() throws Exception {
         RSAKey rsaJWK = new RSAKeyGenerator(2048)
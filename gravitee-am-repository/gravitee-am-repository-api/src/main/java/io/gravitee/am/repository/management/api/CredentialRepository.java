@@ -33,4 +33,12 @@ public interface CredentialRepository extends CrudRepository<Credential, String>
     Single<List<Credential>> findByUsername(ReferenceType referenceType, String referenceId, String username);
 
     Single<List<Credential>> findByCredentialId(ReferenceType referenceType, String referenceId, String credentialId);
+
+    /**
+     * Atomically set the signature counter of the credentials matching the given credential ID
+     * only if the stored counter is lower than the new one.
+     *
+     * @return the number of updated credentials, 0 means that no credential has been found or that the counter did not increase
+     */
+    Single<Long> updateCounter(ReferenceType referenceType, String referenceId, String credentialId, long counter);
 }
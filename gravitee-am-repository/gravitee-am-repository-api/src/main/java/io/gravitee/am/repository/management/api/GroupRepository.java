@@ -19,6 +19,7 @@ import io.gravitee.am.model.Group;
 import io.gravitee.am.model.common.Page;
 import io.gravitee.am.model.ReferenceType;
 import io.gravitee.am.repository.common.CrudRepository;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 
@@ -47,4 +48,11 @@ public interface GroupRepository extends CrudRepository<Group, String> {
     Maybe<Group> findByDomainAndName(String domain, String groupName);
 
     Maybe<Group> findById(ReferenceType referenceType, String referenceId, String group);
+
+    /**
+     * Apply a partial update to the group, fields which are null are left untouched.
+     * The members are either replaced, or the given members are added to and then removed from the group,
+     * each change of the members being atomic. The added and removed members are expected to be distinct.
+     */
+    Completable patch(String groupId, String name, List<String> members, List<String> addedMembers, List<String> removedMembers);
 }
@@ -20,6 +20,9 @@ import io.gravitee.am.repository.common.CrudRepository;
 import io.gravitee.am.repository.management.api.search.LoginAttemptCriteria;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
+import io.reactivex.Single;
+
+import java.util.Date;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -30,4 +33,15 @@ public interface LoginAttemptRepository extends CrudRepository<LoginAttempt, Str
     Maybe<LoginAttempt> findByCriteria(LoginAttemptCriteria criteria);
 
     Completable delete(LoginAttemptCriteria criteria);
+
+    /**
+     * Atomically increment the number of attempts of the login attempt matching the criteria, creating it if it does not exist.
+     *
+     * @param criteria login attempt criteria
+     * @param maxAttempts number of attempts from which the account is locked
+     * @param expireAt expiration date of a newly created login attempt
+     * @param lockExpireAt expiration date set once the number of attempts reaches <code>maxAttempts</code>
+     * @return the login attempt after the increment
+     */
+    Single<LoginAttempt> incrementAttempts(LoginAttemptCriteria criteria, int maxAttempts, Date expireAt, Date lockExpireAt);
 }
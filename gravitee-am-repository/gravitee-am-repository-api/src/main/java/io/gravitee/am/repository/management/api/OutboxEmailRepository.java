@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.management.api;
+
+import io.gravitee.am.model.OutboxEmail;
+import io.gravitee.am.repository.common.CrudRepository;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+
+import java.util.Date;
+
+/**
+ * @author GraviteeSource Team
+ */
+public interface OutboxEmailRepository extends CrudRepository<OutboxEmail, String> {
+
+    /**
+     * Atomically claim the next email of the domain due for delivery.
+     *
+     * The next attempt of the claimed email is postponed to the lease expiration so that no other node picks it
+     * while it is being sent. If the node dies before completing the delivery, the email is claimed again once
+     * the lease has expired.
+     *
+     * @param domain the domain id
+     * @param now the current date
+     * @param leaseExpireAt the lease expiration date
+     * @return the claimed email or empty if no email is due
+     */
+    Maybe<OutboxEmail> lockNext(String domain, Date now, Date leaseExpireAt);
+
+    /**
+     * Remove the emails of the domain which are still in the outbox.
+     *
+     * @param domain the domain id
+     * @return acknowledge of the operation
+     */
+    Completable deleteByDomain(String domain);
+}
@@ -44,6 +44,20 @@ public interface UserRepository extends CrudRepository<User, String> {
 
     Single<Page<User>> search(ReferenceType referenceType, String referenceId, FilterCriteria criteria, int page, int size);
 
+    /**
+     * Same as {@link #findAll(ReferenceType, String, int, int)}, loading only the given fields of the users.
+     *
+     * @param fields the names of the {@link User} properties to load (nested properties are dot separated), the id and the reference are always loaded
+     */
+    Single<Page<User>> findAll(ReferenceType referenceType, String referenceId, int page, int size, Set<String> fields);
+
+    /**
+     * Same as {@link #search(ReferenceType, String, FilterCriteria, int, int)}, loading only the given fields of the users.
+     *
+     * @param fields the names of the {@link User} properties to load (nested properties are dot separated), the id and the reference are always loaded
+     */
+    Single<Page<User>> search(ReferenceType referenceType, String referenceId, FilterCriteria criteria, int page, int size, Set<String> fields);
+
     Single<List<User>> findByDomainAndEmail(String domain, String email, boolean strict);
 
     Maybe<User> findByUsernameAndDomain(String domain, String username);
@@ -56,6 +70,15 @@ public interface UserRepository extends CrudRepository<User, String> {
 
     Single<List<User>> findByIdIn(List<String> ids);
 
+    /**
+     * Find users by id, loading only the given fields of the users.
+     *
+     * @param ids the ids of the users
+     * @param fields the names of the {@link User} properties to load, the id and the reference are always loaded
+     * @return the users, with the other properties left to their default value
+     */
+    Single<List<User>> findByIdIn(List<String> ids, Set<String> fields);
+
     Maybe<User> findById(ReferenceType referenceType, String referenceId, String userId);
 
     Single<Long> countByDomain(String domain);
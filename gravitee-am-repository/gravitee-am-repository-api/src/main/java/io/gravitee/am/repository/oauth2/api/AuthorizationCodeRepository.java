@@ -20,6 +20,8 @@ import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 
+import java.util.Date;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -48,4 +50,24 @@ public interface AuthorizationCodeRepository {
      * @return
      */
     Maybe<AuthorizationCode> findByCode(String code);
+
+    /**
+     * Atomically redeem an authorization code issued to the given client, the code is only returned once.
+     * The code is replaced by a tombstone until <code>tombstoneExpireAt</code> so that replays can be detected
+     * with {@link #isConsumed(String)}.
+     *
+     * @param code The authorization code.
+     * @param clientId The client the code has been issued to.
+     * @param tombstoneExpireAt Expiration date of the tombstone.
+     * @return the redeemed authorization code or empty if the code does not exist, was issued to another client or has already been redeemed
+     */
+    Maybe<AuthorizationCode> consume(String code, String clientId, Date tombstoneExpireAt);
+
+    /**
+     * Check if an authorization code has already been redeemed.
+     *
+     * @param code The authorization code.
+     * @return true if a tombstone exists for this code
+     */
+    Single<Boolean> isConsumed(String code);
 }
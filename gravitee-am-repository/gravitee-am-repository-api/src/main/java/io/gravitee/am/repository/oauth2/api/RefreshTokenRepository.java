@@ -20,6 +20,7 @@ import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -36,6 +37,18 @@ public interface RefreshTokenRepository {
 
     Completable delete(String token);
 
+    /**
+     * Atomically find and delete a refresh token, the token is only returned once.
+     *
+     * @param token refresh token value
+     * @param client client the token has been issued to
+     * @param now the token must expire after this date
+     * @return the consumed refresh token or empty if the token does not exist, has expired, was issued to another client or has already been consumed
+     */
+    Maybe<RefreshToken> consume(String token, String client, Date now);
+
+    Completable deleteByFamilyId(String familyId);
+
     Completable deleteByUserId(String userId);
 
     Completable deleteByDomainIdClientIdAndUserId(String domainId, String clientId, String userId);
@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.oauth2.api;
+
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.reactivex.Single;
+
+import java.util.List;
+
+/**
+ * @author GraviteeSource Team
+ */
+public interface RevocationEpochRepository {
+
+    Single<RevocationEpoch> create(RevocationEpoch revocationEpoch);
+
+    /**
+     * Find the revocation epochs recorded during the given time frame.
+     *
+     * @param from lower bound of the revocation date (inclusive), in milliseconds
+     * @param to upper bound of the revocation date (inclusive), in milliseconds, ignored if not greater than <code>from</code>
+     * @return the revocation epochs
+     */
+    Single<List<RevocationEpoch>> findByTimeFrame(long from, long to);
+}
@@ -21,4 +21,16 @@ package io.gravitee.am.repository.oauth2.model;
  */
 public class RefreshToken extends Token {
 
+    /**
+     * Identifier shared by all the refresh tokens issued from the same original grant through rotation
+     */
+    private String familyId;
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
 }
@@ -29,10 +29,14 @@ import org.bson.Document;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.Date;
 import java.util.List;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -45,6 +49,8 @@ public class MongoCredentialRepository extends AbstractManagementMongoRepository
     private static final String FIELD_USER_ID = "userId";
     private static final String FIELD_USERNAME = "username";
     private static final String FIELD_CREDENTIAL_ID = "credentialId";
+    private static final String FIELD_COUNTER = "counter";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
     private MongoCollection<CredentialMongo> credentialsCollection;
 
     @PostConstruct
@@ -94,6 +100,21 @@ public class MongoCredentialRepository extends AbstractManagementMongoRepository
                 .map(this::convert).toList();
     }
 
+    @Override
+    public Single<Long> updateCounter(ReferenceType referenceType, String referenceId, String credentialId, long counter) {
+        return Single.fromPublisher(
+                credentialsCollection.updateMany(
+                        and(
+                                eq(FIELD_REFERENCE_TYPE, referenceType.name()),
+                                eq(FIELD_REFERENCE_ID, referenceId),
+                                eq(FIELD_CREDENTIAL_ID, credentialId),
+                                lt(FIELD_COUNTER, counter)
+                        ),
+                        combine(set(FIELD_COUNTER, counter), set(FIELD_UPDATED_AT, new Date()))
+                ))
+                .map(updateResult -> updateResult.getModifiedCount());
+    }
+
     @Override
     public Maybe<Credential> findById(String id) {
         return Observable.fromPublisher(credentialsCollection.find(eq(FIELD_ID, id)).first()).firstElement().map(this::convert);
@@ -28,14 +28,20 @@ import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 
 import static com.mongodb.client.model.Filters.*;
+import static com.mongodb.client.model.Updates.addEachToSet;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.pullAll;
+import static com.mongodb.client.model.Updates.set;
 import static io.gravitee.am.model.ReferenceType.DOMAIN;
 
 /**
@@ -48,6 +54,7 @@ public class MongoGroupRepository extends AbstractManagementMongoRepository impl
     private static final String FIELD_ID = "_id";
     private static final String FIELD_NAME = "name";
     private static final String FIELD_MEMBERS = "members";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
     private MongoCollection<GroupMongo> groupsCollection;
 
     @PostConstruct
@@ -133,6 +140,31 @@ public class MongoGroupRepository extends AbstractManagementMongoRepository impl
         return Completable.fromPublisher(groupsCollection.deleteOne(eq(FIELD_ID, id)));
     }
 
+    @Override
+    public Completable patch(String groupId, String name, List<String> members, List<String> addedMembers, List<String> removedMembers) {
+        boolean addMembers = addedMembers != null && !addedMembers.isEmpty();
+        boolean removeMembers = removedMembers != null && !removedMembers.isEmpty();
+
+        List<Bson> updates = new ArrayList<>();
+        if (name != null) {
+            updates.add(set(FIELD_NAME, name));
+        }
+        if (members != null) {
+            updates.add(set(FIELD_MEMBERS, members));
+        } else if (addMembers) {
+            updates.add(addEachToSet(FIELD_MEMBERS, addedMembers));
+        } else if (removeMembers) {
+            updates.add(pullAll(FIELD_MEMBERS, removedMembers));
+        }
+        updates.add(set(FIELD_UPDATED_AT, new Date()));
+        Completable patch = Completable.fromPublisher(groupsCollection.updateOne(eq(FIELD_ID, groupId), combine(updates)));
+        if (members == null && addMembers && removeMembers) {
+            // $addToSet and $pullAll can't target the same field in a single update, members are removed by a second one
+            return patch.andThen(Completable.fromPublisher(groupsCollection.updateOne(eq(FIELD_ID, groupId), pullAll(FIELD_MEMBERS, removedMembers))));
+        }
+        return patch;
+    }
+
     private Group convert(GroupMongo groupMongo) {
         if (groupMongo == null) {
             return null;
@@ -16,7 +16,15 @@
 package io.gravitee.am.repository.mongodb.management;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.common.utils.RandomString;
 import io.gravitee.am.model.LoginAttempt;
@@ -29,15 +37,26 @@ import io.reactivex.Observable;
 import io.reactivex.Single;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.setOnInsert;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -46,23 +65,75 @@ import static com.mongodb.client.model.Filters.eq;
 @Component
 public class MongoLoginAttemptRepository extends AbstractManagementMongoRepository implements LoginAttemptRepository {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoLoginAttemptRepository.class);
+    private static final String COLLECTION_NAME = "login_attempts";
+    // non unique (domain, client, username) index of the previous versions
+    private static final String LEGACY_INDEX = "domain_1_client_1_username_1";
+    private static final int INDEX_NOT_FOUND = 27;
     private static final String FIELD_ID = "_id";
     private static final String FIELD_DOMAIN = "domain";
     private static final String FIELD_CLIENT = "client";
     private static final String FIELD_IDP = "identityProvider";
     private static final String FIELD_USERNAME = "username";
     private static final String FIELD_RESET_TIME = "expireAt";
+    private static final String FIELD_ATTEMPTS = "attempts";
+    private static final String FIELD_CREATED_AT = "createdAt";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
     private MongoCollection<LoginAttemptMongo> loginAttemptsCollection;
 
     @PostConstruct
     public void init() {
-        loginAttemptsCollection = mongoOperations.getCollection("login_attempts", LoginAttemptMongo.class);
-        super.createIndex(loginAttemptsCollection, new Document(FIELD_DOMAIN, 1).append(FIELD_CLIENT, 1).append(FIELD_USERNAME, 1));
+        loginAttemptsCollection = mongoOperations.getCollection(COLLECTION_NAME, LoginAttemptMongo.class);
+        // unique key of the upserts done by incrementAttempts, concurrent upserts must not create duplicate documents
+        createUniqueIndex();
 
         // expire after index
         super.createIndex(loginAttemptsCollection, new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
     }
 
+    /**
+     * The creation of the unique index fails if the collection already holds duplicate login attempts, created by
+     * concurrent upserts before the index existed. The duplicates are removed first, the most recently updated login
+     * attempt of each key being kept, and the legacy index is dropped once the unique one exists.
+     * If the index can't be created anyway, login attempts are still counted but concurrent failed logins of a new key
+     * may be counted in distinct documents until the index is created on a next start.
+     */
+    void createUniqueIndex() {
+        try {
+            removeDuplicates();
+            super.createIndex(loginAttemptsCollection, new Document(FIELD_DOMAIN, 1).append(FIELD_CLIENT, 1).append(FIELD_IDP, 1).append(FIELD_USERNAME, 1), new IndexOptions().unique(true));
+            Completable.fromPublisher(loginAttemptsCollection.dropIndex(LEGACY_INDEX))
+                    .onErrorResumeNext(ex -> ex instanceof MongoCommandException && ((MongoCommandException) ex).getErrorCode() == INDEX_NOT_FOUND ?
+                            Completable.complete() : Completable.error(ex))
+                    .blockingAwait();
+        } catch (Exception ex) {
+            LOGGER.error("Unable to create the unique index of the {} collection, concurrent failed logins may not all be counted", COLLECTION_NAME, ex);
+        }
+    }
+
+    private void removeDuplicates() {
+        MongoCollection<Document> collection = mongoOperations.getCollection(COLLECTION_NAME);
+        Long removed = Observable.fromPublisher(collection.aggregate(Arrays.asList(
+                Aggregates.sort(Sorts.descending(FIELD_UPDATED_AT)),
+                Aggregates.group(new Document(FIELD_DOMAIN, "$" + FIELD_DOMAIN)
+                                .append(FIELD_CLIENT, "$" + FIELD_CLIENT)
+                                .append(FIELD_IDP, "$" + FIELD_IDP)
+                                .append(FIELD_USERNAME, "$" + FIELD_USERNAME),
+                        Accumulators.push("ids", "$" + FIELD_ID),
+                        Accumulators.sum("count", 1)),
+                Aggregates.match(gt("count", 1)))).allowDiskUse(true))
+                .concatMapSingle(duplicates -> {
+                    List<?> ids = duplicates.get("ids", List.class);
+                    return Single.fromPublisher(collection.deleteMany(in(FIELD_ID, ids.subList(1, ids.size()))))
+                            .map(deleteResult -> deleteResult.getDeletedCount());
+                })
+                .reduce(0L, Long::sum)
+                .blockingGet();
+        if (removed > 0) {
+            LOGGER.info("{} duplicate login attempts have been removed", removed);
+        }
+    }
+
     @Override
     public Maybe<LoginAttempt> findById(String id) {
         return Observable.fromPublisher(loginAttemptsCollection.find(eq(FIELD_ID, id)).first()).firstElement().map(this::convert);
@@ -96,6 +167,41 @@ public class MongoLoginAttemptRepository extends AbstractManagementMongoReposito
         return Completable.fromPublisher(loginAttemptsCollection.deleteOne(query(criteria)));
     }
 
+    @Override
+    public Single<LoginAttempt> incrementAttempts(LoginAttemptCriteria criteria, int maxAttempts, Date expireAt, Date lockExpireAt) {
+        final Date now = new Date();
+        // criteria equality fields are copied into the document on insert
+        Bson update = combine(
+                inc(FIELD_ATTEMPTS, 1),
+                set(FIELD_UPDATED_AT, now),
+                setOnInsert(FIELD_ID, RandomString.generate()),
+                setOnInsert(FIELD_RESET_TIME, expireAt),
+                setOnInsert(FIELD_CREATED_AT, now));
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER);
+
+        return Single.fromPublisher(loginAttemptsCollection.findOneAndUpdate(query(criteria), update, options))
+                // two concurrent upserts of the same key may both try to insert, the one failing on the unique index
+                // is retried and then updates the document inserted by the other one
+                .onErrorResumeNext(ex -> isDuplicateKey(ex) ?
+                        Single.fromPublisher(loginAttemptsCollection.findOneAndUpdate(query(criteria), update, options)) :
+                        Single.error(ex))
+                .flatMap(loginAttemptMongo -> {
+                    if (loginAttemptMongo.getAttempts() < maxAttempts) {
+                        return Single.just(convert(loginAttemptMongo));
+                    }
+                    // account locked, (re)start the lock period
+                    loginAttemptMongo.setExpireAt(lockExpireAt);
+                    return Single.fromPublisher(loginAttemptsCollection.updateOne(
+                            and(eq(FIELD_ID, loginAttemptMongo.getId()), gte(FIELD_ATTEMPTS, maxAttempts)),
+                            set(FIELD_RESET_TIME, lockExpireAt)))
+                            .map(updateResult -> convert(loginAttemptMongo));
+                });
+    }
+
+    private static boolean isDuplicateKey(Throwable ex) {
+        return ex instanceof MongoException && ErrorCategory.fromErrorCode(((MongoException) ex).getCode()) == ErrorCategory.DUPLICATE_KEY;
+    }
+
     private Bson query(LoginAttemptCriteria criteria) {
         List<Bson> filters = new ArrayList<>();
         // domain
@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.management;
+
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import io.gravitee.am.common.utils.RandomString;
+import io.gravitee.am.model.OutboxEmail;
+import io.gravitee.am.repository.management.api.OutboxEmailRepository;
+import io.gravitee.am.repository.mongodb.management.internal.model.OutboxEmailMongo;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import org.bson.Document;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Updates.set;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class MongoOutboxEmailRepository extends AbstractManagementMongoRepository implements OutboxEmailRepository {
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_DOMAIN = "domain";
+    private static final String FIELD_NEXT_ATTEMPT_AT = "nextAttemptAt";
+    private static final String FIELD_EXPIRE_AT = "expireAt";
+    private MongoCollection<OutboxEmailMongo> outboxEmailsCollection;
+
+    @PostConstruct
+    public void init() {
+        outboxEmailsCollection = mongoOperations.getCollection("email_outbox", OutboxEmailMongo.class);
+        super.createIndex(outboxEmailsCollection, new Document(FIELD_DOMAIN, 1).append(FIELD_NEXT_ATTEMPT_AT, 1));
+
+        // expire after index
+        super.createIndex(outboxEmailsCollection, new Document(FIELD_EXPIRE_AT, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+    }
+
+    @Override
+    public Maybe<OutboxEmail> findById(String id) {
+        return Observable.fromPublisher(outboxEmailsCollection.find(eq(FIELD_ID, id)).first()).firstElement().map(this::convert);
+    }
+
+    @Override
+    public Single<OutboxEmail> create(OutboxEmail item) {
+        OutboxEmailMongo outboxEmail = convert(item);
+        outboxEmail.setId(outboxEmail.getId() == null ? RandomString.generate() : outboxEmail.getId());
+        return Single.fromPublisher(outboxEmailsCollection.insertOne(outboxEmail)).flatMap(success -> findById(outboxEmail.getId()).toSingle());
+    }
+
+    @Override
+    public Single<OutboxEmail> update(OutboxEmail item) {
+        OutboxEmailMongo outboxEmail = convert(item);
+        return Single.fromPublisher(outboxEmailsCollection.replaceOne(eq(FIELD_ID, outboxEmail.getId()), outboxEmail)).flatMap(success -> findById(outboxEmail.getId()).toSingle());
+    }
+
+    @Override
+    public Completable delete(String id) {
+        return Completable.fromPublisher(outboxEmailsCollection.deleteOne(eq(FIELD_ID, id)));
+    }
+
+    @Override
+    public Completable deleteByDomain(String domain) {
+        return Completable.fromPublisher(outboxEmailsCollection.deleteMany(eq(FIELD_DOMAIN, domain)));
+    }
+
+    @Override
+    public Maybe<OutboxEmail> lockNext(String domain, Date now, Date leaseExpireAt) {
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .sort(Sorts.ascending(FIELD_NEXT_ATTEMPT_AT))
+                .returnDocument(ReturnDocument.AFTER);
+        return Observable.fromPublisher(outboxEmailsCollection.findOneAndUpdate(
+                and(eq(FIELD_DOMAIN, domain), lte(FIELD_NEXT_ATTEMPT_AT, now)),
+                set(FIELD_NEXT_ATTEMPT_AT, leaseExpireAt),
+                options))
+                .firstElement()
+                .map(this::convert);
+    }
+
+    private OutboxEmail convert(OutboxEmailMongo outboxEmailMongo) {
+        if (outboxEmailMongo == null) {
+            return null;
+        }
+        OutboxEmail outboxEmail = new OutboxEmail();
+        outboxEmail.setId(outboxEmailMongo.getId());
+        outboxEmail.setDomain(outboxEmailMongo.getDomain());
+        outboxEmail.setClient(outboxEmailMongo.getClient());
+        outboxEmail.setClientId(outboxEmailMongo.getClientId());
+        outboxEmail.setClientName(outboxEmailMongo.getClientName());
+        outboxEmail.setUser(outboxEmailMongo.getUser());
+        outboxEmail.setUsername(outboxEmailMongo.getUsername());
+        outboxEmail.setUserDisplayName(outboxEmailMongo.getUserDisplayName());
+        outboxEmail.setTemplate(outboxEmailMongo.getTemplate());
+        outboxEmail.setFrom(outboxEmailMongo.getFrom());
+        outboxEmail.setFromName(outboxEmailMongo.getFromName());
+        outboxEmail.setTo(outboxEmailMongo.getTo());
+        outboxEmail.setSubject(outboxEmailMongo.getSubject());
+        outboxEmail.setContent(outboxEmailMongo.getContent());
+        outboxEmail.setAttempts(outboxEmailMongo.getAttempts());
+        outboxEmail.setNextAttemptAt(outboxEmailMongo.getNextAttemptAt());
+        outboxEmail.setExpireAt(outboxEmailMongo.getExpireAt());
+        outboxEmail.setCreatedAt(outboxEmailMongo.getCreatedAt());
+        outboxEmail.setUpdatedAt(outboxEmailMongo.getUpdatedAt());
+        return outboxEmail;
+    }
+
+    private OutboxEmailMongo convert(OutboxEmail outboxEmail) {
+        if (outboxEmail == null) {
+            return null;
+        }
+        OutboxEmailMongo outboxEmailMongo = new OutboxEmailMongo();
+        outboxEmailMongo.setId(outboxEmail.getId());
+        outboxEmailMongo.setDomain(outboxEmail.getDomain());
+        outboxEmailMongo.setClient(outboxEmail.getClient());
+        outboxEmailMongo.setClientId(outboxEmail.getClientId());
+        outboxEmailMongo.setClientName(outboxEmail.getClientName());
+        outboxEmailMongo.setUser(outboxEmail.getUser());
+        outboxEmailMongo.setUsername(outboxEmail.getUsername());
+        outboxEmailMongo.setUserDisplayName(outboxEmail.getUserDisplayName());
+        outboxEmailMongo.setTemplate(outboxEmail.getTemplate());
+        outboxEmailMongo.setFrom(outboxEmail.getFrom());
+        outboxEmailMongo.setFromName(outboxEmail.getFromName());
+        outboxEmailMongo.setTo(outboxEmail.getTo());
+        outboxEmailMongo.setSubject(outboxEmail.getSubject());
+        outboxEmailMongo.setContent(outboxEmail.getContent());
+        outboxEmailMongo.setAttempts(outboxEmail.getAttempts());
+        outboxEmailMongo.setNextAttemptAt(outboxEmail.getNextAttemptAt());
+        outboxEmailMongo.setExpireAt(outboxEmail.getExpireAt());
+        outboxEmailMongo.setCreatedAt(outboxEmail.getCreatedAt());
+        outboxEmailMongo.setUpdatedAt(outboxEmail.getUpdatedAt());
+        return outboxEmailMongo;
+    }
+}
@@ -18,6 +18,7 @@ package io.gravitee.am.repository.mongodb.management;
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.model.Accumulators;
 import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Projections;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.common.analytics.Field;
 import io.gravitee.am.common.utils.RandomString;
@@ -100,8 +101,13 @@ public class MongoUserRepository extends AbstractManagementMongoRepository imple
 
     @Override
     public Single<Page<User>> findAll(ReferenceType referenceType, String referenceId, int page, int size) {
+        return findAll(referenceType, referenceId, page, size, null);
+    }
+
+    @Override
+    public Single<Page<User>> findAll(ReferenceType referenceType, String referenceId, int page, int size, Set<String> fields) {
         Single<Long> countOperation = Observable.fromPublisher(usersCollection.countDocuments(and(eq(FIELD_REFERENCE_TYPE, referenceType.name()), eq(FIELD_REFERENCE_ID, referenceId)))).first(0l);
-        Single<Set<User>> usersOperation = Observable.fromPublisher(usersCollection.find(and(eq(FIELD_REFERENCE_TYPE, referenceType.name()), eq(FIELD_REFERENCE_ID, referenceId))).sort(new BasicDBObject(FIELD_USERNAME, 1)).skip(size * page).limit(size)).map(this::convert).collect(LinkedHashSet::new, Set::add);
+        Single<Set<User>> usersOperation = Observable.fromPublisher(usersCollection.find(and(eq(FIELD_REFERENCE_TYPE, referenceType.name()), eq(FIELD_REFERENCE_ID, referenceId))).projection(projection(fields)).sort(new BasicDBObject(FIELD_USERNAME, 1)).skip(size * page).limit(size)).map(this::convert).collect(LinkedHashSet::new, Set::add);
         return Single.zip(countOperation, usersOperation, (count, users) -> new Page<>(users, page, count));
     }
 
@@ -146,6 +152,11 @@ public class MongoUserRepository extends AbstractManagementMongoRepository imple
 
     @Override
     public Single<Page<User>> search(ReferenceType referenceType, String referenceId, FilterCriteria criteria, int page, int size) {
+        return search(referenceType, referenceId, criteria, page, size, null);
+    }
+
+    @Override
+    public Single<Page<User>> search(ReferenceType referenceType, String referenceId, FilterCriteria criteria, int page, int size, Set<String> fields) {
         try {
             BasicDBObject searchQuery = BasicDBObject.parse(FilterCriteriaParser.parse(criteria));
 
@@ -155,7 +166,7 @@ public class MongoUserRepository extends AbstractManagementMongoRepository imple
                     searchQuery);
 
             Single<Long> countOperation = Observable.fromPublisher(usersCollection.countDocuments(mongoQuery)).first(0l);
-            Single<Set<User>> usersOperation = Observable.fromPublisher(usersCollection.find(mongoQuery).skip(size * page).limit(size)).map(this::convert).collect(LinkedHashSet::new, Set::add);
+            Single<Set<User>> usersOperation = Observable.fromPublisher(usersCollection.find(mongoQuery).projection(projection(fields)).skip(size * page).limit(size)).map(this::convert).collect(LinkedHashSet::new, Set::add);
             return Single.zip(countOperation, usersOperation, (count, users) -> new Page<>(users, 0, count));
         } catch (Exception ex) {
             logger.error("An error has occurred while searching users with criteria {}", criteria, ex);
@@ -219,6 +230,11 @@ public class MongoUserRepository extends AbstractManagementMongoRepository imple
         return Observable.fromPublisher(usersCollection.find(in(FIELD_ID, ids))).map(this::convert).collect(ArrayList::new, List::add);
     }
 
+    @Override
+    public Single<List<User>> findByIdIn(List<String> ids, Set<String> fields) {
+        return Observable.fromPublisher(usersCollection.find(in(FIELD_ID, ids)).projection(projection(fields))).map(this::convert).collect(ArrayList::new, List::add);
+    }
+
     @Override
     public Maybe<User> findById(ReferenceType referenceType, String referenceId, String userId) {
         return Observable.fromPublisher(usersCollection.find(and(eq(FIELD_REFERENCE_TYPE, referenceType.name()), eq(FIELD_REFERENCE_ID, referenceId), eq(FIELD_ID, userId))).first()).firstElement().map(this::convert);
@@ -309,6 +325,16 @@ public class MongoUserRepository extends AbstractManagementMongoRepository imple
                 .first(Collections.emptyMap());
     }
 
+    private static Bson projection(Set<String> fields) {
+        if (fields == null) {
+            return null;
+        }
+        // id and reference are always returned, the reference type is required to convert the user
+        Set<String> projectedFields = new HashSet<>(Arrays.asList(FIELD_ID, FIELD_REFERENCE_TYPE, FIELD_REFERENCE_ID));
+        fields.forEach(field -> projectedFields.add("id".equals(field) ? FIELD_ID : field));
+        return Projections.include(new ArrayList<>(projectedFields));
+    }
+
     private User convert(UserMongo userMongo) {
         if (userMongo == null) {
             return null;
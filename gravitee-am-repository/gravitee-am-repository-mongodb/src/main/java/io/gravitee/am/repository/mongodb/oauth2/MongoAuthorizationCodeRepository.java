@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.repository.mongodb.oauth2;
 
+import com.mongodb.client.model.CountOptions;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.common.utils.RandomString;
@@ -30,10 +31,16 @@ import org.bson.Document;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.unset;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -46,6 +53,11 @@ public class MongoAuthorizationCodeRepository extends AbstractOAuth2MongoReposit
     private static final String FIELD_TRANSACTION_ID = "transactionId";
     private static final String FIELD_CODE = "code";
     private static final String FIELD_RESET_TIME = "expire_at";
+    private static final String FIELD_CLIENT_ID = "client_id";
+    private static final String FIELD_SUBJECT = "subject";
+    private static final String FIELD_SCOPES = "scopes";
+    private static final String FIELD_REQUEST_PARAMETERS = "request_parameters";
+    private static final String FIELD_CONSUMED = "consumed";
     private MongoCollection<AuthorizationCodeMongo> authorizationCodeCollection;
 
     @PostConstruct
@@ -81,7 +93,28 @@ public class MongoAuthorizationCodeRepository extends AbstractOAuth2MongoReposit
 
     @Override
     public Maybe<AuthorizationCode> findByCode(String code) {
-        return Observable.fromPublisher(authorizationCodeCollection.find(eq(FIELD_CODE, code)).first()).firstElement().map(this::convert);
+        return Observable.fromPublisher(authorizationCodeCollection.find(and(eq(FIELD_CODE, code), ne(FIELD_CONSUMED, true))).first()).firstElement().map(this::convert);
+    }
+
+    @Override
+    public Maybe<AuthorizationCode> consume(String code, String clientId, Date tombstoneExpireAt) {
+        // redeem the code and shrink the document into a tombstone in a single operation,
+        // the document returned is the one before the update
+        return Observable
+                .fromPublisher(authorizationCodeCollection.findOneAndUpdate(
+                        and(eq(FIELD_CODE, code), eq(FIELD_CLIENT_ID, clientId), ne(FIELD_CONSUMED, true)),
+                        combine(set(FIELD_CONSUMED, true), set(FIELD_RESET_TIME, tombstoneExpireAt),
+                                unset(FIELD_TRANSACTION_ID), unset(FIELD_SUBJECT), unset(FIELD_SCOPES), unset(FIELD_REQUEST_PARAMETERS))))
+                .firstElement()
+                .map(this::convert);
+    }
+
+    @Override
+    public Single<Boolean> isConsumed(String code) {
+        return Observable
+                .fromPublisher(authorizationCodeCollection.countDocuments(and(eq(FIELD_CODE, code), eq(FIELD_CONSUMED, true)), new CountOptions().limit(1)))
+                .first(0l)
+                .map(count -> count > 0);
     }
 
     private AuthorizationCode convert(AuthorizationCodeMongo authorizationCodeMongo) {
@@ -31,12 +31,14 @@ import org.bson.Document;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -52,12 +54,14 @@ public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository i
     private static final String FIELD_SUBJECT = "subject";
     private static final String FIELD_DOMAIN_ID = "domain";
     private static final String FIELD_CLIENT_ID = "client";
+    private static final String FIELD_FAMILY_ID = "family_id";
 
     @PostConstruct
     public void init() {
         refreshTokenCollection = mongoOperations.getCollection("refresh_tokens", RefreshTokenMongo.class);
         super.createIndex(refreshTokenCollection, new Document(FIELD_TOKEN, 1));
         super.createIndex(refreshTokenCollection, new Document(FIELD_SUBJECT, 1));
+        super.createIndex(refreshTokenCollection, new Document(FIELD_FAMILY_ID, 1));
         super.createIndex(refreshTokenCollection, new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
 
         // three fields index
@@ -100,6 +104,19 @@ public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository i
         return Completable.fromPublisher(refreshTokenCollection.deleteOne(eq(FIELD_TOKEN, token)));
     }
 
+    @Override
+    public Maybe<RefreshToken> consume(String token, String client, Date now) {
+        return Observable
+                .fromPublisher(refreshTokenCollection.findOneAndDelete(and(eq(FIELD_TOKEN, token), eq(FIELD_CLIENT_ID, client), gt(FIELD_RESET_TIME, now))))
+                .firstElement()
+                .map(this::convert);
+    }
+
+    @Override
+    public Completable deleteByFamilyId(String familyId) {
+        return Completable.fromPublisher(refreshTokenCollection.deleteMany(eq(FIELD_FAMILY_ID, familyId)));
+    }
+
     @Override
     public Completable deleteByUserId(String userId) {
         return Completable.fromPublisher(refreshTokenCollection.deleteMany(eq(FIELD_SUBJECT, userId)));
@@ -132,6 +149,7 @@ public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository i
         refreshTokenMongo.setSubject(refreshToken.getSubject());
         refreshTokenMongo.setCreatedAt(refreshToken.getCreatedAt());
         refreshTokenMongo.setExpireAt(refreshToken.getExpireAt());
+        refreshTokenMongo.setFamilyId(refreshToken.getFamilyId());
 
         return refreshTokenMongo;
     }
@@ -149,6 +167,7 @@ public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository i
         refreshToken.setSubject(refreshTokenMongo.getSubject());
         refreshToken.setCreatedAt(refreshTokenMongo.getCreatedAt());
         refreshToken.setExpireAt(refreshTokenMongo.getExpireAt());
+        refreshToken.setFamilyId(refreshTokenMongo.getFamilyId());
 
         return refreshToken;
     }
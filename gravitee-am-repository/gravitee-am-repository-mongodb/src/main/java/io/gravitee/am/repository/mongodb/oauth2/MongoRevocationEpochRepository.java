@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2;
+
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import io.gravitee.am.common.utils.RandomString;
+import io.gravitee.am.repository.mongodb.oauth2.internal.model.RevocationEpochMongo;
+import io.gravitee.am.repository.oauth2.api.RevocationEpochRepository;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lte;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class MongoRevocationEpochRepository extends AbstractOAuth2MongoRepository implements RevocationEpochRepository {
+
+    private static final String FIELD_REVOKED_AT = "revoked_at";
+    private static final String FIELD_RESET_TIME = "expire_at";
+    private MongoCollection<RevocationEpochMongo> revocationEpochCollection;
+
+    @PostConstruct
+    public void init() {
+        revocationEpochCollection = mongoOperations.getCollection("revocation_epochs", RevocationEpochMongo.class);
+        super.createIndex(revocationEpochCollection, new Document(FIELD_REVOKED_AT, 1));
+        super.createIndex(revocationEpochCollection, new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0l, TimeUnit.SECONDS));
+    }
+
+    @Override
+    public Single<RevocationEpoch> create(RevocationEpoch revocationEpoch) {
+        if (revocationEpoch.getId() == null) {
+            revocationEpoch.setId(RandomString.generate());
+        }
+
+        return Single
+                .fromPublisher(revocationEpochCollection.insertOne(convert(revocationEpoch)))
+                .map(success -> revocationEpoch);
+    }
+
+    @Override
+    public Single<List<RevocationEpoch>> findByTimeFrame(long from, long to) {
+        List<Bson> filters = new ArrayList<>();
+        filters.add(gte(FIELD_REVOKED_AT, new Date(from)));
+        if (to > from) {
+            filters.add(lte(FIELD_REVOKED_AT, new Date(to)));
+        }
+        return Flowable.fromPublisher(revocationEpochCollection.find(and(filters))).map(this::convert).toList();
+    }
+
+    private RevocationEpoch convert(RevocationEpochMongo revocationEpochMongo) {
+        if (revocationEpochMongo == null) {
+            return null;
+        }
+
+        RevocationEpoch revocationEpoch = new RevocationEpoch();
+        revocationEpoch.setId(revocationEpochMongo.getId());
+        revocationEpoch.setDomain(revocationEpochMongo.getDomain());
+        revocationEpoch.setClient(revocationEpochMongo.getClient());
+        revocationEpoch.setSubject(revocationEpochMongo.getSubject());
+        revocationEpoch.setToken(revocationEpochMongo.getToken());
+        revocationEpoch.setRevokedAt(revocationEpochMongo.getRevokedAt());
+        revocationEpoch.setExpireAt(revocationEpochMongo.getExpireAt());
+        return revocationEpoch;
+    }
+
+    private RevocationEpochMongo convert(RevocationEpoch revocationEpoch) {
+        if (revocationEpoch == null) {
+            return null;
+        }
+
+        RevocationEpochMongo revocationEpochMongo = new RevocationEpochMongo();
+        revocationEpochMongo.setId(revocationEpoch.getId());
+        revocationEpochMongo.setDomain(revocationEpoch.getDomain());
+        revocationEpochMongo.setClient(revocationEpoch.getClient());
+        revocationEpochMongo.setSubject(revocationEpoch.getSubject());
+        revocationEpochMongo.setToken(revocationEpoch.getToken());
+        revocationEpochMongo.setRevokedAt(revocationEpoch.getRevokedAt());
+        revocationEpochMongo.setExpireAt(revocationEpoch.getExpireAt());
+        return revocationEpochMongo;
+    }
+}
@@ -51,6 +51,8 @@ public class AuthorizationCodeMongo {
     @BsonProperty("request_parameters")
     private Document requestParameters;
 
+    private Boolean consumed;
+
     public String getId() {
         return id;
     }
@@ -123,6 +125,14 @@ public class AuthorizationCodeMongo {
         this.requestParameters = requestParameters;
     }
 
+    public Boolean getConsumed() {
+        return consumed;
+    }
+
+    public void setConsumed(Boolean consumed) {
+        this.consumed = consumed;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
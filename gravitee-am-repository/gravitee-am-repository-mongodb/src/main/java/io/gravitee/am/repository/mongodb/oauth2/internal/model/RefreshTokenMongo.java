@@ -44,6 +44,9 @@ public class RefreshTokenMongo {
     @BsonProperty("expire_at")
     private Date expireAt;
 
+    @BsonProperty("family_id")
+    private String familyId;
+
     public String getId() {
         return id;
     }
@@ -99,4 +102,12 @@ public class RefreshTokenMongo {
     public void setExpireAt(Date expireAt) {
         this.expireAt = expireAt;
     }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
 }
@@ -102,6 +102,33 @@ public class MongoCredentialRepositoryTest extends AbstractManagementRepositoryT
         testObserver.assertValue(credentials -> credentials.size() == 1);
     }
 
+    @Test
+    public void updateCounter() throws TechnicalException {
+        // create credential
+        Credential credential = new Credential();
+        credential.setReferenceType(ReferenceType.DOMAIN);
+        credential.setReferenceId("domainId");
+        credential.setCredentialId("credentialId");
+        credential.setCounter(5L);
+        Credential credentialCreated = credentialRepository.create(credential).blockingGet();
+
+        // counter increases
+        TestObserver<Long> testObserver = credentialRepository
+                .updateCounter(credential.getReferenceType(), credential.getReferenceId(), credential.getCredentialId(), 6L).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(1L);
+
+        // counter replayed
+        TestObserver<Long> testObserver1 = credentialRepository
+                .updateCounter(credential.getReferenceType(), credential.getReferenceId(), credential.getCredentialId(), 6L).test();
+        testObserver1.awaitTerminalEvent();
+        testObserver1.assertValue(0L);
+
+        credentialRepository.findById(credentialCreated.getId()).test().assertValue(c -> c.getCounter() == 6L);
+    }
+
     @Test
     public void testFindById() throws TechnicalException {
         // create credential
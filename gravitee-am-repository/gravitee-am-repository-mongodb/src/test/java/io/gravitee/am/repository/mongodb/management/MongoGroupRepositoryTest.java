@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.management;
+
+import io.gravitee.am.model.Group;
+import io.gravitee.am.model.ReferenceType;
+import io.gravitee.am.repository.exceptions.TechnicalException;
+import io.gravitee.am.repository.management.api.GroupRepository;
+import io.reactivex.observers.TestObserver;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MongoGroupRepositoryTest extends AbstractManagementRepositoryTest {
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Override
+    public String collectionName() {
+        return "groups";
+    }
+
+    @Test
+    public void testAddMembers() throws TechnicalException {
+        Group group = groupRepository.create(group(Arrays.asList("user-1", "user-2"))).blockingGet();
+
+        TestObserver testObserver = groupRepository.patch(group.getId(), null, null, Arrays.asList("user-2", "user-3"), null).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+
+        groupRepository.findById(group.getId()).test().assertValue(g -> g.getMembers().equals(Arrays.asList("user-1", "user-2", "user-3")));
+    }
+
+    @Test
+    public void testRemoveMembers() throws TechnicalException {
+        Group group = groupRepository.create(group(Arrays.asList("user-1", "user-2", "user-3"))).blockingGet();
+
+        TestObserver testObserver = groupRepository.patch(group.getId(), null, null, null, Arrays.asList("user-1", "user-3")).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+
+        groupRepository.findById(group.getId()).test().assertValue(g -> g.getMembers().equals(Collections.singletonList("user-2")));
+    }
+
+    @Test
+    public void testUpdateName() throws TechnicalException {
+        Group group = groupRepository.create(group(Arrays.asList("user-1"))).blockingGet();
+
+        TestObserver testObserver = groupRepository.patch(group.getId(), "new-name", null, null, null).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+
+        groupRepository.findById(group.getId()).test().assertValue(g -> g.getName().equals("new-name") && g.getMembers().equals(Collections.singletonList("user-1")));
+    }
+
+    @Test
+    public void testReplaceNameAndMembers() throws TechnicalException {
+        Group group = groupRepository.create(group(Arrays.asList("user-1", "user-2"))).blockingGet();
+
+        TestObserver testObserver = groupRepository.patch(group.getId(), "new-name", Collections.singletonList("user-3"), null, null).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+
+        groupRepository.findById(group.getId()).test().assertValue(g -> g.getName().equals("new-name") && g.getMembers().equals(Collections.singletonList("user-3")));
+    }
+
+    @Test
+    public void testAddAndRemoveMembers() throws TechnicalException {
+        Group group = groupRepository.create(group(Arrays.asList("user-1", "user-2"))).blockingGet();
+
+        TestObserver testObserver = groupRepository.patch(group.getId(), "new-name", null, Collections.singletonList("user-3"), Collections.singletonList("user-1")).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+
+        groupRepository.findById(group.getId()).test().assertValue(g -> g.getName().equals("new-name") && g.getMembers().equals(Arrays.asList("user-2", "user-3")));
+    }
+
+    private Group group(List<String> members) {
+        Group group = new Group();
+        group.setName("group");
+        group.setReferenceType(ReferenceType.DOMAIN);
+        group.setReferenceId("domain");
+        group.setMembers(members);
+        return group;
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.management;
+
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import io.gravitee.am.model.LoginAttempt;
+import io.gravitee.am.repository.management.api.LoginAttemptRepository;
+import io.gravitee.am.repository.management.api.search.LoginAttemptCriteria;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.Schedulers;
+import org.bson.Document;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MongoLoginAttemptRepositoryTest extends AbstractManagementRepositoryTest {
+
+    @Autowired
+    private LoginAttemptRepository loginAttemptRepository;
+
+    @Autowired
+    private MongoLoginAttemptRepository mongoLoginAttemptRepository;
+
+    @Autowired
+    private MongoDatabase mongoDatabase;
+
+    @Override
+    public String collectionName() {
+        return "login_attempts";
+    }
+
+    @Test
+    public void testIncrementAttempts_concurrentUpserts() {
+        LoginAttemptCriteria criteria = new LoginAttemptCriteria.Builder()
+                .domain("domain")
+                .client("client")
+                .identityProvider("idp")
+                .username("username")
+                .build();
+        Date expireAt = new Date(System.currentTimeMillis() + 60_000);
+
+        // concurrent failed logins for a new key must all be counted on the same document
+        TestObserver<Long> testObserver = Flowable.range(0, 10)
+                .parallel()
+                .runOn(Schedulers.io())
+                .flatMap(i -> loginAttemptRepository.incrementAttempts(criteria, 100, expireAt, expireAt).toFlowable())
+                .sequential()
+                .count()
+                .test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(10L);
+
+        TestObserver<LoginAttempt> loginAttemptObserver = loginAttemptRepository.findByCriteria(criteria).test();
+        loginAttemptObserver.awaitTerminalEvent();
+        loginAttemptObserver.assertValue(loginAttempt -> loginAttempt.getAttempts() == 10);
+    }
+
+    @Test
+    public void testCreateUniqueIndex_duplicatesAndLegacyIndex() {
+        MongoCollection<Document> collection = mongoDatabase.getCollection(collectionName());
+        // state left by the previous versions
+        Observable.fromPublisher(collection.dropIndex("domain_1_client_1_identityProvider_1_username_1")).blockingFirst();
+        Observable.fromPublisher(collection.createIndex(new Document("domain", 1).append("client", 1).append("username", 1), new IndexOptions())).blockingFirst();
+        Observable.fromPublisher(collection.insertMany(Arrays.asList(
+                loginAttempt("attempt-1", 1, new Date(1000)),
+                loginAttempt("attempt-2", 2, new Date(3000)),
+                loginAttempt("attempt-3", 3, new Date(2000))))).blockingFirst();
+
+        mongoLoginAttemptRepository.createUniqueIndex();
+
+        List<Document> loginAttempts = Observable.fromPublisher(collection.find()).toList().blockingGet();
+        Assert.assertEquals(1, loginAttempts.size());
+        Assert.assertEquals("attempt-2", loginAttempts.get(0).getString("_id"));
+
+        List<String> indexes = Observable.fromPublisher(collection.listIndexes()).map(index -> index.getString("name")).toList().blockingGet();
+        Assert.assertTrue(indexes.contains("domain_1_client_1_identityProvider_1_username_1"));
+        Assert.assertFalse(indexes.contains("domain_1_client_1_username_1"));
+    }
+
+    private static Document loginAttempt(String id, int attempts, Date updatedAt) {
+        return new Document("_id", id)
+                .append("domain", "domain")
+                .append("client", "client")
+                .append("identityProvider", "idp")
+                .append("username", "username")
+                .append("attempts", attempts)
+                .append("updatedAt", updatedAt);
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.management;
+
+import io.gravitee.am.model.OutboxEmail;
+import io.gravitee.am.repository.exceptions.TechnicalException;
+import io.gravitee.am.repository.management.api.OutboxEmailRepository;
+import io.reactivex.observers.TestObserver;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MongoOutboxEmailRepositoryTest extends AbstractManagementRepositoryTest {
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Override
+    public String collectionName() {
+        return "email_outbox";
+    }
+
+    @Test
+    public void testCreate() throws TechnicalException {
+        TestObserver<OutboxEmail> testObserver = outboxEmailRepository.create(outboxEmail("domain", new Date())).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(e -> e.getId() != null && e.getTo().equals(Collections.singletonList("user@acme.com")));
+    }
+
+    @Test
+    public void testLockNext() throws TechnicalException {
+        final Date now = new Date();
+        final Date leaseExpireAt = new Date(now.getTime() + 60000);
+        OutboxEmail outboxEmail = outboxEmailRepository.create(outboxEmail("domain", new Date(now.getTime() - 1000))).blockingGet();
+        outboxEmailRepository.create(outboxEmail("domain", new Date(now.getTime() + 10000))).blockingGet();
+        outboxEmailRepository.create(outboxEmail("other-domain", new Date(now.getTime() - 1000))).blockingGet();
+
+        TestObserver<OutboxEmail> testObserver = outboxEmailRepository.lockNext("domain", now, leaseExpireAt).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(e -> e.getId().equals(outboxEmail.getId()) && e.getNextAttemptAt().equals(leaseExpireAt));
+
+        // already claimed, the other email is not due yet
+        outboxEmailRepository.lockNext("domain", now, leaseExpireAt).test().assertNoValues();
+
+        // lease expired
+        outboxEmailRepository.lockNext("domain", new Date(leaseExpireAt.getTime() + 1), leaseExpireAt).test().assertValueCount(1);
+    }
+
+    @Test
+    public void testDelete() throws TechnicalException {
+        OutboxEmail outboxEmail = outboxEmailRepository.create(outboxEmail("domain", new Date())).blockingGet();
+
+        TestObserver testObserver = outboxEmailRepository.delete(outboxEmail.getId()).test();
+        testObserver.awaitTerminalEvent();
+
+        outboxEmailRepository.findById(outboxEmail.getId()).test().assertEmpty();
+    }
+
+    @Test
+    public void testDeleteByDomain() throws TechnicalException {
+        OutboxEmail outboxEmail = outboxEmailRepository.create(outboxEmail("domain", new Date())).blockingGet();
+        OutboxEmail otherOutboxEmail = outboxEmailRepository.create(outboxEmail("other-domain", new Date())).blockingGet();
+
+        TestObserver testObserver = outboxEmailRepository.deleteByDomain("domain").test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+
+        outboxEmailRepository.findById(outboxEmail.getId()).test().assertEmpty();
+        outboxEmailRepository.findById(otherOutboxEmail.getId()).test().assertValueCount(1);
+    }
+
+    private OutboxEmail outboxEmail(String domain, Date nextAttemptAt) {
+        OutboxEmail outboxEmail = new OutboxEmail();
+        outboxEmail.setDomain(domain);
+        outboxEmail.setTemplate("reset_password");
+        outboxEmail.setFrom("noreply@acme.com");
+        outboxEmail.setTo(Collections.singletonList("user@acme.com"));
+        outboxEmail.setSubject("subject");
+        outboxEmail.setContent("content");
+        outboxEmail.setNextAttemptAt(nextAttemptAt);
+        return outboxEmail;
+    }
+}
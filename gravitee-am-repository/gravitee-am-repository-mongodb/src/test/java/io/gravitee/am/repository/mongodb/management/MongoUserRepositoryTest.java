@@ -25,7 +25,10 @@ import io.reactivex.observers.TestObserver;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -99,6 +102,30 @@ public class MongoUserRepositoryTest extends AbstractManagementRepositoryTest {
         testObserver.assertValue(u -> u.getUsername().equals("testsUsername"));
     }
 
+    @Test
+    public void testFindByIdIn_projection() throws TechnicalException {
+        // create user
+        User user = new User();
+        user.setReferenceType(ReferenceType.DOMAIN);
+        user.setReferenceId("domainId");
+        user.setUsername("testsUsername");
+        user.setDisplayName("displayName");
+        user.setAdditionalInformation(Collections.singletonMap("email", "johndoe@test.com"));
+        User userCreated = userRepository.create(user).blockingGet();
+
+        // fetch user with only the username
+        TestObserver<List<User>> testObserver = userRepository.findByIdIn(Collections.singletonList(userCreated.getId()), Collections.singleton("username")).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(users -> users.size() == 1
+                && users.get(0).getId().equals(userCreated.getId())
+                && users.get(0).getUsername().equals("testsUsername")
+                && users.get(0).getDisplayName() == null
+                && users.get(0).getAdditionalInformation() == null);
+    }
+
     @Test
     public void testNotFoundById() throws TechnicalException {
         userRepository.findById("test").test().assertEmpty();
@@ -261,6 +288,39 @@ public class MongoUserRepositoryTest extends AbstractManagementRepositoryTest {
         testObserverP1.assertValue(users -> users.getData().iterator().next().getUsername().equals(user3.getUsername()));
     }
 
+    @Test
+    public void testFindAll_projection() {
+        final String domain = "domain";
+        // create user
+        User user = new User();
+        user.setReferenceType(ReferenceType.DOMAIN);
+        user.setReferenceId(domain);
+        user.setUsername("testUsername");
+        user.setEnabled(false);
+        user.setFirstName("firstName");
+        user.setAdditionalInformation(new HashMap<>());
+        user.getAdditionalInformation().put(StandardClaims.MIDDLE_NAME, "middleName");
+        user.getAdditionalInformation().put(StandardClaims.PICTURE, "picture");
+        userRepository.create(user).blockingGet();
+
+        // fetch users with only the username, the status and the middle name
+        TestObserver<Page<User>> testObserver = userRepository.findAll(ReferenceType.DOMAIN, domain, 0, 10,
+                new HashSet<>(Arrays.asList("username", "enabled", "additionalInformation." + StandardClaims.MIDDLE_NAME))).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(users -> {
+            User projectedUser = users.getData().iterator().next();
+            return users.getData().size() == 1
+                    && projectedUser.getUsername().equals("testUsername")
+                    && !projectedUser.isEnabled()
+                    && projectedUser.getFirstName() == null
+                    && projectedUser.getAdditionalInformation().size() == 1
+                    && projectedUser.getAdditionalInformation().get(StandardClaims.MIDDLE_NAME).equals("middleName");
+        });
+    }
+
     @Test
     public void testFindByDomainAndEmail() throws TechnicalException {
         final String domain = "domain";
@@ -21,6 +21,8 @@ import io.reactivex.observers.TestObserver;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Date;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -71,4 +73,43 @@ public class MongoAuthorizationCodeRepositoryTest extends AbstractOAuth2Reposito
                 .test().assertEmpty();
     }
 
+    @Test
+    public void shouldConsumeCodeOnce() {
+        String code = "testCode";
+        AuthorizationCode authorizationCode = new AuthorizationCode();
+        authorizationCode.setCode(code);
+        authorizationCode.setClientId("client-id");
+        authorizationCode.setSubject("subject");
+
+        authorizationCodeRepository.create(authorizationCode).blockingGet();
+
+        Date tombstoneExpireAt = new Date(System.currentTimeMillis() + 60000);
+        TestObserver<AuthorizationCode> testObserver = authorizationCodeRepository.consume(code, "client-id", tombstoneExpireAt).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertValue(authorizationCode1 -> authorizationCode1.getCode().equals(code) && "subject".equals(authorizationCode1.getSubject()));
+
+        authorizationCodeRepository.consume(code, "client-id", tombstoneExpireAt).test().assertEmpty();
+        authorizationCodeRepository.findByCode(code).test().assertEmpty();
+        authorizationCodeRepository.isConsumed(code).test().assertValue(true);
+    }
+
+    @Test
+    public void shouldNotConsumeCode_otherClient() {
+        String code = "testCode";
+        AuthorizationCode authorizationCode = new AuthorizationCode();
+        authorizationCode.setCode(code);
+        authorizationCode.setClientId("client-id");
+
+        authorizationCodeRepository.create(authorizationCode).blockingGet();
+
+        authorizationCodeRepository.consume(code, "other-client-id", new Date()).test().assertEmpty();
+        authorizationCodeRepository.isConsumed(code).test().assertValue(false);
+        authorizationCodeRepository.findByCode(code).test().assertValueCount(1);
+    }
+
+    @Test
+    public void shouldNotBeConsumed_unknownCode() {
+        authorizationCodeRepository.isConsumed("unknownCode").test().assertValue(false);
+    }
 }
@@ -22,6 +22,7 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Arrays;
+import java.util.Date;
 import java.util.UUID;
 
 /**
@@ -83,6 +84,64 @@ public class MongoRefreshTokenRepositoryTest extends AbstractOAuth2RepositoryTes
                 .test().assertEmpty();
     }
 
+    @Test
+    public void shouldConsumeOnce() {
+        RefreshToken token = new RefreshToken();
+        token.setId("my-token");
+        token.setToken("my-token");
+        token.setClient("client-id");
+        token.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        TestObserver<RefreshToken> observer = refreshTokenRepository
+                .create(token)
+                .toCompletable()
+                .andThen(refreshTokenRepository.consume("my-token", "client-id", new Date()))
+                .test();
+        observer.awaitTerminalEvent();
+        observer.assertValue(refreshToken -> "my-token".equals(refreshToken.getToken()));
+
+        refreshTokenRepository.consume("my-token", "client-id", new Date()).test().assertEmpty();
+    }
+
+    @Test
+    public void shouldNotConsume_otherClientOrExpired() {
+        RefreshToken token = new RefreshToken();
+        token.setId("my-token");
+        token.setToken("my-token");
+        token.setClient("client-id");
+        token.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        refreshTokenRepository
+                .create(token)
+                .toCompletable()
+                .andThen(refreshTokenRepository.consume("my-token", "client-id2", new Date()))
+                .test().assertEmpty();
+        refreshTokenRepository.consume("my-token", "client-id", new Date(System.currentTimeMillis() + 120000)).test().assertEmpty();
+
+        assertNotNull(refreshTokenRepository.findByToken("my-token").blockingGet());
+    }
+
+    @Test
+    public void shouldDeleteByFamilyId() {
+        RefreshToken token1 = new RefreshToken();
+        token1.setId("my-token");
+        token1.setToken("my-token");
+        token1.setFamilyId("family-id");
+
+        RefreshToken token2 = new RefreshToken();
+        token2.setId("my-token2");
+        token2.setToken("my-token2");
+        token2.setFamilyId("family-id2");
+
+        assertEquals(0, refreshTokenRepository
+                .bulkWrite(Arrays.asList(token1, token2))
+                .andThen(refreshTokenRepository.deleteByFamilyId("family-id"))
+                .andThen(refreshTokenRepository.findByToken("my-token"))
+                .test().valueCount());
+
+        assertNotNull(refreshTokenRepository.findByToken("my-token2").blockingGet());
+    }
+
     @Test
     public void shouldDeleteByDomainIdClientIdAndUserId() {
         RefreshToken token1 = new RefreshToken();
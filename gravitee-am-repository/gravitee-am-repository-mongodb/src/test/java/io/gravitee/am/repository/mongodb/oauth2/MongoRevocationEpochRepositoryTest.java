@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2;
+
+import io.gravitee.am.repository.oauth2.api.RevocationEpochRepository;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.reactivex.observers.TestObserver;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MongoRevocationEpochRepositoryTest extends AbstractOAuth2RepositoryTest {
+
+    @Autowired
+    private RevocationEpochRepository revocationEpochRepository;
+
+    @Override
+    public String collectionName() {
+        return "revocation_epochs";
+    }
+
+    @Test
+    public void shouldFindByTimeFrame() {
+        long now = System.currentTimeMillis();
+        revocationEpochRepository.create(revocationEpoch("subject-1", new Date(now - 60000))).blockingGet();
+        revocationEpochRepository.create(revocationEpoch("subject-2", new Date(now))).blockingGet();
+
+        TestObserver<List<RevocationEpoch>> testObserver = revocationEpochRepository.findByTimeFrame(now - 1000, now + 1000).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(revocationEpochs -> revocationEpochs.size() == 1
+                && "subject-2".equals(revocationEpochs.get(0).getSubject())
+                && "domain".equals(revocationEpochs.get(0).getDomain())
+                && "client".equals(revocationEpochs.get(0).getClient()));
+    }
+
+    @Test
+    public void shouldFindByTimeFrame_noUpperBound() {
+        long now = System.currentTimeMillis();
+        revocationEpochRepository.create(revocationEpoch("subject-1", new Date(now - 60000))).blockingGet();
+        revocationEpochRepository.create(revocationEpoch("subject-2", new Date(now))).blockingGet();
+
+        TestObserver<List<RevocationEpoch>> testObserver = revocationEpochRepository.findByTimeFrame(now - 120000, 0).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertValue(revocationEpochs -> revocationEpochs.size() == 2);
+    }
+
+    @Test
+    public void shouldFindByTimeFrame_revokedToken() {
+        long now = System.currentTimeMillis();
+        RevocationEpoch revocationEpoch = revocationEpoch(null, new Date(now));
+        revocationEpoch.setToken("jti");
+        revocationEpochRepository.create(revocationEpoch).blockingGet();
+
+        TestObserver<List<RevocationEpoch>> testObserver = revocationEpochRepository.findByTimeFrame(now - 1000, now + 1000).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertValue(revocationEpochs -> revocationEpochs.size() == 1
+                && "jti".equals(revocationEpochs.get(0).getToken())
+                && revocationEpochs.get(0).getSubject() == null);
+    }
+
+    private RevocationEpoch revocationEpoch(String subject, Date revokedAt) {
+        RevocationEpoch revocationEpoch = new RevocationEpoch();
+        revocationEpoch.setDomain("domain");
+        revocationEpoch.setClient("client");
+        revocationEpoch.setSubject(subject);
+        revocationEpoch.setRevokedAt(revokedAt);
+        revocationEpoch.setExpireAt(new Date(revokedAt.getTime() + 3600000));
+        return revocationEpoch;
+    }
+}
@@ -37,6 +37,8 @@ public interface CredentialService {
 
     Single<List<Credential>> findByCredentialId(ReferenceType referenceType, String referenceId, String credentialId);
 
+    Single<Long> updateCounter(ReferenceType referenceType, String referenceId, String credentialId, long counter);
+
     Single<Credential> create(Credential credential);
 
     Single<Credential> update(Credential credential);
@@ -17,6 +17,9 @@ package io.gravitee.am.service;
 
 import io.gravitee.am.common.email.Email;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -24,4 +27,12 @@ import io.gravitee.am.common.email.Email;
 public interface EmailService {
 
     void send(Email email);
+
+    /**
+     * Send a batch of emails through a single SMTP connection.
+     *
+     * @param emails the emails to send
+     * @return the emails which could not be sent with the cause of the failure, empty if all emails have been sent
+     */
+    Map<Email, Exception> send(List<Email> emails);
 }
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service;
+
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.reactivex.Single;
+
+import java.util.Date;
+
+/**
+ * Record that the tokens issued so far within a scope are revoked, so that gateways can validate
+ * the other tokens without a database lookup.
+ *
+ * @author GraviteeSource Team
+ */
+public interface RevocationEpochService {
+
+    /**
+     * Revoke the tokens issued until now.
+     *
+     * @param domain security domain
+     * @param client client the tokens have been issued to, <code>null</code> for every client of the domain
+     * @param subject subject of the tokens, <code>null</code> for every subject of the client
+     * @return the recorded revocation epoch
+     */
+    Single<RevocationEpoch> revoke(String domain, String client, String subject);
+
+    /**
+     * Revoke a single token, the record is kept until the token expires.
+     *
+     * @param domain security domain
+     * @param token identifier (jti) of the token
+     * @param expireAt expiration date of the token
+     * @return the recorded revocation epoch
+     */
+    Single<RevocationEpoch> revokeToken(String domain, String token, Date expireAt);
+}
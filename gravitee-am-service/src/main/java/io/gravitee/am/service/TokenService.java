@@ -32,5 +32,11 @@ public interface TokenService {
 
     Single<TotalToken> findTotalTokens();
 
-    Completable deleteByUserId(String userId);
+    /**
+     * Delete the tokens of a user and revoke the ones already issued within the security domain.
+     *
+     * @param domain security domain of the user
+     * @param userId user id
+     */
+    Completable deleteByUserId(String domain, String userId);
 }
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password;
+
+import java.util.Map;
+
+/**
+ * A password encoder delegating to the encoder identified by the prefix of the encoded password, so that passwords
+ * encoded with several algorithms can live in the same user store :
+ * <ul>
+ *     <li><code>{id}encodedPassword</code> : password encoded by the encoder registered with the <code>id</code></li>
+ *     <li><code>$2a$...</code> : BCrypt hash, BCrypt uses its own self-describing format which is kept untagged</li>
+ *     <li>other untagged values : password encoded by the fallback encoder (e.g. plain text passwords)</li>
+ * </ul>
+ *
+ * New passwords are encoded with the target encoder. BCrypt and plain text passwords are stored untagged,
+ * as they were before the other encoders were introduced.
+ *
+ * @author GraviteeSource Team
+ */
+public class DelegatingPasswordEncoder implements PasswordEncoder {
+
+    public static final String NOOP = "noop";
+    public static final String BCRYPT = "bcrypt";
+    private static final String PREFIX = "{";
+    private static final String SUFFIX = "}";
+    private static final String BCRYPT_PREFIX = "$2";
+
+    private final String targetId;
+    private final PasswordEncoder target;
+    private final Map<String, PasswordEncoder> encoders;
+    private final PasswordEncoder fallback;
+
+    /**
+     * @param targetId the id of the encoder used to encode new passwords
+     * @param encoders the encoders by id
+     * @param fallback the encoder used to verify untagged passwords which are not BCrypt hashes
+     */
+    public DelegatingPasswordEncoder(String targetId, Map<String, PasswordEncoder> encoders, PasswordEncoder fallback) {
+        if (!encoders.containsKey(targetId)) {
+            throw new IllegalArgumentException("No password encoder registered for id " + targetId);
+        }
+        this.targetId = targetId;
+        this.target = encoders.get(targetId);
+        this.encoders = encoders;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        String encodedPassword = target.encode(rawPassword);
+        return isUntagged(targetId) ? encodedPassword : PREFIX + targetId + SUFFIX + encodedPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        String id = extractId(encodedPassword);
+        if (id != null) {
+            return encoders.get(id).matches(rawPassword, encodedPassword.substring(id.length() + 2));
+        }
+        return untaggedEncoder(encodedPassword).matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // never downgrade hashed passwords to plain text
+        if (encodedPassword == null || NOOP.equals(targetId)) {
+            return false;
+        }
+        String id = extractId(encodedPassword);
+        if (id != null) {
+            return !id.equals(targetId) || target.upgradeEncoding(encodedPassword.substring(id.length() + 2));
+        }
+        PasswordEncoder encoder = untaggedEncoder(encodedPassword);
+        return encoder != target || target.upgradeEncoding(encodedPassword);
+    }
+
+    private PasswordEncoder untaggedEncoder(String encodedPassword) {
+        if (encodedPassword.startsWith(BCRYPT_PREFIX) && encoders.containsKey(BCRYPT)) {
+            return encoders.get(BCRYPT);
+        }
+        return fallback;
+    }
+
+    /**
+     * @return the id of the encoder of a tagged password, null if the password is untagged or if the id is unknown
+     */
+    private String extractId(String encodedPassword) {
+        if (!encodedPassword.startsWith(PREFIX)) {
+            return null;
+        }
+        int end = encodedPassword.indexOf(SUFFIX);
+        if (end < 0) {
+            return null;
+        }
+        String id = encodedPassword.substring(PREFIX.length(), end);
+        return encoders.containsKey(id) ? id : null;
+    }
+
+    private static boolean isUntagged(String id) {
+        return NOOP.equals(id) || BCRYPT.equals(id);
+    }
+}
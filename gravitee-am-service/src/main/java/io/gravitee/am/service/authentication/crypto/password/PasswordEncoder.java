@@ -42,4 +42,14 @@ public interface PasswordEncoder {
      */
     boolean matches(CharSequence rawPassword, String encodedPassword);
 
+    /**
+     * Returns true if the encoded password should be encoded again for better security, i.e. it has been
+     * encoded with another algorithm or another cost than the ones currently used by this encoder.
+     *
+     * @param encodedPassword the encoded password from storage
+     * @return true if the encoded password should be encoded again
+     */
+    default boolean upgradeEncoding(String encodedPassword) {
+        return false;
+    }
 }
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password;
+
+import io.gravitee.am.service.authentication.crypto.password.argon2.Argon2PasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.bcrypt.BCryptPasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.digest.MessageDigestPasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.pbkdf2.Pbkdf2PasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.scrypt.SCryptPasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the password encoders available to the identity providers.
+ *
+ * The created encoder encodes new passwords with the requested algorithm and verifies passwords encoded with any
+ * registered algorithm, including the legacy read-only digests (<code>{MD5}</code>, <code>{SHA-1}</code>,
+ * <code>{SHA-256}</code>, ...) of imported users. See {@link DelegatingPasswordEncoder} for the encoded password format.
+ *
+ * @author GraviteeSource Team
+ */
+public final class PasswordEncoderFactory {
+
+    public static final String NONE = "None";
+    public static final String BCRYPT = "BCrypt";
+    public static final String PBKDF2 = "PBKDF2";
+    public static final String SCRYPT = "SCrypt";
+    public static final String ARGON2 = "Argon2";
+    private static final String[] LEGACY_DIGESTS = {"MD5", "SHA-1", "SHA-256", "SHA-384", "SHA-512"};
+    private static final int BCRYPT_MIN_ROUNDS = 4;
+    private static final int BCRYPT_MAX_ROUNDS = 31;
+
+    private PasswordEncoderFactory() {
+    }
+
+    /**
+     * @param algorithm the algorithm used to encode new passwords, one of {@link #NONE}, {@link #BCRYPT},
+     *                  {@link #PBKDF2}, {@link #SCRYPT} or {@link #ARGON2}. Unknown algorithms fall back to {@link #NONE}.
+     * @param options the options of the algorithm, may be null
+     * @return the password encoder
+     * @throws IllegalArgumentException if the rounds are not valid for the algorithm
+     */
+    public static PasswordEncoder create(String algorithm, PasswordEncoderOptions options) {
+        final Integer rounds = options != null ? options.getRounds() : null;
+        if (rounds != null) {
+            validateRounds(algorithm, rounds);
+        }
+        final PasswordEncoder bcrypt = new BCryptPasswordEncoder(BCRYPT.equals(algorithm) && rounds != null ? rounds : -1);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(DelegatingPasswordEncoder.NOOP, NoOpPasswordEncoder.getInstance());
+        encoders.put(DelegatingPasswordEncoder.BCRYPT, bcrypt);
+        encoders.put("pbkdf2", PBKDF2.equals(algorithm) && rounds != null ? new Pbkdf2PasswordEncoder(rounds) : new Pbkdf2PasswordEncoder());
+        encoders.put("scrypt", SCRYPT.equals(algorithm) && rounds != null ? new SCryptPasswordEncoder(rounds) : new SCryptPasswordEncoder());
+        encoders.put("argon2", ARGON2.equals(algorithm) && rounds != null ?
+                new Argon2PasswordEncoder(rounds, Argon2PasswordEncoder.DEFAULT_MEMORY) : new Argon2PasswordEncoder());
+        for (String digest : LEGACY_DIGESTS) {
+            encoders.put(digest, new MessageDigestPasswordEncoder(digest));
+        }
+        encoders.put("SHA", encoders.get("SHA-1"));
+
+        String targetId = targetId(algorithm);
+        // untagged values other than BCrypt hashes are plain text passwords, only accepted if no encoding is configured
+        PasswordEncoder fallback = DelegatingPasswordEncoder.NOOP.equals(targetId) ? NoOpPasswordEncoder.getInstance() : bcrypt;
+        return new DelegatingPasswordEncoder(targetId, encoders, fallback);
+    }
+
+    private static void validateRounds(String algorithm, int rounds) {
+        if (BCRYPT.equals(algorithm) && (rounds < BCRYPT_MIN_ROUNDS || rounds > BCRYPT_MAX_ROUNDS)) {
+            throw new IllegalArgumentException("Invalid password encoder rounds " + rounds + " for " + BCRYPT
+                    + ": log2 rounds must be between " + BCRYPT_MIN_ROUNDS + " and " + BCRYPT_MAX_ROUNDS);
+        }
+        if (SCRYPT.equals(algorithm) && (rounds <= 1 || (rounds & (rounds - 1)) != 0)) {
+            throw new IllegalArgumentException("Invalid password encoder rounds " + rounds + " for " + SCRYPT
+                    + ": CPU/memory cost must be a power of 2 greater than 1");
+        }
+        if ((PBKDF2.equals(algorithm) || ARGON2.equals(algorithm)) && rounds < 1) {
+            throw new IllegalArgumentException("Invalid password encoder rounds " + rounds + " for " + algorithm
+                    + ": iterations must be greater than 0");
+        }
+    }
+
+    private static String targetId(String algorithm) {
+        if (algorithm == null) {
+            return DelegatingPasswordEncoder.NOOP;
+        }
+        switch (algorithm) {
+            case BCRYPT:
+                return DelegatingPasswordEncoder.BCRYPT;
+            case PBKDF2:
+                return "pbkdf2";
+            case SCRYPT:
+                return "scrypt";
+            case ARGON2:
+                return "argon2";
+            default:
+                return DelegatingPasswordEncoder.NOOP;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password;
+
+/**
+ * Options of the password encoder of an identity provider.
+ *
+ * @author GraviteeSource Team
+ */
+public class PasswordEncoderOptions {
+
+    /**
+     * The work factor of the algorithm : log rounds for BCrypt, iterations for PBKDF2 and Argon2, CPU/memory cost
+     * for SCrypt. The algorithm default is used if not set.
+     */
+    private Integer rounds;
+
+    /**
+     * Encode the password again when a user successfully logs in with a password encoded with another algorithm
+     * or another work factor.
+     */
+    private boolean rehashOnLogin;
+
+    public PasswordEncoderOptions() {
+    }
+
+    public PasswordEncoderOptions(Integer rounds, boolean rehashOnLogin) {
+        this.rounds = rounds;
+        this.rehashOnLogin = rehashOnLogin;
+    }
+
+    public Integer getRounds() {
+        return rounds;
+    }
+
+    public void setRounds(Integer rounds) {
+        this.rounds = rounds;
+    }
+
+    public boolean isRehashOnLogin() {
+        return rehashOnLogin;
+    }
+
+    public void setRehashOnLogin(boolean rehashOnLogin) {
+        this.rehashOnLogin = rehashOnLogin;
+    }
+}
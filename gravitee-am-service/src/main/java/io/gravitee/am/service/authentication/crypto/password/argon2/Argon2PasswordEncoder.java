@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password.argon2;
+
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of PasswordEncoder that uses the Argon2id memory-hard hashing function. The encoded password uses
+ * the PHC string format : <code>$argon2id$v=19$m=memory,t=iterations,p=parallelism$salt$hash</code>.
+ *
+ * @author GraviteeSource Team
+ */
+public class Argon2PasswordEncoder implements PasswordEncoder {
+
+    public static final int DEFAULT_ITERATIONS = 2;
+    public static final int DEFAULT_MEMORY = 19456;
+    private static final int PARALLELISM = 1;
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    private static final Pattern ARGON2_PATTERN = Pattern
+            .compile("\\A\\$argon2(id|i|d)\\$v=(\\d+)\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$([A-Za-z0-9+/]+)\\$([A-Za-z0-9+/]+)\\z");
+    private final Logger logger = LoggerFactory.getLogger(Argon2PasswordEncoder.class);
+    private final int iterations;
+    private final int memory;
+    private final SecureRandom random = new SecureRandom();
+
+    public Argon2PasswordEncoder() {
+        this(DEFAULT_ITERATIONS, DEFAULT_MEMORY);
+    }
+
+    /**
+     * @param iterations the number of passes over the memory
+     * @param memory the memory to use, in kibibytes
+     */
+    public Argon2PasswordEncoder(int iterations, int memory) {
+        if (iterations < 1 || memory < 8 * PARALLELISM) {
+            throw new IllegalArgumentException("Bad iterations or memory");
+        }
+        this.iterations = iterations;
+        this.memory = memory;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        Argon2Parameters parameters = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+                .withIterations(iterations)
+                .withMemoryAsKB(memory)
+                .withParallelism(PARALLELISM)
+                .withSalt(salt)
+                .build();
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return "$argon2id$v=" + Argon2Parameters.ARGON2_VERSION_13 + "$m=" + memory + ",t=" + iterations + ",p=" + PARALLELISM
+                + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash(rawPassword, parameters, HASH_LENGTH));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Matcher matcher = encodedPassword != null ? ARGON2_PATTERN.matcher(encodedPassword) : null;
+        if (matcher == null || !matcher.matches()) {
+            logger.warn("Encoded password does not look like Argon2");
+            return false;
+        }
+        byte[] expectedHash = Base64.getDecoder().decode(matcher.group(7));
+        Argon2Parameters parameters = new Argon2Parameters.Builder(type(matcher.group(1)))
+                .withVersion(Integer.parseInt(matcher.group(2)))
+                .withMemoryAsKB(Integer.parseInt(matcher.group(3)))
+                .withIterations(Integer.parseInt(matcher.group(4)))
+                .withParallelism(Integer.parseInt(matcher.group(5)))
+                .withSalt(Base64.getDecoder().decode(matcher.group(6)))
+                .build();
+        return MessageDigest.isEqual(expectedHash, hash(rawPassword, parameters, expectedHash.length));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        Matcher matcher = encodedPassword != null ? ARGON2_PATTERN.matcher(encodedPassword) : null;
+        if (matcher == null || !matcher.matches()) {
+            return false;
+        }
+        return !"id".equals(matcher.group(1))
+                || Integer.parseInt(matcher.group(3)) != memory
+                || Integer.parseInt(matcher.group(4)) != iterations;
+    }
+
+    private static byte[] hash(CharSequence rawPassword, Argon2Parameters parameters, int length) {
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(parameters);
+        byte[] hash = new byte[length];
+        generator.generateBytes(rawPassword.toString().getBytes(StandardCharsets.UTF_8), hash);
+        return hash;
+    }
+
+    private static int type(String type) {
+        switch (type) {
+            case "i":
+                return Argon2Parameters.ARGON2_i;
+            case "d":
+                return Argon2Parameters.ARGON2_d;
+            default:
+                return Argon2Parameters.ARGON2_id;
+        }
+    }
+}
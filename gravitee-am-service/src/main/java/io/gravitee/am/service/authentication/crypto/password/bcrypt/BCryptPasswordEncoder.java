@@ -33,7 +33,8 @@ import java.util.regex.Pattern;
  */
 public class BCryptPasswordEncoder implements PasswordEncoder {
     private Pattern BCRYPT_PATTERN = Pattern
-            .compile("\\A\\$2a?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+            .compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+    private static final int DEFAULT_STRENGTH = 10;
     private final Logger logger = LoggerFactory.getLogger(BCryptPasswordEncoder.class);
 
     private final int strength;
@@ -91,6 +92,21 @@ public class BCryptPasswordEncoder implements PasswordEncoder {
             return false;
         }
 
-        return BCrypt.checkpw(rawPassword.toString(), encodedPassword);
+        // $2b$ and $2y$ hashes (produced by other implementations) are computed the same way as $2a$ hashes
+        return BCrypt.checkpw(rawPassword.toString(), normalize(encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || !BCRYPT_PATTERN.matcher(encodedPassword).matches()) {
+            return false;
+        }
+        int logRounds = Integer.parseInt(encodedPassword.substring(encodedPassword.indexOf('$', 1) + 1, encodedPassword.indexOf('$', 1) + 3));
+        return logRounds != (strength > 0 ? strength : DEFAULT_STRENGTH);
+    }
+
+    private static String normalize(String encodedPassword) {
+        char minor = encodedPassword.charAt(2);
+        return minor == 'b' || minor == 'y' ? "$2a" + encodedPassword.substring(3) : encodedPassword;
     }
 }
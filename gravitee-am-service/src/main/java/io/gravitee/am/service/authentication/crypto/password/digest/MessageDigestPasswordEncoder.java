@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password.digest;
+
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Read-only PasswordEncoder for legacy unsalted digests (MD5, SHA-1, SHA-256, ...) of imported users. The digest
+ * may be hexadecimal or base64 encoded. Such passwords can only be verified, they are expected to be encoded again
+ * with a stronger algorithm as soon as the user logs in.
+ *
+ * @author GraviteeSource Team
+ */
+public class MessageDigestPasswordEncoder implements PasswordEncoder {
+
+    private final String algorithm;
+    private final int digestLength;
+
+    /**
+     * @param algorithm the {@link MessageDigest} algorithm
+     */
+    public MessageDigestPasswordEncoder(String algorithm) {
+        this.algorithm = algorithm;
+        this.digestLength = messageDigest().getDigestLength();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        throw new UnsupportedOperationException(algorithm + " is a legacy password encoding, it can only be used to verify passwords");
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        byte[] expectedDigest = decode(encodedPassword);
+        return expectedDigest != null
+                && MessageDigest.isEqual(expectedDigest, messageDigest().digest(rawPassword.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return true;
+    }
+
+    private byte[] decode(String encodedPassword) {
+        if (encodedPassword == null) {
+            return null;
+        }
+        if (encodedPassword.length() == digestLength * 2) {
+            byte[] digest = new byte[digestLength];
+            for (int i = 0; i < digestLength; i++) {
+                int high = Character.digit(encodedPassword.charAt(2 * i), 16);
+                int low = Character.digit(encodedPassword.charAt(2 * i + 1), 16);
+                if (high < 0 || low < 0) {
+                    return null;
+                }
+                digest[i] = (byte) ((high << 4) + low);
+            }
+            return digest;
+        }
+        try {
+            byte[] digest = Base64.getDecoder().decode(encodedPassword);
+            return digest.length == digestLength ? digest : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private MessageDigest messageDigest() {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported digest algorithm " + algorithm, e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password.pbkdf2;
+
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Implementation of PasswordEncoder that uses PBKDF2 with HMAC-SHA256. The encoded password holds the number of
+ * iterations, the salt and the derived key : <code>iterations$salt$key</code> (salt and key are base64 encoded).
+ *
+ * @author GraviteeSource Team
+ */
+public class Pbkdf2PasswordEncoder implements PasswordEncoder {
+
+    public static final int DEFAULT_ITERATIONS = 310000;
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_LENGTH = 16;
+    private static final int KEY_LENGTH = 256;
+    private final Logger logger = LoggerFactory.getLogger(Pbkdf2PasswordEncoder.class);
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    public Pbkdf2PasswordEncoder() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * @param iterations the number of iterations of the pseudo-random function
+     */
+    public Pbkdf2PasswordEncoder(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Bad iterations");
+        }
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(derive(rawPassword, salt, iterations, KEY_LENGTH));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        String[] parts = encodedPassword != null ? encodedPassword.split("\\$") : new String[0];
+        if (parts.length != 3) {
+            logger.warn("Encoded password does not look like PBKDF2");
+            return false;
+        }
+        try {
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] key = Base64.getDecoder().decode(parts[2]);
+            return MessageDigest.isEqual(key, derive(rawPassword, salt, Integer.parseInt(parts[0]), key.length * 8));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Encoded password does not look like PBKDF2");
+            return false;
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int separator = encodedPassword != null ? encodedPassword.indexOf('$') : -1;
+        return separator > 0 && !String.valueOf(iterations).equals(encodedPassword.substring(0, separator));
+    }
+
+    private static byte[] derive(CharSequence rawPassword, byte[] salt, int iterations, int keyLength) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toString().toCharArray(), salt, iterations, keyLength);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to encode password with " + ALGORITHM, e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password.scrypt;
+
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
+import org.bouncycastle.crypto.generators.SCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Implementation of PasswordEncoder that uses the SCrypt memory-hard key derivation function. The encoded password
+ * holds the parameters, the salt and the derived key : <code>cost$blockSize$parallelization$salt$key</code>
+ * (salt and key are base64 encoded).
+ *
+ * @author GraviteeSource Team
+ */
+public class SCryptPasswordEncoder implements PasswordEncoder {
+
+    public static final int DEFAULT_COST = 16384;
+    private static final int BLOCK_SIZE = 8;
+    private static final int PARALLELIZATION = 1;
+    private static final int SALT_LENGTH = 16;
+    private static final int KEY_LENGTH = 32;
+    private final Logger logger = LoggerFactory.getLogger(SCryptPasswordEncoder.class);
+    private final int cost;
+    private final SecureRandom random = new SecureRandom();
+
+    public SCryptPasswordEncoder() {
+        this(DEFAULT_COST);
+    }
+
+    /**
+     * @param cost the CPU/memory cost (N), a power of 2 greater than 1
+     */
+    public SCryptPasswordEncoder(int cost) {
+        if (cost <= 1 || (cost & (cost - 1)) != 0) {
+            throw new IllegalArgumentException("Bad cost, must be a power of 2 greater than 1");
+        }
+        this.cost = cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        byte[] key = SCrypt.generate(bytes(rawPassword), salt, cost, BLOCK_SIZE, PARALLELIZATION, KEY_LENGTH);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return cost + "$" + BLOCK_SIZE + "$" + PARALLELIZATION + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(key);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        String[] parts = encodedPassword != null ? encodedPassword.split("\\$") : new String[0];
+        if (parts.length != 5) {
+            logger.warn("Encoded password does not look like SCrypt");
+            return false;
+        }
+        try {
+            byte[] salt = Base64.getDecoder().decode(parts[3]);
+            byte[] key = Base64.getDecoder().decode(parts[4]);
+            byte[] generatedKey = SCrypt.generate(bytes(rawPassword), salt,
+                    Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), key.length);
+            return MessageDigest.isEqual(key, generatedKey);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Encoded password does not look like SCrypt");
+            return false;
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int separator = encodedPassword != null ? encodedPassword.indexOf('$') : -1;
+        return separator > 0 && !String.valueOf(cost).equals(encodedPassword.substring(0, separator));
+    }
+
+    private static byte[] bytes(CharSequence rawPassword) {
+        return rawPassword.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
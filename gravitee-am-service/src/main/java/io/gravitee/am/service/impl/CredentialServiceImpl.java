@@ -91,6 +91,17 @@ public class CredentialServiceImpl implements CredentialService {
                 });
     }
 
+    @Override
+    public Single<Long> updateCounter(ReferenceType referenceType, String referenceId, String credentialId, long counter) {
+        LOGGER.debug("Update counter of credentials by {} {} and credential ID: {}", referenceType, referenceId, credentialId);
+        return credentialRepository.updateCounter(referenceType, referenceId, credentialId, counter)
+                .onErrorResumeNext(ex -> {
+                    LOGGER.error("An error occurs while trying to update counter of credentials using {} {} and credential ID: {}", referenceType, referenceId, credentialId, ex);
+                    return Single.error(new TechnicalManagementException(
+                            String.format("An error occurs while trying to update counter of credentials using %s %s and credential ID: %s", referenceType, referenceId, credentialId), ex));
+                });
+    }
+
     @Override
     public Single<Credential> create(Credential credential) {
         LOGGER.debug("Create a new credential {}", credential);
@@ -27,6 +27,7 @@ import io.gravitee.am.model.membership.MemberType;
 import io.gravitee.am.model.oidc.OIDCSettings;
 import io.gravitee.am.model.permissions.SystemRole;
 import io.gravitee.am.repository.management.api.DomainRepository;
+import io.gravitee.am.repository.management.api.OutboxEmailRepository;
 import io.gravitee.am.service.*;
 import io.gravitee.am.service.exception.*;
 import io.gravitee.am.service.model.NewDomain;
@@ -74,6 +75,9 @@ public class DomainServiceImpl implements DomainService {
     @Autowired
     private DomainRepository domainRepository;
 
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
     @Autowired
     private ApplicationService applicationService;
 
@@ -444,6 +448,8 @@ public class DomainServiceImpl implements DomainService {
                                         return Completable.concat(deletedResourceSet);
                                     })
                             )
+                            // delete emails pending in the outbox
+                            .andThen(outboxEmailRepository.deleteByDomain(domainId))
                             .andThen(domainRepository.delete(domainId))
                             .andThen(Completable.fromSingle(eventService.create(new Event(Type.DOMAIN, new Payload(domainId, ReferenceType.DOMAIN, domainId, Action.DELETE)))))
                             .doOnComplete(() -> auditService.report(AuditBuilder.builder(DomainAuditBuilder.class).principal(principal).type(EventType.DOMAIN_DELETED).domain(domain)))
@@ -27,16 +27,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
 import javax.activation.MimetypesFileTypeMap;
+import javax.mail.internet.MimeMessage;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -59,29 +63,72 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void send(Email email) {
         try {
-            final MimeMessageHelper mailMessage = new MimeMessageHelper(mailSender.createMimeMessage(), true, StandardCharsets.UTF_8.name());
-            final String subject = email.getSubject();
-            final String content = email.getContent();
-            final String from = email.getFrom();
-            final String[] to = email.getTo();
-
-            String fromName = email.getFromName();
-            if (fromName == null || fromName.isEmpty()) {
-                mailMessage.setFrom(from);
-            } else {
-                mailMessage.setFrom(from, fromName);
+            mailSender.send(createMimeMessage(email));
+        } catch (final Exception ex) {
+            LOGGER.error("Error while sending email", ex);
+            throw new TechnicalManagementException("Error while sending email", ex);
+        }
+    }
+
+    @Override
+    public Map<Email, Exception> send(List<Email> emails) {
+        final Map<Email, Exception> failures = new LinkedHashMap<>();
+        final Map<MimeMessage, Email> messages = new LinkedHashMap<>();
+        for (Email email : emails) {
+            try {
+                messages.put(createMimeMessage(email), email);
+            } catch (final Exception ex) {
+                LOGGER.error("Error while preparing email", ex);
+                failures.put(email, ex);
             }
+        }
 
-            mailMessage.setTo(to);
-            mailMessage.setSubject(subject);
+        if (messages.isEmpty()) {
+            return failures;
+        }
 
-            final String html = addResourcesInMessage(mailMessage, content);
-            LOGGER.debug("Sending an email to: {}\nSubject: {}\nMessage: {}", email.getTo(), email.getSubject(), html);
-            mailSender.send(mailMessage.getMimeMessage());
+        try {
+            // the mail sender reuses the same transport connection for the whole batch
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (final MailSendException ex) {
+            LOGGER.error("Error while sending emails", ex);
+            if (ex.getFailedMessages().isEmpty()) {
+                messages.values().forEach(email -> failures.put(email, ex));
+            } else {
+                ex.getFailedMessages().forEach((message, cause) -> {
+                    Email email = messages.get(message);
+                    if (email != null) {
+                        failures.put(email, cause);
+                    }
+                });
+            }
         } catch (final Exception ex) {
-            LOGGER.error("Error while sending email", ex);
-            throw new TechnicalManagementException("Error while sending email", ex);
+            LOGGER.error("Error while sending emails", ex);
+            messages.values().forEach(email -> failures.put(email, ex));
         }
+        return failures;
+    }
+
+    private MimeMessage createMimeMessage(Email email) throws Exception {
+        final MimeMessageHelper mailMessage = new MimeMessageHelper(mailSender.createMimeMessage(), true, StandardCharsets.UTF_8.name());
+        final String subject = email.getSubject();
+        final String content = email.getContent();
+        final String from = email.getFrom();
+        final String[] to = email.getTo();
+
+        String fromName = email.getFromName();
+        if (fromName == null || fromName.isEmpty()) {
+            mailMessage.setFrom(from);
+        } else {
+            mailMessage.setFrom(from, fromName);
+        }
+
+        mailMessage.setTo(to);
+        mailMessage.setSubject(subject);
+
+        final String html = addResourcesInMessage(mailMessage, content);
+        LOGGER.debug("Sending an email to: {}\nSubject: {}\nMessage: {}", email.getTo(), email.getSubject(), html);
+        return mailMessage.getMimeMessage();
     }
 
     private String addResourcesInMessage(final MimeMessageHelper mailMessage, final String htmlText) throws Exception {
@@ -15,7 +15,8 @@
  */
 package io.gravitee.am.service.impl;
 
-import io.gravitee.am.common.utils.RandomString;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.am.model.LoginAttempt;
 import io.gravitee.am.model.account.AccountSettings;
 import io.gravitee.am.repository.management.api.LoginAttemptRepository;
@@ -34,7 +35,7 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -44,42 +45,44 @@ import java.util.Optional;
 public class LoginAttemptServiceImpl implements LoginAttemptService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoginAttemptServiceImpl.class);
+    private static final String KEY_SEPARATOR = "\u0000";
+    /**
+     * Locked accounts are kept for a short time on each node so that blocked users are rejected without any database
+     * round-trip, an unlock done from another node is seen at most after this delay.
+     */
+    private static final long LOCKED_ACCOUNTS_CACHE_TTL_SECONDS = 30;
+    private static final long KNOWN_ATTEMPTS_CACHE_TTL_SECONDS = 60;
+    private static final long CACHE_MAX_SIZE = 100_000;
 
     @Lazy
     @Autowired
     private LoginAttemptRepository loginAttemptRepository;
 
+    private final Cache<String, LoginAttempt> lockedAccounts = CacheBuilder.newBuilder()
+            .expireAfterWrite(LOCKED_ACCOUNTS_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(CACHE_MAX_SIZE)
+            .build();
+
+    /**
+     * Whether a login attempt record is known to exist for an account, used to skip the delete on successful logins.
+     */
+    private final Cache<String, Boolean> knownAttempts = CacheBuilder.newBuilder()
+            .expireAfterWrite(KNOWN_ATTEMPTS_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(CACHE_MAX_SIZE)
+            .build();
+
     @Override
     public Single<LoginAttempt> loginFailed(LoginAttemptCriteria criteria, AccountSettings accountSettings) {
         LOGGER.debug("Add login attempt for {}", criteria);
-        return loginAttemptRepository.findByCriteria(criteria)
-                .map(Optional::of)
-                .defaultIfEmpty(Optional.empty())
-                .flatMapSingle(optionalLoginAttempt -> {
-                    if (optionalLoginAttempt.isPresent()) {
-                        LoginAttempt loginAttempt = optionalLoginAttempt.get();
-                        loginAttempt.setAttempts(loginAttempt.getAttempts() + 1);
-                        if (loginAttempt.getAttempts() >= accountSettings.getMaxLoginAttempts()) {
-                            loginAttempt.setExpireAt(new Date(System.currentTimeMillis() + (accountSettings.getAccountBlockedDuration() * 1000)));
-                        }
-                        loginAttempt.setUpdatedAt(new Date());
-                        return loginAttemptRepository.update(loginAttempt);
-                    } else {
-                        LoginAttempt loginAttempt = new LoginAttempt();
-                        loginAttempt.setId(RandomString.generate());
-                        loginAttempt.setDomain(criteria.domain());
-                        loginAttempt.setClient(criteria.client());
-                        loginAttempt.setIdentityProvider(criteria.identityProvider());
-                        loginAttempt.setUsername(criteria.username());
-                        loginAttempt.setAttempts(1);
-                        if (loginAttempt.getAttempts() >= accountSettings.getMaxLoginAttempts()) {
-                            loginAttempt.setExpireAt(new Date(System.currentTimeMillis() + (accountSettings.getAccountBlockedDuration() * 1000)));
-                        } else {
-                            loginAttempt.setExpireAt(new Date(System.currentTimeMillis() + (accountSettings.getLoginAttemptsResetTime() * 1000)));
-                        }
-                        loginAttempt.setCreatedAt(new Date());
-                        loginAttempt.setUpdatedAt(loginAttempt.getCreatedAt());
-                        return loginAttemptRepository.create(loginAttempt);
+        final long now = System.currentTimeMillis();
+        final Date expireAt = expireAt(now, accountSettings.getLoginAttemptsResetTime());
+        final Date lockExpireAt = expireAt(now, accountSettings.getAccountBlockedDuration());
+        final String key = key(criteria);
+        return loginAttemptRepository.incrementAttempts(criteria, accountSettings.getMaxLoginAttempts(), expireAt, lockExpireAt)
+                .doOnSuccess(loginAttempt -> {
+                    knownAttempts.put(key, Boolean.TRUE);
+                    if (loginAttempt.isAccountLocked(accountSettings.getMaxLoginAttempts())) {
+                        lockedAccounts.put(key, loginAttempt);
                     }
                 })
                 .onErrorResumeNext(ex -> {
@@ -93,27 +96,42 @@ public class LoginAttemptServiceImpl implements LoginAttemptService {
 
     @Override
     public Completable loginSucceeded(LoginAttemptCriteria criteria) {
-        LOGGER.debug("Delete login attempt for {}", criteria);
-        return loginAttemptRepository.delete(criteria)
-                .onErrorResumeNext(ex -> {
-                    if (ex instanceof AbstractManagementException) {
-                        return Completable.error(ex);
-                    }
-                    LOGGER.error("An error occurs while trying to delete login attempt for", criteria, ex);
-                    return Completable.error(new TechnicalManagementException(
-                            String.format("An error occurs while trying to delete login attempt: %s", criteria), ex));
-                });
+        final String key = key(criteria);
+        // no login attempt has been seen for this account, nothing to delete
+        if (Boolean.FALSE.equals(knownAttempts.getIfPresent(key))) {
+            return Completable.complete();
+        }
+        return delete(criteria)
+                .doOnComplete(() -> knownAttempts.put(key, Boolean.FALSE));
     }
 
     @Override
     public Completable reset(LoginAttemptCriteria criteria) {
-        return loginSucceeded(criteria);
+        // the criteria may not be bound to a client or an identity provider, evict every matching account
+        lockedAccounts.asMap().keySet().removeIf(key -> matches(key, criteria));
+        knownAttempts.asMap().keySet().removeIf(key -> matches(key, criteria));
+        return delete(criteria);
     }
 
     @Override
     public Maybe<LoginAttempt> checkAccount(LoginAttemptCriteria criteria, AccountSettings accountSettings) {
         LOGGER.debug("Check account status for {}", criteria);
-        return loginAttemptRepository.findByCriteria(criteria);
+        final String key = key(criteria);
+        LoginAttempt lockedAccount = lockedAccounts.getIfPresent(key);
+        if (lockedAccount != null) {
+            if (lockedAccount.getExpireAt() != null && lockedAccount.getExpireAt().after(new Date())) {
+                return Maybe.just(lockedAccount);
+            }
+            lockedAccounts.invalidate(key);
+        }
+        return loginAttemptRepository.findByCriteria(criteria)
+                .doOnSuccess(loginAttempt -> {
+                    knownAttempts.put(key, Boolean.TRUE);
+                    if (loginAttempt.isAccountLocked(accountSettings.getMaxLoginAttempts())) {
+                        lockedAccounts.put(key, loginAttempt);
+                    }
+                })
+                .doOnComplete(() -> knownAttempts.put(key, Boolean.FALSE));
     }
 
     @Override
@@ -130,4 +148,41 @@ public class LoginAttemptServiceImpl implements LoginAttemptService {
                             String.format("An error occurs while trying to fin login attempt by id: %s", id), ex));
                 });
     }
+
+    private Completable delete(LoginAttemptCriteria criteria) {
+        LOGGER.debug("Delete login attempt for {}", criteria);
+        return loginAttemptRepository.delete(criteria)
+                .onErrorResumeNext(ex -> {
+                    if (ex instanceof AbstractManagementException) {
+                        return Completable.error(ex);
+                    }
+                    LOGGER.error("An error occurs while trying to delete login attempt for", criteria, ex);
+                    return Completable.error(new TechnicalManagementException(
+                            String.format("An error occurs while trying to delete login attempt: %s", criteria), ex));
+                });
+    }
+
+    private static Date expireAt(long now, Integer seconds) {
+        return seconds == null ? null : new Date(now + (seconds * 1000L));
+    }
+
+    private static String key(LoginAttemptCriteria criteria) {
+        return key(criteria.domain(), criteria.client(), criteria.username(), criteria.identityProvider());
+    }
+
+    private static String key(String domain, String client, String username, String identityProvider) {
+        return domain + KEY_SEPARATOR + client + KEY_SEPARATOR + username + KEY_SEPARATOR + identityProvider;
+    }
+
+    private static boolean matches(String key, LoginAttemptCriteria criteria) {
+        String[] parts = key.split(KEY_SEPARATOR, -1);
+        return matches(parts[0], criteria.domain())
+                && matches(parts[1], criteria.client())
+                && matches(parts[2], criteria.username())
+                && matches(parts[3], criteria.identityProvider());
+    }
+
+    private static boolean matches(String value, String criterion) {
+        return criterion == null || criterion.isEmpty() || criterion.equals(value);
+    }
 }
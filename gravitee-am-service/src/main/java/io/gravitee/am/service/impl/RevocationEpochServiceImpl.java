@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.impl;
+
+import io.gravitee.am.repository.oauth2.api.RevocationEpochRepository;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
+import io.gravitee.am.service.RevocationEpochService;
+import io.gravitee.am.service.exception.TechnicalManagementException;
+import io.gravitee.am.service.spring.RevocationEpochProperties;
+import io.reactivex.Single;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class RevocationEpochServiceImpl implements RevocationEpochService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RevocationEpochServiceImpl.class);
+
+    @Autowired
+    private RevocationEpochProperties revocationEpochProperties;
+
+    @Lazy
+    @Autowired
+    private RevocationEpochRepository revocationEpochRepository;
+
+    @Override
+    public Single<RevocationEpoch> revoke(String domain, String client, String subject) {
+        LOGGER.debug("Revoke tokens for domain: {}, client: {} and subject: {}", domain, client, subject);
+        Date now = new Date();
+        RevocationEpoch revocationEpoch = new RevocationEpoch();
+        revocationEpoch.setDomain(domain);
+        revocationEpoch.setClient(client);
+        revocationEpoch.setSubject(subject);
+        revocationEpoch.setRevokedAt(now);
+        revocationEpoch.setExpireAt(new Date(now.getTime() + revocationEpochProperties.getRetention()));
+
+        return revocationEpochRepository.create(revocationEpoch)
+                .onErrorResumeNext(ex -> {
+                    LOGGER.error("An error occurs while trying to revoke tokens for domain: {}, client: {} and subject: {}", domain, client, subject, ex);
+                    return Single.error(new TechnicalManagementException(
+                            String.format("An error occurs while trying to revoke tokens for domain: %s, client: %s and subject: %s", domain, client, subject), ex));
+                });
+    }
+
+    @Override
+    public Single<RevocationEpoch> revokeToken(String domain, String token, Date expireAt) {
+        LOGGER.debug("Revoke token {} for domain: {}", token, domain);
+        RevocationEpoch revocationEpoch = new RevocationEpoch();
+        revocationEpoch.setDomain(domain);
+        revocationEpoch.setToken(token);
+        revocationEpoch.setRevokedAt(new Date());
+        revocationEpoch.setExpireAt(expireAt);
+
+        return revocationEpochRepository.create(revocationEpoch)
+                .onErrorResumeNext(ex -> {
+                    LOGGER.error("An error occurs while trying to revoke token {} for domain: {}", token, domain, ex);
+                    return Single.error(new TechnicalManagementException(
+                            String.format("An error occurs while trying to revoke token %s for domain: %s", token, domain), ex));
+                });
+    }
+}
@@ -23,6 +23,7 @@ import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.api.ScopeApprovalRepository;
 import io.gravitee.am.service.AuditService;
+import io.gravitee.am.service.RevocationEpochService;
 import io.gravitee.am.service.ScopeApprovalService;
 import io.gravitee.am.service.UserService;
 import io.gravitee.am.service.exception.AbstractManagementException;
@@ -69,6 +70,9 @@ public class ScopeApprovalServiceImpl implements ScopeApprovalService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RevocationEpochService revocationEpochService;
+
     @Autowired
     private AuditService auditService;
 
@@ -132,7 +136,8 @@ public class ScopeApprovalServiceImpl implements ScopeApprovalService {
                                 .doOnComplete(() -> auditService.report(AuditBuilder.builder(UserConsentAuditBuilder.class).type(EventType.USER_CONSENT_REVOKED).domain(domain).principal(principal).user(user).approvals(Collections.singleton(scopeApproval))))
                                 .doOnError(throwable -> auditService.report(AuditBuilder.builder(UserConsentAuditBuilder.class).type(EventType.USER_CONSENT_REVOKED).domain(domain).principal(principal).user(user).throwable(throwable)))
                                 .andThen(Completable.mergeArrayDelayError(accessTokenRepository.deleteByDomainIdClientIdAndUserId(scopeApproval.getDomain(), scopeApproval.getClientId(), scopeApproval.getUserId()),
-                                            refreshTokenRepository.deleteByDomainIdClientIdAndUserId(scopeApproval.getDomain(), scopeApproval.getClientId(), scopeApproval.getUserId())))))
+                                            refreshTokenRepository.deleteByDomainIdClientIdAndUserId(scopeApproval.getDomain(), scopeApproval.getClientId(), scopeApproval.getUserId()),
+                                            revocationEpochService.revoke(scopeApproval.getDomain(), scopeApproval.getClientId(), scopeApproval.getUserId()).ignoreElement()))))
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Completable.error(ex);
@@ -154,7 +159,8 @@ public class ScopeApprovalServiceImpl implements ScopeApprovalService {
                                 .doOnComplete(() -> auditService.report(AuditBuilder.builder(UserConsentAuditBuilder.class).type(EventType.USER_CONSENT_REVOKED).domain(domain).principal(principal).user(user1).approvals(scopeApprovals)))
                                 .doOnError(throwable -> auditService.report(AuditBuilder.builder(UserConsentAuditBuilder.class).type(EventType.USER_CONSENT_REVOKED).domain(domain).principal(principal).user(user1).throwable(throwable))))
                         .andThen(Completable.mergeArrayDelayError(accessTokenRepository.deleteByDomainIdAndUserId(domain, user),
-                                refreshTokenRepository.deleteByDomainIdAndUserId(domain, user))))
+                                refreshTokenRepository.deleteByDomainIdAndUserId(domain, user),
+                                revocationEpochService.revoke(domain, null, user).ignoreElement())))
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Completable.error(ex);
@@ -176,7 +182,8 @@ public class ScopeApprovalServiceImpl implements ScopeApprovalService {
                                 .doOnComplete(() -> auditService.report(AuditBuilder.builder(UserConsentAuditBuilder.class).type(EventType.USER_CONSENT_REVOKED).domain(domain).principal(principal).user(user1).approvals(scopeApprovals)))
                                 .doOnError(throwable -> auditService.report(AuditBuilder.builder(UserConsentAuditBuilder.class).type(EventType.USER_CONSENT_REVOKED).domain(domain).principal(principal).user(user1).throwable(throwable))))
                         .andThen(Completable.mergeArrayDelayError(accessTokenRepository.deleteByDomainIdClientIdAndUserId(domain, clientId, user),
-                                refreshTokenRepository.deleteByDomainIdClientIdAndUserId(domain, clientId, user))))
+                                refreshTokenRepository.deleteByDomainIdClientIdAndUserId(domain, clientId, user),
+                                revocationEpochService.revoke(domain, clientId, user).ignoreElement())))
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Completable.error(ex);
@@ -19,6 +19,7 @@ import io.gravitee.am.model.Application;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.service.ApplicationService;
+import io.gravitee.am.service.RevocationEpochService;
 import io.gravitee.am.service.TokenService;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.model.TotalToken;
@@ -43,6 +44,9 @@ public class TokenServiceImpl implements TokenService {
     @Autowired
     private ApplicationService applicationService;
 
+    @Autowired
+    private RevocationEpochService revocationEpochService;
+
     @Lazy
     @Autowired
     private AccessTokenRepository accessTokenRepository;
@@ -105,10 +109,11 @@ public class TokenServiceImpl implements TokenService {
     }
 
     @Override
-    public Completable deleteByUserId(String userId) {
+    public Completable deleteByUserId(String domain, String userId) {
         LOGGER.debug("Delete tokens by user : {}", userId);
         return accessTokenRepository.deleteByUserId(userId)
                 .andThen(refreshTokenRepository.deleteByUserId(userId))
+                .andThen(revocationEpochService.revoke(domain, null, userId).ignoreElement())
                 .onErrorResumeNext(ex -> {
                     LOGGER.error("An error occurs while trying to delete tokens by user {}", userId, ex);
                     return Completable.error(new TechnicalManagementException(
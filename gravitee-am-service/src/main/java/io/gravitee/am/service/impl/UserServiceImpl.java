@@ -73,6 +73,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private CredentialService credentialService;
 
+    @Autowired
+    private RevocationEpochService revocationEpochService;
+
     @Override
     public Single<Set<User>> findByDomain(String domain) {
         LOGGER.debug("Find users by domain: {}", domain);
@@ -385,7 +388,12 @@ public class UserServiceImpl implements UserService {
                 .flatMapCompletable(user -> {
                     // create event for sync process
                     Event event = new Event(Type.USER, new Payload(user.getId(), user.getReferenceType(), user.getReferenceId(), Action.DELETE));
-                    return userRepository.delete(userId).andThen(eventService.create(event)).toCompletable();
+                    Completable deleteAction = userRepository.delete(userId).andThen(eventService.create(event)).toCompletable();
+                    // tokens of a domain user must no longer be accepted
+                    if (user.getReferenceType() == ReferenceType.DOMAIN) {
+                        deleteAction = deleteAction.andThen(revocationEpochService.revoke(user.getReferenceId(), null, userId).ignoreElement());
+                    }
+                    return deleteAction;
                 })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
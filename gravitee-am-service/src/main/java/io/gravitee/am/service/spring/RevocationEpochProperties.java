@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.spring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings shared by the nodes recording the revocation epochs and the gateways validating tokens against them.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class RevocationEpochProperties {
+
+    /**
+     * How long a revocation epoch is kept, must be greater than the lifetime of the tokens validated against it.
+     */
+    @Value("${oauth2.revocation.retention:86400000}")
+    private long retention;
+
+    /**
+     * How long a gateway trusts its revocation epochs without a successful synchronization, in milliseconds.
+     */
+    @Value("${oauth2.revocation.maxStaleness:30000}")
+    private long maxStaleness;
+
+    public long getRetention() {
+        return retention;
+    }
+
+    public void setRetention(long retention) {
+        this.retention = retention;
+    }
+
+    public long getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public void setMaxStaleness(long maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+}
@@ -150,6 +150,28 @@ public class CredentialServiceTest {
         testObserver.assertNotComplete();
     }
 
+    @Test
+    public void shouldUpdateCounter() {
+        when(credentialRepository.updateCounter(ReferenceType.DOMAIN, DOMAIN, "credentialId", 2L)).thenReturn(Single.just(1L));
+        TestObserver<Long> testObserver = credentialService.updateCounter(ReferenceType.DOMAIN, DOMAIN, "credentialId", 2L).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(1L);
+    }
+
+    @Test
+    public void shouldUpdateCounter_technicalException() {
+        when(credentialRepository.updateCounter(ReferenceType.DOMAIN, DOMAIN, "credentialId", 2L)).thenReturn(Single.error(TechnicalException::new));
+
+        TestObserver testObserver = new TestObserver<>();
+        credentialService.updateCounter(ReferenceType.DOMAIN, DOMAIN, "credentialId", 2L).subscribe(testObserver);
+
+        testObserver.assertError(TechnicalManagementException.class);
+        testObserver.assertNotComplete();
+    }
+
     @Test
     public void shouldCreate() {
         Credential newCredential = Mockito.mock(Credential.class);
@@ -23,6 +23,7 @@ import io.gravitee.am.model.permissions.SystemRole;
 import io.gravitee.am.model.uma.Resource;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.DomainRepository;
+import io.gravitee.am.repository.management.api.OutboxEmailRepository;
 import io.gravitee.am.service.exception.DomainAlreadyExistsException;
 import io.gravitee.am.service.exception.DomainNotFoundException;
 import io.gravitee.am.service.exception.TechnicalManagementException;
@@ -175,6 +176,9 @@ public class DomainServiceTest {
     @Mock
     private ResourceService resourceService;
 
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+
     @Test
     public void shouldFindById() {
         when(domainRepository.findById("my-domain")).thenReturn(Maybe.just(new Domain()));
@@ -458,6 +462,7 @@ public class DomainServiceTest {
 
         when(domainRepository.findById(DOMAIN_ID)).thenReturn(Maybe.just(domain));
         when(domainRepository.delete(DOMAIN_ID)).thenReturn(Completable.complete());
+        when(outboxEmailRepository.deleteByDomain(DOMAIN_ID)).thenReturn(Completable.complete());
         when(applicationService.findByDomain(DOMAIN_ID)).thenReturn(Single.just(mockApplications));
         when(applicationService.delete(anyString())).thenReturn(Completable.complete());
         when(certificate.getId()).thenReturn(CERTIFICATE_ID);
@@ -523,6 +528,7 @@ public class DomainServiceTest {
         verify(policyService, times(1)).delete(POLICY_ID);
         verify(membershipService, times(1)).delete(MEMBERSHIP_ID);
         verify(factorService, times(1)).delete(DOMAIN_ID, FACTOR_ID);
+        verify(outboxEmailRepository, times(1)).deleteByDomain(DOMAIN_ID);
         verify(eventService, times(1)).create(any());
     }
 
@@ -530,6 +536,7 @@ public class DomainServiceTest {
     public void shouldDeleteWithoutRelatedData() {
         when(domainRepository.findById(DOMAIN_ID)).thenReturn(Maybe.just(domain));
         when(domainRepository.delete(DOMAIN_ID)).thenReturn(Completable.complete());
+        when(outboxEmailRepository.deleteByDomain(DOMAIN_ID)).thenReturn(Completable.complete());
         when(applicationService.findByDomain(DOMAIN_ID)).thenReturn(Single.just(Collections.emptySet()));
         when(certificateService.findByDomain(DOMAIN_ID)).thenReturn(Single.just(Collections.emptyList()));
         when(identityProviderService.findByDomain(DOMAIN_ID)).thenReturn(Single.just(Collections.emptyList()));
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service;
+
+import io.gravitee.am.common.email.Email;
+import io.gravitee.am.service.impl.EmailServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class EmailServiceTest {
+
+    private EmailServiceImpl emailService = new EmailServiceImpl();
+    private SmtpServer smtpServer;
+
+    @Before
+    public void setUp() throws Exception {
+        smtpServer = new SmtpServer();
+        smtpServer.start();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "templatesPath", ".");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        smtpServer.stop();
+    }
+
+    @Test
+    public void shouldSendBatchThroughSingleConnection() {
+        Map<Email, Exception> failures = emailService.send(Arrays.asList(email("john@acme.com"), email("jane@acme.com"), email("jack@acme.com")));
+
+        assertTrue(failures.isEmpty());
+        assertEquals(1, smtpServer.connections.get());
+        assertEquals(3, smtpServer.messages.get());
+    }
+
+    @Test
+    public void shouldReportRejectedEmails() {
+        Email rejected = email("rejected@acme.com");
+        Map<Email, Exception> failures = emailService.send(Arrays.asList(email("john@acme.com"), rejected, email("jane@acme.com")));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(rejected));
+        assertEquals(1, smtpServer.connections.get());
+        assertEquals(2, smtpServer.messages.get());
+    }
+
+    @Test
+    public void shouldReportAllEmails_serverUnavailable() throws Exception {
+        smtpServer.stop();
+
+        Map<Email, Exception> failures = emailService.send(Arrays.asList(email("john@acme.com"), email("jane@acme.com")));
+
+        assertEquals(2, failures.size());
+    }
+
+    private static Email email(String to) {
+        Email email = new Email();
+        email.setFrom("noreply@acme.com");
+        email.setTo(new String[]{to});
+        email.setSubject("Subject");
+        email.setContent("<html><body>Hello</body></html>");
+        return email;
+    }
+
+    /**
+     * Minimal SMTP server accepting every message but the ones sent to a rejected@ recipient.
+     */
+    private static class SmtpServer {
+
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+        private ServerSocket serverSocket;
+
+        void start() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread thread = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try (Socket socket = serverSocket.accept()) {
+                        connections.incrementAndGet();
+                        handle(socket);
+                    } catch (IOException e) {
+                        // server stopped
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void stop() throws IOException {
+            serverSocket.close();
+        }
+
+        private void handle(Socket socket) throws IOException {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
+            reply(writer, "220 localhost ESMTP");
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("RCPT") && command.contains("REJECTED@")) {
+                    reply(writer, "550 rejected");
+                } else if (command.startsWith("DATA")) {
+                    reply(writer, "354 end data with <CR><LF>.<CR><LF>");
+                    while ((line = reader.readLine()) != null && !line.equals(".")) {
+                        // skip message content
+                    }
+                    messages.incrementAndGet();
+                    reply(writer, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(writer, "221 bye");
+                    return;
+                } else {
+                    reply(writer, "250 OK");
+                }
+            }
+        }
+
+        private void reply(PrintWriter writer, String response) {
+            writer.print(response + "\r\n");
+            writer.flush();
+        }
+    }
+}
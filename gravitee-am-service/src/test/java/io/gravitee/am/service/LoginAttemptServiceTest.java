@@ -20,6 +20,7 @@ import io.gravitee.am.model.account.AccountSettings;
 import io.gravitee.am.repository.management.api.LoginAttemptRepository;
 import io.gravitee.am.repository.management.api.search.LoginAttemptCriteria;
 import io.gravitee.am.service.impl.LoginAttemptServiceImpl;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
@@ -29,7 +30,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import static org.mockito.Mockito.when;
+import java.util.Date;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -61,8 +66,7 @@ public class LoginAttemptServiceTest {
         accountSettings.setMaxLoginAttempts(1);
         accountSettings.setAccountBlockedDuration(24 * 60 * 60 * 1000);
 
-        when(loginAttemptRepository.findByCriteria(loginAttemptCriteria)).thenReturn(Maybe.just(loginAttempt));
-        when(loginAttemptRepository.update(loginAttempt)).thenReturn(Single.just(loginAttempt));
+        when(loginAttemptRepository.incrementAttempts(eq(loginAttemptCriteria), eq(1), any(), any(Date.class))).thenReturn(Single.just(loginAttempt));
 
         TestObserver testObserver = loginAttemptService.loginFailed(loginAttemptCriteria, accountSettings).test();
         testObserver.awaitTerminalEvent();
@@ -86,11 +90,121 @@ public class LoginAttemptServiceTest {
         accountSettings.setMaxLoginAttempts(1);
         accountSettings.setAccountBlockedDuration(24 * 60 * 60 * 1000);
 
-        when(loginAttemptRepository.findByCriteria(loginAttemptCriteria)).thenReturn(Maybe.just(loginAttempt));
-        when(loginAttemptRepository.update(loginAttempt)).thenReturn(Single.just(loginAttempt));
+        when(loginAttemptRepository.incrementAttempts(eq(loginAttemptCriteria), eq(1), any(), any(Date.class))).thenReturn(Single.just(loginAttempt));
 
         TestObserver testObserver = loginAttemptService.loginFailed(loginAttemptCriteria, accountSettings).test();
         testObserver.awaitTerminalEvent();
         testObserver.assertNoErrors();
     }
+
+    @Test
+    public void shouldRejectLockedAccount_withoutRepository() {
+        final LoginAttemptCriteria loginAttemptCriteria = criteria();
+        final AccountSettings accountSettings = accountSettings();
+
+        final LoginAttempt loginAttempt = new LoginAttempt();
+        loginAttempt.setId("attempt-id");
+        loginAttempt.setAttempts(3);
+        loginAttempt.setExpireAt(new Date(System.currentTimeMillis() + 60_000));
+
+        when(loginAttemptRepository.incrementAttempts(eq(loginAttemptCriteria), eq(3), any(Date.class), any(Date.class))).thenReturn(Single.just(loginAttempt));
+
+        loginAttemptService.loginFailed(loginAttemptCriteria, accountSettings).test().assertValue(loginAttempt);
+
+        TestObserver<LoginAttempt> testObserver = loginAttemptService.checkAccount(criteria(), accountSettings).test();
+        testObserver.assertValue(loginAttempt);
+        verify(loginAttemptRepository, never()).findByCriteria(any());
+    }
+
+    @Test
+    public void shouldCheckAccount_lockExpired() {
+        final LoginAttemptCriteria loginAttemptCriteria = criteria();
+        final AccountSettings accountSettings = accountSettings();
+
+        final LoginAttempt loginAttempt = new LoginAttempt();
+        loginAttempt.setAttempts(3);
+        loginAttempt.setExpireAt(new Date(System.currentTimeMillis() - 1000));
+
+        when(loginAttemptRepository.incrementAttempts(eq(loginAttemptCriteria), eq(3), any(Date.class), any(Date.class))).thenReturn(Single.just(loginAttempt));
+        when(loginAttemptRepository.findByCriteria(loginAttemptCriteria)).thenReturn(Maybe.empty());
+
+        loginAttemptService.loginFailed(loginAttemptCriteria, accountSettings).test().assertValue(loginAttempt);
+
+        loginAttemptService.checkAccount(loginAttemptCriteria, accountSettings).test().assertNoValues().assertComplete();
+        verify(loginAttemptRepository, times(1)).findByCriteria(loginAttemptCriteria);
+    }
+
+    @Test
+    public void shouldNotDelete_noLoginAttempt() {
+        final LoginAttemptCriteria loginAttemptCriteria = criteria();
+
+        when(loginAttemptRepository.findByCriteria(loginAttemptCriteria)).thenReturn(Maybe.empty());
+
+        loginAttemptService.checkAccount(loginAttemptCriteria, accountSettings()).test().assertComplete();
+        loginAttemptService.loginSucceeded(loginAttemptCriteria).test().assertComplete();
+
+        verify(loginAttemptRepository, never()).delete(any(LoginAttemptCriteria.class));
+    }
+
+    @Test
+    public void shouldDelete_loginAttempt() {
+        final LoginAttemptCriteria loginAttemptCriteria = criteria();
+        final LoginAttempt loginAttempt = new LoginAttempt();
+        loginAttempt.setAttempts(1);
+
+        when(loginAttemptRepository.findByCriteria(loginAttemptCriteria)).thenReturn(Maybe.just(loginAttempt));
+        when(loginAttemptRepository.delete(loginAttemptCriteria)).thenReturn(Completable.complete());
+
+        loginAttemptService.checkAccount(loginAttemptCriteria, accountSettings()).test().assertValue(loginAttempt);
+        loginAttemptService.loginSucceeded(loginAttemptCriteria).test().assertComplete();
+        // the record is known to be deleted
+        loginAttemptService.loginSucceeded(loginAttemptCriteria).test().assertComplete();
+
+        verify(loginAttemptRepository, times(1)).delete(loginAttemptCriteria);
+    }
+
+    @Test
+    public void shouldReset_evictLockedAccount() {
+        final LoginAttemptCriteria loginAttemptCriteria = criteria();
+        final AccountSettings accountSettings = accountSettings();
+
+        final LoginAttempt loginAttempt = new LoginAttempt();
+        loginAttempt.setAttempts(3);
+        loginAttempt.setExpireAt(new Date(System.currentTimeMillis() + 60_000));
+
+        when(loginAttemptRepository.incrementAttempts(eq(loginAttemptCriteria), eq(3), any(Date.class), any(Date.class))).thenReturn(Single.just(loginAttempt));
+        when(loginAttemptRepository.findByCriteria(loginAttemptCriteria)).thenReturn(Maybe.empty());
+        when(loginAttemptRepository.delete(any(LoginAttemptCriteria.class))).thenReturn(Completable.complete());
+
+        loginAttemptService.loginFailed(loginAttemptCriteria, accountSettings).test().assertValue(loginAttempt);
+
+        // reset criteria are not bound to an identity provider
+        LoginAttemptCriteria resetCriteria = new LoginAttemptCriteria.Builder()
+                .client("client-1")
+                .domain("domain-1")
+                .username("user-1")
+                .build();
+        loginAttemptService.reset(resetCriteria).test().assertComplete();
+
+        loginAttemptService.checkAccount(loginAttemptCriteria, accountSettings).test().assertNoValues().assertComplete();
+        verify(loginAttemptRepository, times(1)).findByCriteria(loginAttemptCriteria);
+    }
+
+    private static LoginAttemptCriteria criteria() {
+        return new LoginAttemptCriteria.Builder()
+                .client("client-1")
+                .domain("domain-1")
+                .username("user-1")
+                .identityProvider("idp-1")
+                .build();
+    }
+
+    private static AccountSettings accountSettings() {
+        final AccountSettings accountSettings = new AccountSettings();
+        accountSettings.setLoginAttemptsDetectionEnabled(true);
+        accountSettings.setMaxLoginAttempts(3);
+        accountSettings.setLoginAttemptsResetTime(60);
+        accountSettings.setAccountBlockedDuration(60);
+        return accountSettings;
+    }
 }
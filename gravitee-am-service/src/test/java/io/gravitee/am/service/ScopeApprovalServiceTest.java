@@ -22,6 +22,7 @@ import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.api.ScopeApprovalRepository;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.exception.UserNotFoundException;
 import io.gravitee.am.service.impl.ScopeApprovalServiceImpl;
@@ -69,6 +70,9 @@ public class ScopeApprovalServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private RevocationEpochService revocationEpochService;
+
     private final static String DOMAIN = "domain1";
 
     @Test
@@ -159,6 +163,7 @@ public class ScopeApprovalServiceTest {
         when(userService.findById(anyString())).thenReturn(Maybe.just(new User()));
         when(accessTokenRepository.deleteByDomainIdClientIdAndUserId("my-domain", "client-id", "user-id")).thenReturn(Completable.complete());
         when(refreshTokenRepository.deleteByDomainIdClientIdAndUserId("my-domain", "client-id", "user-id")).thenReturn(Completable.complete());
+        when(revocationEpochService.revoke("my-domain", "client-id", "user-id")).thenReturn(Single.just(new RevocationEpoch()));
 
         ScopeApproval scopeApproval = new ScopeApproval();
         scopeApproval.setClientId("client-id");
@@ -176,6 +181,7 @@ public class ScopeApprovalServiceTest {
 
         verify(scopeApprovalRepository, times(1)).delete("my-consent");
         verify(auditService, times(1)).report(any(UserConsentAuditBuilder.class));
+        verify(revocationEpochService, times(1)).revoke("my-domain", "client-id", "user-id");
     }
 
     @Test
@@ -191,6 +197,7 @@ public class ScopeApprovalServiceTest {
         when(scopeApprovalRepository.deleteByDomainAndUser("my-domain", "user-id")).thenReturn(Completable.complete());
         when(accessTokenRepository.deleteByDomainIdAndUserId("my-domain", "user-id")).thenReturn(Completable.complete());
         when(refreshTokenRepository.deleteByDomainIdAndUserId("my-domain", "user-id")).thenReturn(Completable.complete());
+        when(revocationEpochService.revoke("my-domain", null, "user-id")).thenReturn(Single.just(new RevocationEpoch()));
 
         TestObserver<Void> testObserver = scopeApprovalService.revokeByUser("my-domain", "user-id", new DefaultUser("user-id")).test();
         testObserver.awaitTerminalEvent();
@@ -199,6 +206,7 @@ public class ScopeApprovalServiceTest {
         testObserver.assertNoErrors();
 
         verify(auditService, times(1)).report(any(UserConsentAuditBuilder.class));
+        verify(revocationEpochService, times(1)).revoke("my-domain", null, "user-id");
     }
 
     @Test
@@ -223,6 +231,7 @@ public class ScopeApprovalServiceTest {
         when(scopeApprovalRepository.deleteByDomainAndUserAndClient("my-domain", "user-id", "client-id")).thenReturn(Completable.complete());
         when(accessTokenRepository.deleteByDomainIdClientIdAndUserId("my-domain", "client-id", "user-id")).thenReturn(Completable.complete());
         when(refreshTokenRepository.deleteByDomainIdClientIdAndUserId("my-domain", "client-id", "user-id")).thenReturn(Completable.complete());
+        when(revocationEpochService.revoke("my-domain", "client-id", "user-id")).thenReturn(Single.just(new RevocationEpoch()));
 
         TestObserver<Void> testObserver = scopeApprovalService.revokeByUserAndClient("my-domain", "user-id", "client-id", new DefaultUser("user-id")).test();
         testObserver.awaitTerminalEvent();
@@ -231,6 +240,7 @@ public class ScopeApprovalServiceTest {
         testObserver.assertNoErrors();
 
         verify(auditService, times(1)).report(any(UserConsentAuditBuilder.class));
+        verify(revocationEpochService, times(1)).revoke("my-domain", "client-id", "user-id");
     }
 
     @Test
@@ -21,6 +21,7 @@ import io.gravitee.am.model.application.ApplicationSettings;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.impl.TokenServiceImpl;
 import io.gravitee.am.service.model.TotalToken;
@@ -37,6 +38,8 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -58,6 +61,9 @@ public class TokenServiceTest {
     @Mock
     private ApplicationService applicationService;
 
+    @Mock
+    private RevocationEpochService revocationEpochService;
+
     private final static String DOMAIN = "domain1";
 
     @Test
@@ -200,10 +206,13 @@ public class TokenServiceTest {
     public void shouldDeleteTokensByUser() {
         when(accessTokenRepository.deleteByUserId("userId")).thenReturn(Completable.complete());
         when(refreshTokenRepository.deleteByUserId("userId")).thenReturn(Completable.complete());
+        when(revocationEpochService.revoke("domain", null, "userId")).thenReturn(Single.just(new RevocationEpoch()));
 
-        TestObserver testObserver = tokenService.deleteByUserId("userId").test();
+        TestObserver testObserver = tokenService.deleteByUserId("domain", "userId").test();
         testObserver.assertComplete();
         testObserver.assertNoErrors();
+
+        verify(revocationEpochService, times(1)).revoke("domain", null, "userId");
     }
 
 }
@@ -21,6 +21,7 @@ import io.gravitee.am.model.common.event.Event;
 import io.gravitee.am.model.ReferenceType;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.UserRepository;
+import io.gravitee.am.repository.oauth2.model.RevocationEpoch;
 import io.gravitee.am.service.exception.*;
 import io.gravitee.am.service.impl.UserServiceImpl;
 import io.gravitee.am.service.model.NewUser;
@@ -58,6 +59,9 @@ public class UserServiceTest {
     @Mock
     private EventService eventService;
 
+    @Mock
+    private RevocationEpochService revocationEpochService;
+
     private final static String DOMAIN = "domain1";
 
     @Test
@@ -350,6 +354,7 @@ public class UserServiceTest {
         when(userRepository.findById("my-user")).thenReturn(Maybe.just(user));
         when(userRepository.delete("my-user")).thenReturn(Completable.complete());
         when(eventService.create(any())).thenReturn(Single.just(new Event()));
+        when(revocationEpochService.revoke(DOMAIN, null, "my-user")).thenReturn(Single.just(new RevocationEpoch()));
 
         TestObserver testObserver = userService.delete("my-user").test();
         testObserver.awaitTerminalEvent();
@@ -359,6 +364,7 @@ public class UserServiceTest {
 
         verify(userRepository, times(1)).delete("my-user");
         verify(eventService, times(1)).create(any());
+        verify(revocationEpochService, times(1)).revoke(DOMAIN, null, "my-user");
     }
 
     @Test
@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password;
+
+import io.gravitee.am.service.authentication.crypto.password.bcrypt.BCryptPasswordEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class PasswordEncoderFactoryTest {
+
+    private static final String PASSWORD = "Password123!";
+    // SHA-256 of PASSWORD
+    private static final String SHA256_HEX = "a109e36947ad56de1dca1cc49f0ef8ac9ad9a7b1aa0df41fb3c4cb73c1ff01ea";
+
+    @Test
+    public void shouldEncodeBCrypt_untagged() {
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.BCRYPT, new PasswordEncoderOptions(4, true));
+
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        Assert.assertTrue(encodedPassword.startsWith("$2a$04$"));
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+        Assert.assertFalse(passwordEncoder.matches("wrong", encodedPassword));
+        Assert.assertFalse(passwordEncoder.upgradeEncoding(encodedPassword));
+    }
+
+    @Test
+    public void shouldUpgradeBCrypt_costChanged() {
+        String encodedPassword = new BCryptPasswordEncoder(5).encode(PASSWORD);
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.BCRYPT, new PasswordEncoderOptions(4, true));
+
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+        Assert.assertTrue(passwordEncoder.upgradeEncoding(encodedPassword));
+    }
+
+    @Test
+    public void shouldMatchBCrypt_2yVariant() {
+        String encodedPassword = "$2y" + new BCryptPasswordEncoder(4).encode(PASSWORD).substring(3);
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.BCRYPT, null);
+
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+    }
+
+    @Test
+    public void shouldEncodePBKDF2_tagged() {
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.PBKDF2, new PasswordEncoderOptions(1000, true));
+
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        Assert.assertTrue(encodedPassword.startsWith("{pbkdf2}1000$"));
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+        Assert.assertFalse(passwordEncoder.matches("wrong", encodedPassword));
+        Assert.assertFalse(passwordEncoder.upgradeEncoding(encodedPassword));
+        Assert.assertTrue(PasswordEncoderFactory.create(PasswordEncoderFactory.PBKDF2, new PasswordEncoderOptions(2000, true)).upgradeEncoding(encodedPassword));
+    }
+
+    @Test
+    public void shouldEncodeSCrypt_tagged() {
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.SCRYPT, new PasswordEncoderOptions(1024, true));
+
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        Assert.assertTrue(encodedPassword.startsWith("{scrypt}1024$"));
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+        Assert.assertFalse(passwordEncoder.matches("wrong", encodedPassword));
+        Assert.assertFalse(passwordEncoder.upgradeEncoding(encodedPassword));
+    }
+
+    @Test
+    public void shouldEncodeArgon2_tagged() {
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.ARGON2, new PasswordEncoderOptions(1, true));
+
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        Assert.assertTrue(encodedPassword.startsWith("{argon2}$argon2id$v=19$"));
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+        Assert.assertFalse(passwordEncoder.matches("wrong", encodedPassword));
+        Assert.assertFalse(passwordEncoder.upgradeEncoding(encodedPassword));
+    }
+
+    @Test
+    public void shouldMatchLegacyDigest_andUpgrade() {
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.BCRYPT, null);
+
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, "{SHA-256}" + SHA256_HEX));
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, "{SHA-256}" + SHA256_HEX.toUpperCase()));
+        Assert.assertFalse(passwordEncoder.matches("wrong", "{SHA-256}" + SHA256_HEX));
+        Assert.assertTrue(passwordEncoder.upgradeEncoding("{SHA-256}" + SHA256_HEX));
+    }
+
+    @Test
+    public void shouldUpgrade_algorithmChanged() {
+        String encodedPassword = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.PBKDF2, new PasswordEncoderOptions(1000, true));
+
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+        Assert.assertTrue(passwordEncoder.upgradeEncoding(encodedPassword));
+    }
+
+    @Test
+    public void shouldNotMatchPlainText_encoderConfigured() {
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.BCRYPT, null);
+
+        Assert.assertFalse(passwordEncoder.matches(PASSWORD, PASSWORD));
+        Assert.assertFalse(passwordEncoder.upgradeEncoding(PASSWORD));
+    }
+
+    @Test
+    public void shouldMatchPlainText_noEncoder_neverUpgrade() {
+        PasswordEncoder passwordEncoder = PasswordEncoderFactory.create(PasswordEncoderFactory.NONE, null);
+        String encodedPassword = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        Assert.assertEquals(PASSWORD, passwordEncoder.encode(PASSWORD));
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, PASSWORD));
+        Assert.assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+        Assert.assertFalse(passwordEncoder.upgradeEncoding(encodedPassword));
+    }
+
+    @Test
+    public void shouldAcceptBCryptRounds_bounds() {
+        Assert.assertNotNull(PasswordEncoderFactory.create(PasswordEncoderFactory.BCRYPT, new PasswordEncoderOptions(4, true)));
+        Assert.assertNotNull(PasswordEncoderFactory.create(PasswordEncoderFactory.BCRYPT, new PasswordEncoderOptions(31, true)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectBCryptRounds_tooLow() {
+        PasswordEncoderFactory.create(PasswordEncoderFactory.BCRYPT, new PasswordEncoderOptions(3, true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectBCryptRounds_tooHigh() {
+        PasswordEncoderFactory.create(PasswordEncoderFactory.BCRYPT, new PasswordEncoderOptions(32, true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSCryptRounds_notPowerOfTwo() {
+        PasswordEncoderFactory.create(PasswordEncoderFactory.SCRYPT, new PasswordEncoderOptions(1000, true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSCryptRounds_one() {
+        PasswordEncoderFactory.create(PasswordEncoderFactory.SCRYPT, new PasswordEncoderOptions(1, true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPBKDF2Rounds_zero() {
+        PasswordEncoderFactory.create(PasswordEncoderFactory.PBKDF2, new PasswordEncoderOptions(0, true));
+    }
+
+    @Test
+    public void shouldIgnoreRounds_noEncoder() {
+        Assert.assertNotNull(PasswordEncoderFactory.create(PasswordEncoderFactory.NONE, new PasswordEncoderOptions(1000, true)));
+    }
+}